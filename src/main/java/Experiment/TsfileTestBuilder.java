@@ -1,5 +1,7 @@
 package Experiment;
 
+import org.apache.tsfile.encoding.advisor.EncodingAdvisor;
+import org.apache.tsfile.encoding.advisor.EncodingTrial;
 import org.apache.tsfile.enums.TSDataType;
 import org.apache.tsfile.file.metadata.enums.CompressionType;
 import org.apache.tsfile.file.metadata.enums.TSEncoding;
@@ -177,6 +179,40 @@ public class TsfileTestBuilder {
             }
         }
 
+        // 额外一行：由 EncodingAdvisor 为每个数据集的列挑选编码与压缩方式
+        String advised = "ADVISED";
+        table.putIfAbsent(advised, new LinkedHashMap<>());
+        table.get(advised).putIfAbsent(advised, new LinkedHashMap<>());
+        for (String input_path : paths) {
+            EncodingTrial best = advise_columns(input_path, 100000).get(1);
+            if (best == null) {
+                continue;
+            }
+            System.out.println(input_path + " -> " + best);
+            TsfileTestBuilder tsfileTestBuilder =
+                    new TsfileTestBuilder(store_path, best.getEncoding(), best.getCompressionType());
+
+            long start_time = System.nanoTime();
+            long total = tsfileTestBuilder.write_csv_stream(input_path, 1); // data_length
+            long end_time = System.nanoTime();
+            double compTimeSec = (end_time - start_time) / 1_000_000_000.0;
+
+            long bytes = Files.size(Paths.get(store_path));
+            double CR = bytes * 8.0 / total;
+            double compSpeed = (total * 8.0) / 1024 / 1024 / compTimeSec; // MB/s
+
+            start_time = System.nanoTime();
+            tsfileTestBuilder.query_all();
+            end_time = System.nanoTime();
+            double queryTimeMs = (end_time - start_time) / 1_000_000.0;
+            double queryLatency = queryTimeMs / total * 1000;
+
+            Map<String, Double> metrics = table.get(advised).get(advised);
+            metrics.put(input_path + "_CR", CR);
+            metrics.put(input_path + "_Comp_speed", compSpeed);
+            metrics.put(input_path + "_query_latency", queryLatency);
+        }
+
 
         try (PrintWriter pw = new PrintWriter(
                 Files.newBufferedWriter(Paths.get("result_swapped.csv")))) {
@@ -206,10 +242,64 @@ public class TsfileTestBuilder {
                     pw.println(sb.toString());
                 }
             }
+
+            // ADVISED 行
+            Map<String, Double> row = table.get(advised).get(advised);
+            StringBuilder sb = new StringBuilder(advised).append(',').append(advised);
+            for (String metric : new String[]{"CR", "Comp_speed", "query_latency"}) {
+                for (String path : paths) {
+                    sb.append(',').append(row.getOrDefault(path + "_" + metric, 0.0));
+                }
+            }
+            pw.println(sb.toString());
         }
         System.out.println("result_swapped.csv");
     }
 
+    /**
+     * 用 EncodingAdvisor 为 csv 的每个数值列挑选编码与压缩方式。
+     * 每列取前 sample_size 个值作为样本，非数值列跳过。
+     *
+     * @return 列号 -> 最优的编码与压缩组合
+     */
+    public static Map<Integer, EncodingTrial> advise_columns(String input_path, int sample_size) throws Exception {
+        TableStreamer table = new TableStreamer(input_path);
+        int colCnt = table.column();
+
+        // 读取样本
+        double[][] samples = new double[colCnt][sample_size];
+        int[] counts = new int[colCnt];
+        for (int row = 0; row < sample_size; row++) {
+            for (int c = 0; c < colCnt; c++) {
+                try {
+                    samples[c][counts[c]] = table.getDouble(c);
+                    counts[c]++;
+                } catch (Exception e) {
+                    // 非数值或空值
+                }
+            }
+            try {
+                table.next();
+            } catch (Exception e) {
+                break;
+            }
+        }
+
+        Map<Integer, EncodingTrial> result = new LinkedHashMap<>();
+        EncodingAdvisor advisor = new EncodingAdvisor(Runtime.getRuntime().availableProcessors());
+        for (int c = 0; c < colCnt; c++) {
+            if (counts[c] == 0) {
+                continue;
+            }
+            // 结果已按压缩后大小排序，第一个即最优
+            List<EncodingTrial> trials = advisor.advise(samples[c], counts[c]);
+            if (!trials.isEmpty()) {
+                result.put(c, trials.get(0));
+            }
+        }
+        return result;
+    }
+
     public TsfileTestBuilder(String store_path, TSEncoding encoding_type, CompressionType compression_type) throws IOException {
         this.store_path = store_path;
         if(encoding_type != null)this.encoding_type = encoding_type;
@@ -296,6 +386,58 @@ public class TsfileTestBuilder {
     }
 
 
+    /**
+     * 与 write_csv 相同，但每一列的编码与压缩方式由 advise_columns 决定。
+     */
+    public long write_csv_advised(String input_path) throws Exception {
+        Map<Integer, EncodingTrial> advice = advise_columns(input_path, 100000);
+        TableStreamer table = new TableStreamer(input_path);
+
+        long total =0;
+        int colCnt = table.column();
+
+        File f = new File(store_path);
+        TsFileWriter tsFileWriter = new TsFileWriter(f);
+        List<IMeasurementSchema> schemaList = new ArrayList<>();
+        for (Map.Entry<Integer, EncodingTrial> entry : advice.entrySet()) {
+            schemaList.add(new MeasurementSchema("val" + entry.getKey(),
+                    TSDataType.DOUBLE,
+                    entry.getValue().getEncoding(),
+                    entry.getValue().getCompressionType()));
+        }
+        tsFileWriter.registerTimeseries(new Path("testpanel1"), schemaList);
+
+        while (true) {
+            try {
+                TSRecord tsRecord = new TSRecord("testpanel1",total);
+
+                for (int c = 0; c < colCnt; c++) {
+                    if (!advice.containsKey(c)) {
+                        continue;
+                    }
+                    double v = 0;
+                    try {
+                        v = table.getDouble(c);
+                    } catch (Exception e) {
+                        continue;
+                    }
+                    total++;
+                    tsRecord.addTuple(DataPoint.getDataPoint(TSDataType.DOUBLE,
+                            "val" + c,
+                            String.valueOf(v)));
+
+                }
+                tsFileWriter.writeRecord(tsRecord);
+                table.next();
+            } catch (Exception e) {
+                break;
+            }
+        }
+
+        tsFileWriter.close();
+        return total;
+    }
+
     public void write(double value) throws Exception {
         File f = new File(store_path);
         TsFileWriter tsFileWriter = new TsFileWriter(f);
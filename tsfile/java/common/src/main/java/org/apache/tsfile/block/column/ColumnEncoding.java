@@ -35,7 +35,11 @@ public enum ColumnEncoding {
   /** All data types. */
   RLE((byte) 4),
   /** All data types. */
-  DICTIONARY((byte) 5);
+  DICTIONARY((byte) 5),
+  /** DOUBLE, FLOAT. */
+  DEXOR((byte) 6),
+  /** INT64, used for the time column. */
+  GORILLA((byte) 7);
 
   private final byte value;
 
@@ -65,6 +69,10 @@ public enum ColumnEncoding {
         return RLE;
       case 5:
         return DICTIONARY;
+      case 6:
+        return DEXOR;
+      case 7:
+        return GORILLA;
       default:
         throw new IllegalArgumentException("Invalid value: " + value);
     }
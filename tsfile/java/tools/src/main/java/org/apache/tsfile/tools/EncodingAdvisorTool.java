@@ -0,0 +1,272 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.tools;
+
+import org.apache.tsfile.encoding.advisor.EncodingAdvisor;
+import org.apache.tsfile.encoding.advisor.EncodingTrial;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.file.metadata.enums.CompressionType;
+
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.CommandLineParser;
+import org.apache.commons.cli.DefaultParser;
+import org.apache.commons.cli.HelpFormatter;
+import org.apache.commons.cli.Options;
+import org.apache.commons.cli.ParseException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Samples the numeric field columns of a csv file described by a schema file, tries every
+ * (encoding, compressor) pair on each of them and reports the trials, the best first. The schema
+ * can be written back with the best pair of each column, which csv2tsfile then writes with.
+ */
+public class EncodingAdvisorTool {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(EncodingAdvisorTool.class);
+
+  private static final int REPORTED_TRIAL_NUM = 5;
+
+  private static String inputFileStr = "";
+  private static String schemaPathStr = "";
+  private static String outputSchemaPathStr = null;
+  private static int sampleRowNum = 10000;
+  private static int threadNum = Runtime.getRuntime().availableProcessors();
+  private static List<CompressionType> compressionTypes = null;
+
+  public static void main(String[] args) {
+    if (!parseCommandLineParams(args)) {
+      return;
+    }
+    try {
+      SchemaParser.Schema schema = SchemaParser.parseSchema(schemaPathStr);
+      EncodingAdvisor advisor = new EncodingAdvisor(threadNum);
+      if (compressionTypes != null) {
+        advisor.setCompressionTypes(compressionTypes);
+      }
+      Map<String, List<EncodingTrial>> trials =
+          advise(schema, new File(inputFileStr), sampleRowNum, advisor);
+      for (Map.Entry<String, List<EncodingTrial>> entry : trials.entrySet()) {
+        System.out.println(entry.getKey() + ":");
+        List<EncodingTrial> columnTrials = entry.getValue();
+        for (int i = 0; i < Math.min(REPORTED_TRIAL_NUM, columnTrials.size()); i++) {
+          System.out.println("  " + columnTrials.get(i));
+        }
+      }
+      if (outputSchemaPathStr != null) {
+        applyBest(schema, trials);
+        SchemaParser.writeSchema(schema, outputSchemaPathStr);
+        System.out.println("The annotated schema is written to " + outputSchemaPathStr);
+      }
+    } catch (Exception e) {
+      LOGGER.error("Failed to advise on " + inputFileStr, e);
+    }
+  }
+
+  /**
+   * Advise on the numeric field columns of a csv file, i.e. the columns that are neither the time
+   * column, an id column nor skipped.
+   *
+   * @param sampleRowNum the maximum number of rows read from the beginning of the file
+   * @return the trials of each column, the best first, in the order of the columns
+   */
+  public static Map<String, List<EncodingTrial>> advise(
+      SchemaParser.Schema schema, File csvFile, int sampleRowNum, EncodingAdvisor advisor)
+      throws IOException {
+    List<Integer> columnIndexes = new ArrayList<>();
+    for (int i = 0; i < schema.csvColumns.size(); i++) {
+      SchemaParser.Column column = schema.csvColumns.get(i);
+      if (isAdvisable(schema, column)) {
+        columnIndexes.add(i);
+      }
+    }
+    List<List<String>> columnValues = new ArrayList<>(columnIndexes.size());
+    for (int i = 0; i < columnIndexes.size(); i++) {
+      columnValues.add(new ArrayList<>());
+    }
+    try (BufferedReader reader =
+        new BufferedReader(
+            new InputStreamReader(
+                Files.newInputStream(csvFile.toPath()), StandardCharsets.UTF_8))) {
+      if (schema.hasHeader) {
+        reader.readLine();
+      }
+      String line;
+      int rowNum = 0;
+      while (rowNum < sampleRowNum && (line = reader.readLine()) != null) {
+        String[] fields = line.split(schema.separator);
+        if (fields.length != schema.csvColumns.size()) {
+          continue;
+        }
+        for (int i = 0; i < columnIndexes.size(); i++) {
+          String value = fields[columnIndexes.get(i)].trim();
+          if (!value.isEmpty() && !value.equals(schema.nullFormat)) {
+            columnValues.get(i).add(value);
+          }
+        }
+        rowNum++;
+      }
+    }
+
+    Map<String, List<EncodingTrial>> trials = new LinkedHashMap<>();
+    for (int i = 0; i < columnIndexes.size(); i++) {
+      SchemaParser.Column column = schema.csvColumns.get(columnIndexes.get(i));
+      trials.put(
+          column.name, advise(advisor, TSDataType.valueOf(column.type), columnValues.get(i)));
+    }
+    return trials;
+  }
+
+  /** Set the encoding and compression of each column to the best of its trials. */
+  public static void applyBest(
+      SchemaParser.Schema schema, Map<String, List<EncodingTrial>> trials) {
+    for (SchemaParser.Column column : schema.csvColumns) {
+      List<EncodingTrial> columnTrials = trials.get(column.name);
+      if (columnTrials != null && !columnTrials.isEmpty()) {
+        column.encoding = columnTrials.get(0).getEncoding().name();
+        column.compression = columnTrials.get(0).getCompressionType().name();
+      }
+    }
+  }
+
+  private static boolean isAdvisable(SchemaParser.Schema schema, SchemaParser.Column column) {
+    if (column.isSkip || column.name.equals(schema.timeColumn)) {
+      return false;
+    }
+    for (SchemaParser.IDColumns idColumn : schema.idColumns) {
+      if (idColumn.name.equals(column.name)) {
+        return false;
+      }
+    }
+    switch (TSDataType.valueOf(column.type)) {
+      case INT32:
+      case INT64:
+      case FLOAT:
+      case DOUBLE:
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  private static List<EncodingTrial> advise(
+      EncodingAdvisor advisor, TSDataType dataType, List<String> values) {
+    int count = values.size();
+    switch (dataType) {
+      case INT32:
+        int[] ints = new int[count];
+        for (int i = 0; i < count; i++) {
+          ints[i] = Integer.parseInt(values.get(i));
+        }
+        return advisor.advise(ints, count);
+      case INT64:
+        long[] longs = new long[count];
+        for (int i = 0; i < count; i++) {
+          longs[i] = Long.parseLong(values.get(i));
+        }
+        return advisor.advise(longs, count);
+      case FLOAT:
+        float[] floats = new float[count];
+        for (int i = 0; i < count; i++) {
+          floats[i] = Float.parseFloat(values.get(i));
+        }
+        return advisor.advise(floats, count);
+      case DOUBLE:
+        double[] doubles = new double[count];
+        for (int i = 0; i < count; i++) {
+          doubles[i] = Double.parseDouble(values.get(i));
+        }
+        return advisor.advise(doubles, count);
+      default:
+        throw new IllegalArgumentException("Unsupported data type: " + dataType);
+    }
+  }
+
+  private static boolean parseCommandLineParams(String[] args) {
+    Options options = new Options();
+    options.addOption("s", "source", true, "Input csv file");
+    options.addOption("schema", "schema", true, "Schema file path");
+    options.addOption("o", "output", true, "Output schema file with the advised encodings");
+    options.addOption("n", "sample_num", true, "Number of rows sampled, default value 10000");
+    options.addOption("tn", "thread_num", true, "Thread number");
+    options.addOption(
+        "c", "compressors", true, "Compressors tried, separated by commas, all by default");
+    options.addOption("h", "help", false, "Show help");
+
+    try {
+      CommandLineParser parser = new DefaultParser();
+      CommandLine cmd = parser.parse(options, args);
+
+      if (cmd.hasOption("h")) {
+        printHelp(options);
+        return false;
+      }
+      if (cmd.hasOption("s")) {
+        inputFileStr = cmd.getOptionValue("s");
+      }
+      if (cmd.hasOption("schema")) {
+        schemaPathStr = cmd.getOptionValue("schema");
+      }
+      if (cmd.hasOption("o")) {
+        outputSchemaPathStr = cmd.getOptionValue("o");
+      }
+      if (cmd.hasOption("n")) {
+        sampleRowNum = Integer.parseInt(cmd.getOptionValue("n"));
+      }
+      if (cmd.hasOption("tn")) {
+        threadNum = Integer.parseInt(cmd.getOptionValue("tn"));
+      }
+      if (cmd.hasOption("c")) {
+        compressionTypes = new ArrayList<>();
+        for (String compressor : cmd.getOptionValue("c").split(",")) {
+          compressionTypes.add(CompressionType.valueOf(compressor.trim().toUpperCase()));
+        }
+      }
+    } catch (ParseException | IllegalArgumentException e) {
+      LOGGER.error("Error parsing command line options", e);
+      return false;
+    }
+    if (!new File(inputFileStr).isFile()) {
+      LOGGER.error("Input csv file does not exist: " + inputFileStr);
+      return false;
+    }
+    if (!new File(schemaPathStr).isFile()) {
+      LOGGER.error("Schema file does not exist: " + schemaPathStr);
+      return false;
+    }
+    return true;
+  }
+
+  private static void printHelp(Options options) {
+    HelpFormatter formatter = new HelpFormatter();
+    formatter.printHelp("encoding-advisor.sh/encoding-advisor.bat", options);
+  }
+}
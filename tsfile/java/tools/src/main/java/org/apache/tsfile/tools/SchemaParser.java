@@ -18,8 +18,13 @@
  */
 package org.apache.tsfile.tools;
 
+import org.apache.tsfile.file.metadata.enums.CompressionType;
+import org.apache.tsfile.file.metadata.enums.TSEncoding;
+
 import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.FileReader;
+import java.io.FileWriter;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
@@ -69,6 +74,9 @@ public class SchemaParser {
   public static class Column {
     String name;
     String type;
+    // null for the default PLAIN and UNCOMPRESSED
+    String encoding;
+    String compression;
 
     boolean isSkip;
 
@@ -78,6 +86,12 @@ public class SchemaParser {
       this.type = type;
     }
 
+    public Column(String name, String type, String encoding, String compression) {
+      this(name, type);
+      this.encoding = encoding;
+      this.compression = compression;
+    }
+
     public Column(String name) {
       this.name = name;
       this.isSkip = true;
@@ -92,6 +106,12 @@ public class SchemaParser {
           + ", type='"
           + type
           + '\''
+          + ", encoding='"
+          + encoding
+          + '\''
+          + ", compression='"
+          + compression
+          + '\''
           + ", isSkip="
           + isSkip
           + '}';
@@ -228,14 +248,18 @@ public class SchemaParser {
     String columnName = parts[0].trim();
 
     if (parts.length == 2) {
-      String dataType = parts[1].trim();
-      if (dataType.endsWith(",") || dataType.endsWith(";")) {
-        dataType = dataType.substring(0, dataType.length() - 1);
-      }
+      String dataType = trimSeparator(parts[1].trim());
       if (columnName.equals(schema.timeColumn)) {
         schema.timeColumnIndex = timeIndex;
       }
       schema.csvColumns.add(new Column(columnName, dataType));
+    } else if (parts.length == 4) {
+      // name, data type, encoding and compression
+      if (columnName.equals(schema.timeColumn)) {
+        schema.timeColumnIndex = timeIndex;
+      }
+      schema.csvColumns.add(
+          new Column(columnName, parts[1].trim(), parts[2].trim(), trimSeparator(parts[3].trim())));
     } else if (parts.length == 1) {
       if (columnName.endsWith(",") || columnName.endsWith(";")) {
         columnName = columnName.substring(0, columnName.length() - 1);
@@ -246,6 +270,13 @@ public class SchemaParser {
     }
   }
 
+  private static String trimSeparator(String part) {
+    if (part.endsWith(",") || part.endsWith(";")) {
+      return part.substring(0, part.length() - 1);
+    }
+    return part;
+  }
+
   private static void validateParams(SchemaParser.Schema schema) {
     if (!schema.timePrecision.equals("us")
         && !schema.timePrecision.equals("ms")
@@ -278,5 +309,68 @@ public class SchemaParser {
             "The value " + idColumn.name + " of id_columns is not in csv_columns");
       }
     }
+    for (Column column : schema.csvColumns) {
+      if (column.encoding == null) {
+        continue;
+      }
+      try {
+        TSEncoding.valueOf(column.encoding);
+        CompressionType.valueOf(column.compression);
+      } catch (IllegalArgumentException e) {
+        throw new IllegalArgumentException(
+            "The encoding or compression of " + column.name + " in csv_columns is incorrect");
+      }
+    }
+  }
+
+  /**
+   * Write the schema in the format read by {@link #parseSchema}, e.g. after the encodings and
+   * compressions of the columns have been chosen.
+   */
+  public static void writeSchema(Schema schema, String filePath) throws IOException {
+    try (BufferedWriter writer = new BufferedWriter(new FileWriter(filePath))) {
+      writer.write("table_name=" + schema.tableName);
+      writer.newLine();
+      writer.write("time_precision=" + schema.timePrecision);
+      writer.newLine();
+      writer.write("has_header=" + schema.hasHeader);
+      writer.newLine();
+      writer.write("separator=" + (schema.separator.equals("\t") ? "tab" : schema.separator));
+      writer.newLine();
+      if (schema.nullFormat != null) {
+        writer.write("null_format=" + schema.nullFormat);
+        writer.newLine();
+      }
+      writer.write("time_column=" + schema.timeColumn);
+      writer.newLine();
+      writer.newLine();
+      writer.write("id_columns");
+      writer.newLine();
+      for (IDColumns idColumn : schema.idColumns) {
+        writer.write(
+            idColumn.isDefault
+                ? idColumn.name + " DEFAULT " + idColumn.defaultValue
+                : idColumn.name);
+        writer.newLine();
+      }
+      writer.newLine();
+      writer.write("csv_columns");
+      writer.newLine();
+      for (int i = 0; i < schema.csvColumns.size(); i++) {
+        Column column = schema.csvColumns.get(i);
+        if (column.isSkip) {
+          writer.write(column.name);
+        } else if (column.encoding == null) {
+          writer.write(column.name + " " + column.type);
+        } else {
+          writer.write(
+              column.name + " " + column.type + " " + column.encoding + " " + column.compression);
+        }
+        if (i < schema.csvColumns.size() - 1) {
+          writer.write(",");
+        }
+        writer.newLine();
+      }
+    }
   }
 }
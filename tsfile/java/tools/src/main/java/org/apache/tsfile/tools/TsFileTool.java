@@ -138,8 +138,10 @@ public class TsFileTool {
           new MeasurementSchema(
               column.name,
               TSDataType.valueOf(column.type),
-              TSEncoding.PLAIN,
-              CompressionType.UNCOMPRESSED));
+              column.encoding == null ? TSEncoding.PLAIN : TSEncoding.valueOf(column.encoding),
+              column.compression == null
+                  ? CompressionType.UNCOMPRESSED
+                  : CompressionType.valueOf(column.compression)));
       columnCategories.add(ColumnCategory.FIELD);
     }
     return new TableSchema(tableName, measurementSchemas, columnCategories);
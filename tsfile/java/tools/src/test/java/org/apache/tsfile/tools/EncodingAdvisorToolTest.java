@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.tools;
+
+import org.apache.tsfile.encoding.advisor.EncodingAdvisor;
+import org.apache.tsfile.encoding.advisor.EncodingTrial;
+import org.apache.tsfile.file.metadata.enums.CompressionType;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class EncodingAdvisorToolTest {
+  private final String testDir = "target" + File.separator + "advisorTest";
+  private final String csvFile = testDir + File.separator + "data.csv";
+  private final String schemaFile = testDir + File.separator + "schemaFile.txt";
+  private final String outputSchemaFile = testDir + File.separator + "advisedSchemaFile.txt";
+
+  @Before
+  public void setUp() throws IOException {
+    new File(testDir).mkdirs();
+    try (BufferedWriter writer = new BufferedWriter(new FileWriter(schemaFile))) {
+      writer.write("table_name=root.db1");
+      writer.newLine();
+      writer.write("time_precision=ms");
+      writer.newLine();
+      writer.write("has_header=true");
+      writer.newLine();
+      writer.write("separator=,");
+      writer.newLine();
+      writer.write("null_format=\\N");
+      writer.newLine();
+      writer.write("time_column=time");
+      writer.newLine();
+      writer.write("id_columns");
+      writer.newLine();
+      writer.write("tmp1");
+      writer.newLine();
+      writer.write("csv_columns");
+      writer.newLine();
+      writer.write("time INT64,");
+      writer.newLine();
+      writer.write("tmp1 TEXT,");
+      writer.newLine();
+      writer.write("tmp2 DOUBLE,");
+      writer.newLine();
+      writer.write("SKIP,");
+      writer.newLine();
+      writer.write("tmp4 INT32");
+    }
+    try (BufferedWriter writer = new BufferedWriter(new FileWriter(csvFile))) {
+      writer.write("time,tmp1,tmp2,tmp3,tmp4");
+      writer.newLine();
+      for (int i = 0; i < 3000; i++) {
+        String tmp2 = i % 10 == 0 ? "\\N" : String.valueOf(20 + (i % 300) / 100.0);
+        writer.write((1000L * i) + ",s1," + tmp2 + ",x," + (i % 7));
+        writer.newLine();
+      }
+    }
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    FileUtils.deleteDirectory(new File(testDir));
+  }
+
+  @Test
+  public void testAdvise() throws IOException {
+    SchemaParser.Schema schema = SchemaParser.parseSchema(schemaFile);
+    EncodingAdvisor advisor = new EncodingAdvisor(2);
+    advisor.setCompressionTypes(Arrays.asList(CompressionType.UNCOMPRESSED, CompressionType.LZ4));
+    advisor.setRounds(1);
+    Map<String, List<EncodingTrial>> trials =
+        EncodingAdvisorTool.advise(schema, new File(csvFile), 2000, advisor);
+    // the time, id and skipped columns are left out
+    assertEquals(Arrays.asList("tmp2", "tmp4"), Arrays.asList(trials.keySet().toArray()));
+    assertEquals(1800, trials.get("tmp2").get(0).getValueCount());
+    assertEquals(2000, trials.get("tmp4").get(0).getValueCount());
+
+    EncodingAdvisorTool.applyBest(schema, trials);
+    SchemaParser.writeSchema(schema, outputSchemaFile);
+    SchemaParser.Schema advised = SchemaParser.parseSchema(outputSchemaFile);
+    assertEquals(schema.toString(), advised.toString());
+    SchemaParser.Column tmp2 = advised.csvColumns.get(2);
+    assertEquals(trials.get("tmp2").get(0).getEncoding().name(), tmp2.encoding);
+    assertEquals(trials.get("tmp2").get(0).getCompressionType().name(), tmp2.compression);
+    assertNull(advised.csvColumns.get(0).encoding);
+    assertTrue(advised.csvColumns.get(3).isSkip);
+    assertEquals(0, advised.timeColumnIndex);
+  }
+
+  @Test
+  public void testWrongEncodingInSchema() throws IOException {
+    try (BufferedWriter writer = new BufferedWriter(new FileWriter(schemaFile))) {
+      writer.write("table_name=root.db1");
+      writer.newLine();
+      writer.write("time_column=time");
+      writer.newLine();
+      writer.write("id_columns");
+      writer.newLine();
+      writer.write("tmp1");
+      writer.newLine();
+      writer.write("csv_columns");
+      writer.newLine();
+      writer.write("time INT64,");
+      writer.newLine();
+      writer.write("tmp1 TEXT,");
+      writer.newLine();
+      writer.write("tmp2 DOUBLE GORILA LZ4");
+    }
+    try {
+      SchemaParser.parseSchema(schemaFile);
+      fail("the wrong encoding is accepted");
+    } catch (IllegalArgumentException e) {
+      assertTrue(e.getMessage().contains("tmp2"));
+    }
+  }
+}
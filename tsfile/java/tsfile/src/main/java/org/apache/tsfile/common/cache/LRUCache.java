@@ -20,14 +20,24 @@
 package org.apache.tsfile.common.cache;
 
 import java.io.IOException;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
 
-/** This class is not thread safe. */
+/**
+ * An LRU cache that loads missing values by {@link #loadObjectByKey}. The loads run outside the
+ * lock of the cache, so values of different keys are loaded concurrently, while concurrent gets of
+ * the same key wait for one load.
+ */
 public abstract class LRUCache<K, T> implements Cache<K, T> {
 
   protected Map<K, T> cache;
 
+  /** the loads in progress, guarded by this */
+  private final Map<K, FutureTask<T>> loadingTasks = new HashMap<>();
+
   protected LRUCache(int cacheSize) {
     this.cache =
         new LinkedHashMap<K, T>(cacheSize, 0.75f, true) {
@@ -39,19 +49,57 @@ public abstract class LRUCache<K, T> implements Cache<K, T> {
   }
 
   @Override
-  public synchronized T get(K key) throws IOException {
-    if (cache.containsKey(key)) {
-      return cache.get(key);
-    } else {
-      T value = loadObjectByKey(key);
+  public T get(K key) throws IOException {
+    FutureTask<T> loadingTask;
+    boolean loadedByThisThread = false;
+    synchronized (this) {
+      T value = cache.get(key);
       if (value != null) {
+        return value;
+      }
+      loadingTask = loadingTasks.get(key);
+      if (loadingTask == null) {
+        loadingTask = new FutureTask<>(() -> load(key));
+        loadingTasks.put(key, loadingTask);
+        loadedByThisThread = true;
+      }
+    }
+    if (loadedByThisThread) {
+      try {
+        loadingTask.run();
+      } finally {
+        synchronized (this) {
+          loadingTasks.remove(key);
+        }
+      }
+    }
+    try {
+      return loadingTask.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while loading " + key, e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new IOException("Failed to load " + key, e.getCause());
+    }
+  }
+
+  private T load(K key) throws IOException {
+    T value = loadObjectByKey(key);
+    if (value != null) {
+      synchronized (this) {
         cache.put(key, value);
       }
-      return value;
     }
+    return value;
   }
 
-  public boolean containsKey(K key) {
+  public synchronized boolean containsKey(K key) {
     return cache.containsKey(key);
   }
 
@@ -0,0 +1,198 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.common.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * A thread safe LRU cache bounded by the total size in bytes of its values. The keys are spread
+ * over independently locked segments, each evicting its least recently used values when it holds
+ * more than its share of the capacity, so concurrent lookups of different keys rarely contend.
+ */
+public class SizeBoundedLRUCache<K, V> {
+
+  private static final int MAX_SEGMENT_COUNT = 16;
+
+  // a segment should hold a few of the largest values, small caches are not segmented
+  private static final long MIN_SEGMENT_CAPACITY_IN_BYTES = 4L * 1024 * 1024;
+
+  private final Segment<K, V>[] segments;
+
+  public SizeBoundedLRUCache(long capacityInBytes) {
+    this(capacityInBytes, getSegmentCount(capacityInBytes));
+  }
+
+  /**
+   * @param evictionListener told the key of each value evicted to make room for another, under the
+   *     lock of its segment
+   */
+  public SizeBoundedLRUCache(long capacityInBytes, Consumer<? super K> evictionListener) {
+    this(capacityInBytes, getSegmentCount(capacityInBytes), evictionListener);
+  }
+
+  /**
+   * @param segmentCount a power of two
+   */
+  public SizeBoundedLRUCache(long capacityInBytes, int segmentCount) {
+    this(capacityInBytes, segmentCount, key -> {});
+  }
+
+  @SuppressWarnings("unchecked")
+  private SizeBoundedLRUCache(
+      long capacityInBytes, int segmentCount, Consumer<? super K> evictionListener) {
+    if (segmentCount <= 0 || Integer.bitCount(segmentCount) != 1) {
+      throw new IllegalArgumentException("segmentCount should be a power of two: " + segmentCount);
+    }
+    segments = new Segment[segmentCount];
+    for (int i = 0; i < segmentCount; i++) {
+      segments[i] = new Segment<>(capacityInBytes / segmentCount, evictionListener);
+    }
+  }
+
+  private static int getSegmentCount(long capacityInBytes) {
+    long segmentCount =
+        Math.max(1, Math.min(MAX_SEGMENT_COUNT, capacityInBytes / MIN_SEGMENT_CAPACITY_IN_BYTES));
+    return Integer.highestOneBit((int) segmentCount);
+  }
+
+  private Segment<K, V> segmentOf(K key) {
+    int hash = key.hashCode();
+    return segments[(hash ^ (hash >>> 16)) & (segments.length - 1)];
+  }
+
+  /**
+   * @return the cached value, or null if it is absent
+   */
+  public V get(K key) {
+    return segmentOf(key).get(key);
+  }
+
+  /**
+   * Cache a value, a value larger than the share of a segment is not cached.
+   *
+   * @param sizeInBytes the memory taken by the value
+   * @return false if the value is too large to be cached
+   */
+  public boolean put(K key, V value, long sizeInBytes) {
+    return segmentOf(key).put(key, value, sizeInBytes);
+  }
+
+  public void remove(K key) {
+    segmentOf(key).remove(key);
+  }
+
+  /** Remove the values whose keys match the filter. */
+  public void removeIf(Predicate<? super K> filter) {
+    for (Segment<K, V> segment : segments) {
+      segment.removeIf(filter);
+    }
+  }
+
+  public void clear() {
+    for (Segment<K, V> segment : segments) {
+      segment.clear();
+    }
+  }
+
+  /** The total size of the cached values in bytes. */
+  public long getSizeInBytes() {
+    long sizeInBytes = 0;
+    for (Segment<K, V> segment : segments) {
+      sizeInBytes += segment.getSizeInBytes();
+    }
+    return sizeInBytes;
+  }
+
+  private static class Segment<K, V> {
+
+    private final long capacityInBytes;
+    private final Consumer<? super K> evictionListener;
+    private final LinkedHashMap<K, SizedValue<V>> values = new LinkedHashMap<>(16, 0.75f, true);
+    private long sizeInBytes;
+
+    private Segment(long capacityInBytes, Consumer<? super K> evictionListener) {
+      this.capacityInBytes = capacityInBytes;
+      this.evictionListener = evictionListener;
+    }
+
+    private synchronized V get(K key) {
+      SizedValue<V> sizedValue = values.get(key);
+      return sizedValue == null ? null : sizedValue.value;
+    }
+
+    private synchronized boolean put(K key, V value, long valueSizeInBytes) {
+      if (valueSizeInBytes > capacityInBytes) {
+        return false;
+      }
+      SizedValue<V> previous = values.put(key, new SizedValue<>(value, valueSizeInBytes));
+      sizeInBytes += valueSizeInBytes - (previous == null ? 0 : previous.sizeInBytes);
+      Iterator<Map.Entry<K, SizedValue<V>>> iterator = values.entrySet().iterator();
+      while (sizeInBytes > capacityInBytes) {
+        Map.Entry<K, SizedValue<V>> eldest = iterator.next();
+        sizeInBytes -= eldest.getValue().sizeInBytes;
+        iterator.remove();
+        evictionListener.accept(eldest.getKey());
+      }
+      return true;
+    }
+
+    private synchronized void remove(K key) {
+      SizedValue<V> removed = values.remove(key);
+      if (removed != null) {
+        sizeInBytes -= removed.sizeInBytes;
+      }
+    }
+
+    private synchronized void removeIf(Predicate<? super K> filter) {
+      Iterator<Map.Entry<K, SizedValue<V>>> iterator = values.entrySet().iterator();
+      while (iterator.hasNext()) {
+        Map.Entry<K, SizedValue<V>> entry = iterator.next();
+        if (filter.test(entry.getKey())) {
+          sizeInBytes -= entry.getValue().sizeInBytes;
+          iterator.remove();
+        }
+      }
+    }
+
+    private synchronized void clear() {
+      values.clear();
+      sizeInBytes = 0;
+    }
+
+    private synchronized long getSizeInBytes() {
+      return sizeInBytes;
+    }
+  }
+
+  private static class SizedValue<V> {
+
+    private final V value;
+    private final long sizeInBytes;
+
+    private SizedValue(V value, long sizeInBytes) {
+      this.value = value;
+      this.sizeInBytes = sizeInBytes;
+    }
+  }
+}
@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.common.concurrent;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An {@link Executor} that runs tasks on a shared delegate but never has more than {@code
+ * maxConcurrency} of its own tasks running at the same time. The remaining tasks wait in FIFO order
+ * without occupying a thread of the delegate. One instance is created per query so that a wide
+ * query cannot starve the others sharing the same pool.
+ */
+public class BoundedExecutor implements Executor {
+
+  private final Executor delegate;
+  private final int maxConcurrency;
+  private final Queue<Runnable> pendingTasks = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger runningTasks = new AtomicInteger();
+
+  public BoundedExecutor(Executor delegate, int maxConcurrency) {
+    if (maxConcurrency <= 0) {
+      throw new IllegalArgumentException("maxConcurrency should be positive: " + maxConcurrency);
+    }
+    this.delegate = delegate;
+    this.maxConcurrency = maxConcurrency;
+  }
+
+  @Override
+  public void execute(Runnable command) {
+    pendingTasks.add(command);
+    schedule();
+  }
+
+  private void schedule() {
+    while (!pendingTasks.isEmpty()) {
+      int running = runningTasks.get();
+      if (running >= maxConcurrency) {
+        // a running task will schedule the pending ones when it finishes
+        return;
+      }
+      if (!runningTasks.compareAndSet(running, running + 1)) {
+        continue;
+      }
+      Runnable task = pendingTasks.poll();
+      if (task == null) {
+        runningTasks.decrementAndGet();
+        continue;
+      }
+      try {
+        delegate.execute(
+            () -> {
+              try {
+                task.run();
+              } finally {
+                runningTasks.decrementAndGet();
+                schedule();
+              }
+            });
+      } catch (RejectedExecutionException e) {
+        runningTasks.decrementAndGet();
+        throw e;
+      }
+    }
+  }
+
+  public int getMaxConcurrency() {
+    return maxConcurrency;
+  }
+}
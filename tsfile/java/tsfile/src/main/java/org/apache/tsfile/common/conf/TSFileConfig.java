@@ -93,6 +93,12 @@ public class TSFileConfig implements Serializable {
   /** The maximum degree of a metadataIndex node, default value is 256. */
   private int maxDegreeOfIndexNode = 256;
 
+  /**
+   * Whether metadata index nodes are written in the compact, prefix compressed format that is
+   * binary searched in place. Readers of older versions cannot read such files.
+   */
+  private boolean compactMetadataIndexEnabled = false;
+
   /** Data type for input timestamp, TsFile supports INT64. */
   private TSDataType timeSeriesDataType = TSDataType.INT64;
 
@@ -102,6 +108,12 @@ public class TSFileConfig implements Serializable {
   /** Floating-point precision. */
   private int floatPrecision = 2;
 
+  /**
+   * The number of values of a page the AUTO encoding tries each candidate encoder on before
+   * encoding the whole page with the smallest, default value is 1024.
+   */
+  private int autoEncodingSampleSize = 1024;
+
   /**
    * Encoder of time column, TsFile supports TS_2DIFF, PLAIN and RLE(run-length encoding) Default
    * value is TS_2DIFF.
@@ -231,6 +243,12 @@ public class TSFileConfig implements Serializable {
   /** The acceptable error rate of bloom filter. */
   private double bloomFilterErrorRate = 0.05;
 
+  /**
+   * The bloom filter written, 1 for the legacy one and 2 for the cache-line blocked one that also
+   * keeps devices. Readers of older versions cannot read the latter.
+   */
+  private int bloomFilterVersion = 1;
+
   /** The amount of data iterate each time. */
   private int batchSize = 1000;
 
@@ -242,6 +260,97 @@ public class TSFileConfig implements Serializable {
 
   private int patternMatchingThreshold = 1000000;
 
+  /**
+   * The maximum number of series a single query may read and decode concurrently, default value is
+   * 1, which means series are read one after another on the caller thread.
+   */
+  private int queryParallelism = 1;
+
+  /** The number of threads shared by all parallel queries, default value is the number of cores. */
+  private int queryThreadPoolSize = Runtime.getRuntime().availableProcessors();
+
+  /**
+   * The number of threads shared by blocking reads issued in the background, e.g., chunk
+   * read-ahead, default value is twice the number of cores.
+   */
+  private int ioThreadPoolSize = 2 * Runtime.getRuntime().availableProcessors();
+
+  /**
+   * The number of reads issued ahead of the consumer in a sequential chunk scan. The chunks read
+   * ahead bypass the chunk cache. Default value is 0, which means chunks are loaded one by one
+   * through the chunk loader when they are consumed.
+   */
+  private int chunkReadAheadNum = 0;
+
+  /** The maximum size of one I/O that merges adjacent chunks, default value is 4MB. */
+  private int maxCoalescedReadSizeInByte = 4 * 1024 * 1024;
+
+  /**
+   * The number of bytes read at once from the end of a file when a reader pool opens it, covering
+   * the file metadata of most files, default value is 64KB.
+   */
+  private int tailReadSizeInByte = 64 * 1024;
+
+  /**
+   * The memory each TsFileSequenceReader may take for deserialized metadata index nodes and
+   * timeseries metadata, default value is 0, which disables the cache. Readers of a {@link
+   * org.apache.tsfile.read.TsFileReaderPool} share the cache of the pool instead.
+   */
+  private long metadataCacheSizeInByte = 0;
+
+  /**
+   * The memory the readers of a reader pool may take together for deserialized metadata index nodes
+   * and timeseries metadata, replacing the caches of the single readers, default value is 64MB. 0
+   * disables the cache.
+   */
+  private long readerPoolMetadataCacheSizeInByte = 64 * 1024 * 1024;
+
+  /**
+   * Whether local TsFiles are read through memory-mapped segments instead of FileChannel reads.
+   * Only suitable for sealed files that are not truncated while being read, default value is false.
+   */
+  private boolean useMmapForLocalRead = false;
+
+  /** The size of one memory-mapped segment of a local TsFile, default value is 1GB. */
+  private int mmapSegmentSizeInByte = 1024 * 1024 * 1024;
+
+  /**
+   * Whether compressed pages are uncompressed into pooled direct buffers instead of a new array per
+   * page when the codec supports it, default value is false. A pooled buffer is handed back as soon
+   * as its page is decoded, so a PageReader must then be read only once.
+   */
+  private boolean enableDirectUncompress = false;
+
+  /**
+   * The maximum number of chunk groups a single flush may seal, encode and compress concurrently,
+   * and the maximum number of full pages a non-aligned chunk writer may have compressed in the
+   * background while it goes on writing. Default value is 1, which means all pages are sealed on
+   * the caller thread.
+   */
+  private int flushParallelism = 1;
+
+  /** The number of threads shared by all parallel flushes, default value is the number of cores. */
+  private int flushThreadPoolSize = Runtime.getRuntime().availableProcessors();
+
+  /**
+   * The memory the idle segments of sealed pages and written chunks may take to be reused by the
+   * writers of other series, default value is 0, which disables the reuse.
+   */
+  private long pageBufferPoolSizeInByte = 0;
+
+  /**
+   * Whether the writer stores the last point of every series in a section after the metadata index,
+   * which lets TsFileLastReader serve the latest values from one read, default value is true.
+   */
+  private boolean lastPointSectionEnabled = true;
+
+  /**
+   * Whether TsBlockSerde may ship the time column with GORILLA and double and float columns with
+   * DEXOR when that takes fewer bytes than the raw values, default value is false, as nodes of
+   * former versions cannot read these column encodings.
+   */
+  private boolean tsBlockCompactEncodingEnabled = false;
+
   private String hdfsFile = "org.apache.iotdb.hadoop.fileSystem.HDFSFile";
 
   private String hdfsTsFileInput = "org.apache.iotdb.hadoop.fileSystem.HDFSInput";
@@ -323,6 +432,14 @@ public class TSFileConfig implements Serializable {
     this.maxDegreeOfIndexNode = maxDegreeOfIndexNode;
   }
 
+  public boolean isCompactMetadataIndexEnabled() {
+    return compactMetadataIndexEnabled;
+  }
+
+  public void setCompactMetadataIndexEnabled(boolean compactMetadataIndexEnabled) {
+    this.compactMetadataIndexEnabled = compactMetadataIndexEnabled;
+  }
+
   public TSDataType getTimeSeriesDataType() {
     return timeSeriesDataType;
   }
@@ -351,6 +468,14 @@ public class TSFileConfig implements Serializable {
     this.floatPrecision = floatPrecision;
   }
 
+  public int getAutoEncodingSampleSize() {
+    return autoEncodingSampleSize;
+  }
+
+  public void setAutoEncodingSampleSize(int autoEncodingSampleSize) {
+    this.autoEncodingSampleSize = autoEncodingSampleSize;
+  }
+
   public String getTimeEncoder() {
     return timeEncoding;
   }
@@ -584,6 +709,14 @@ public class TSFileConfig implements Serializable {
     this.bloomFilterErrorRate = bloomFilterErrorRate;
   }
 
+  public int getBloomFilterVersion() {
+    return bloomFilterVersion;
+  }
+
+  public void setBloomFilterVersion(int bloomFilterVersion) {
+    this.bloomFilterVersion = bloomFilterVersion;
+  }
+
   public FSType[] getTSFileStorageFs() {
     return this.tSFileStorageFs;
   }
@@ -689,6 +822,134 @@ public class TSFileConfig implements Serializable {
     this.patternMatchingThreshold = patternMatchingThreshold;
   }
 
+  public int getQueryParallelism() {
+    return queryParallelism;
+  }
+
+  public void setQueryParallelism(int queryParallelism) {
+    this.queryParallelism = queryParallelism;
+  }
+
+  public int getQueryThreadPoolSize() {
+    return queryThreadPoolSize;
+  }
+
+  public void setQueryThreadPoolSize(int queryThreadPoolSize) {
+    this.queryThreadPoolSize = queryThreadPoolSize;
+  }
+
+  public int getIoThreadPoolSize() {
+    return ioThreadPoolSize;
+  }
+
+  public void setIoThreadPoolSize(int ioThreadPoolSize) {
+    this.ioThreadPoolSize = ioThreadPoolSize;
+  }
+
+  public int getChunkReadAheadNum() {
+    return chunkReadAheadNum;
+  }
+
+  public void setChunkReadAheadNum(int chunkReadAheadNum) {
+    this.chunkReadAheadNum = chunkReadAheadNum;
+  }
+
+  public int getTailReadSizeInByte() {
+    return tailReadSizeInByte;
+  }
+
+  public void setTailReadSizeInByte(int tailReadSizeInByte) {
+    this.tailReadSizeInByte = tailReadSizeInByte;
+  }
+
+  public long getMetadataCacheSizeInByte() {
+    return metadataCacheSizeInByte;
+  }
+
+  public void setMetadataCacheSizeInByte(long metadataCacheSizeInByte) {
+    this.metadataCacheSizeInByte = metadataCacheSizeInByte;
+  }
+
+  public long getReaderPoolMetadataCacheSizeInByte() {
+    return readerPoolMetadataCacheSizeInByte;
+  }
+
+  public void setReaderPoolMetadataCacheSizeInByte(long readerPoolMetadataCacheSizeInByte) {
+    this.readerPoolMetadataCacheSizeInByte = readerPoolMetadataCacheSizeInByte;
+  }
+
+  public int getMaxCoalescedReadSizeInByte() {
+    return maxCoalescedReadSizeInByte;
+  }
+
+  public void setMaxCoalescedReadSizeInByte(int maxCoalescedReadSizeInByte) {
+    this.maxCoalescedReadSizeInByte = maxCoalescedReadSizeInByte;
+  }
+
+  public boolean isUseMmapForLocalRead() {
+    return useMmapForLocalRead;
+  }
+
+  public void setUseMmapForLocalRead(boolean useMmapForLocalRead) {
+    this.useMmapForLocalRead = useMmapForLocalRead;
+  }
+
+  public int getMmapSegmentSizeInByte() {
+    return mmapSegmentSizeInByte;
+  }
+
+  public void setMmapSegmentSizeInByte(int mmapSegmentSizeInByte) {
+    this.mmapSegmentSizeInByte = mmapSegmentSizeInByte;
+  }
+
+  public boolean isEnableDirectUncompress() {
+    return enableDirectUncompress;
+  }
+
+  public void setEnableDirectUncompress(boolean enableDirectUncompress) {
+    this.enableDirectUncompress = enableDirectUncompress;
+  }
+
+  public int getFlushParallelism() {
+    return flushParallelism;
+  }
+
+  public void setFlushParallelism(int flushParallelism) {
+    this.flushParallelism = flushParallelism;
+  }
+
+  public int getFlushThreadPoolSize() {
+    return flushThreadPoolSize;
+  }
+
+  public void setFlushThreadPoolSize(int flushThreadPoolSize) {
+    this.flushThreadPoolSize = flushThreadPoolSize;
+  }
+
+  public long getPageBufferPoolSizeInByte() {
+    return pageBufferPoolSizeInByte;
+  }
+
+  public void setPageBufferPoolSizeInByte(long pageBufferPoolSizeInByte) {
+    this.pageBufferPoolSizeInByte = pageBufferPoolSizeInByte;
+  }
+
+  public boolean isLastPointSectionEnabled() {
+    return lastPointSectionEnabled;
+  }
+
+  public void setLastPointSectionEnabled(boolean lastPointSectionEnabled) {
+    this.lastPointSectionEnabled = lastPointSectionEnabled;
+  }
+
+  public boolean isTsBlockCompactEncodingEnabled() {
+    return tsBlockCompactEncodingEnabled;
+  }
+
+  public void setTsBlockCompactEncodingEnabled(boolean tsBlockCompactEncodingEnabled) {
+    this.tsBlockCompactEncodingEnabled = tsBlockCompactEncodingEnabled;
+  }
+
   public Properties getCustomizedProperties() {
     return customizedProperties;
   }
@@ -77,8 +77,10 @@ public class TSFileDescriptor {
     }
     writer.setInt(conf::setMaxNumberOfPointsInPage, "max_number_of_points_in_page");
     writer.setInt(conf::setMaxDegreeOfIndexNode, "max_degree_of_index_node");
+    writer.setBoolean(conf::setCompactMetadataIndexEnabled, "compact_metadata_index_enabled");
     writer.setInt(conf::setMaxStringLength, "max_string_length");
     writer.setInt(conf::setFloatPrecision, "float_precision");
+    writer.setInt(conf::setAutoEncodingSampleSize, "auto_encoding_sample_size");
     writer.setString(conf::setValueEncoder, "value_encoder");
     writer.setString(conf::setCompressor, "compressor");
     writer.setString(conf::setBooleanCompression, "boolean_compressor");
@@ -88,6 +90,24 @@ public class TSFileDescriptor {
     writer.setString(conf::setDoubleCompression, "double_compressor");
     writer.setString(conf::setTextCompression, "text_compressor");
     writer.setInt(conf::setBatchSize, "batch_size");
+    writer.setInt(conf::setQueryParallelism, "query_parallelism");
+    writer.setInt(conf::setQueryThreadPoolSize, "query_thread_pool_size");
+    writer.setInt(conf::setIoThreadPoolSize, "io_thread_pool_size");
+    writer.setInt(conf::setChunkReadAheadNum, "chunk_read_ahead_num");
+    writer.setInt(conf::setMaxCoalescedReadSizeInByte, "max_coalesced_read_size_in_byte");
+    writer.setLong(conf::setMetadataCacheSizeInByte, "metadata_cache_size_in_byte");
+    writer.setLong(
+        conf::setReaderPoolMetadataCacheSizeInByte, "reader_pool_metadata_cache_size_in_byte");
+    writer.setInt(conf::setTailReadSizeInByte, "tail_read_size_in_byte");
+    writer.setBoolean(conf::setUseMmapForLocalRead, "use_mmap_for_local_read");
+    writer.setInt(conf::setMmapSegmentSizeInByte, "mmap_segment_size_in_byte");
+    writer.setBoolean(conf::setEnableDirectUncompress, "enable_direct_uncompress");
+    writer.setInt(conf::setFlushParallelism, "flush_parallelism");
+    writer.setInt(conf::setFlushThreadPoolSize, "flush_thread_pool_size");
+    writer.setLong(conf::setPageBufferPoolSizeInByte, "page_buffer_pool_size_in_byte");
+    writer.setBoolean(conf::setLastPointSectionEnabled, "last_point_section_enabled");
+    writer.setBoolean(conf::setTsBlockCompactEncodingEnabled, "tsblock_compact_encoding_enabled");
+    writer.setInt(conf::setBloomFilterVersion, "bloom_filter_version");
     writer.setString(conf::setEncryptType, "encrypt_type");
     writer.setBoolean(conf::setLz4UseJni, "lz4_use_jni");
     conf.setEncryptKeyFromToken(System.getenv("user_encrypt_token"));
@@ -108,6 +128,10 @@ public class TSFileDescriptor {
       set(setter, propertyKey, Integer::parseInt);
     }
 
+    public void setLong(Consumer<Long> setter, String propertyKey) {
+      set(setter, propertyKey, Long::parseLong);
+    }
+
     public void setDouble(Consumer<Double> setter, String propertyKey) {
       set(setter, propertyKey, Double::parseDouble);
     }
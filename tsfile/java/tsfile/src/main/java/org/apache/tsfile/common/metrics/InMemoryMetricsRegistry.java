@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.common.metrics;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/** The default registry, which keeps the metrics in memory for the life of the process. */
+public class InMemoryMetricsRegistry implements MetricsRegistry {
+
+  private static final double[] DUMPED_PERCENTILES = {50, 90, 99, 99.9};
+  private static final String[] DUMPED_PERCENTILE_NAMES = {"p50", "p90", "p99", "p999"};
+
+  private final Map<String, InMemoryCounter> counters = new ConcurrentHashMap<>();
+  private final Map<String, InMemoryHistogram> histograms = new ConcurrentHashMap<>();
+
+  @Override
+  public InMemoryCounter counter(String name) {
+    InMemoryCounter counter = counters.get(name);
+    return counter != null ? counter : counters.computeIfAbsent(name, k -> new InMemoryCounter());
+  }
+
+  @Override
+  public InMemoryHistogram histogram(String name) {
+    InMemoryHistogram histogram = histograms.get(name);
+    return histogram != null
+        ? histogram
+        : histograms.computeIfAbsent(name, k -> new InMemoryHistogram());
+  }
+
+  /**
+   * Counters are dumped as numbers and histograms as objects with their count, sum, max, mean and
+   * percentiles, each sorted by name, e.g. <code>
+   * {"counters":{"read.io.bytes":1024},"histograms":{"read.io.nanos":{"count":1,...}}}</code>.
+   */
+  @Override
+  public void dumpJson(Appendable out) throws IOException {
+    out.append("{\"counters\":{");
+    boolean first = true;
+    for (Map.Entry<String, InMemoryCounter> entry : new TreeMap<>(counters).entrySet()) {
+      if (!first) {
+        out.append(',');
+      }
+      first = false;
+      appendName(out, entry.getKey());
+      out.append(Long.toString(entry.getValue().getCount()));
+    }
+    out.append("},\"histograms\":{");
+    first = true;
+    for (Map.Entry<String, InMemoryHistogram> entry : new TreeMap<>(histograms).entrySet()) {
+      if (!first) {
+        out.append(',');
+      }
+      first = false;
+      appendName(out, entry.getKey());
+      InMemoryHistogram histogram = entry.getValue();
+      out.append("{\"count\":")
+          .append(Long.toString(histogram.getCount()))
+          .append(",\"sum\":")
+          .append(Long.toString(histogram.getSum()))
+          .append(",\"max\":")
+          .append(Long.toString(histogram.getMax()))
+          .append(",\"mean\":")
+          .append(String.format(Locale.ROOT, "%.1f", histogram.getMean()));
+      for (int i = 0; i < DUMPED_PERCENTILES.length; i++) {
+        out.append(",\"")
+            .append(DUMPED_PERCENTILE_NAMES[i])
+            .append("\":")
+            .append(Long.toString(histogram.getValueAtPercentile(DUMPED_PERCENTILES[i])));
+      }
+      out.append('}');
+    }
+    out.append("}}");
+  }
+
+  private static void appendName(Appendable out, String name) throws IOException {
+    out.append('"');
+    for (int i = 0; i < name.length(); i++) {
+      char c = name.charAt(i);
+      if (c == '"' || c == '\\') {
+        out.append('\\').append(c);
+      } else if (c < 0x20) {
+        out.append(String.format("\\u%04x", (int) c));
+      } else {
+        out.append(c);
+      }
+    }
+    out.append("\":");
+  }
+}
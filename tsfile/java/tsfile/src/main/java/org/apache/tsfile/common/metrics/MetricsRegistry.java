@@ -0,0 +1,40 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.common.metrics;
+
+import java.io.IOException;
+
+/**
+ * Creates the counters and histograms of the reader and the writer. Implementations bridge them to
+ * the metric system of the embedding process, {@link InMemoryMetricsRegistry} keeps them in memory
+ * and {@link #NOOP} drops them. A registry must return the same metric for the same name, as the
+ * metrics are resolved once and then kept by {@link TsFileMetrics}.
+ */
+public interface MetricsRegistry {
+
+  MetricsRegistry NOOP = new NoopMetricsRegistry();
+
+  Counter counter(String name);
+
+  Histogram histogram(String name);
+
+  /** Write the current values of all metrics as a JSON object. */
+  void dumpJson(Appendable out) throws IOException;
+}
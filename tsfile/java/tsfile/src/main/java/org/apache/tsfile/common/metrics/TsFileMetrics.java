@@ -0,0 +1,212 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.common.metrics;
+
+import org.apache.tsfile.file.metadata.enums.TSEncoding;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+
+/**
+ * The metrics of the hot paths of the reader and the writer, resolved once from the installed
+ * {@link MetricsRegistry} so that recording one is a field read and an add. Decoding and encoding
+ * are measured per page and keyed by the {@link TSEncoding} of the values, the name of the encoding
+ * being appended to the metric name, e.g. {@code read.decode.nanos.DEXOR}.
+ *
+ * <p>Metrics are recorded into an {@link InMemoryMetricsRegistry} unless another registry is
+ * installed by {@link #setRegistry}, e.g. {@link MetricsRegistry#NOOP}.
+ */
+public class TsFileMetrics {
+
+  /** The number and bytes of reads issued to files, and the nanoseconds they took. */
+  public static final String READ_IO_COUNT = "read.io.count";
+
+  public static final String READ_IO_BYTES = "read.io.bytes";
+  public static final String READ_IO_NANOS = "read.io.nanos";
+
+  /** Lookups of metadata index nodes and timeseries metadata in the per-reader cache. */
+  public static final String METADATA_CACHE_HIT = "read.metadata_cache.hit";
+
+  public static final String METADATA_CACHE_MISS = "read.metadata_cache.miss";
+
+  /** Pages pruned by a chunk reader without being uncompressed. */
+  public static final String PAGE_SKIPPED = "read.page.skipped";
+
+  /** Pages uncompressed, their uncompressed bytes, and the nanoseconds uncompressing them took. */
+  public static final String PAGE_UNCOMPRESSED = "read.page.uncompressed";
+
+  public static final String PAGE_UNCOMPRESSED_BYTES = "read.page.uncompressed_bytes";
+  public static final String PAGE_UNCOMPRESS_NANOS = "read.page.uncompress_nanos";
+
+  /**
+   * Values of decoded pages not returned, dropped by a filter, a deletion, an offset or a limit.
+   */
+  public static final String PAGE_VALUES_FILTERED = "read.page.values_filtered";
+
+  /** Per encoding, the values of decoded pages and the nanoseconds of decoding each page. */
+  public static final String DECODE_VALUES = "read.decode.values";
+
+  public static final String DECODE_NANOS = "read.decode.nanos";
+
+  /** Pages sealed by chunk writers and their bytes, headers included, once compressed. */
+  public static final String PAGE_SEALED = "write.page.sealed";
+
+  public static final String PAGE_SEALED_BYTES = "write.page.sealed_bytes";
+
+  /**
+   * Per encoding, the values of sealed pages and the nanoseconds of sealing each page, i.e.
+   * flushing its encoders and compressing it.
+   */
+  public static final String ENCODE_VALUES = "write.encode.values";
+
+  public static final String ENCODE_NANOS = "write.encode.nanos";
+
+  private static volatile TsFileMetrics instance = new TsFileMetrics(new InMemoryMetricsRegistry());
+
+  private final MetricsRegistry registry;
+
+  private final Counter readIoCount;
+  private final Counter readIoBytes;
+  private final Histogram readIoNanos;
+  private final Counter metadataCacheHit;
+  private final Counter metadataCacheMiss;
+  private final Counter pageSkipped;
+  private final Counter pageUncompressed;
+  private final Counter pageUncompressedBytes;
+  private final Histogram pageUncompressNanos;
+  private final Counter pageValuesFiltered;
+  private final Counter pageSealed;
+  private final Counter pageSealedBytes;
+
+  // resolved on first use, indexed by the ordinal of the encoding
+  private final AtomicReferenceArray<Counter> decodeValues;
+  private final AtomicReferenceArray<Histogram> decodeNanos;
+  private final AtomicReferenceArray<Counter> encodeValues;
+  private final AtomicReferenceArray<Histogram> encodeNanos;
+
+  private TsFileMetrics(MetricsRegistry registry) {
+    this.registry = registry;
+    this.readIoCount = registry.counter(READ_IO_COUNT);
+    this.readIoBytes = registry.counter(READ_IO_BYTES);
+    this.readIoNanos = registry.histogram(READ_IO_NANOS);
+    this.metadataCacheHit = registry.counter(METADATA_CACHE_HIT);
+    this.metadataCacheMiss = registry.counter(METADATA_CACHE_MISS);
+    this.pageSkipped = registry.counter(PAGE_SKIPPED);
+    this.pageUncompressed = registry.counter(PAGE_UNCOMPRESSED);
+    this.pageUncompressedBytes = registry.counter(PAGE_UNCOMPRESSED_BYTES);
+    this.pageUncompressNanos = registry.histogram(PAGE_UNCOMPRESS_NANOS);
+    this.pageValuesFiltered = registry.counter(PAGE_VALUES_FILTERED);
+    this.pageSealed = registry.counter(PAGE_SEALED);
+    this.pageSealedBytes = registry.counter(PAGE_SEALED_BYTES);
+    int encodingNum = TSEncoding.values().length;
+    this.decodeValues = new AtomicReferenceArray<>(encodingNum);
+    this.decodeNanos = new AtomicReferenceArray<>(encodingNum);
+    this.encodeValues = new AtomicReferenceArray<>(encodingNum);
+    this.encodeNanos = new AtomicReferenceArray<>(encodingNum);
+  }
+
+  public static TsFileMetrics getInstance() {
+    return instance;
+  }
+
+  /** Install the registry the metrics are recorded into from now on. */
+  public static void setRegistry(MetricsRegistry registry) {
+    instance = new TsFileMetrics(registry);
+  }
+
+  public MetricsRegistry getRegistry() {
+    return registry;
+  }
+
+  /** The current values of all metrics of the installed registry as a JSON object. */
+  public static String dumpJson() {
+    StringBuilder builder = new StringBuilder();
+    try {
+      instance.registry.dumpJson(builder);
+    } catch (IOException e) {
+      // a StringBuilder never throws it
+      throw new IllegalStateException(e);
+    }
+    return builder.toString();
+  }
+
+  public void recordRead(long bytes, long nanos) {
+    readIoCount.increment();
+    readIoBytes.add(bytes);
+    readIoNanos.record(nanos);
+  }
+
+  public void recordMetadataCacheLookup(boolean hit) {
+    (hit ? metadataCacheHit : metadataCacheMiss).increment();
+  }
+
+  public void recordPageSkipped() {
+    pageSkipped.increment();
+  }
+
+  public void recordPageUncompressed(long uncompressedBytes, long nanos) {
+    pageUncompressed.increment();
+    pageUncompressedBytes.add(uncompressedBytes);
+    pageUncompressNanos.record(nanos);
+  }
+
+  /**
+   * @param encoding the encoding of the values, null if unknown
+   * @param valueCount the values in the page
+   * @param returnedCount the values returned from the page
+   */
+  public void recordPageDecoded(
+      TSEncoding encoding, long valueCount, long returnedCount, long nanos) {
+    pageValuesFiltered.add(Math.max(0, valueCount - returnedCount));
+    if (encoding != null) {
+      resolve(decodeValues, encoding, DECODE_VALUES, registry::counter).add(valueCount);
+      resolve(decodeNanos, encoding, DECODE_NANOS, registry::histogram).record(nanos);
+    }
+  }
+
+  /**
+   * @param encoding the encoding of the values, null if unknown
+   * @param valueCount the values in the page
+   * @param sealedBytes the bytes of the page once compressed, header included
+   */
+  public void recordPageSealed(TSEncoding encoding, long valueCount, long sealedBytes, long nanos) {
+    pageSealed.increment();
+    pageSealedBytes.add(sealedBytes);
+    if (encoding != null) {
+      resolve(encodeValues, encoding, ENCODE_VALUES, registry::counter).add(valueCount);
+      resolve(encodeNanos, encoding, ENCODE_NANOS, registry::histogram).record(nanos);
+    }
+  }
+
+  private static <M> M resolve(
+      AtomicReferenceArray<M> metrics,
+      TSEncoding encoding,
+      String prefix,
+      Function<String, M> factory) {
+    M metric = metrics.get(encoding.ordinal());
+    if (metric == null) {
+      // the registry returns the same metric for the same name, so a race is harmless
+      metric = factory.apply(prefix + "." + encoding.name());
+      metrics.set(encoding.ordinal(), metric);
+    }
+    return metric;
+  }
+}
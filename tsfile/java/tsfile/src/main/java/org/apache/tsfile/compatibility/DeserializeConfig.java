@@ -20,6 +20,7 @@ package org.apache.tsfile.compatibility;
  */
 
 import org.apache.tsfile.file.IMetadataIndexEntry;
+import org.apache.tsfile.file.metadata.CompactMetadataIndexNode;
 import org.apache.tsfile.file.metadata.DeviceMetadataIndexEntry;
 import org.apache.tsfile.file.metadata.IDeviceID;
 import org.apache.tsfile.file.metadata.MeasurementMetadataIndexEntry;
@@ -31,6 +32,7 @@ import org.apache.tsfile.write.schema.MeasurementSchema;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.PushbackInputStream;
 import java.nio.ByteBuffer;
 
 public class DeserializeConfig {
@@ -41,9 +43,9 @@ public class DeserializeConfig {
       TsFileMetadata::deserializeAndCacheTableSchemaMap;
 
   public BufferDeserializer<MetadataIndexNode> deviceMetadataIndexNodeBufferDeserializer =
-      (buffer, context) -> MetadataIndexNode.deserializeFrom(buffer, true, context);
+      (buffer, context) -> deserializeMetadataIndexNode(buffer, true, context);
   public BufferDeserializer<MetadataIndexNode> measurementMetadataIndexNodeBufferDeserializer =
-      (buffer, context) -> MetadataIndexNode.deserializeFrom(buffer, false, context);
+      (buffer, context) -> deserializeMetadataIndexNode(buffer, false, context);
   public BufferDeserializer<IMetadataIndexEntry> deviceMetadataIndexEntryBufferDeserializer =
       DeviceMetadataIndexEntry::deserializeFrom;
   public BufferDeserializer<IMetadataIndexEntry> measurementMetadataIndexEntryBufferDeserializer =
@@ -58,9 +60,9 @@ public class DeserializeConfig {
 
   // stream deserializers
   public StreamDeserializer<MetadataIndexNode> deviceMetadataIndexNodeStreamDeserializer =
-      (stream, context) -> MetadataIndexNode.deserializeFrom(stream, true, context);
+      (stream, context) -> deserializeMetadataIndexNode(stream, true, context);
   public StreamDeserializer<MetadataIndexNode> measurementMetadataIndexNodeStreamDeserializer =
-      (stream, context) -> MetadataIndexNode.deserializeFrom(stream, false, context);
+      (stream, context) -> deserializeMetadataIndexNode(stream, false, context);
   public StreamDeserializer<IMetadataIndexEntry> deviceMetadataIndexEntryStreamDeserializer =
       DeviceMetadataIndexEntry::deserializeFrom;
   public StreamDeserializer<IMetadataIndexEntry> measurementMetadataIndexEntryStreamDeserializer =
@@ -69,6 +71,24 @@ public class DeserializeConfig {
   public StreamDeserializer<IDeviceID> deviceIDStreamDeserializer =
       ((stream, context) -> StringArrayDeviceID.deserialize(stream));
 
+  /** Reads a compact or a legacy node, both kinds may be found in the same file. */
+  private static MetadataIndexNode deserializeMetadataIndexNode(
+      ByteBuffer buffer, boolean isDeviceLevel, DeserializeConfig context) {
+    if (CompactMetadataIndexNode.isCompact(buffer)) {
+      return CompactMetadataIndexNode.deserializeFrom(buffer, isDeviceLevel);
+    }
+    return MetadataIndexNode.deserializeFrom(buffer, isDeviceLevel, context);
+  }
+
+  private static MetadataIndexNode deserializeMetadataIndexNode(
+      InputStream stream, boolean isDeviceLevel, DeserializeConfig context) throws IOException {
+    PushbackInputStream pushbackStream = new PushbackInputStream(stream, 2);
+    if (CompactMetadataIndexNode.isCompact(pushbackStream)) {
+      return CompactMetadataIndexNode.deserializeFrom(pushbackStream, isDeviceLevel);
+    }
+    return MetadataIndexNode.deserializeFrom(pushbackStream, isDeviceLevel, context);
+  }
+
   public MetadataIndexNode deserializeMetadataIndexNode(ByteBuffer buffer, boolean isDeviceLevel) {
     if (isDeviceLevel) {
       return deviceMetadataIndexNodeBufferDeserializer.deserialize(buffer, this);
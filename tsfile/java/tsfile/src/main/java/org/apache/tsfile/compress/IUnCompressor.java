@@ -101,6 +101,14 @@ public interface IUnCompressor {
    */
   int uncompress(ByteBuffer compressed, ByteBuffer uncompressed) throws IOException;
 
+  /**
+   * Whether {@link #uncompress(ByteBuffer, ByteBuffer)} accepts compressed data in either a heap or
+   * a direct buffer and writes straight into a direct buffer, returning the uncompressed length.
+   */
+  default boolean supportDirectUncompress() {
+    return false;
+  }
+
   CompressionType getCodecName();
 
   class NoUnCompressor implements IUnCompressor {
@@ -179,7 +187,7 @@ public interface IUnCompressor {
       }
 
       try {
-        return Snappy.uncompress(compressed, uncompressed);
+        return Snappy.uncompress(UnCompressBufferPool.toDirect(compressed), uncompressed);
       } catch (IOException e) {
         logger.error(
             "tsfile-compression SnappyUnCompressor: errors occurs when uncompress input byte", e);
@@ -187,6 +195,11 @@ public interface IUnCompressor {
       return 0;
     }
 
+    @Override
+    public boolean supportDirectUncompress() {
+      return true;
+    }
+
     @Override
     public CompressionType getCodecName() {
       return CompressionType.SNAPPY;
@@ -252,14 +265,20 @@ public interface IUnCompressor {
       }
 
       try {
+        int start = uncompressed.position();
         decompressor.decompress(compressed, uncompressed);
-        return compressed.limit();
+        return uncompressed.position() - start;
       } catch (RuntimeException e) {
         logger.error(UNCOMPRESS_INPUT_ERROR, e);
         throw new IOException(e);
       }
     }
 
+    @Override
+    public boolean supportDirectUncompress() {
+      return true;
+    }
+
     @Override
     public CompressionType getCodecName() {
       return CompressionType.LZ4;
@@ -340,13 +359,23 @@ public interface IUnCompressor {
     }
 
     /**
-     * @param compressed MUST be DirectByteBuffer for Zstd.
+     * @param compressed staged in a direct buffer first if it is a heap buffer.
      * @param uncompressed MUST be DirectByteBuffer for Zstd.
-     * @return byte length of compressed data.
+     * @return byte length of uncompressed data.
      */
     @Override
     public int uncompress(ByteBuffer compressed, ByteBuffer uncompressed) throws IOException {
-      return Zstd.decompress(uncompressed, compressed);
+      if (compressed.isDirect()) {
+        return Zstd.decompress(uncompressed, compressed);
+      }
+      int length = Zstd.decompress(uncompressed, UnCompressBufferPool.toDirect(compressed));
+      compressed.position(compressed.limit());
+      return length;
+    }
+
+    @Override
+    public boolean supportDirectUncompress() {
+      return true;
     }
 
     @Override
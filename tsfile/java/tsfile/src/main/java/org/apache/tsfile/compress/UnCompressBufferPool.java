@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.compress;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+
+/**
+ * Thread-local pool of direct buffers that pages are uncompressed into, so that steady-state reads
+ * of compressed pages do not allocate a fresh array per page. A buffer taken by {@link
+ * #acquire(int)} is owned by the caller until it is handed back by {@link #release(ByteBuffer)};
+ * buffers that are never released are simply reclaimed by the GC.
+ */
+public class UnCompressBufferPool {
+
+  /** The number of idle buffers one thread keeps. */
+  private static final int MAX_IDLE_BUFFER_NUM = 4;
+
+  private static final ThreadLocal<ArrayDeque<ByteBuffer>> IDLE_BUFFERS =
+      ThreadLocal.withInitial(ArrayDeque::new);
+
+  /** Staging area for codecs that only accept direct input, reused by every call on a thread. */
+  private static final ThreadLocal<ByteBuffer> DIRECT_INPUT =
+      ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(0));
+
+  private UnCompressBufferPool() {
+    // util class
+  }
+
+  /**
+   * @return a cleared direct buffer whose limit is {@code size}
+   */
+  public static ByteBuffer acquire(int size) {
+    Iterator<ByteBuffer> iterator = IDLE_BUFFERS.get().iterator();
+    while (iterator.hasNext()) {
+      ByteBuffer buffer = iterator.next();
+      if (buffer.capacity() >= size) {
+        iterator.remove();
+        buffer.clear();
+        buffer.limit(size);
+        return buffer;
+      }
+    }
+    ByteBuffer buffer = ByteBuffer.allocateDirect(roundUpToPowerOfTwo(size));
+    buffer.limit(size);
+    return buffer;
+  }
+
+  /** Gives a buffer taken by {@link #acquire(int)} back to the pool of the current thread. */
+  public static void release(ByteBuffer buffer) {
+    ArrayDeque<ByteBuffer> idleBuffers = IDLE_BUFFERS.get();
+    if (idleBuffers.size() < MAX_IDLE_BUFFER_NUM) {
+      idleBuffers.push(buffer);
+    } else {
+      // keep the larger buffers, they can serve any request the smaller ones can
+      ByteBuffer smallest = buffer;
+      for (ByteBuffer idleBuffer : idleBuffers) {
+        if (idleBuffer.capacity() < smallest.capacity()) {
+          smallest = idleBuffer;
+        }
+      }
+      if (smallest != buffer) {
+        idleBuffers.remove(smallest);
+        idleBuffers.push(buffer);
+      }
+    }
+  }
+
+  /**
+   * Returns {@code src} itself if it is direct, otherwise copies its remaining bytes into a direct
+   * buffer of the current thread. The position of {@code src} is not changed, and the returned
+   * buffer is only valid until the next call on the same thread.
+   */
+  static ByteBuffer toDirect(ByteBuffer src) {
+    if (src.isDirect()) {
+      return src;
+    }
+    ByteBuffer direct = DIRECT_INPUT.get();
+    if (direct.capacity() < src.remaining()) {
+      direct = ByteBuffer.allocateDirect(roundUpToPowerOfTwo(src.remaining()));
+      DIRECT_INPUT.set(direct);
+    }
+    direct.clear();
+    direct.put(src.duplicate());
+    direct.flip();
+    return direct;
+  }
+
+  private static int roundUpToPowerOfTwo(int size) {
+    if (size <= 1) {
+      return 1;
+    }
+    int highestOneBit = Integer.highestOneBit(size - 1) << 1;
+    return highestOneBit > 0 ? highestOneBit : size;
+  }
+}
@@ -67,6 +67,15 @@ public class DeXORTools {
     return P10[pow];
   }
 
+  /** 10^pow as a long, for 0 <= pow <= 17. */
+  public static long getLongP10(int pow) {
+    return P10L[pow];
+  }
+
+  public static int getMaxLongP10() {
+    return P10L.length - 1;
+  }
+
   public static int getP2(int pow) {
     return P2[pow];
   }
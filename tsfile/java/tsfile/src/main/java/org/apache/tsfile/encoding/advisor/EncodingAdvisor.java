@@ -0,0 +1,496 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.encoding.advisor;
+
+import org.apache.tsfile.common.concurrent.BoundedExecutor;
+import org.apache.tsfile.common.conf.TSFileDescriptor;
+import org.apache.tsfile.compress.ICompressor;
+import org.apache.tsfile.compress.IUnCompressor;
+import org.apache.tsfile.encoding.decoder.Decoder;
+import org.apache.tsfile.encoding.encoder.Encoder;
+import org.apache.tsfile.encoding.encoder.TSEncodingBuilder;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.file.metadata.AbstractAlignedChunkMetadata;
+import org.apache.tsfile.file.metadata.ChunkMetadata;
+import org.apache.tsfile.file.metadata.IChunkMetadata;
+import org.apache.tsfile.file.metadata.IDeviceID;
+import org.apache.tsfile.file.metadata.enums.CompressionType;
+import org.apache.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.tsfile.read.TsFileSequenceReader;
+import org.apache.tsfile.read.common.BatchData;
+import org.apache.tsfile.read.query.executor.QueryThreadPool;
+import org.apache.tsfile.read.reader.IChunkReader;
+import org.apache.tsfile.read.reader.chunk.AlignedChunkReader;
+import org.apache.tsfile.read.reader.chunk.ChunkReader;
+import org.apache.tsfile.utils.PublicBAOS;
+import org.apache.tsfile.utils.TsPrimitiveType;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Recommends an encoding and a compressor for a series by trying them on a sample of its values.
+ * The sample is cut into pages as a chunk writer would, and every pair of an encoding supported by
+ * the data type and a compressor encodes, compresses, uncompresses and decodes all the pages, the
+ * pairs being tried concurrently. Pairs that fail or do not restore the values bit for bit, such as
+ * RLE and TS_2DIFF on floating point values, are left out.
+ *
+ * <p>Only numeric series are supported. DEXOR_CROSS and DEXOR_TIMED are not tried as they depend on
+ * another column and on the time column respectively, nor is AUTO, which only picks one of the
+ * tried encodings per page.
+ */
+public class EncodingAdvisor {
+
+  private static final Logger logger = LoggerFactory.getLogger(EncodingAdvisor.class);
+
+  private static final Set<TSEncoding> EXCLUDED_ENCODINGS =
+      EnumSet.of(TSEncoding.DEXOR_CROSS, TSEncoding.DEXOR_TIMED, TSEncoding.AUTO);
+
+  /** Smallest first, the faster one first among the same size. */
+  private static final Comparator<EncodingTrial> BEST_FIRST =
+      Comparator.comparingLong(EncodingTrial::getCompressedSize)
+          .thenComparingDouble(
+              trial -> trial.getEncodeNanosPerValue() + trial.getDecodeNanosPerValue());
+
+  private final Executor executor;
+
+  private int pageSize = TSFileDescriptor.getInstance().getConfig().getMaxNumberOfPointsInPage();
+  private int rounds = 3;
+  private List<CompressionType> compressionTypes = Arrays.asList(CompressionType.values());
+
+  /**
+   * @param parallelism the number of pairs tried at the same time on the query thread pool
+   */
+  public EncodingAdvisor(int parallelism) {
+    this(new BoundedExecutor(QueryThreadPool.getInstance(), parallelism));
+  }
+
+  public EncodingAdvisor(Executor executor) {
+    this.executor = executor;
+  }
+
+  /** The number of values in one page, the page size of the writer by default. */
+  public void setPageSize(int pageSize) {
+    if (pageSize <= 0) {
+      throw new IllegalArgumentException("pageSize should be positive: " + pageSize);
+    }
+    this.pageSize = pageSize;
+  }
+
+  /** The number of times each pair is run, the fastest run being reported, 3 by default. */
+  public void setRounds(int rounds) {
+    if (rounds <= 0) {
+      throw new IllegalArgumentException("rounds should be positive: " + rounds);
+    }
+    this.rounds = rounds;
+  }
+
+  /** The compressors tried, all of them by default. */
+  public void setCompressionTypes(List<CompressionType> compressionTypes) {
+    this.compressionTypes = new ArrayList<>(compressionTypes);
+  }
+
+  /**
+   * @return the trials of all the applicable pairs, the best first
+   */
+  public List<EncodingTrial> advise(int[] values, int count) {
+    return advise(new IntSample(TSDataType.INT32, values, count));
+  }
+
+  /** See {@link #advise(int[], int)}. */
+  public List<EncodingTrial> advise(long[] values, int count) {
+    return advise(new LongSample(TSDataType.INT64, values, count));
+  }
+
+  /** See {@link #advise(int[], int)}. */
+  public List<EncodingTrial> advise(float[] values, int count) {
+    return advise(new FloatSample(values, count));
+  }
+
+  /** See {@link #advise(int[], int)}. */
+  public List<EncodingTrial> advise(double[] values, int count) {
+    return advise(new DoubleSample(values, count));
+  }
+
+  /**
+   * Advise on a series of an existing file, aligned or not, sampling its first values.
+   *
+   * @param maxValueCount the maximum number of values sampled, null values excluded
+   * @return the trials of all the applicable pairs, the best first, or an empty list if the series
+   *     does not exist or has no value
+   * @throws IllegalArgumentException if the series is not numeric
+   */
+  public List<EncodingTrial> advise(
+      TsFileSequenceReader reader, IDeviceID deviceID, String measurement, int maxValueCount)
+      throws IOException {
+    Sample sample = readSample(reader, deviceID, measurement, maxValueCount);
+    return sample == null ? Collections.emptyList() : advise(sample);
+  }
+
+  private List<EncodingTrial> advise(Sample sample) {
+    if (sample.count == 0) {
+      return Collections.emptyList();
+    }
+    List<CompletableFuture<EncodingTrial>> futures = new ArrayList<>();
+    for (TSEncoding encoding : TSEncoding.values()) {
+      if (EXCLUDED_ENCODINGS.contains(encoding) || !encoding.isSupported(sample.dataType)) {
+        continue;
+      }
+      for (CompressionType compressionType : compressionTypes) {
+        futures.add(
+            CompletableFuture.supplyAsync(
+                () -> trial(sample, encoding, compressionType), executor));
+      }
+    }
+    List<EncodingTrial> trials = new ArrayList<>(futures.size());
+    for (CompletableFuture<EncodingTrial> future : futures) {
+      EncodingTrial trial = future.join();
+      if (trial != null) {
+        trials.add(trial);
+      }
+    }
+    trials.sort(BEST_FIRST);
+    return trials;
+  }
+
+  /**
+   * @return null if the pair cannot encode the sample or does not restore it exactly
+   */
+  private EncodingTrial trial(Sample sample, TSEncoding encoding, CompressionType compressionType) {
+    try {
+      TSEncodingBuilder encodingBuilder = TSEncodingBuilder.getEncodingBuilder(encoding);
+      ICompressor compressor = ICompressor.getCompressor(compressionType);
+      IUnCompressor unCompressor = IUnCompressor.getUnCompressor(compressionType);
+      int pageNum = (sample.count + pageSize - 1) / pageSize;
+      byte[][] compressedPages = new byte[pageNum][];
+      int[] uncompressedSizes = new int[pageNum];
+      long encodedSize = 0;
+      long compressedSize = 0;
+      long encodeNanos = Long.MAX_VALUE;
+      long decodeNanos = Long.MAX_VALUE;
+      for (int round = 0; round < rounds; round++) {
+        long startTime = System.nanoTime();
+        encodedSize = 0;
+        compressedSize = 0;
+        for (int i = 0; i < pageNum; i++) {
+          PublicBAOS out = new PublicBAOS();
+          Encoder encoder = encodingBuilder.getEncoder(sample.dataType);
+          sample.encode(encoder, i * pageSize, Math.min(sample.count, (i + 1) * pageSize), out);
+          encoder.flush(out);
+          // the no-op compressor only takes whole arrays
+          compressedPages[i] =
+              compressionType == CompressionType.UNCOMPRESSED
+                  ? out.toByteArray()
+                  : compressor.compress(out.getBuf(), 0, out.size());
+          uncompressedSizes[i] = out.size();
+          encodedSize += out.size();
+          compressedSize += compressedPages[i].length;
+        }
+        encodeNanos = Math.min(encodeNanos, System.nanoTime() - startTime);
+
+        startTime = System.nanoTime();
+        for (int i = 0; i < pageNum; i++) {
+          byte[] page = new byte[uncompressedSizes[i]];
+          unCompressor.uncompress(compressedPages[i], 0, compressedPages[i].length, page, 0);
+          Decoder decoder = Decoder.getDecoderByType(encoding, sample.dataType);
+          if (!sample.decodeAndCheck(
+              decoder,
+              ByteBuffer.wrap(page),
+              i * pageSize,
+              Math.min(sample.count, (i + 1) * pageSize))) {
+            logger.debug("{} does not restore the {} values exactly", encoding, sample.dataType);
+            return null;
+          }
+        }
+        decodeNanos = Math.min(decodeNanos, System.nanoTime() - startTime);
+      }
+      return new EncodingTrial(
+          encoding,
+          compressionType,
+          sample.count,
+          (long) sample.count * sample.dataType.getDataTypeSize(),
+          encodedSize,
+          compressedSize,
+          encodeNanos,
+          decodeNanos);
+    } catch (IOException | RuntimeException e) {
+      logger.debug(
+          "{} with {} cannot encode the {} values", encoding, compressionType, sample.dataType, e);
+      return null;
+    }
+  }
+
+  private static Sample readSample(
+      TsFileSequenceReader reader, IDeviceID deviceID, String measurement, int maxValueCount)
+      throws IOException {
+    SampleBuilder builder = null;
+    for (IChunkMetadata chunkMetadata : reader.getIChunkMetadataList(deviceID, measurement)) {
+      IChunkReader chunkReader;
+      boolean aligned = chunkMetadata instanceof AbstractAlignedChunkMetadata;
+      TSDataType dataType;
+      if (aligned) {
+        AbstractAlignedChunkMetadata alignedChunkMetadata =
+            (AbstractAlignedChunkMetadata) chunkMetadata;
+        IChunkMetadata valueChunkMetadata = alignedChunkMetadata.getValueChunkMetadataList().get(0);
+        if (valueChunkMetadata == null) {
+          continue;
+        }
+        dataType = valueChunkMetadata.getDataType();
+        chunkReader =
+            new AlignedChunkReader(
+                reader.readMemChunk((ChunkMetadata) alignedChunkMetadata.getTimeChunkMetadata()),
+                Collections.singletonList(reader.readMemChunk((ChunkMetadata) valueChunkMetadata)));
+      } else {
+        dataType = chunkMetadata.getDataType();
+        chunkReader = new ChunkReader(reader.readMemChunk((ChunkMetadata) chunkMetadata));
+      }
+      if (builder == null) {
+        builder = new SampleBuilder(dataType, maxValueCount);
+      }
+      while (chunkReader.hasNextSatisfiedPage() && !builder.isFull()) {
+        BatchData batchData = chunkReader.nextPageData();
+        while (batchData.hasCurrent() && !builder.isFull()) {
+          TsPrimitiveType value =
+              aligned ? batchData.getVector()[0] : batchData.currentTsPrimitiveType();
+          if (value != null) {
+            builder.add(value);
+          }
+          batchData.next();
+        }
+      }
+      chunkReader.close();
+      if (builder.isFull()) {
+        break;
+      }
+    }
+    return builder == null ? null : builder.build();
+  }
+
+  /** Values of a numeric series collected from a file. */
+  private static class SampleBuilder {
+
+    private final TSDataType dataType;
+    private final int maxValueCount;
+    private long[] longs = new long[16];
+    private double[] doubles = new double[16];
+    private int count;
+
+    private SampleBuilder(TSDataType dataType, int maxValueCount) {
+      switch (dataType) {
+        case INT32:
+        case DATE:
+        case INT64:
+        case TIMESTAMP:
+        case FLOAT:
+        case DOUBLE:
+          break;
+        default:
+          throw new IllegalArgumentException("Only numeric series can be advised: " + dataType);
+      }
+      this.dataType = dataType;
+      this.maxValueCount = maxValueCount;
+    }
+
+    private boolean isFull() {
+      return count >= maxValueCount;
+    }
+
+    private void add(TsPrimitiveType value) {
+      if (count == longs.length) {
+        longs = Arrays.copyOf(longs, count * 2);
+        doubles = Arrays.copyOf(doubles, count * 2);
+      }
+      switch (dataType) {
+        case INT32:
+        case DATE:
+          longs[count] = value.getInt();
+          break;
+        case INT64:
+        case TIMESTAMP:
+          longs[count] = value.getLong();
+          break;
+        case FLOAT:
+          // widening a float is exact
+          doubles[count] = value.getFloat();
+          break;
+        default:
+          doubles[count] = value.getDouble();
+          break;
+      }
+      count++;
+    }
+
+    private Sample build() {
+      switch (dataType) {
+        case INT32:
+        case DATE:
+          int[] ints = new int[count];
+          for (int i = 0; i < count; i++) {
+            ints[i] = (int) longs[i];
+          }
+          return new IntSample(dataType, ints, count);
+        case INT64:
+        case TIMESTAMP:
+          return new LongSample(dataType, longs, count);
+        case FLOAT:
+          float[] floats = new float[count];
+          for (int i = 0; i < count; i++) {
+            floats[i] = (float) doubles[i];
+          }
+          return new FloatSample(floats, count);
+        default:
+          return new DoubleSample(doubles, count);
+      }
+    }
+  }
+
+  private abstract static class Sample {
+
+    private final TSDataType dataType;
+    private final int count;
+
+    private Sample(TSDataType dataType, int count) {
+      this.dataType = dataType;
+      this.count = count;
+    }
+
+    /** Encode the values in [from, to). */
+    abstract void encode(Encoder encoder, int from, int to, PublicBAOS out);
+
+    /** Whether the page decodes to exactly the values in [from, to). */
+    abstract boolean decodeAndCheck(Decoder decoder, ByteBuffer page, int from, int to)
+        throws IOException;
+  }
+
+  private static class IntSample extends Sample {
+
+    private final int[] values;
+
+    private IntSample(TSDataType dataType, int[] values, int count) {
+      super(dataType, count);
+      this.values = values;
+    }
+
+    @Override
+    void encode(Encoder encoder, int from, int to, PublicBAOS out) {
+      encoder.encode(values, from, to, out);
+    }
+
+    @Override
+    boolean decodeAndCheck(Decoder decoder, ByteBuffer page, int from, int to) throws IOException {
+      for (int i = from; i < to; i++) {
+        if (!decoder.hasNext(page) || decoder.readInt(page) != values[i]) {
+          return false;
+        }
+      }
+      return !decoder.hasNext(page);
+    }
+  }
+
+  private static class LongSample extends Sample {
+
+    private final long[] values;
+
+    private LongSample(TSDataType dataType, long[] values, int count) {
+      super(dataType, count);
+      this.values = values;
+    }
+
+    @Override
+    void encode(Encoder encoder, int from, int to, PublicBAOS out) {
+      encoder.encode(values, from, to, out);
+    }
+
+    @Override
+    boolean decodeAndCheck(Decoder decoder, ByteBuffer page, int from, int to) throws IOException {
+      for (int i = from; i < to; i++) {
+        if (!decoder.hasNext(page) || decoder.readLong(page) != values[i]) {
+          return false;
+        }
+      }
+      return !decoder.hasNext(page);
+    }
+  }
+
+  private static class FloatSample extends Sample {
+
+    private final float[] values;
+
+    private FloatSample(float[] values, int count) {
+      super(TSDataType.FLOAT, count);
+      this.values = values;
+    }
+
+    @Override
+    void encode(Encoder encoder, int from, int to, PublicBAOS out) {
+      encoder.encode(values, from, to, out);
+    }
+
+    @Override
+    boolean decodeAndCheck(Decoder decoder, ByteBuffer page, int from, int to) throws IOException {
+      for (int i = from; i < to; i++) {
+        if (!decoder.hasNext(page)
+            || Float.floatToIntBits(decoder.readFloat(page)) != Float.floatToIntBits(values[i])) {
+          return false;
+        }
+      }
+      return !decoder.hasNext(page);
+    }
+  }
+
+  private static class DoubleSample extends Sample {
+
+    private final double[] values;
+
+    private DoubleSample(double[] values, int count) {
+      super(TSDataType.DOUBLE, count);
+      this.values = values;
+    }
+
+    @Override
+    void encode(Encoder encoder, int from, int to, PublicBAOS out) {
+      encoder.encode(values, from, to, out);
+    }
+
+    @Override
+    boolean decodeAndCheck(Decoder decoder, ByteBuffer page, int from, int to) throws IOException {
+      for (int i = from; i < to; i++) {
+        if (!decoder.hasNext(page)
+            || Double.doubleToLongBits(decoder.readDouble(page))
+                != Double.doubleToLongBits(values[i])) {
+          return false;
+        }
+      }
+      return !decoder.hasNext(page);
+    }
+  }
+}
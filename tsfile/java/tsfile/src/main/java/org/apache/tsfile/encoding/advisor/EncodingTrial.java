@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.encoding.advisor;
+
+import org.apache.tsfile.file.metadata.enums.CompressionType;
+import org.apache.tsfile.file.metadata.enums.TSEncoding;
+
+import java.util.Locale;
+
+/** The outcome of encoding and compressing a sample with one (encoding, compressor) pair. */
+public class EncodingTrial {
+
+  private final TSEncoding encoding;
+  private final CompressionType compressionType;
+  private final int valueCount;
+  private final long rawSize;
+  private final long encodedSize;
+  private final long compressedSize;
+  private final long encodeNanos;
+  private final long decodeNanos;
+
+  /**
+   * @param rawSize the bytes of the values in their fixed-width binary form
+   * @param encodedSize the bytes of the encoded pages before compression
+   * @param compressedSize the bytes of the encoded pages after compression
+   * @param encodeNanos the fastest time of encoding and compressing all the pages
+   * @param decodeNanos the fastest time of uncompressing and decoding all the pages
+   */
+  public EncodingTrial(
+      TSEncoding encoding,
+      CompressionType compressionType,
+      int valueCount,
+      long rawSize,
+      long encodedSize,
+      long compressedSize,
+      long encodeNanos,
+      long decodeNanos) {
+    this.encoding = encoding;
+    this.compressionType = compressionType;
+    this.valueCount = valueCount;
+    this.rawSize = rawSize;
+    this.encodedSize = encodedSize;
+    this.compressedSize = compressedSize;
+    this.encodeNanos = encodeNanos;
+    this.decodeNanos = decodeNanos;
+  }
+
+  public TSEncoding getEncoding() {
+    return encoding;
+  }
+
+  public CompressionType getCompressionType() {
+    return compressionType;
+  }
+
+  public int getValueCount() {
+    return valueCount;
+  }
+
+  public long getRawSize() {
+    return rawSize;
+  }
+
+  public long getEncodedSize() {
+    return encodedSize;
+  }
+
+  public long getCompressedSize() {
+    return compressedSize;
+  }
+
+  /** The raw size divided by the compressed size, the higher the better. */
+  public double getCompressionRatio() {
+    return compressedSize == 0 ? 0 : (double) rawSize / compressedSize;
+  }
+
+  public double getEncodeNanosPerValue() {
+    return valueCount == 0 ? 0 : (double) encodeNanos / valueCount;
+  }
+
+  public double getDecodeNanosPerValue() {
+    return valueCount == 0 ? 0 : (double) decodeNanos / valueCount;
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        Locale.ROOT,
+        "%s+%s: ratio %.2f, %d bytes, encode %.1f ns/value, decode %.1f ns/value",
+        encoding,
+        compressionType,
+        getCompressionRatio(),
+        compressedSize,
+        getEncodeNanosPerValue(),
+        getDecodeNanosPerValue());
+  }
+}
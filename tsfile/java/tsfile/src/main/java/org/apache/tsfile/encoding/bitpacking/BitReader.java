@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.encoding.bitpacking;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Reads a stream of bits written by {@link BitWriter}. The bits are taken from a 64-bit accumulator
+ * refilled by one {@link ByteBuffer#getLong()}, or byte by byte near the end of the buffer, so the
+ * position of the buffer runs ahead of the bits read until {@link #finish(ByteBuffer)} is called.
+ * Not thread safe.
+ */
+public class BitReader {
+
+  /** the unread bits, aligned to the most significant bit */
+  private long buffer = 0;
+
+  /** number of unread bits in {@link #buffer} */
+  private int bitsLeft = 0;
+
+  /** Read the next bit, true if it is 1. */
+  public boolean readBit(ByteBuffer in) {
+    if (bitsLeft == 0) {
+      refill(in);
+    }
+    boolean bit = buffer < 0;
+    buffer <<= 1;
+    bitsLeft--;
+    return bit;
+  }
+
+  /**
+   * Read the next {@code bits} bits as the least significant bits of a long.
+   *
+   * @param bits from 0 to 64
+   */
+  public long readBits(int bits, ByteBuffer in) {
+    if (bits == 0) {
+      return 0;
+    }
+    if (bits <= bitsLeft) {
+      long value = buffer >>> (Long.SIZE - bits);
+      // buffer << 64 is buffer, which is fine as no bit is left then
+      buffer <<= bits;
+      bitsLeft -= bits;
+      return value;
+    }
+    // the value spans the accumulator and the next refill, or a few refills near the end
+    long value = 0;
+    while (bits > 0) {
+      if (bitsLeft == 0) {
+        refill(in);
+      }
+      int n = Math.min(bits, bitsLeft);
+      value = n == Long.SIZE ? buffer : (value << n) | (buffer >>> (Long.SIZE - n));
+      buffer <<= n;
+      bitsLeft -= n;
+      bits -= n;
+    }
+    return value;
+  }
+
+  /**
+   * Called once the last bit of the stream is read. Moves the position of {@code in} back to the
+   * end of the stream, i.e. behind the byte holding the last bit, or behind the empty byte after it
+   * if the bits end at a byte boundary, see {@link BitWriter#flush}.
+   */
+  public void finish(ByteBuffer in) {
+    // the whole bytes left, except the empty ending byte; -1 if that byte is not read yet
+    int unreadBytes = (bitsLeft - 1) >> 3;
+    in.position(Math.min(in.position() - unreadBytes, in.limit()));
+    reset();
+  }
+
+  /** Discard the unread bits. */
+  public void reset() {
+    buffer = 0;
+    bitsLeft = 0;
+  }
+
+  private void refill(ByteBuffer in) {
+    if (in.remaining() >= Long.BYTES) {
+      long value = in.getLong();
+      buffer = in.order() == ByteOrder.BIG_ENDIAN ? value : Long.reverseBytes(value);
+      bitsLeft = Long.SIZE;
+    } else {
+      buffer = (long) in.get() << (Long.SIZE - Byte.SIZE);
+      bitsLeft = Byte.SIZE;
+    }
+  }
+}
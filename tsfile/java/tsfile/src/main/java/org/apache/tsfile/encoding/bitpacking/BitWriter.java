@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.encoding.bitpacking;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * Writes a stream of bits, the most significant bit of each byte first. The bits are gathered in a
+ * 64-bit accumulator that reaches the OutputStream eight bytes at a time, instead of one byte per
+ * call. The stream is the same as writing the bits one by one. Not thread safe.
+ *
+ * @see BitReader
+ */
+public class BitWriter {
+
+  /** the buffered bits, aligned to the most significant bit */
+  private long buffer = 0;
+
+  /** number of buffered bits, always less than {@link Long#SIZE} between calls */
+  private int bufferedBits = 0;
+
+  private final byte[] bytes = new byte[Long.BYTES];
+
+  /**
+   * Write the {@code bits} least significant bits of {@code value}, the higher bits are ignored.
+   *
+   * @param bits from 0 to 64
+   */
+  public void writeBits(long value, int bits, ByteArrayOutputStream out) {
+    if (bits == 0) {
+      return;
+    }
+    // a shift of 0 keeps all the 64 bits
+    value &= -1L >>> (Long.SIZE - bits);
+    int free = Long.SIZE - bufferedBits;
+    if (bits < free) {
+      buffer |= value << (free - bits);
+      bufferedBits += bits;
+    } else {
+      // fill the accumulator, write it out and keep the rest of the value
+      int rest = bits - free;
+      buffer |= value >>> rest;
+      writeBuffer(out);
+      // value << 64 is value, so an empty rest must be cleared
+      buffer = rest == 0 ? 0 : value << (Long.SIZE - rest);
+      bufferedBits = rest;
+    }
+  }
+
+  /** Write a 1. */
+  public void writeBit(ByteArrayOutputStream out) {
+    buffer |= Long.MIN_VALUE >>> bufferedBits;
+    if (++bufferedBits == Long.SIZE) {
+      writeBuffer(out);
+      buffer = 0;
+      bufferedBits = 0;
+    }
+  }
+
+  /** Write a 0. */
+  public void skipBit(ByteArrayOutputStream out) {
+    if (++bufferedBits == Long.SIZE) {
+      writeBuffer(out);
+      buffer = 0;
+      bufferedBits = 0;
+    }
+  }
+
+  /**
+   * Write the buffered bits padded with 0s to the end of their byte. A whole byte of 0s is written
+   * if the buffered bits end at a byte boundary, which the former readers of the Gorilla family
+   * rely on, as they read one byte ahead.
+   */
+  public void flush(ByteArrayOutputStream out) {
+    int byteNum = bufferedBits / Byte.SIZE + 1;
+    for (int i = 0; i < byteNum; i++) {
+      bytes[i] = (byte) (buffer >>> (Long.SIZE - Byte.SIZE * (i + 1)));
+    }
+    out.write(bytes, 0, byteNum);
+    reset();
+  }
+
+  /** Number of bits buffered that have not reached the OutputStream yet. */
+  public int getBufferedBits() {
+    return bufferedBits;
+  }
+
+  /** Discard the buffered bits. */
+  public void reset() {
+    buffer = 0;
+    bufferedBits = 0;
+  }
+
+  private void writeBuffer(ByteArrayOutputStream out) {
+    long value = buffer;
+    for (int i = Long.BYTES - 1; i >= 0; i--) {
+      bytes[i] = (byte) value;
+      value >>>= Byte.SIZE;
+    }
+    out.write(bytes, 0, Long.BYTES);
+  }
+}
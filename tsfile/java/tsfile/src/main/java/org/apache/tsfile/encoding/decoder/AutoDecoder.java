@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.encoding.decoder;
+
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.file.metadata.enums.TSEncoding;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Decoder of the AUTO encoding. The value column of each page starts with the serialized {@link
+ * TSEncoding} chosen by {@link org.apache.tsfile.encoding.encoder.AutoEncoder}, which is read on
+ * the first access to the page and decides the decoder the values are delegated to. Page readers
+ * call {@link #selectDecoder(ByteBuffer)} themselves to decode the page with that decoder directly.
+ */
+public class AutoDecoder extends Decoder {
+
+  private final TSDataType dataType;
+
+  /** the decoder of the current page, null until the leading byte of the page is read */
+  private Decoder decoder;
+
+  public AutoDecoder(TSDataType dataType) {
+    super(TSEncoding.AUTO);
+    this.dataType = dataType;
+  }
+
+  /**
+   * Read the encoding of the page from the beginning of {@code buffer} if not read yet.
+   *
+   * @return the decoder of the rest of the page
+   */
+  public Decoder selectDecoder(ByteBuffer buffer) {
+    if (decoder == null) {
+      decoder = getDecoderByType(TSEncoding.deserialize(buffer.get()), dataType);
+    }
+    return decoder;
+  }
+
+  /**
+   * @return the decoder of the page starting at {@code buffer} if {@code decoder} is an AUTO
+   *     decoder and the page is not empty, {@code decoder} otherwise
+   */
+  public static Decoder selectDecoder(Decoder decoder, ByteBuffer buffer) {
+    if (decoder instanceof AutoDecoder && buffer != null && buffer.hasRemaining()) {
+      return ((AutoDecoder) decoder).selectDecoder(buffer);
+    }
+    return decoder;
+  }
+
+  @Override
+  public float readFloat(ByteBuffer buffer) {
+    return selectDecoder(buffer).readFloat(buffer);
+  }
+
+  @Override
+  public double readDouble(ByteBuffer buffer) {
+    return selectDecoder(buffer).readDouble(buffer);
+  }
+
+  @Override
+  public boolean hasNext(ByteBuffer buffer) throws IOException {
+    if (decoder == null && !buffer.hasRemaining()) {
+      return false;
+    }
+    return selectDecoder(buffer).hasNext(buffer);
+  }
+
+  @Override
+  public void reset() {
+    decoder = null;
+  }
+}
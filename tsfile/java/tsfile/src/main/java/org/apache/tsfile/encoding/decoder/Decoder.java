@@ -19,6 +19,7 @@
 
 package org.apache.tsfile.encoding.decoder;
 
+import org.apache.tsfile.common.conf.TSFileDescriptor;
 import org.apache.tsfile.enums.TSDataType;
 import org.apache.tsfile.exception.encoding.TsFileDecodingException;
 import org.apache.tsfile.file.metadata.enums.TSEncoding;
@@ -46,6 +47,19 @@ public abstract class Decoder {
     return type;
   }
 
+  /**
+   * Get the decoder of the time column of a non-aligned page whose values are encoded by {@code
+   * valueEncoding}. Most value encodings leave the time column to the configured time encoder.
+   */
+  public static Decoder getTimeDecoder(TSEncoding valueEncoding) {
+    if (valueEncoding == TSEncoding.DEXOR_TIMED) {
+      return new RegularSegmentDecoder();
+    }
+    return getDecoderByType(
+        TSEncoding.valueOf(TSFileDescriptor.getInstance().getConfig().getTimeEncoder()),
+        TSDataType.INT64);
+  }
+
   public static Decoder getDecoderByType(TSEncoding encoding, TSDataType dataType) {
     switch (encoding) {
       case PLAIN:
@@ -154,6 +168,37 @@ public abstract class Decoder {
           default:
             throw new TsFileDecodingException(String.format(ERROR_MSG, encoding, dataType));
         }
+      case DEXOR_CROSS:
+        switch (dataType) {
+          case DOUBLE:
+            return new DoubleDeXORCrossDecoder();
+          default:
+            throw new TsFileDecodingException(String.format(ERROR_MSG, encoding, dataType));
+        }
+      case DEXOR_FIRE:
+        switch (dataType) {
+          case DOUBLE:
+            return new DoubleDeXORFireDecoder();
+          default:
+            throw new TsFileDecodingException(String.format(ERROR_MSG, encoding, dataType));
+        }
+      case DEXOR_TIMED:
+        switch (dataType) {
+          case DOUBLE:
+            Decoder decoder = new DoubleDeXORDecoder();
+            decoder.setType(TSEncoding.DEXOR_TIMED);
+            return decoder;
+          default:
+            throw new TsFileDecodingException(String.format(ERROR_MSG, encoding, dataType));
+        }
+      case AUTO:
+        switch (dataType) {
+          case FLOAT:
+          case DOUBLE:
+            return new AutoDecoder(dataType);
+          default:
+            throw new TsFileDecodingException(String.format(ERROR_MSG, encoding, dataType));
+        }
       case SPRINTZ:
         switch (dataType) {
           case INT32:
@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.encoding.decoder;
+
+import org.apache.tsfile.exception.encoding.TsFileDecodingException;
+import org.apache.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.tsfile.utils.ReadWriteIOUtils;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Decoder for {@link org.apache.tsfile.encoding.encoder.DoubleDeXORCrossEncoder}. The same-row
+ * values of the reference column must be provided by {@link #setReferenceValues} before decoding a
+ * page whose reference measurement id is not empty.
+ */
+public class DoubleDeXORCrossDecoder extends DoubleDeXORDecoder {
+
+  private String referenceMeasurementId;
+
+  /** reference values aligned with the non-null values of this column in the current page */
+  private double[] referenceValues;
+
+  private boolean[] referencePresent;
+
+  private int valueIndex = 0;
+
+  public DoubleDeXORCrossDecoder() {
+    super();
+    this.setType(TSEncoding.DEXOR_CROSS);
+  }
+
+  /** Read the measurement id of the reference column from the head of the page. */
+  public String readReferenceMeasurementId(ByteBuffer in) {
+    if (referenceMeasurementId == null) {
+      referenceMeasurementId = ReadWriteIOUtils.readVarIntString(in);
+    }
+    return referenceMeasurementId;
+  }
+
+  /**
+   * @param values the i-th element is the reference value in the row of the i-th non-null value
+   * @param present whether the reference column is non-null in that row
+   */
+  public void setReferenceValues(double[] values, boolean[] present) {
+    this.referenceValues = values;
+    this.referencePresent = present;
+  }
+
+  @Override
+  protected double cacheNext(ByteBuffer in) {
+    readReferenceMeasurementId(in);
+    int index = valueIndex++;
+    if (readBit(in)) {
+      if (referenceValues == null || index >= referenceValues.length || !referencePresent[index]) {
+        throw new TsFileDecodingException(
+            String.format(
+                "Value %d is predicted from reference column %s, which is not available",
+                index, referenceMeasurementId));
+      }
+      previous_value = referenceValues[index];
+    }
+    // unlike plain DeXOR, exceptions also become the base of the next value
+    next_value = readNext(in);
+    previous_value = next_value;
+    finishAtEnding(in);
+    return next_value;
+  }
+
+  @Override
+  public void reset() {
+    super.reset();
+    this.referenceMeasurementId = null;
+    this.referenceValues = null;
+    this.referencePresent = null;
+    this.valueIndex = 0;
+  }
+}
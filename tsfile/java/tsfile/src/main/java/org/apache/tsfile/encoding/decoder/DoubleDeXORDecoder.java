@@ -22,6 +22,8 @@ package org.apache.tsfile.encoding.decoder;
 import org.apache.tsfile.encoding.DeXORTools;
 import org.apache.tsfile.file.metadata.enums.TSEncoding;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.nio.ByteBuffer;
 
 /**
@@ -35,6 +37,13 @@ import java.nio.ByteBuffer;
  */
 public class DoubleDeXORDecoder extends GorillaDecoderV2 {
   private static final Double DEXOR_ENCODING_ENDING = 998274353.66;
+
+  /** the largest magnitude of a long that converts to a double exactly */
+  private static final long MAX_EXACT_DIGITS = 1L << 53;
+
+  /** the largest power of ten that is exact as a double */
+  private static final int MAX_EXACT_P10 = 22;
+
   protected int size = 64;
   protected double previous_value = 0;
   protected int previous_q = 0;
@@ -46,8 +55,22 @@ public class DoubleDeXORDecoder extends GorillaDecoderV2 {
 
   protected double previous_alpha = 0;
 
+  /** the value decoded ahead, returned by the next call of {@link #readDouble} */
+  protected double next_value = 0;
+
   protected int rho = 8;
 
+  /**
+   * the decimal form of the value decoded last, {@code (prefix * 10^delta + beta) * 10^q}, only
+   * valid if {@code decimal_exact} is set, i.e. the value was not stored as an exception
+   */
+  protected long decimal_prefix = 0;
+
+  protected long decimal_beta = 0;
+  protected int decimal_q = 0;
+  protected int decimal_delta = 0;
+  protected boolean decimal_exact = false;
+
   public DoubleDeXORDecoder() {
     this.previous_value = 0;
     this.previous_q = 0;
@@ -69,9 +92,12 @@ public class DoubleDeXORDecoder extends GorillaDecoderV2 {
     this.EL = 1;
     this.contract_step = 0;
     this.previous_alpha = 0;
+    this.next_value = 0;
+    this.decimal_exact = false;
   }
 
   protected double ExceptionDecode(ByteBuffer in) {
+    decimal_exact = false;
     int bias = DeXORTools.getP2(EL - 1) - 1;
     long delta = readLong(EL, in) - bias;
     long lv;
@@ -107,46 +133,141 @@ public class DoubleDeXORDecoder extends GorillaDecoderV2 {
   }
 
   @Override
-  public final double readDouble(ByteBuffer in) {
-    double returnValue = previous_value;
+  public double readDouble(ByteBuffer in) {
     if (!firstValueWasRead) {
-      flipByte(in);
       firstValueWasRead = true;
-      returnValue = cacheNext(in);
+      cacheNext(in);
     }
+    double returnValue = decimal_exact ? fromDecimal(next_value) : next_value;
     cacheNext(in);
     return returnValue;
   }
 
+  /**
+   * Rebuild the value decoded last from its decimal digits by one correctly rounded operation,
+   * since the double arithmetic of {@link #readNext(int, ByteBuffer)} may miss the last ulp of the
+   * value the digits stand for. {@code value} is returned if the digits do not allow it. The
+   * reference of the next value stays the double arithmetic one, which the encoder uses too.
+   */
+  protected double fromDecimal(double value) {
+    long digits;
+    try {
+      digits =
+          Math.addExact(
+              Math.multiplyExact(decimal_prefix, DeXORTools.getLongP10(decimal_delta)),
+              decimal_beta);
+    } catch (ArithmeticException e) {
+      return value;
+    }
+    if (Math.abs(digits) > MAX_EXACT_DIGITS) {
+      return value;
+    }
+    if (decimal_q >= 0 && decimal_q <= MAX_EXACT_P10) {
+      return digits * DeXORTools.getP10(decimal_q);
+    }
+    if (decimal_q < 0 && decimal_q >= -MAX_EXACT_P10) {
+      return digits / DeXORTools.getP10(-decimal_q);
+    }
+    return value;
+  }
+
   protected double cacheNext(ByteBuffer in) {
-    readNext(in);
-    if (Double.doubleToRawLongBits(previous_value) == DEXOR_ENCODING_ENDING) {
-      hasNext = false;
+    int con = (int) readLong(2, in);
+    if (con == 3) {
+      // the encoder keeps the reference of the value before an exception
+      next_value = ExceptionDecode(in);
+    } else {
+      next_value = readNext(con, in);
+      previous_value = next_value;
     }
-    return previous_value;
+    finishAtEnding(in);
+    return next_value;
   }
 
-  @SuppressWarnings("squid:S128")
+  /** Finish the page if {@link #next_value} is the ending marker appended by the encoder. */
+  protected void finishAtEnding(ByteBuffer in) {
+    // compare the bits, a long compared to the boxed ending would be widened to a double
+    if (Double.doubleToRawLongBits(next_value)
+        == Double.doubleToRawLongBits(DEXOR_ENCODING_ENDING)) {
+      finish(in);
+    }
+  }
+
+  /** Decode the next value, including exceptions, against {@link #previous_value}. */
   protected double readNext(ByteBuffer in) {
     int con = (int) readLong(2, in);
     if (con == 3) { // overflow Exception
       return ExceptionDecode(in);
     }
+    return readNext(con, in);
+  }
 
-    if (con == 0 || con == 1) {
-      if (con == 0) previous_q = (int) (readLong(5, in) - 20);
+  /**
+   * Decode the next non exception value against {@link #previous_value} as the decimal reference,
+   * {@code con} is the control code already read. The common prefix is recomputed for every value,
+   * since it may change although the decimal scale and the number of residual digits do not.
+   */
+  protected double readNext(int con, ByteBuffer in) {
+    if (con == 0) {
+      previous_q = (int) (readLong(5, in) - 20);
+    }
+    if (con != 2) {
       previous_delta = (int) readLong(4, in);
-      double pow = DeXORTools.getP10(previous_q + previous_delta);
-      previous_alpha = DeXORTools.truncate(previous_value / pow) * pow;
     }
+    double pow = DeXORTools.getP10(previous_q + previous_delta);
+    long prefix = DeXORTools.truncate(previous_value / pow);
+    previous_alpha = prefix * pow;
 
     long sign = previous_alpha > 0 ? 1 : -1;
-    if (DeXORTools.comp(previous_alpha, 0) == 0) sign = readBit(in) ? 1 : -1; // sign
-    long beta_star = sign * readLong(DeXORTools.decimalBits(previous_delta), in);
-    double beta = beta_star * DeXORTools.getP10(previous_q);
+    if (DeXORTools.comp(previous_alpha, 0) == 0) {
+      sign = readBit(in) ? 1 : -1; // sign
+    }
+    long betaStar = sign * readLong(DeXORTools.decimalBits(previous_delta), in);
+    decimal_prefix = prefix;
+    decimal_beta = betaStar;
+    decimal_q = previous_q;
+    decimal_delta = previous_delta;
+    decimal_exact = true;
+    return previous_alpha + betaStar * DeXORTools.getP10(previous_q);
+  }
 
-    previous_value = previous_alpha + beta;
+  /**
+   * Read the next value as an unscaled long with {@code scale} fraction digits. A value stored as a
+   * decimal is rebuilt from its DeXOR digits without going through its double form.
+   *
+   * @throws ArithmeticException if the value does not fit into a long at this scale
+   */
+  public long readUnscaled(ByteBuffer in, int scale) {
+    if (!firstValueWasRead) {
+      firstValueWasRead = true;
+      cacheNext(in);
+    }
+    long unscaled = toUnscaled(next_value, scale);
+    cacheNext(in);
+    return unscaled;
+  }
 
-    return previous_value;
+  /**
+   * Convert the value decoded last to an unscaled long with {@code scale} fraction digits.
+   * Exceptions and values with more fraction digits than the scale are rounded half even from their
+   * double form instead.
+   */
+  protected long toUnscaled(double value, int scale) {
+    int shift = decimal_q + scale;
+    if (decimal_exact && shift >= 0 && shift <= DeXORTools.getMaxLongP10()) {
+      try {
+        long digits =
+            Math.addExact(
+                Math.multiplyExact(decimal_prefix, DeXORTools.getLongP10(decimal_delta)),
+                decimal_beta);
+        return Math.multiplyExact(digits, DeXORTools.getLongP10(shift));
+      } catch (ArithmeticException e) {
+        // too many digits for a long, let the double form decide
+      }
+    }
+    return BigDecimal.valueOf(value)
+        .setScale(scale, RoundingMode.HALF_EVEN)
+        .unscaledValue()
+        .longValueExact();
   }
 }
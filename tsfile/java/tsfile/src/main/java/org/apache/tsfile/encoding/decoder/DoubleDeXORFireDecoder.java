@@ -0,0 +1,51 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.encoding.decoder;
+
+import org.apache.tsfile.encoding.fire.DecimalFire;
+import org.apache.tsfile.file.metadata.enums.TSEncoding;
+
+import java.nio.ByteBuffer;
+
+/** Decoder for {@link org.apache.tsfile.encoding.encoder.DoubleDeXORFireEncoder}. */
+public class DoubleDeXORFireDecoder extends DoubleDeXORDecoder {
+
+  private final DecimalFire firePred = new DecimalFire(6);
+
+  public DoubleDeXORFireDecoder() {
+    super();
+    this.setType(TSEncoding.DEXOR_FIRE);
+  }
+
+  @Override
+  protected double cacheNext(ByteBuffer in) {
+    previous_value = firePred.predictReference(previous_q);
+    next_value = readNext(in);
+    firePred.update(next_value);
+    finishAtEnding(in);
+    return next_value;
+  }
+
+  @Override
+  public void reset() {
+    super.reset();
+    firePred.reset();
+  }
+}
@@ -43,7 +43,7 @@ public class DoublePrecisionChimpDecoder extends LongChimpDecoder {
   protected long cacheNext(ByteBuffer in) {
     readNext(in);
     if (storedValues[current] == CHIMP_ENCODING_ENDING) {
-      hasNext = false;
+      finish(in);
     }
     return storedValues[current];
   }
@@ -46,7 +46,7 @@ public class DoublePrecisionDecoderV2 extends LongGorillaDecoder {
   protected long cacheNext(ByteBuffer in) {
     readNext(in);
     if (storedValue == GORILLA_ENCODING_ENDING) {
-      hasNext = false;
+      finish(in);
     }
     return storedValue;
   }
@@ -19,6 +19,7 @@
 
 package org.apache.tsfile.encoding.decoder;
 
+import org.apache.tsfile.encoding.bitpacking.BitReader;
 import org.apache.tsfile.file.metadata.enums.TSEncoding;
 
 import java.nio.ByteBuffer;
@@ -39,8 +40,7 @@ public abstract class GorillaDecoderV2 extends Decoder {
   protected int storedTrailingZeros = 0;
   protected boolean hasNext = true;
 
-  private byte buffer = 0;
-  private int bitsLeft = 0;
+  private final BitReader bitReader = new BitReader();
 
   protected GorillaDecoderV2() {
     super(TSEncoding.GORILLA);
@@ -58,8 +58,7 @@ public abstract class GorillaDecoderV2 extends Decoder {
     storedTrailingZeros = 0;
     hasNext = true;
 
-    buffer = 0;
-    bitsLeft = 0;
+    bitReader.reset();
   }
 
   /**
@@ -68,10 +67,7 @@ public abstract class GorillaDecoderV2 extends Decoder {
    * @return true if the next bit is 1, otherwise 0.
    */
   protected boolean readBit(ByteBuffer in) {
-    boolean bit = ((buffer >> (bitsLeft - 1)) & 1) == 1;
-    bitsLeft--;
-    flipByte(in);
-    return bit;
+    return bitReader.readBit(in);
   }
 
   /**
@@ -81,24 +77,7 @@ public abstract class GorillaDecoderV2 extends Decoder {
    * @return long value that was read from the stream
    */
   protected long readLong(int bits, ByteBuffer in) {
-    long value = 0;
-    while (bits > 0) {
-      if (bits > bitsLeft || bits == Byte.SIZE) {
-        // Take only the bitsLeft "least significant" bits
-        byte d = (byte) (buffer & ((1 << bitsLeft) - 1));
-        value = (value << bitsLeft) + (d & 0xFF);
-        bits -= bitsLeft;
-        bitsLeft = 0;
-      } else {
-        // Shift to correct position and take only least significant bits
-        byte d = (byte) ((buffer >>> (bitsLeft - bits)) & ((1 << bits) - 1));
-        value = (value << bits) + (d & 0xFF);
-        bitsLeft -= bits;
-        bits = 0;
-      }
-      flipByte(in);
-    }
-    return value;
+    return bitReader.readBits(bits, in);
   }
 
   protected byte readNextClearBit(int maxBits, ByteBuffer in) {
@@ -114,10 +93,12 @@ public abstract class GorillaDecoderV2 extends Decoder {
     return value;
   }
 
-  protected void flipByte(ByteBuffer in) {
-    if (bitsLeft == 0) {
-      buffer = in.get();
-      bitsLeft = Byte.SIZE;
-    }
+  /**
+   * Called once the ending value is read. No value is left, and the position of {@code in} is moved
+   * back to the end of the stream, as the bit reader reads ahead by up to eight bytes.
+   */
+  protected void finish(ByteBuffer in) {
+    hasNext = false;
+    bitReader.finish(in);
   }
 }
@@ -69,7 +69,6 @@ public class IntChimpDecoder extends GorillaDecoderV2 {
   public final int readInt(ByteBuffer in) {
     int returnValue = storedValue;
     if (!firstValueWasRead) {
-      flipByte(in);
       storedValue = (int) readLong(VALUE_BITS_LENGTH_32BIT, in);
       storedValues[current] = storedValue;
       firstValueWasRead = true;
@@ -82,7 +81,7 @@ public class IntChimpDecoder extends GorillaDecoderV2 {
   protected int cacheNext(ByteBuffer in) {
     readNext(in);
     if (storedValues[current] == Integer.MIN_VALUE) {
-      hasNext = false;
+      finish(in);
     }
     return storedValues[current];
   }
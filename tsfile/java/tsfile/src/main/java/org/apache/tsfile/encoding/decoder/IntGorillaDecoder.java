@@ -49,7 +49,6 @@ public class IntGorillaDecoder extends GorillaDecoderV2 {
   public final int readInt(ByteBuffer in) {
     int returnValue = storedValue;
     if (!firstValueWasRead) {
-      flipByte(in);
       storedValue = (int) readLong(VALUE_BITS_LENGTH_32BIT, in);
       firstValueWasRead = true;
       returnValue = storedValue;
@@ -61,7 +60,7 @@ public class IntGorillaDecoder extends GorillaDecoderV2 {
   protected int cacheNext(ByteBuffer in) {
     readNext(in);
     if (storedValue == GORILLA_ENCODING_ENDING_INTEGER) {
-      hasNext = false;
+      finish(in);
     }
     return storedValue;
   }
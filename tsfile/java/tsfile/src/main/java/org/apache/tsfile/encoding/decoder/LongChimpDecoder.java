@@ -69,7 +69,6 @@ public class LongChimpDecoder extends GorillaDecoderV2 {
   public final long readLong(ByteBuffer in) {
     long returnValue = storedValue;
     if (!firstValueWasRead) {
-      flipByte(in);
       storedValue = readLong(VALUE_BITS_LENGTH_64BIT, in);
       storedValues[current] = storedValue;
       firstValueWasRead = true;
@@ -82,7 +81,7 @@ public class LongChimpDecoder extends GorillaDecoderV2 {
   protected long cacheNext(ByteBuffer in) {
     readNext(in);
     if (storedValues[current] == Long.MIN_VALUE) {
-      hasNext = false;
+      finish(in);
     }
     return storedValues[current];
   }
@@ -49,7 +49,6 @@ public class LongGorillaDecoder extends GorillaDecoderV2 {
   public final long readLong(ByteBuffer in) {
     long returnValue = storedValue;
     if (!firstValueWasRead) {
-      flipByte(in);
       storedValue = readLong(VALUE_BITS_LENGTH_64BIT, in);
       firstValueWasRead = true;
       returnValue = storedValue;
@@ -61,7 +60,7 @@ public class LongGorillaDecoder extends GorillaDecoderV2 {
   protected long cacheNext(ByteBuffer in) {
     readNext(in);
     if (storedValue == GORILLA_ENCODING_ENDING_LONG) {
-      hasNext = false;
+      finish(in);
     }
     return storedValue;
   }
@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.encoding.decoder;
+
+import org.apache.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.tsfile.utils.ReadWriteForEncodingUtils;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Decoder for {@link org.apache.tsfile.encoding.encoder.RegularSegmentEncoder}. Besides reading the
+ * timestamps one by one, a whole segment can be taken by {@link #readSegment(ByteBuffer)} so that
+ * callers generate the timestamps in their own loop.
+ */
+public class RegularSegmentDecoder extends Decoder {
+
+  private long start;
+  private long interval;
+  private int count;
+  private int nextIndex;
+  private long previousEnd;
+
+  public RegularSegmentDecoder() {
+    super(TSEncoding.DEXOR_TIMED);
+  }
+
+  @Override
+  public boolean hasNext(ByteBuffer buffer) {
+    return nextIndex < count || buffer.hasRemaining();
+  }
+
+  @Override
+  public long readLong(ByteBuffer buffer) {
+    if (nextIndex == count) {
+      loadSegment(buffer);
+    }
+    return start + (nextIndex++) * interval;
+  }
+
+  /**
+   * Take the remaining timestamps of the current segment, or of the next one if it is exhausted.
+   * The timestamps are {@code getSegmentStart() + i * getSegmentInterval()} for {@code i} in {@code
+   * [0, count)}.
+   *
+   * @return count, the number of timestamps taken
+   */
+  public int readSegment(ByteBuffer buffer) {
+    if (nextIndex == count) {
+      loadSegment(buffer);
+    }
+    start += nextIndex * interval;
+    int taken = count - nextIndex;
+    count = 0;
+    nextIndex = 0;
+    return taken;
+  }
+
+  public long getSegmentStart() {
+    return start;
+  }
+
+  public long getSegmentInterval() {
+    return interval;
+  }
+
+  private void loadSegment(ByteBuffer buffer) {
+    start = previousEnd + ReadWriteForEncodingUtils.readVarLong(buffer);
+    interval = ReadWriteForEncodingUtils.readVarLong(buffer);
+    count = ReadWriteForEncodingUtils.readUnsignedVarInt(buffer);
+    nextIndex = 0;
+    previousEnd = start + (count - 1) * interval;
+  }
+
+  @Override
+  public void reset() {
+    start = 0;
+    interval = 0;
+    count = 0;
+    nextIndex = 0;
+    previousEnd = 0;
+  }
+}
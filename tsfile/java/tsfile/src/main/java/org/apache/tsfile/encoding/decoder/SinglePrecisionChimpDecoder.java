@@ -43,7 +43,7 @@ public class SinglePrecisionChimpDecoder extends IntChimpDecoder {
   protected int cacheNext(ByteBuffer in) {
     readNext(in);
     if (storedValues[current] == CHIMP_ENCODING_ENDING) {
-      hasNext = false;
+      finish(in);
     }
     return storedValues[current];
   }
@@ -46,7 +46,7 @@ public class SinglePrecisionDecoderV2 extends IntGorillaDecoder {
   protected int cacheNext(ByteBuffer in) {
     readNext(in);
     if (storedValue == GORILLA_ENCODING_ENDING) {
-      hasNext = false;
+      finish(in);
     }
     return storedValue;
   }
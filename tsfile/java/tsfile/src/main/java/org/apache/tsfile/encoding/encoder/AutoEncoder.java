@@ -0,0 +1,224 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.encoding.encoder;
+
+import org.apache.tsfile.encoding.decoder.Decoder;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.tsfile.utils.PublicBAOS;
+import org.apache.tsfile.write.UnSupportedDataTypeException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Encoder of the AUTO encoding for FLOAT and DOUBLE. The values of a page are buffered, and when
+ * the page is sealed every candidate encoder is tried on the first values of the page, the smallest
+ * one encoding the whole page. The page starts with the serialized {@link TSEncoding} of the chosen
+ * encoder, so that the decoder is picked per page, see {@link
+ * org.apache.tsfile.encoding.decoder.AutoDecoder}.
+ *
+ * <p>The candidates are DEXOR (DOUBLE only), GORILLA, CHIMP and PLAIN. A page never takes more than
+ * its PLAIN form plus the leading byte, since PLAIN is used whenever the chosen encoder turns out
+ * to be larger on the whole page. A candidate failing on the values of a page is left out for it,
+ * and the chosen page is decoded again, falling back to PLAIN unless it restores every value.
+ */
+public class AutoEncoder extends Encoder {
+
+  private static final TSEncoding[] DOUBLE_CANDIDATES = {
+    TSEncoding.DEXOR, TSEncoding.GORILLA, TSEncoding.CHIMP, TSEncoding.PLAIN
+  };
+
+  private static final TSEncoding[] FLOAT_CANDIDATES = {
+    TSEncoding.GORILLA, TSEncoding.CHIMP, TSEncoding.PLAIN
+  };
+
+  private final TSDataType dataType;
+  private final TSEncoding[] candidates;
+  private final Encoder[] encoders;
+  private final int sampleSize;
+
+  private float[] floats;
+  private double[] doubles;
+  private int size;
+
+  private final PublicBAOS sampleOut = new PublicBAOS();
+  private final PublicBAOS bestOut = new PublicBAOS();
+
+  public AutoEncoder(TSDataType dataType, int sampleSize) {
+    super(TSEncoding.AUTO);
+    this.dataType = dataType;
+    this.sampleSize = Math.max(1, sampleSize);
+    switch (dataType) {
+      case FLOAT:
+        candidates = FLOAT_CANDIDATES;
+        floats = new float[16];
+        break;
+      case DOUBLE:
+        candidates = DOUBLE_CANDIDATES;
+        doubles = new double[16];
+        break;
+      default:
+        throw new UnSupportedDataTypeException("AUTO doesn't support data type: " + dataType);
+    }
+    encoders = new Encoder[candidates.length];
+    for (int i = 0; i < candidates.length; i++) {
+      encoders[i] = TSEncodingBuilder.getEncodingBuilder(candidates[i]).getEncoder(dataType);
+    }
+  }
+
+  @Override
+  public void encode(float value, ByteArrayOutputStream out) {
+    if (size == floats.length) {
+      floats = Arrays.copyOf(floats, size << 1);
+    }
+    floats[size++] = value;
+  }
+
+  @Override
+  public void encode(double value, ByteArrayOutputStream out) {
+    if (size == doubles.length) {
+      doubles = Arrays.copyOf(doubles, size << 1);
+    }
+    doubles[size++] = value;
+  }
+
+  @Override
+  public void encode(float[] values, int from, int to, ByteArrayOutputStream out) {
+    int count = to - from;
+    if (size + count > floats.length) {
+      floats = Arrays.copyOf(floats, Math.max(size + count, size << 1));
+    }
+    System.arraycopy(values, from, floats, size, count);
+    size += count;
+  }
+
+  @Override
+  public void encode(double[] values, int from, int to, ByteArrayOutputStream out) {
+    int count = to - from;
+    if (size + count > doubles.length) {
+      doubles = Arrays.copyOf(doubles, Math.max(size + count, size << 1));
+    }
+    System.arraycopy(values, from, doubles, size, count);
+    size += count;
+  }
+
+  @Override
+  public void flush(ByteArrayOutputStream out) throws IOException {
+    if (size == 0) {
+      return;
+    }
+    int sampled = Math.min(size, sampleSize);
+    int best = -1;
+    bestOut.reset();
+    for (int i = 0; i < candidates.length; i++) {
+      sampleOut.reset();
+      if (tryEncodeValues(i, sampled, sampleOut)
+          && (best < 0 || sampleOut.size() < bestOut.size())) {
+        best = i;
+        bestOut.reset();
+        sampleOut.writeTo(bestOut);
+      }
+    }
+    int plain = candidates.length - 1;
+    if (sampled < size && best != plain) {
+      bestOut.reset();
+      if (!tryEncodeValues(best, size, bestOut)
+          || bestOut.size() > size * dataType.getDataTypeSize()) {
+        best = plain;
+      }
+    }
+    if (best != plain && !decodesBack(best)) {
+      best = plain;
+      bestOut.reset();
+      encodeValues(encoders[plain], size, bestOut);
+    } else if (sampled < size && best == plain) {
+      bestOut.reset();
+      encodeValues(encoders[plain], size, bestOut);
+    }
+    out.write(candidates[best].serialize());
+    out.write(bestOut.getBuf(), 0, bestOut.size());
+    size = 0;
+  }
+
+  /**
+   * @return false if the candidate cannot encode the values, e.g. DEXOR on values out of the range
+   *     of its decimal scales, in which case it is replaced by a fresh encoder
+   */
+  private boolean tryEncodeValues(int candidate, int count, ByteArrayOutputStream out)
+      throws IOException {
+    try {
+      encodeValues(encoders[candidate], count, out);
+      return true;
+    } catch (RuntimeException e) {
+      encoders[candidate] =
+          TSEncodingBuilder.getEncodingBuilder(candidates[candidate]).getEncoder(dataType);
+      return false;
+    }
+  }
+
+  /**
+   * Whether the page encoded by the candidate in {@link #bestOut} decodes to exactly the buffered
+   * values, e.g. DEXOR rebuilds NaN as 0 and GORILLA and CHIMP end a page at a NaN.
+   */
+  private boolean decodesBack(int candidate) {
+    ByteBuffer page = ByteBuffer.wrap(bestOut.getBuf(), 0, bestOut.size());
+    Decoder decoder = Decoder.getDecoderByType(candidates[candidate], dataType);
+    try {
+      for (int i = 0; i < size; i++) {
+        if (!decoder.hasNext(page)) {
+          return false;
+        }
+        if (doubles != null
+            ? Double.doubleToLongBits(decoder.readDouble(page))
+                != Double.doubleToLongBits(doubles[i])
+            : Float.floatToIntBits(decoder.readFloat(page)) != Float.floatToIntBits(floats[i])) {
+          return false;
+        }
+      }
+      return !decoder.hasNext(page);
+    } catch (IOException | RuntimeException e) {
+      return false;
+    }
+  }
+
+  private void encodeValues(Encoder encoder, int count, ByteArrayOutputStream out)
+      throws IOException {
+    if (doubles != null) {
+      encoder.encode(doubles, 0, count, out);
+    } else {
+      encoder.encode(floats, 0, count, out);
+    }
+    encoder.flush(out);
+  }
+
+  @Override
+  public int getOneItemMaxSize() {
+    return dataType.getDataTypeSize();
+  }
+
+  /** The PLAIN form of the buffered values and the leading byte, see the class comment. */
+  @Override
+  public long getMaxByteSize() {
+    return size == 0 ? 0 : 1 + (long) size * dataType.getDataTypeSize();
+  }
+}
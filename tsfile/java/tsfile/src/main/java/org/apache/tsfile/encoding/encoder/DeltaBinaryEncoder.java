@@ -210,6 +210,37 @@ public abstract class DeltaBinaryEncoder extends Encoder {
       encodeValue(value, out);
     }
 
+    @Override
+    public void encode(int[] values, int from, int to, ByteArrayOutputStream out) {
+      int i = from;
+      while (i < to) {
+        if (writeIndex == -1) {
+          writeIndex++;
+          firstValue = values[i];
+          previousValue = firstValue;
+          i++;
+          continue;
+        }
+        // fill the rest of the current block in one tight loop, then flush it
+        int end = Math.min(to, i + blockSize - writeIndex);
+        int previous = previousValue;
+        int minDelta = minDeltaBase;
+        for (; i < end; i++) {
+          int delta = values[i] - previous;
+          if (delta < minDelta) {
+            minDelta = delta;
+          }
+          deltaBlockBuffer[writeIndex++] = delta;
+          previous = values[i];
+        }
+        previousValue = previous;
+        minDeltaBase = minDelta;
+        if (writeIndex == blockSize) {
+          flush(out);
+        }
+      }
+    }
+
     @Override
     public int getOneItemMaxSize() {
       return 4;
@@ -285,6 +316,37 @@ public abstract class DeltaBinaryEncoder extends Encoder {
       encodeValue(value, out);
     }
 
+    @Override
+    public void encode(long[] values, int from, int to, ByteArrayOutputStream out) {
+      int i = from;
+      while (i < to) {
+        if (writeIndex == -1) {
+          writeIndex++;
+          firstValue = values[i];
+          previousValue = firstValue;
+          i++;
+          continue;
+        }
+        // fill the rest of the current block in one tight loop, then flush it
+        int end = Math.min(to, i + blockSize - writeIndex);
+        long previous = previousValue;
+        long minDelta = minDeltaBase;
+        for (; i < end; i++) {
+          long delta = values[i] - previous;
+          if (delta < minDelta) {
+            minDelta = delta;
+          }
+          deltaBlockBuffer[writeIndex++] = delta;
+          previous = values[i];
+        }
+        previousValue = previous;
+        minDeltaBase = minDelta;
+        if (writeIndex == blockSize) {
+          flush(out);
+        }
+      }
+    }
+
     @Override
     public int getOneItemMaxSize() {
       return 8;
@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.encoding.encoder;
+
+import org.apache.tsfile.common.conf.TSFileConfig;
+import org.apache.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.tsfile.utils.ReadWriteForEncodingUtils;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * DeXOR for a DOUBLE value column of an aligned series that is correlated with a sibling column of
+ * the same row (e.g. the phases of a three-phase meter). For every value the encoder predicts
+ * either from its own previous value or from the same-row value of the reference column, whichever
+ * is closer, and records the choice in one selector bit. The reference measurement id is written at
+ * the head of every page so that readers can locate the reference column.
+ */
+public class DoubleDeXORCrossEncoder extends DoubleDeXOREncoder {
+
+  /** measurement id of the reference column, empty if this column has no reference */
+  private String referenceMeasurementId = "";
+
+  private boolean pageHeadWritten = false;
+
+  public DoubleDeXORCrossEncoder() {
+    super();
+    this.setType(TSEncoding.DEXOR_CROSS);
+  }
+
+  public void setReferenceMeasurementId(String referenceMeasurementId) {
+    this.referenceMeasurementId = referenceMeasurementId == null ? "" : referenceMeasurementId;
+  }
+
+  public String getReferenceMeasurementId() {
+    return referenceMeasurementId;
+  }
+
+  /**
+   * Encode a value of the current row.
+   *
+   * @param hasReference whether the reference column has a non-null value in the current row
+   * @param reference the value of the reference column in the current row
+   */
+  public void encode(
+      double value, boolean hasReference, double reference, ByteArrayOutputStream out) {
+    writePageHeadIfNecessary(out);
+    if (hasReference && Math.abs(value - reference) < Math.abs(value - previous_value)) {
+      writeBit(out);
+      previous_value = reference;
+    } else {
+      skipBit(out);
+    }
+    super.Decimal_XOR(value, out);
+    // unlike plain DeXOR, exceptions also become the base of the next value
+    previous_value = value;
+  }
+
+  @Override
+  public void encode(double[] values, int from, int to, ByteArrayOutputStream out) {
+    // without a reference, see Decimal_XOR
+    for (int i = from; i < to; i++) {
+      Decimal_XOR(values[i], out);
+    }
+  }
+
+  @Override
+  protected void Decimal_XOR(double value, ByteArrayOutputStream out) {
+    encode(value, false, 0, out);
+  }
+
+  @Override
+  protected int getMaxItemBits() {
+    // one more selector bit in front of every value
+    return MAX_ITEM_BITS + 1;
+  }
+
+  @Override
+  public long getMaxByteSize() {
+    long size = super.getMaxByteSize();
+    if (!pageHeadWritten) {
+      // the head is written with the first value, or with the ending marker of an empty page
+      size += ReadWriteForEncodingUtils.varIntStringSize(referenceMeasurementId);
+    }
+    return size;
+  }
+
+  private void writePageHeadIfNecessary(ByteArrayOutputStream out) {
+    if (!pageHeadWritten) {
+      // the bit buffer is empty at the beginning of a page, so the head stays byte aligned
+      byte[] bytes = referenceMeasurementId.getBytes(TSFileConfig.STRING_CHARSET);
+      ReadWriteForEncodingUtils.writeVarInt(bytes.length, out);
+      out.write(bytes, 0, bytes.length);
+      pageHeadWritten = true;
+    }
+  }
+
+  @Override
+  protected void reset() {
+    super.reset();
+    this.pageHeadWritten = false;
+  }
+}
@@ -24,8 +24,6 @@ import org.apache.tsfile.file.metadata.enums.TSEncoding;
 
 import java.io.ByteArrayOutputStream;
 
-import static org.apache.tsfile.common.conf.TSFileConfig.LEADING_ZERO_BITS_LENGTH_64BIT;
-import static org.apache.tsfile.common.conf.TSFileConfig.MEANINGFUL_XOR_BITS_LENGTH_64BIT;
 import static org.apache.tsfile.common.conf.TSFileConfig.VALUE_BITS_LENGTH_64BIT;
 
 public class DoubleDeXOREncoder extends GorillaEncoderV2 {
@@ -41,6 +39,9 @@ public class DoubleDeXOREncoder extends GorillaEncoderV2 {
 
   protected double previous_alpha = 0;
 
+  /** the last value as it will be reconstructed by the decoder */
+  protected double decoded_value = 0;
+
   protected int rho = 8;
 
   public DoubleDeXOREncoder() {
@@ -54,24 +55,122 @@ public class DoubleDeXOREncoder extends GorillaEncoderV2 {
     this.setType(TSEncoding.DEXOR);
   }
 
-  private static final int ONE_ITEM_MAX_SIZE =
-      (2
-                  + LEADING_ZERO_BITS_LENGTH_64BIT
-                  + MEANINGFUL_XOR_BITS_LENGTH_64BIT
-                  + VALUE_BITS_LENGTH_64BIT)
-              / Byte.SIZE
-          + 1;
+  /** Upper bound of the exponent length used by the exception path. */
+  protected static final int MAX_EL = 10;
+
+  /**
+   * The widest value is an exception whose exponent delta is out of range: 2 control bits, an
+   * all-ones exponent length header of at most {@link #MAX_EL} bits and the 64 raw bits. A normal
+   * value takes at most 2 + 2 + 5 + 4 + 1 + 54 bits.
+   */
+  protected static final int MAX_ITEM_BITS = 2 + MAX_EL + VALUE_BITS_LENGTH_64BIT;
+
+  // also covers the selector bit of the cross column variant
+  private static final int ONE_ITEM_MAX_SIZE = (MAX_ITEM_BITS + 1) / Byte.SIZE + 1;
 
   @Override
   public final int getOneItemMaxSize() {
     return ONE_ITEM_MAX_SIZE;
   }
 
+  /** Upper bound of the bits one value takes, including any per value prefix of subclasses. */
+  protected int getMaxItemBits() {
+    return MAX_ITEM_BITS;
+  }
+
+  /**
+   * The bits still buffered plus the widest possible ending marker. Together with the bytes already
+   * written to the OutputStream this is the size of the stream after {@link
+   * #flush(ByteArrayOutputStream)} up to the slack of the ending marker.
+   */
+  @Override
+  public long getMaxByteSize() {
+    return (getBufferedBits() + getMaxItemBits() + Byte.SIZE - 1) / Byte.SIZE;
+  }
+
+  @Override
+  public boolean isSizeExact() {
+    return true;
+  }
+
   @Override
   public final void encode(double value, ByteArrayOutputStream out) {
     Decimal_XOR(value, out);
   }
 
+  /**
+   * Encode a slice of values. This is {@link #Decimal_XOR(double, ByteArrayOutputStream)} value by
+   * value, with the decimal state kept in locals for the whole slice. Subclasses changing how a
+   * value is encoded must override this as well.
+   */
+  @Override
+  public void encode(double[] values, int from, int to, ByteArrayOutputStream out) {
+    double previousValue = previous_value;
+    int previousQ = previous_q;
+    int previousDelta = previous_delta;
+    double decodedValue = decoded_value;
+    for (int i = from; i < to; i++) {
+      double value = values[i];
+      int q = DeXORTools.getEnd(value, previousQ);
+
+      int delta = 0;
+      double alpha = 0;
+      while (delta < 16) {
+        double pow = DeXORTools.getP10(q + delta);
+        long a = DeXORTools.truncate(value / pow);
+        long b = DeXORTools.truncate(previousValue / pow);
+        if (a == b) {
+          alpha = a * pow;
+          break;
+        }
+        delta++;
+      }
+      double pow = DeXORTools.getP10(q);
+      long beta = Math.round((value - alpha) / pow);
+
+      if (delta >= 16 || DeXORTools.comp(alpha + beta * pow, value, pow) != 0) {
+        writeBit(out);
+        writeBit(out);
+        ExceptionHandle(value, out);
+        decodedValue = value;
+        continue;
+      }
+
+      long sign = alpha > 0 ? 1 : -1;
+      boolean zeroAlpha = DeXORTools.comp(alpha, 0) == 0;
+      if (zeroAlpha) sign = value > 0 ? 1 : -1;
+      beta = Math.abs(beta);
+      decodedValue = alpha + sign * beta * pow;
+      if (q == previousQ && delta == previousDelta) {
+        writeBit(out);
+        skipBit(out);
+      } else {
+        skipBit(out);
+        if (q == previousQ) {
+          writeBit(out);
+        } else {
+          skipBit(out);
+          writeBits(q + 20, 5, out);
+          previousQ = q;
+        }
+        writeBits(delta, 4, out);
+        previousDelta = delta;
+      }
+
+      if (zeroAlpha) {
+        if (value > 0) writeBit(out);
+        else skipBit(out);
+      }
+
+      writeBits(beta, DeXORTools.decimalBits(delta), out);
+      previousValue = value;
+    }
+    previous_value = previousValue;
+    previous_q = previousQ;
+    previous_delta = previousDelta;
+    decoded_value = decodedValue;
+  }
+
   @Override
   public void flush(ByteArrayOutputStream out) {
     // ending stream
@@ -79,8 +178,7 @@ public class DoubleDeXOREncoder extends GorillaEncoderV2 {
 
     // flip the byte no matter it is empty or not
     // the empty ending byte is necessary when decoding
-    bitsLeft = 0;
-    flipByte(out);
+    flushBits(out);
 
     // the encoder may be reused, so let us reset it
     reset();
@@ -96,6 +194,7 @@ public class DoubleDeXOREncoder extends GorillaEncoderV2 {
     this.EL = 1;
     this.contract_step = 0;
     this.previous_alpha = 0;
+    this.decoded_value = 0;
   }
 
   protected void ExceptionHandle(double value, ByteArrayOutputStream out) {
@@ -129,7 +228,7 @@ public class DoubleDeXOREncoder extends GorillaEncoderV2 {
       writeBits(lv, 64, out);
       contract_step = 0;
 
-      if (EL < 10) {
+      if (EL < MAX_EL) {
         EL++;
       }
     }
@@ -159,10 +258,15 @@ public class DoubleDeXOREncoder extends GorillaEncoderV2 {
       writeBit(out);
       writeBit(out);
       ExceptionHandle(value, out);
+      decoded_value = value;
       return;
     }
 
+    // the decoder restores the sign of beta from alpha or from the extra sign bit
+    long sign = alpha > 0 ? 1 : -1;
+    if (DeXORTools.comp(alpha, 0) == 0) sign = value > 0 ? 1 : -1;
     beta = Math.abs(beta);
+    decoded_value = alpha + sign * beta * pow;
     boolean flag = q == previous_q;
     if (flag && delta == previous_delta) { //
       // same method 10
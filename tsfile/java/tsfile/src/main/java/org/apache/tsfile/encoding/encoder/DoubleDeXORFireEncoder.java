@@ -0,0 +1,61 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.encoding.encoder;
+
+import org.apache.tsfile.encoding.fire.DecimalFire;
+import org.apache.tsfile.file.metadata.enums.TSEncoding;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * DeXOR whose decimal reference is predicted by a {@link DecimalFire} instead of being the previous
+ * value. For trending series the prediction shares a longer decimal prefix with the actual value,
+ * so fewer residual digits are written. The bit layout of every value is the same as DeXOR.
+ */
+public class DoubleDeXORFireEncoder extends DoubleDeXOREncoder {
+
+  private final DecimalFire firePred = new DecimalFire(6);
+
+  public DoubleDeXORFireEncoder() {
+    super();
+    this.setType(TSEncoding.DEXOR_FIRE);
+  }
+
+  @Override
+  public void encode(double[] values, int from, int to, ByteArrayOutputStream out) {
+    // every value goes through the prediction
+    for (int i = from; i < to; i++) {
+      Decimal_XOR(values[i], out);
+    }
+  }
+
+  @Override
+  protected void Decimal_XOR(double value, ByteArrayOutputStream out) {
+    previous_value = firePred.predictReference(previous_q);
+    super.Decimal_XOR(value, out);
+    firePred.update(decoded_value);
+  }
+
+  @Override
+  protected void reset() {
+    super.reset();
+    firePred.reset();
+  }
+}
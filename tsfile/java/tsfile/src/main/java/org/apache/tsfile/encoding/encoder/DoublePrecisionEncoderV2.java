@@ -39,6 +39,18 @@ public class DoublePrecisionEncoderV2 extends LongGorillaEncoder {
     encode(Double.doubleToRawLongBits(value), out);
   }
 
+  @Override
+  public final void encode(double[] values, int from, int to, ByteArrayOutputStream out) {
+    int i = from;
+    if (!firstValueWasWritten && i < to) {
+      writeFirst(Double.doubleToRawLongBits(values[i++]), out);
+      firstValueWasWritten = true;
+    }
+    for (; i < to; i++) {
+      compressValue(Double.doubleToRawLongBits(values[i]), out);
+    }
+  }
+
   @Override
   public void flush(ByteArrayOutputStream out) {
     // ending stream
@@ -46,8 +58,7 @@ public class DoublePrecisionEncoderV2 extends LongGorillaEncoder {
 
     // flip the byte no matter it is empty or not
     // the empty ending byte is necessary when decoding
-    bitsLeft = 0;
-    flipByte(out);
+    flushBits(out);
 
     // the encoder may be reused, so let us reset it
     reset();
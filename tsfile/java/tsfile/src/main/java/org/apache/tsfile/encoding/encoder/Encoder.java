@@ -34,6 +34,7 @@ public abstract class Encoder {
 
   public static final String MAX_STRING_LENGTH = "max_string_length";
   public static final String MAX_POINT_NUMBER = "max_point_number";
+  public static final String REFERENCE = "reference";
 
   private TSEncoding type;
 
@@ -81,6 +82,43 @@ public abstract class Encoder {
     throw new TsFileEncodingException("Method encode BigDecimal is not supported by Encoder");
   }
 
+  /**
+   * Encode {@code values[from, to)} in order, producing exactly the same bytes as encoding them one
+   * by one. Encoders used on the bulk write path override these methods with specialized loops so
+   * that a whole column slice is encoded without a virtual call per value.
+   *
+   * @param values source column
+   * @param from first index to encode, inclusive
+   * @param to last index to encode, exclusive
+   * @param out the ByteArrayOutputStream which data encode into
+   */
+  public void encode(int[] values, int from, int to, ByteArrayOutputStream out) {
+    for (int i = from; i < to; i++) {
+      encode(values[i], out);
+    }
+  }
+
+  /** See {@link #encode(int[], int, int, ByteArrayOutputStream)}. */
+  public void encode(long[] values, int from, int to, ByteArrayOutputStream out) {
+    for (int i = from; i < to; i++) {
+      encode(values[i], out);
+    }
+  }
+
+  /** See {@link #encode(int[], int, int, ByteArrayOutputStream)}. */
+  public void encode(float[] values, int from, int to, ByteArrayOutputStream out) {
+    for (int i = from; i < to; i++) {
+      encode(values[i], out);
+    }
+  }
+
+  /** See {@link #encode(int[], int, int, ByteArrayOutputStream)}. */
+  public void encode(double[] values, int from, int to, ByteArrayOutputStream out) {
+    for (int i = from; i < to; i++) {
+      encode(values[i], out);
+    }
+  }
+
   /**
    * Write all values buffered in memory cache to OutputStream.
    *
@@ -108,4 +146,16 @@ public abstract class Encoder {
   public long getMaxByteSize() {
     throw new UnsupportedOperationException();
   }
+
+  /**
+   * Whether the bytes already written to the OutputStream plus {@link #getMaxByteSize()} is the
+   * exact encoded size, up to the bound of the ending marker written by {@link
+   * #flush(ByteArrayOutputStream)}. Page writers check such encoders after every value instead of
+   * extrapolating from earlier checks.
+   *
+   * @return true if the size of this encoder can be tracked exactly
+   */
+  public boolean isSizeExact() {
+    return false;
+  }
 }
@@ -19,6 +19,7 @@
 
 package org.apache.tsfile.encoding.encoder;
 
+import org.apache.tsfile.encoding.bitpacking.BitWriter;
 import org.apache.tsfile.file.metadata.enums.TSEncoding;
 
 import java.io.ByteArrayOutputStream;
@@ -38,16 +39,21 @@ public abstract class GorillaEncoderV2 extends Encoder {
   protected int storedLeadingZeros = Integer.MAX_VALUE;
   protected int storedTrailingZeros = 0;
 
-  private byte buffer = 0;
-  protected int bitsLeft = Byte.SIZE;
+  private final BitWriter bitWriter = new BitWriter();
 
   protected GorillaEncoderV2() {
     super(TSEncoding.GORILLA);
   }
 
   @Override
-  public final long getMaxByteSize() {
-    return 0;
+  public long getMaxByteSize() {
+    // the whole bytes still in the accumulator of the bit writer
+    return getBufferedBits() / Byte.SIZE;
+  }
+
+  /** Number of bits buffered by the bit writer that have not reached the OutputStream yet. */
+  protected int getBufferedBits() {
+    return bitWriter.getBufferedBits();
   }
 
   protected void reset() {
@@ -55,21 +61,17 @@ public abstract class GorillaEncoderV2 extends Encoder {
     storedLeadingZeros = Integer.MAX_VALUE;
     storedTrailingZeros = 0;
 
-    buffer = 0;
-    bitsLeft = Byte.SIZE;
+    bitWriter.reset();
   }
 
   /** Stores a 0 and increases the count of bits by 1. */
   protected void skipBit(ByteArrayOutputStream out) {
-    bitsLeft--;
-    flipByte(out);
+    bitWriter.skipBit(out);
   }
 
   /** Stores a 1 and increases the count of bits by 1. */
   protected void writeBit(ByteArrayOutputStream out) {
-    buffer |= (1 << (bitsLeft - 1));
-    bitsLeft--;
-    flipByte(out);
+    bitWriter.writeBit(out);
   }
 
   /**
@@ -79,27 +81,11 @@ public abstract class GorillaEncoderV2 extends Encoder {
    * @param bits How many bits are stored to the stream
    */
   protected void writeBits(long value, int bits, ByteArrayOutputStream out) {
-    while (bits > 0) {
-      int shift = bits - bitsLeft;
-      if (shift >= 0) {
-        buffer |= (byte) ((value >> shift) & ((1 << bitsLeft) - 1));
-        bits -= bitsLeft;
-        bitsLeft = 0;
-      } else {
-        shift = bitsLeft - bits;
-        buffer |= (byte) (value << shift);
-        bitsLeft -= bits;
-        bits = 0;
-      }
-      flipByte(out);
-    }
+    bitWriter.writeBits(value, bits, out);
   }
 
-  protected void flipByte(ByteArrayOutputStream out) {
-    if (bitsLeft == 0) {
-      out.write(buffer);
-      buffer = 0;
-      bitsLeft = Byte.SIZE;
-    }
+  /** Writes the buffered bits out, padded to a byte, and an empty byte if they are byte aligned. */
+  protected void flushBits(ByteArrayOutputStream out) {
+    bitWriter.flush(out);
   }
 }
@@ -90,6 +90,12 @@ public class IntZigzagEncoder extends Encoder {
     values.clear();
   }
 
+  @Override
+  public int getOneItemMaxSize() {
+    // a zigzag int takes at most 5 varint bytes
+    return 5;
+  }
+
   @Override
   public long getMaxByteSize() {
     if (values == null) {
@@ -62,6 +62,18 @@ public class LongGorillaEncoder extends GorillaEncoderV2 {
     }
   }
 
+  @Override
+  public final void encode(long[] values, int from, int to, ByteArrayOutputStream out) {
+    int i = from;
+    if (!firstValueWasWritten && i < to) {
+      writeFirst(values[i++], out);
+      firstValueWasWritten = true;
+    }
+    for (; i < to; i++) {
+      compressValue(values[i], out);
+    }
+  }
+
   @Override
   public void flush(ByteArrayOutputStream out) {
     // ending stream
@@ -69,8 +81,7 @@ public class LongGorillaEncoder extends GorillaEncoderV2 {
 
     // flip the byte no matter it is empty or not
     // the empty ending byte is necessary when decoding
-    bitsLeft = 0;
-    flipByte(out);
+    flushBits(out);
 
     // the encoder may be reused, so let us reset it
     reset();
@@ -82,12 +93,12 @@ public class LongGorillaEncoder extends GorillaEncoderV2 {
     storedValue = 0;
   }
 
-  private void writeFirst(long value, ByteArrayOutputStream out) {
+  final void writeFirst(long value, ByteArrayOutputStream out) {
     storedValue = value;
     writeBits(value, VALUE_BITS_LENGTH_64BIT, out);
   }
 
-  private void compressValue(long value, ByteArrayOutputStream out) {
+  final void compressValue(long value, ByteArrayOutputStream out) {
     long xor = storedValue ^ value;
     storedValue = value;
 
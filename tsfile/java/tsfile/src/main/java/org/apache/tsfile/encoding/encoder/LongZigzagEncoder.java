@@ -101,6 +101,12 @@ public class LongZigzagEncoder extends Encoder {
     values.clear();
   }
 
+  @Override
+  public int getOneItemMaxSize() {
+    // a zigzag long takes at most 10 varint bytes
+    return 10;
+  }
+
   @Override
   public long getMaxByteSize() {
     if (values == null) {
@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.encoding.encoder;
+
+import org.apache.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.tsfile.utils.ReadWriteForEncodingUtils;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * Encodes timestamps as runs of (start, interval, count) segments. Like {@link RegularDataEncoder},
+ * it adopts the hypothesis that the interval between timestamps is mostly the same, but a change of
+ * the interval only starts a new segment, so a page of a regular series costs a few bytes whatever
+ * its size. Each segment is written as the zigzag var long difference between its start and the
+ * last timestamp of the previous segment (the start itself for the first one), the zigzag var long
+ * interval and the unsigned var int count. The segments simply follow each other until the end of
+ * the time column.
+ *
+ * @see org.apache.tsfile.encoding.decoder.RegularSegmentDecoder
+ */
+public class RegularSegmentEncoder extends Encoder {
+
+  // two var longs and a var int
+  private static final int MAX_SEGMENT_SIZE = 10 + 10 + 5;
+
+  private long start;
+  private long interval;
+  private int count;
+  private long previousEnd;
+
+  public RegularSegmentEncoder() {
+    super(TSEncoding.DEXOR_TIMED);
+  }
+
+  @Override
+  public void encode(long value, ByteArrayOutputStream out) {
+    if (count == 0) {
+      start = value;
+      count = 1;
+    } else if (count == 1) {
+      interval = value - start;
+      count = 2;
+    } else if (value - (start + (count - 1) * interval) == interval && count < Integer.MAX_VALUE) {
+      count++;
+    } else {
+      writeSegment(out);
+      start = value;
+      count = 1;
+    }
+  }
+
+  @Override
+  public void encode(long[] values, int from, int to, ByteArrayOutputStream out) {
+    for (int i = from; i < to; i++) {
+      encode(values[i], out);
+    }
+  }
+
+  private void writeSegment(ByteArrayOutputStream out) {
+    if (count == 1) {
+      interval = 0;
+    }
+    ReadWriteForEncodingUtils.writeVarLong(start - previousEnd, out);
+    ReadWriteForEncodingUtils.writeVarLong(interval, out);
+    ReadWriteForEncodingUtils.writeUnsignedVarInt(count, out);
+    previousEnd = start + (count - 1) * interval;
+    count = 0;
+  }
+
+  @Override
+  public void flush(ByteArrayOutputStream out) {
+    if (count > 0) {
+      writeSegment(out);
+    }
+    previousEnd = 0;
+  }
+
+  @Override
+  public int getOneItemMaxSize() {
+    // a timestamp may close the current segment and open a new one
+    return MAX_SEGMENT_SIZE;
+  }
+
+  @Override
+  public long getMaxByteSize() {
+    return count > 0 ? MAX_SEGMENT_SIZE : 0;
+  }
+}
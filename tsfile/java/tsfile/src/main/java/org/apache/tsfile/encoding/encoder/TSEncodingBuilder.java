@@ -80,6 +80,14 @@ public abstract class TSEncodingBuilder {
         return new RLBE();
       case DEXOR:
         return new DeXOR();
+      case DEXOR_CROSS:
+        return new DeXORCross();
+      case DEXOR_FIRE:
+        return new DeXORFire();
+      case DEXOR_TIMED:
+        return new DeXORTimed();
+      case AUTO:
+        return new Auto();
       default:
         throw new UnsupportedOperationException(type.toString());
     }
@@ -450,4 +458,88 @@ public abstract class TSEncodingBuilder {
       // allowed do nothing
     }
   }
+
+  /**
+   * for DOUBLE value columns of aligned series. The reference column is named by the {@link
+   * Encoder#REFERENCE} property.
+   */
+  public static class DeXORCross extends TSEncodingBuilder {
+
+    private String referenceMeasurementId = "";
+
+    @Override
+    public Encoder getEncoder(TSDataType type) {
+      switch (type) {
+        case DOUBLE:
+          DoubleDeXORCrossEncoder encoder = new DoubleDeXORCrossEncoder();
+          encoder.setReferenceMeasurementId(referenceMeasurementId);
+          return encoder;
+        default:
+          throw new UnSupportedDataTypeException("DeXORCross doesn't support data type: " + type);
+      }
+    }
+
+    @Override
+    public void initFromProps(Map<String, String> props) {
+      referenceMeasurementId =
+          props == null ? "" : props.getOrDefault(Encoder.REFERENCE, "").trim();
+    }
+  }
+
+  /** for DOUBLE series whose values follow a trend. */
+  public static class DeXORFire extends TSEncodingBuilder {
+
+    @Override
+    public Encoder getEncoder(TSDataType type) {
+      switch (type) {
+        case DOUBLE:
+          return new DoubleDeXORFireEncoder();
+        default:
+          throw new UnSupportedDataTypeException("DeXORFire doesn't support data type: " + type);
+      }
+    }
+
+    @Override
+    public void initFromProps(Map<String, String> props) {
+      // allowed do nothing
+    }
+  }
+
+  /**
+   * for DOUBLE series with mostly regular timestamps. The values are encoded by DeXOR and the time
+   * column of a non-aligned page by {@link RegularSegmentEncoder}.
+   */
+  public static class DeXORTimed extends TSEncodingBuilder {
+
+    @Override
+    public Encoder getEncoder(TSDataType type) {
+      switch (type) {
+        case DOUBLE:
+          Encoder encoder = new DoubleDeXOREncoder();
+          encoder.setType(TSEncoding.DEXOR_TIMED);
+          return encoder;
+        default:
+          throw new UnSupportedDataTypeException("DeXORTimed doesn't support data type: " + type);
+      }
+    }
+
+    @Override
+    public void initFromProps(Map<String, String> props) {
+      // allowed do nothing
+    }
+  }
+
+  /** for FLOAT and DOUBLE, the encoder of each page is chosen when the page is sealed. */
+  public static class Auto extends TSEncodingBuilder {
+
+    @Override
+    public Encoder getEncoder(TSDataType type) {
+      return new AutoEncoder(type, conf.getAutoEncodingSampleSize());
+    }
+
+    @Override
+    public void initFromProps(Map<String, String> props) {
+      // allowed do nothing
+    }
+  }
 }
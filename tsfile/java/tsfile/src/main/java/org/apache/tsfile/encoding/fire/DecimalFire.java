@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.encoding.fire;
+
+import org.apache.tsfile.encoding.DeXORTools;
+
+/**
+ * Predicts the decimal reference of DeXOR. The last value is quantized to the finest decimal scale
+ * {@code 10^q} seen so far and the next integer of that domain is predicted as the last one plus a
+ * learned fraction of the last step. Values of a coarser scale are integers of the finer one as
+ * well, so the scale only ever gets finer and the last step is rescaled instead of being dropped.
+ *
+ * <p>Unlike {@link LongFire}, the gain is trained by the sign of the error only, so it converges
+ * within a few dozen values whatever the magnitude of the steps is. It starts at full gain, i.e. as
+ * a delta predictor, and falls towards the previous value on noisy series.
+ *
+ * <p>The encoder and the decoder must feed it the same (reconstructed) values so that both sides
+ * derive bit-identical references.
+ */
+public class DecimalFire extends Fire<Long> {
+
+  // integers beyond 2^52 are not exact in the double domain, fall back to the last value there
+  private static final double MAX_SCALED = (double) (1L << 52);
+
+  private final int maxGain;
+  private final int gainStep;
+
+  private double lastValue = 0;
+  private int scaleQ = 0;
+  private double pow = 1;
+  private long lastScaled = 0;
+  private long predicted = 0;
+  private boolean predicting = false;
+
+  /**
+   * @param learning_rate the gain moves by {@code 2^-learning_rate} of its range per value
+   */
+  public DecimalFire(int learning_rate) {
+    super(learning_rate);
+    bitWidth = 16;
+    maxGain = 1 << bitWidth;
+    gainStep = maxGain >> learnShift;
+    accumulator = maxGain;
+    delta = 0L;
+  }
+
+  /**
+   * @param q the decimal scale of the last value
+   * @return the reference of the next value
+   */
+  public double predictReference(int q) {
+    if (q < scaleQ) {
+      double step = delta * DeXORTools.getP10(scaleQ - q);
+      delta = Math.abs(step) < MAX_SCALED ? (long) step : 0L;
+      scaleQ = q;
+    }
+    pow = DeXORTools.getP10(scaleQ);
+    double scaled = lastValue / pow;
+    predicting = Math.abs(scaled) < MAX_SCALED;
+    if (!predicting) {
+      return lastValue;
+    }
+    lastScaled = Math.round(scaled);
+    predicted = predict(lastScaled);
+    if (Math.abs(predicted) >= MAX_SCALED) {
+      predicted = lastScaled;
+    }
+    return predicted * pow;
+  }
+
+  /**
+   * @param value the value following the last prediction, as the decoder reconstructs it
+   */
+  public void update(double value) {
+    if (predicting) {
+      double scaled = value / pow;
+      if (Math.abs(scaled) < MAX_SCALED) {
+        long current = Math.round(scaled);
+        train(lastScaled, current, current - predicted);
+      } else {
+        delta = 0L;
+      }
+    }
+    lastValue = value;
+  }
+
+  @Override
+  public Long predict(Long value) {
+    // accumulator * delta >> bitWidth without overflowing for steps up to 2^52
+    long diff =
+        (delta >> bitWidth) * accumulator + (((delta & (maxGain - 1)) * accumulator) >> bitWidth);
+    return value + diff;
+  }
+
+  @Override
+  public void train(Long pre, Long val, Long err) {
+    if (delta != 0 && err != 0) {
+      // the step was too small if the error points the same way, too large otherwise
+      accumulator += (err > 0) == (delta > 0) ? gainStep : -gainStep;
+      accumulator = Math.max(0, Math.min(maxGain, accumulator));
+    }
+    delta = val - pre;
+  }
+
+  public void reset() {
+    accumulator = maxGain;
+    delta = 0L;
+    lastValue = 0;
+    scaleQ = 0;
+    pow = 1;
+    lastScaled = 0;
+    predicted = 0;
+    predicting = false;
+  }
+}
@@ -243,6 +243,26 @@ public class ChunkHeader {
         chunkType, measurementID, dataSize, chunkHeaderSize, dataType, type, encoding);
   }
 
+  /**
+   * deserialize from a ByteBuffer positioned at the chunk header, the marker has not been read.
+   *
+   * @param buffer buffer holding the whole chunk header, its position is moved to the chunk data
+   * @return CHUNK_HEADER object
+   */
+  public static ChunkHeader deserializeFrom(ByteBuffer buffer) {
+    int startPosition = buffer.position();
+    byte chunkType = buffer.get();
+    int strLength = ReadWriteForEncodingUtils.readVarInt(buffer);
+    String measurementID = ReadWriteIOUtils.readStringWithLength(buffer, strLength);
+    int dataSize = ReadWriteForEncodingUtils.readUnsignedVarInt(buffer);
+    TSDataType dataType = ReadWriteIOUtils.readDataType(buffer);
+    CompressionType type = ReadWriteIOUtils.readCompressionType(buffer);
+    TSEncoding encoding = ReadWriteIOUtils.readEncoding(buffer);
+    int chunkHeaderSize = buffer.position() - startPosition;
+    return new ChunkHeader(
+        chunkType, measurementID, dataSize, chunkHeaderSize, dataType, type, encoding);
+  }
+
   /**
    * Used by {@link
    * TsFileSequenceReader#readTimeseriesCompressionTypeAndEncoding(TimeseriesMetadata)} to only
@@ -0,0 +1,489 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.file.metadata;
+
+import org.apache.tsfile.file.IMetadataIndexEntry;
+import org.apache.tsfile.file.metadata.enums.MetadataIndexNodeType;
+import org.apache.tsfile.utils.Pair;
+import org.apache.tsfile.utils.PublicBAOS;
+import org.apache.tsfile.utils.ReadWriteForEncodingUtils;
+import org.apache.tsfile.utils.ReadWriteIOUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PushbackInputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A read-only {@link MetadataIndexNode} kept in its serialized form. Keys are prefix compressed
+ * against a restart key every {@link #RESTART_INTERVAL} entries and are addressed through a fixed
+ * width position array, so {@link #getChildIndexEntry} binary searches the bytes directly and only
+ * materializes the entry it returns. Child offsets are stored as their distance to the end offset,
+ * packed in as few bytes as the largest one needs.
+ *
+ * <p>Serialized layout:
+ *
+ * <pre>
+ * 0x80 0x00 | uvarint bodyLength | uvarint count | byte restartInterval | byte offsetWidth
+ *   | byte positionWidth | offsetWidth * count offset distances | positionWidth * count key
+ *   positions | key block | long endOffset | byte nodeType
+ * </pre>
+ *
+ * where each key in the key block is {@code uvarint shared, uvarint suffixLength, suffix}, the
+ * first {@code shared} bytes being taken from the restart key. The leading bytes are a
+ * non-canonical varint that a legacy node, which starts with the canonical varint of its child
+ * count, never begins with, so both kinds of nodes can be told apart and read from the same file.
+ *
+ * <p>Keys are encoded so that unsigned byte order is the order of the index: a measurement is its
+ * UTF-8 bytes, a device is a sequence of segments ({@code 0x01} for null, {@code 0x02} followed by
+ * the UTF-8 bytes with {@code 0x00} escaped as {@code 0x00 0xFF} and terminated by {@code 0x00
+ * 0x01}) closed by {@code 0x00}. UTF-8 order differs from {@link String#compareTo} for surrogates,
+ * so nodes with such keys are written in the legacy format.
+ */
+public class CompactMetadataIndexNode extends MetadataIndexNode {
+
+  private static final byte[] MAGIC = {(byte) 0x80, 0x00};
+
+  public static final int RESTART_INTERVAL = 16;
+
+  private static final byte NULL_SEGMENT = 0x01;
+  private static final byte STRING_SEGMENT = 0x02;
+  private static final byte ESCAPE = 0x00;
+  private static final byte ESCAPED_ZERO = (byte) 0xFF;
+  private static final byte SEGMENT_END = 0x01;
+  private static final byte DEVICE_END = 0x00;
+
+  private final ByteBuffer body;
+  private final boolean isDeviceLevel;
+  private final int count;
+  private final int restartInterval;
+  private final int offsetWidth;
+  private final int positionWidth;
+  private final int offsetsStart;
+  private final int keyPositionsStart;
+  private final int keyBlockStart;
+
+  private volatile List<IMetadataIndexEntry> materializedChildren;
+
+  private CompactMetadataIndexNode(
+      ByteBuffer body,
+      boolean isDeviceLevel,
+      int count,
+      int restartInterval,
+      int offsetWidth,
+      int positionWidth,
+      long endOffset,
+      MetadataIndexNodeType nodeType) {
+    super(null, endOffset, nodeType);
+    this.body = body;
+    this.isDeviceLevel = isDeviceLevel;
+    this.count = count;
+    this.restartInterval = restartInterval;
+    this.offsetWidth = offsetWidth;
+    this.positionWidth = positionWidth;
+    this.offsetsStart = body.position();
+    this.keyPositionsStart = offsetsStart + count * offsetWidth;
+    this.keyBlockStart = keyPositionsStart + count * positionWidth;
+  }
+
+  /** Whether the node at the buffer's position is a compact one, the position is not moved. */
+  public static boolean isCompact(ByteBuffer buffer) {
+    int position = buffer.position();
+    return buffer.limit() - position >= MAGIC.length
+        && buffer.get(position) == MAGIC[0]
+        && buffer.get(position + 1) == MAGIC[1];
+  }
+
+  /** Whether the node at the stream's head is a compact one, the peeked bytes are pushed back. */
+  public static boolean isCompact(PushbackInputStream inputStream) throws IOException {
+    byte[] head = new byte[MAGIC.length];
+    int read = 0;
+    while (read < head.length) {
+      int n = inputStream.read(head, read, head.length - read);
+      if (n < 0) {
+        break;
+      }
+      read += n;
+    }
+    inputStream.unread(head, 0, read);
+    return read == MAGIC.length && head[0] == MAGIC[0] && head[1] == MAGIC[1];
+  }
+
+  public static CompactMetadataIndexNode deserializeFrom(ByteBuffer buffer, boolean isDeviceLevel) {
+    buffer.position(buffer.position() + MAGIC.length);
+    int bodyLength = ReadWriteForEncodingUtils.readUnsignedVarInt(buffer);
+    ByteBuffer body = buffer.slice();
+    body.limit(bodyLength);
+    buffer.position(buffer.position() + bodyLength);
+    return deserializeBody(body, isDeviceLevel);
+  }
+
+  public static CompactMetadataIndexNode deserializeFrom(
+      InputStream inputStream, boolean isDeviceLevel) throws IOException {
+    if (inputStream.read() != (MAGIC[0] & 0xFF) || inputStream.read() != MAGIC[1]) {
+      throw new IOException("Not a compact metadata index node");
+    }
+    int bodyLength = ReadWriteForEncodingUtils.readUnsignedVarInt(inputStream);
+    ByteBuffer body = ByteBuffer.wrap(ReadWriteIOUtils.readBytes(inputStream, bodyLength));
+    return deserializeBody(body, isDeviceLevel);
+  }
+
+  private static CompactMetadataIndexNode deserializeBody(ByteBuffer body, boolean isDeviceLevel) {
+    int limit = body.limit();
+    long endOffset = body.getLong(limit - Long.BYTES - Byte.BYTES);
+    MetadataIndexNodeType nodeType = MetadataIndexNodeType.deserialize(body.get(limit - 1));
+    int count = ReadWriteForEncodingUtils.readUnsignedVarInt(body);
+    int restartInterval = body.get() & 0xFF;
+    int offsetWidth = body.get();
+    int positionWidth = body.get();
+    return new CompactMetadataIndexNode(
+        body,
+        isDeviceLevel,
+        count,
+        restartInterval,
+        offsetWidth,
+        positionWidth,
+        endOffset,
+        nodeType);
+  }
+
+  /**
+   * Serializes the entries as a compact node, or returns -1 without writing anything if one of the
+   * keys cannot be encoded in sort order.
+   */
+  static int serialize(
+      List<IMetadataIndexEntry> children,
+      long endOffset,
+      MetadataIndexNodeType nodeType,
+      OutputStream outputStream)
+      throws IOException {
+    int count = children.size();
+    byte[][] keys = new byte[count][];
+    for (int i = 0; i < count; i++) {
+      keys[i] = encodeKey(children.get(i).getCompareKey());
+      if (keys[i] == null) {
+        return -1;
+      }
+    }
+
+    PublicBAOS keyBlock = new PublicBAOS();
+    int[] keyPositions = new int[count];
+    for (int i = 0; i < count; i++) {
+      keyPositions[i] = keyBlock.size();
+      int shared = 0;
+      if (i % RESTART_INTERVAL != 0) {
+        byte[] restartKey = keys[i - i % RESTART_INTERVAL];
+        int max = Math.min(restartKey.length, keys[i].length);
+        while (shared < max && restartKey[shared] == keys[i][shared]) {
+          shared++;
+        }
+      }
+      ReadWriteForEncodingUtils.writeUnsignedVarInt(shared, keyBlock);
+      ReadWriteForEncodingUtils.writeUnsignedVarInt(keys[i].length - shared, keyBlock);
+      keyBlock.write(keys[i], shared, keys[i].length - shared);
+    }
+
+    int offsetWidth = count == 0 ? 0 : widthOf(endOffset - children.get(0).getOffset());
+    int positionWidth = count == 0 ? 0 : widthOf(keyPositions[count - 1]);
+    PublicBAOS body = new PublicBAOS();
+    ReadWriteForEncodingUtils.writeUnsignedVarInt(count, body);
+    ReadWriteIOUtils.write((byte) RESTART_INTERVAL, body);
+    ReadWriteIOUtils.write((byte) offsetWidth, body);
+    ReadWriteIOUtils.write((byte) positionWidth, body);
+    for (IMetadataIndexEntry child : children) {
+      writePacked(endOffset - child.getOffset(), offsetWidth, body);
+    }
+    for (int keyPosition : keyPositions) {
+      writePacked(keyPosition, positionWidth, body);
+    }
+    keyBlock.writeTo(body);
+    ReadWriteIOUtils.write(endOffset, body);
+    ReadWriteIOUtils.write(nodeType.serialize(), body);
+
+    outputStream.write(MAGIC);
+    int byteLen = MAGIC.length;
+    byteLen += ReadWriteForEncodingUtils.writeUnsignedVarInt(body.size(), outputStream);
+    body.writeTo(outputStream);
+    return byteLen + body.size();
+  }
+
+  /** The number of bytes a non negative value is packed in. */
+  private static int widthOf(long value) {
+    int width = 1;
+    while (width < Long.BYTES && (value >>> (width * Byte.SIZE)) != 0) {
+      width++;
+    }
+    return width;
+  }
+
+  private static void writePacked(long value, int width, OutputStream out) throws IOException {
+    for (int shift = (width - 1) * Byte.SIZE; shift >= 0; shift -= Byte.SIZE) {
+      out.write((int) (value >>> shift));
+    }
+  }
+
+  private long readPacked(int position, int width) {
+    long value = 0;
+    for (int i = 0; i < width; i++) {
+      value = (value << Byte.SIZE) | (body.get(position + i) & 0xFF);
+    }
+    return value;
+  }
+
+  private long offsetAt(int index) {
+    return endOffset - readPacked(offsetsStart + index * offsetWidth, offsetWidth);
+  }
+
+  /** The order preserving encoding of a key, null if there is none for it. */
+  static byte[] encodeKey(Comparable<?> key) {
+    if (key instanceof String) {
+      String name = (String) key;
+      return hasSurrogate(name) ? null : name.getBytes(StandardCharsets.UTF_8);
+    }
+    if (!(key instanceof IDeviceID)) {
+      return null;
+    }
+    IDeviceID deviceID = (IDeviceID) key;
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    for (int i = 0; i < deviceID.segmentNum(); i++) {
+      Object segment = deviceID.segment(i);
+      if (segment == null) {
+        out.write(NULL_SEGMENT);
+        continue;
+      }
+      if (!(segment instanceof String) || hasSurrogate((String) segment)) {
+        return null;
+      }
+      out.write(STRING_SEGMENT);
+      for (byte b : ((String) segment).getBytes(StandardCharsets.UTF_8)) {
+        out.write(b);
+        if (b == ESCAPE) {
+          out.write(ESCAPED_ZERO);
+        }
+      }
+      out.write(ESCAPE);
+      out.write(SEGMENT_END);
+    }
+    out.write(DEVICE_END);
+    return out.toByteArray();
+  }
+
+  private static boolean hasSurrogate(String s) {
+    for (int i = 0; i < s.length(); i++) {
+      if (Character.isSurrogate(s.charAt(i))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static IDeviceID decodeDeviceID(byte[] key) {
+    List<String> segments = new ArrayList<>();
+    ByteArrayOutputStream segment = new ByteArrayOutputStream();
+    int i = 0;
+    while (key[i] != DEVICE_END) {
+      if (key[i++] == NULL_SEGMENT) {
+        segments.add(null);
+        continue;
+      }
+      segment.reset();
+      while (key[i] != ESCAPE || key[i + 1] != SEGMENT_END) {
+        segment.write(key[i]);
+        i += key[i] == ESCAPE ? 2 : 1;
+      }
+      i += 2;
+      segments.add(new String(segment.toByteArray(), StandardCharsets.UTF_8));
+    }
+    return new StringArrayDeviceID(segments.toArray(new String[0]));
+  }
+
+  @Override
+  public List<IMetadataIndexEntry> getChildren() {
+    List<IMetadataIndexEntry> children = materializedChildren;
+    if (children == null) {
+      ByteBuffer buffer = body.duplicate();
+      List<IMetadataIndexEntry> entries = new ArrayList<>(count);
+      for (int i = 0; i < count; i++) {
+        entries.add(entryAt(buffer, i));
+      }
+      children = Collections.unmodifiableList(entries);
+      materializedChildren = children;
+    }
+    return children;
+  }
+
+  @Override
+  public void addEntry(IMetadataIndexEntry metadataIndexEntry) {
+    throw new UnsupportedOperationException("A compact metadata index node is read only");
+  }
+
+  @Override
+  public void setEndOffset(long endOffset) {
+    throw new UnsupportedOperationException("A compact metadata index node is read only");
+  }
+
+  @Override
+  public boolean isFull() {
+    return true;
+  }
+
+  @Override
+  IMetadataIndexEntry peek() {
+    return count == 0 ? null : entryAt(body.duplicate(), 0);
+  }
+
+  @Override
+  public int serializeTo(OutputStream outputStream) throws IOException {
+    ByteBuffer buffer = body.duplicate();
+    buffer.position(0);
+    outputStream.write(MAGIC);
+    int byteLen = MAGIC.length;
+    byteLen += ReadWriteForEncodingUtils.writeUnsignedVarInt(buffer.remaining(), outputStream);
+    byteLen += buffer.remaining();
+    while (buffer.hasRemaining()) {
+      outputStream.write(buffer.get());
+    }
+    return byteLen;
+  }
+
+  @Override
+  public Pair<IMetadataIndexEntry, Long> getChildIndexEntry(Comparable key, boolean exactSearch) {
+    byte[] target = encodeKey(key);
+    if (target == null) {
+      // not encodable in sort order, the materialized entries are searched instead
+      return searchMaterialized(key, exactSearch);
+    }
+    ByteBuffer buffer = body.duplicate();
+    int low = 0;
+    int high = count - 1;
+    int index = -1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      int cmp = compareKeyAt(buffer, mid, target);
+      if (cmp < 0) {
+        low = mid + 1;
+      } else if (cmp > 0) {
+        high = mid - 1;
+      } else {
+        index = mid;
+        break;
+      }
+    }
+    if (index == -1) {
+      if (exactSearch || count == 0) {
+        return null;
+      }
+      index = low == 0 ? low : low - 1;
+    }
+    return new Pair<>(entryAt(buffer, index), childEndOffset(index));
+  }
+
+  private Pair<IMetadataIndexEntry, Long> searchMaterialized(Comparable key, boolean exactSearch) {
+    List<IMetadataIndexEntry> children = getChildren();
+    int index = MetadataIndexNode.binarySearch(children, key, exactSearch);
+    if (index == -1 || children.isEmpty()) {
+      return null;
+    }
+    return new Pair<>(children.get(index), childEndOffset(index));
+  }
+
+  private long childEndOffset(int index) {
+    return index == count - 1 ? endOffset : offsetAt(index + 1);
+  }
+
+  private IMetadataIndexEntry entryAt(ByteBuffer buffer, int index) {
+    long offset = offsetAt(index);
+    byte[] key = keyAt(buffer, index);
+    return isDeviceLevel
+        ? new DeviceMetadataIndexEntry(decodeDeviceID(key), offset)
+        : new MeasurementMetadataIndexEntry(new String(key, StandardCharsets.UTF_8), offset);
+  }
+
+  private int keyPosition(int index) {
+    return keyBlockStart
+        + (int) readPacked(keyPositionsStart + index * positionWidth, positionWidth);
+  }
+
+  private byte[] keyAt(ByteBuffer buffer, int index) {
+    buffer.position(keyPosition(index));
+    int shared = ReadWriteForEncodingUtils.readUnsignedVarInt(buffer);
+    int suffixLength = ReadWriteForEncodingUtils.readUnsignedVarInt(buffer);
+    int suffixStart = buffer.position();
+    byte[] key = new byte[shared + suffixLength];
+    if (shared > 0) {
+      restartKeyStart(buffer, index);
+      buffer.get(key, 0, shared);
+    }
+    buffer.position(suffixStart);
+    buffer.get(key, shared, suffixLength);
+    return key;
+  }
+
+  /** Positions the buffer at the first byte of the restart key of the entry. */
+  private void restartKeyStart(ByteBuffer buffer, int index) {
+    buffer.position(keyPosition(index - index % restartInterval));
+    ReadWriteForEncodingUtils.readUnsignedVarInt(buffer);
+    ReadWriteForEncodingUtils.readUnsignedVarInt(buffer);
+  }
+
+  private int compareKeyAt(ByteBuffer buffer, int index, byte[] target) {
+    buffer.position(keyPosition(index));
+    int shared = ReadWriteForEncodingUtils.readUnsignedVarInt(buffer);
+    int suffixLength = ReadWriteForEncodingUtils.readUnsignedVarInt(buffer);
+    int suffixStart = buffer.position();
+    int t = 0;
+    if (shared > 0) {
+      restartKeyStart(buffer, index);
+      int cmp = compareBytes(buffer, buffer.position(), shared, target, 0);
+      if (cmp != 0) {
+        return cmp;
+      }
+      t = Math.min(shared, target.length);
+      if (t < shared) {
+        // the target is a proper prefix of the key
+        return 1;
+      }
+    }
+    int cmp = compareBytes(buffer, suffixStart, suffixLength, target, t);
+    if (cmp != 0) {
+      return cmp;
+    }
+    return Integer.compare(shared + suffixLength, target.length);
+  }
+
+  /** Compares the common length of bytes in the buffer and the target, unsigned. */
+  private static int compareBytes(
+      ByteBuffer buffer, int start, int length, byte[] target, int targetStart) {
+    int n = Math.min(length, target.length - targetStart);
+    for (int i = 0; i < n; i++) {
+      int cmp = Integer.compare(buffer.get(start + i) & 0xFF, target[targetStart + i] & 0xFF);
+      if (cmp != 0) {
+        return cmp;
+      }
+    }
+    return 0;
+  }
+}
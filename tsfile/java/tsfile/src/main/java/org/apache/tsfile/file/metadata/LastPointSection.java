@@ -0,0 +1,193 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.file.metadata;
+
+import org.apache.tsfile.compatibility.DeserializeConfig;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.file.metadata.statistics.Statistics;
+import org.apache.tsfile.read.TimeValuePair;
+import org.apache.tsfile.utils.Binary;
+import org.apache.tsfile.utils.Pair;
+import org.apache.tsfile.utils.PublicBAOS;
+import org.apache.tsfile.utils.ReadWriteForEncodingUtils;
+import org.apache.tsfile.utils.ReadWriteIOUtils;
+import org.apache.tsfile.utils.TsPrimitiveType;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The last point of every timeseries of a TsFile, written after the metadata index so that the
+ * latest values can be served from one sequential read without touching the index or the chunks.
+ *
+ * <p>The section is located by the {@link #OFFSET_PROPERTY} and {@link #SIZE_PROPERTY} properties
+ * of the {@link TsFileMetadata}, files without them are read as before. Its layout is: the device
+ * count, then per device the device id, the series count and per series the measurement id, the
+ * data type, the last time and, if known, the last value. The time column of an aligned device has
+ * no value, neither has a BLOB series whose statistics do not keep the last value.
+ */
+public class LastPointSection {
+
+  public static final String OFFSET_PROPERTY = "lastPointOffset";
+  public static final String SIZE_PROPERTY = "lastPointSize";
+
+  private final PublicBAOS buffer = new PublicBAOS();
+  private final PublicBAOS deviceBuffer = new PublicBAOS();
+  private IDeviceID currentDevice;
+  private int deviceCount;
+  private int seriesCountOfCurrentDevice;
+
+  /** Add the last point of a series, series of the same device must be added consecutively. */
+  public void add(IDeviceID deviceId, TimeseriesMetadata timeseriesMetadata) throws IOException {
+    if (!deviceId.equals(currentDevice)) {
+      endDevice();
+      currentDevice = deviceId;
+    }
+    Statistics<? extends Serializable> statistics = timeseriesMetadata.getStatistics();
+    TSDataType dataType = timeseriesMetadata.getTsDataType();
+    ReadWriteIOUtils.writeVar(timeseriesMetadata.getMeasurementId(), deviceBuffer);
+    ReadWriteIOUtils.write(dataType, deviceBuffer);
+    ReadWriteIOUtils.write(statistics.getEndTime(), deviceBuffer);
+    Object lastValue =
+        dataType == TSDataType.VECTOR || dataType == TSDataType.BLOB
+            ? null
+            : statistics.getLastValue();
+    ReadWriteIOUtils.write(lastValue != null, deviceBuffer);
+    if (lastValue != null) {
+      writeValue(dataType, lastValue, deviceBuffer);
+    }
+    seriesCountOfCurrentDevice++;
+  }
+
+  private void endDevice() throws IOException {
+    if (currentDevice == null) {
+      return;
+    }
+    currentDevice.serialize(buffer);
+    ReadWriteForEncodingUtils.writeUnsignedVarInt(seriesCountOfCurrentDevice, buffer);
+    deviceBuffer.writeTo(buffer);
+    deviceBuffer.reset();
+    seriesCountOfCurrentDevice = 0;
+    deviceCount++;
+  }
+
+  /**
+   * @return the size of the section in bytes
+   */
+  public int serializeTo(OutputStream outputStream) throws IOException {
+    endDevice();
+    currentDevice = null;
+    int size = ReadWriteForEncodingUtils.writeUnsignedVarInt(deviceCount, outputStream);
+    buffer.writeTo(outputStream);
+    return size + buffer.size();
+  }
+
+  private static void writeValue(TSDataType dataType, Object value, OutputStream outputStream)
+      throws IOException {
+    switch (dataType) {
+      case BOOLEAN:
+        ReadWriteIOUtils.write((Boolean) value, outputStream);
+        break;
+      case INT32:
+      case DATE:
+        ReadWriteIOUtils.write((Integer) value, outputStream);
+        break;
+      case INT64:
+      case TIMESTAMP:
+        ReadWriteIOUtils.write((Long) value, outputStream);
+        break;
+      case FLOAT:
+        ReadWriteIOUtils.write((Float) value, outputStream);
+        break;
+      case DOUBLE:
+        ReadWriteIOUtils.write((Double) value, outputStream);
+        break;
+      case TEXT:
+      case STRING:
+        ReadWriteIOUtils.write((Binary) value, outputStream);
+        break;
+      default:
+        throw new IllegalArgumentException("No last value in the statistics of " + dataType);
+    }
+  }
+
+  private static Object readValue(TSDataType dataType, ByteBuffer buffer) {
+    switch (dataType) {
+      case BOOLEAN:
+        return ReadWriteIOUtils.readBool(buffer);
+      case INT32:
+      case DATE:
+        return ReadWriteIOUtils.readInt(buffer);
+      case INT64:
+      case TIMESTAMP:
+        return ReadWriteIOUtils.readLong(buffer);
+      case FLOAT:
+        return ReadWriteIOUtils.readFloat(buffer);
+      case DOUBLE:
+        return ReadWriteIOUtils.readDouble(buffer);
+      case TEXT:
+      case STRING:
+        return ReadWriteIOUtils.readBinary(buffer);
+      default:
+        throw new IllegalArgumentException("No last value in the statistics of " + dataType);
+    }
+  }
+
+  /** Read the device count at the head of a section, followed by the devices. */
+  public static int readDeviceCount(ByteBuffer buffer) {
+    return ReadWriteForEncodingUtils.readUnsignedVarInt(buffer);
+  }
+
+  /**
+   * Read the last points of the next device of a section. The time column of an aligned device
+   * reports its last time as an INT64 value, like the timeseries metadata based readers do. A
+   * series whose last value is not in the section, i.e. a BLOB series, has a TimeValuePair with a
+   * null value.
+   */
+  public static Pair<IDeviceID, List<Pair<String, TimeValuePair>>> readDevice(
+      ByteBuffer buffer, DeserializeConfig deserializeConfig) {
+    IDeviceID deviceId =
+        deserializeConfig.deviceIDBufferDeserializer.deserialize(buffer, deserializeConfig);
+    int seriesCount = ReadWriteForEncodingUtils.readUnsignedVarInt(buffer);
+    List<Pair<String, TimeValuePair>> lastPoints = new ArrayList<>(seriesCount);
+    for (int i = 0; i < seriesCount; i++) {
+      String measurementId = ReadWriteIOUtils.readVarIntString(buffer);
+      TSDataType dataType = ReadWriteIOUtils.readDataType(buffer);
+      long time = ReadWriteIOUtils.readLong(buffer);
+      TsPrimitiveType value = null;
+      if (ReadWriteIOUtils.readBool(buffer)) {
+        value = TsPrimitiveType.getByType(dataType, readValue(dataType, buffer));
+      } else if (dataType == TSDataType.VECTOR) {
+        value = TsPrimitiveType.getByType(TSDataType.INT64, time);
+      }
+      lastPoints.add(
+          new Pair<>(
+              measurementId,
+              value != null || dataType == TSDataType.BLOB
+                  ? new TimeValuePair(time, value)
+                  : null));
+    }
+    return new Pair<>(deviceId, lastPoints);
+  }
+}
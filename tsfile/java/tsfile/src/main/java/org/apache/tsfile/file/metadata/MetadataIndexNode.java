@@ -89,6 +89,13 @@ public class MetadataIndexNode {
   }
 
   public int serializeTo(OutputStream outputStream) throws IOException {
+    if (config.isCompactMetadataIndexEnabled()) {
+      int compactLen =
+          CompactMetadataIndexNode.serialize(children, endOffset, nodeType, outputStream);
+      if (compactLen >= 0) {
+        return compactLen;
+      }
+    }
     int byteLen = 0;
     byteLen += ReadWriteForEncodingUtils.writeUnsignedVarInt(children.size(), outputStream);
     for (IMetadataIndexEntry metadataIndexEntry : children) {
@@ -140,6 +147,10 @@ public class MetadataIndexNode {
   }
 
   int binarySearchInChildren(Comparable key, boolean exactSearch) {
+    return binarySearch(getChildren(), key, exactSearch);
+  }
+
+  static int binarySearch(List<IMetadataIndexEntry> children, Comparable key, boolean exactSearch) {
     int low = 0;
     int high = children.size() - 1;
 
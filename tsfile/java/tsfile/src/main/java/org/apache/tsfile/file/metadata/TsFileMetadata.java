@@ -20,6 +20,7 @@
 package org.apache.tsfile.file.metadata;
 
 import org.apache.tsfile.common.conf.TSFileDescriptor;
+import org.apache.tsfile.common.constant.TsFileConstant;
 import org.apache.tsfile.compatibility.DeserializeConfig;
 import org.apache.tsfile.encrypt.EncryptParameter;
 import org.apache.tsfile.encrypt.EncryptUtils;
@@ -41,6 +42,9 @@ import java.util.TreeMap;
 /** TSFileMetaData collects all metadata info and saves in its data structure. */
 public class TsFileMetadata {
 
+  /** prefix of the properties holding the max error of lossy series, see {@link #getErrorBound} */
+  public static final String ERROR_BOUND_PROPERTY_PREFIX = "errorBound.";
+
   // bloom filter
   private BloomFilter bloomFilter;
 
@@ -295,4 +299,20 @@ public class TsFileMetadata {
   public Map<String, String> getTsFileProperties() {
     return tsFileProperties;
   }
+
+  public static String getErrorBoundKey(IDeviceID deviceId, String measurementId) {
+    return ERROR_BOUND_PROPERTY_PREFIX + deviceId + TsFileConstant.PATH_SEPARATOR + measurementId;
+  }
+
+  /**
+   * @return the max absolute error of the lossy stage a series was written with, 0 if the series is
+   *     lossless or the file was written before error bounds were recorded
+   */
+  public double getErrorBound(IDeviceID deviceId, String measurementId) {
+    String errorBound =
+        tsFileProperties == null
+            ? null
+            : tsFileProperties.get(getErrorBoundKey(deviceId, measurementId));
+    return errorBound == null ? 0 : Double.parseDouble(errorBound);
+  }
 }
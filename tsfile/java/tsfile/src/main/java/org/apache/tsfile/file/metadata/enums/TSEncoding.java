@@ -42,7 +42,11 @@ public enum TSEncoding {
   CHIMP((byte) 11),
   SPRINTZ((byte) 12),
   RLBE((byte) 13),
-  DEXOR((byte) 14);
+  DEXOR((byte) 14),
+  DEXOR_CROSS((byte) 15),
+  DEXOR_FIRE((byte) 16),
+  DEXOR_TIMED((byte) 17),
+  AUTO((byte) 18);
   private final byte type;
 
   @SuppressWarnings("java:S2386") // used by other projects
@@ -80,6 +84,10 @@ public enum TSEncoding {
     floatSet.add(TSEncoding.SPRINTZ);
     floatSet.add(TSEncoding.RLBE);
     floatSet.add(TSEncoding.DEXOR);
+    floatSet.add(TSEncoding.DEXOR_CROSS);
+    floatSet.add(TSEncoding.DEXOR_FIRE);
+    floatSet.add(TSEncoding.DEXOR_TIMED);
+    floatSet.add(TSEncoding.AUTO);
 
     TYPE_SUPPORTED_ENCODINGS.put(TSDataType.FLOAT, floatSet);
     TYPE_SUPPORTED_ENCODINGS.put(TSDataType.DOUBLE, floatSet);
@@ -139,6 +147,14 @@ public enum TSEncoding {
         return TSEncoding.RLBE;
       case 14:
         return TSEncoding.DEXOR;
+      case 15:
+        return TSEncoding.DEXOR_CROSS;
+      case 16:
+        return TSEncoding.DEXOR_FIRE;
+      case 17:
+        return TSEncoding.DEXOR_TIMED;
+      case 18:
+        return TSEncoding.AUTO;
       default:
         throw new IllegalArgumentException("Invalid input: " + encoding);
     }
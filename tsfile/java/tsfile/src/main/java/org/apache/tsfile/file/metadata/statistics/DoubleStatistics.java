@@ -27,6 +27,9 @@ import org.apache.tsfile.utils.ReadWriteIOUtils;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
 import java.nio.ByteBuffer;
 import java.util.Objects;
 
@@ -128,6 +131,38 @@ public class DoubleStatistics extends Statistics<Double> {
     }
   }
 
+  @Override
+  void updateStats(double[] values, int batchSize, int arrayOffset) {
+    if (batchSize == 0) {
+      return;
+    }
+    int i = arrayOffset;
+    int end = arrayOffset + batchSize;
+    if (isEmpty) {
+      initializeStats(values[i], values[i], values[i], values[i], values[i]);
+      isEmpty = false;
+      i++;
+    }
+    // keep the running aggregates in locals so that the loop does not write fields per value
+    double min = minValue;
+    double max = maxValue;
+    double sum = sumValue;
+    for (; i < end; i++) {
+      double value = values[i];
+      if (value < min) {
+        min = value;
+      }
+      if (value > max) {
+        max = value;
+      }
+      sum += value;
+    }
+    minValue = min;
+    maxValue = max;
+    sumValue = sum;
+    lastValue = values[end - 1];
+  }
+
   @Override
   public Double getMinValue() {
     return minValue;
@@ -159,6 +194,37 @@ public class DoubleStatistics extends Statistics<Double> {
         String.format(STATS_UNSUPPORTED_MSG, TSDataType.DOUBLE, "long sum"));
   }
 
+  /**
+   * The exact sum of fixed-scale values, i.e. values having at most {@code scale} fraction digits.
+   * The double sum is rounded to the scale, which is only correct as long as its accumulated error,
+   * bounded by count^2 * 2^-52 * max(|min|, |max|), stays below half a unit of the scale.
+   *
+   * @return the exact sum, or null if the statistics cannot prove it and the values have to be
+   *     summed as decimals instead
+   */
+  public BigDecimal getDecimalSum(int scale) {
+    if (isEmpty || Double.isNaN(sumValue) || Double.isInfinite(sumValue)) {
+      return null;
+    }
+    double count = getCount();
+    double maxError = count * count * Math.ulp(1.0) * Math.max(-minValue, maxValue);
+    if (!(maxError < 0.5 * Math.pow(10, -scale))) {
+      return null;
+    }
+    return new BigDecimal(sumValue).setScale(scale, RoundingMode.HALF_EVEN);
+  }
+
+  /**
+   * The average of fixed-scale values derived from {@link #getDecimalSum(int)}, with 34 significant
+   * digits.
+   *
+   * @return the average, or null if the exact sum is not available
+   */
+  public BigDecimal getDecimalAvg(int scale) {
+    BigDecimal sum = getCount() == 0 ? null : getDecimalSum(scale);
+    return sum == null ? null : sum.divide(BigDecimal.valueOf(getCount()), MathContext.DECIMAL128);
+  }
+
   @SuppressWarnings("rawtypes")
   @Override
   protected void mergeStatisticsValue(Statistics stats) {
@@ -119,6 +119,38 @@ public class FloatStatistics extends Statistics<Float> {
     }
   }
 
+  @Override
+  void updateStats(float[] values, int batchSize, int arrayOffset) {
+    if (batchSize == 0) {
+      return;
+    }
+    int i = arrayOffset;
+    int end = arrayOffset + batchSize;
+    if (isEmpty) {
+      initializeStats(values[i], values[i], values[i], values[i], values[i]);
+      isEmpty = false;
+      i++;
+    }
+    // keep the running aggregates in locals so that the loop does not write fields per value
+    float min = minValue;
+    float max = maxValue;
+    double sum = sumValue;
+    for (; i < end; i++) {
+      float value = values[i];
+      if (value < min) {
+        min = value;
+      }
+      if (value > max) {
+        max = value;
+      }
+      sum += value;
+    }
+    minValue = min;
+    maxValue = max;
+    sumValue = sum;
+    lastValue = values[end - 1];
+  }
+
   @Override
   public Float getMinValue() {
     return minValue;
@@ -120,6 +120,38 @@ public class IntegerStatistics extends Statistics<Integer> {
     }
   }
 
+  @Override
+  void updateStats(int[] values, int batchSize, int arrayOffset) {
+    if (batchSize == 0) {
+      return;
+    }
+    int i = arrayOffset;
+    int end = arrayOffset + batchSize;
+    if (isEmpty) {
+      initializeStats(values[i], values[i], values[i], values[i], values[i]);
+      isEmpty = false;
+      i++;
+    }
+    // keep the running aggregates in locals so that the loop does not write fields per value
+    int min = minValue;
+    int max = maxValue;
+    long sum = sumValue;
+    for (; i < end; i++) {
+      int value = values[i];
+      if (value < min) {
+        min = value;
+      }
+      if (value > max) {
+        max = value;
+      }
+      sum += value;
+    }
+    minValue = min;
+    maxValue = max;
+    sumValue = sum;
+    lastValue = values[end - 1];
+  }
+
   @Override
   public Integer getMinValue() {
     return minValue;
@@ -113,6 +113,38 @@ public class LongStatistics extends Statistics<Long> {
     }
   }
 
+  @Override
+  void updateStats(long[] values, int batchSize, int arrayOffset) {
+    if (batchSize == 0) {
+      return;
+    }
+    int i = arrayOffset;
+    int end = arrayOffset + batchSize;
+    if (isEmpty) {
+      initializeStats(values[i], values[i], values[i], values[i], values[i]);
+      isEmpty = false;
+      i++;
+    }
+    // keep the running aggregates in locals so that the loop does not write fields per value
+    long min = minValue;
+    long max = maxValue;
+    double sum = sumValue;
+    for (; i < end; i++) {
+      long value = values[i];
+      if (value < min) {
+        min = value;
+      }
+      if (value > max) {
+        max = value;
+      }
+      sum += value;
+    }
+    minValue = min;
+    maxValue = max;
+    sumValue = sum;
+    lastValue = values[end - 1];
+  }
+
   @Override
   public void updateStats(long minValue, long maxValue) {
     if (minValue < this.minValue) {
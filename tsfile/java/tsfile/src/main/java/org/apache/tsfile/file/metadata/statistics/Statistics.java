@@ -297,6 +297,26 @@ public abstract class Statistics<T extends Serializable> {
     updateStats(values, batchSize);
   }
 
+  public void update(long[] time, int[] values, int batchSize, int arrayOffset) {
+    update(time, batchSize, arrayOffset);
+    updateStats(values, batchSize, arrayOffset);
+  }
+
+  public void update(long[] time, long[] values, int batchSize, int arrayOffset) {
+    update(time, batchSize, arrayOffset);
+    updateStats(values, batchSize, arrayOffset);
+  }
+
+  public void update(long[] time, float[] values, int batchSize, int arrayOffset) {
+    update(time, batchSize, arrayOffset);
+    updateStats(values, batchSize, arrayOffset);
+  }
+
+  public void update(long[] time, double[] values, int batchSize, int arrayOffset) {
+    update(time, batchSize, arrayOffset);
+    updateStats(values, batchSize, arrayOffset);
+  }
+
   public void update(long[] time, Binary[] values, int batchSize) {
     update(time, batchSize);
     updateStats(values, batchSize);
@@ -381,6 +401,22 @@ public abstract class Statistics<T extends Serializable> {
     throw new UnsupportedOperationException();
   }
 
+  void updateStats(int[] values, int batchSize, int arrayOffset) {
+    throw new UnsupportedOperationException();
+  }
+
+  void updateStats(long[] values, int batchSize, int arrayOffset) {
+    throw new UnsupportedOperationException();
+  }
+
+  void updateStats(float[] values, int batchSize, int arrayOffset) {
+    throw new UnsupportedOperationException();
+  }
+
+  void updateStats(double[] values, int batchSize, int arrayOffset) {
+    throw new UnsupportedOperationException();
+  }
+
   /**
    * This method with two parameters is only used by {@code unsequence} which
    * updates/inserts/deletes timestamp.
@@ -19,7 +19,10 @@
 
 package org.apache.tsfile.fileSystem.fileInputFactory;
 
+import org.apache.tsfile.common.conf.TSFileConfig;
+import org.apache.tsfile.common.conf.TSFileDescriptor;
 import org.apache.tsfile.read.reader.LocalTsFileInput;
+import org.apache.tsfile.read.reader.MmapTsFileInput;
 import org.apache.tsfile.read.reader.TsFileInput;
 
 import java.io.IOException;
@@ -29,6 +32,10 @@ public class LocalFSInputFactory implements FileInputFactory {
 
   @Override
   public TsFileInput getTsFileInput(String filePath) throws IOException {
+    TSFileConfig config = TSFileDescriptor.getInstance().getConfig();
+    if (config.isUseMmapForLocalRead()) {
+      return new MmapTsFileInput(Paths.get(filePath), config.getMmapSegmentSizeInByte());
+    }
     return new LocalTsFileInput(Paths.get(filePath));
   }
 }
@@ -0,0 +1,248 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.read;
+
+import org.apache.tsfile.encrypt.EncryptParameter;
+import org.apache.tsfile.file.header.ChunkHeader;
+import org.apache.tsfile.file.metadata.ChunkMetadata;
+import org.apache.tsfile.read.common.Chunk;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+
+/**
+ * This class returns the chunks of an ordered chunk metadata list (usually all the chunks of a
+ * device or of a series) one by one, while the reads of the following chunks are already issued in
+ * the background. Chunks that lie next to each other in the file are fetched with one I/O, so a
+ * sequential scan overlaps reading the file with decoding the chunks it has already got.
+ *
+ * <p>At most {@code readAheadNum} reads are in flight, and their I/O buffers are taken from a pool
+ * of the same size, so the memory held by this iterator is bounded by {@code readAheadNum *
+ * maxCoalescedReadSize} besides the returned chunks.
+ */
+public class TsFileChunkReadAheadIterator implements AutoCloseable {
+
+  private final TsFileSequenceReader reader;
+  private final List<ChunkMetadata> chunkMetadataList;
+  private final int readAheadNum;
+  private final int maxCoalescedReadSize;
+  private final Executor executor;
+  private final EncryptParameter encryptParam;
+
+  private final Deque<FutureTask<List<Chunk>>> pendingReads = new ArrayDeque<>();
+  private final Queue<ByteBuffer> bufferPool;
+  private Iterator<Chunk> currentChunks = Collections.emptyIterator();
+  private int nextChunkToRead = 0;
+
+  public TsFileChunkReadAheadIterator(
+      TsFileSequenceReader reader,
+      List<ChunkMetadata> chunkMetadataList,
+      int readAheadNum,
+      int maxCoalescedReadSize,
+      Executor executor)
+      throws IOException {
+    if (readAheadNum <= 0) {
+      throw new IllegalArgumentException("readAheadNum should be positive: " + readAheadNum);
+    }
+    this.reader = reader;
+    this.chunkMetadataList = chunkMetadataList;
+    this.readAheadNum = readAheadNum;
+    this.maxCoalescedReadSize = maxCoalescedReadSize;
+    this.executor = executor;
+    this.encryptParam = reader.getEncryptParam();
+    this.bufferPool = new ArrayBlockingQueue<>(readAheadNum);
+    scheduleReads();
+  }
+
+  public boolean hasNext() {
+    return currentChunks.hasNext() || !pendingReads.isEmpty();
+  }
+
+  public Chunk next() throws IOException {
+    if (!currentChunks.hasNext()) {
+      FutureTask<List<Chunk>> read = pendingReads.poll();
+      if (read == null) {
+        throw new NoSuchElementException();
+      }
+      currentChunks = waitFor(read).iterator();
+      // a slot is free again, keep the device busy while the caller decodes
+      scheduleReads();
+    }
+    return currentChunks.next();
+  }
+
+  private List<Chunk> waitFor(FutureTask<List<Chunk>> read) throws IOException {
+    try {
+      return read.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while reading chunks of " + reader.getFileName(), e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      throw new IOException("Failed to read chunks of " + reader.getFileName(), e.getCause());
+    }
+  }
+
+  private void scheduleReads() {
+    while (pendingReads.size() < readAheadNum && nextChunkToRead < chunkMetadataList.size()) {
+      int first = nextChunkToRead;
+      int last = lastCandidateChunk(first);
+      FutureTask<List<Chunk>> read = new FutureTask<>(() -> readChunks(first, last));
+      nextChunkToRead = last + 1;
+      pendingReads.add(read);
+      executor.execute(read);
+    }
+  }
+
+  /**
+   * Chunks whose headers start within {@code maxCoalescedReadSize} bytes of the first one may be
+   * fetched by one read task. Whether they really are adjacent is only known after their headers
+   * are read, see {@link #readChunks(int, int)}.
+   *
+   * @return the last chunk handled by the same read task as the first one
+   */
+  private int lastCandidateChunk(int first) {
+    long startOffset = chunkMetadataList.get(first).getOffsetOfChunkHeader();
+    int last = first;
+    while (last + 1 < chunkMetadataList.size()) {
+      long currentOffset = chunkMetadataList.get(last).getOffsetOfChunkHeader();
+      long nextOffset = chunkMetadataList.get(last + 1).getOffsetOfChunkHeader();
+      if (nextOffset <= currentOffset || nextOffset - startOffset >= maxCoalescedReadSize) {
+        break;
+      }
+      last++;
+    }
+    return last;
+  }
+
+  /**
+   * Read chunks [first, last]. Their headers are read first, then each run of chunks that directly
+   * follow each other in the file is fetched with one I/O covering exactly their data, so the bytes
+   * of other series lying between two chunks are never read.
+   */
+  private List<Chunk> readChunks(int first, int last) throws IOException {
+    ChunkHeader[] headers = new ChunkHeader[last - first + 1];
+    for (int i = first; i <= last; i++) {
+      headers[i - first] =
+          reader.readChunkHeader(chunkMetadataList.get(i).getOffsetOfChunkHeader(), null);
+    }
+    List<Chunk> chunks = new ArrayList<>(headers.length);
+    int runStart = first;
+    while (runStart <= last) {
+      long runStartOffset = dataOffset(runStart, headers[runStart - first]);
+      int runEnd = runStart;
+      while (runEnd < last
+          && endOffset(runEnd, headers[runEnd - first])
+              == chunkMetadataList.get(runEnd + 1).getOffsetOfChunkHeader()
+          && endOffset(runEnd + 1, headers[runEnd + 1 - first]) - runStartOffset
+              <= maxCoalescedReadSize) {
+        runEnd++;
+      }
+      if (runStart == runEnd) {
+        ChunkHeader header = headers[runStart - first];
+        chunks.add(
+            toChunk(runStart, header, reader.readChunk(runStartOffset, header.getDataSize())));
+      } else {
+        readRun(runStart, runEnd, headers, first, chunks);
+      }
+      runStart = runEnd + 1;
+    }
+    return chunks;
+  }
+
+  private void readRun(
+      int runStart, int runEnd, ChunkHeader[] headers, int first, List<Chunk> chunks)
+      throws IOException {
+    long startOffset = dataOffset(runStart, headers[runStart - first]);
+    int length = (int) (endOffset(runEnd, headers[runEnd - first]) - startOffset);
+    ByteBuffer buffer = borrowBuffer(length);
+    try {
+      if (reader.readRaw(startOffset, length, buffer) != length) {
+        throw new IOException(
+            String.format(
+                "reach the end of the data. Size of data that want to read: %s, position: %s",
+                length, startOffset));
+      }
+      buffer.flip();
+      for (int i = runStart; i <= runEnd; i++) {
+        ChunkHeader header = headers[i - first];
+        buffer.position((int) (dataOffset(i, header) - startOffset));
+        // the read buffer goes back to the pool, so the chunk gets its own copy of the data
+        byte[] data = new byte[header.getDataSize()];
+        buffer.get(data);
+        chunks.add(toChunk(i, header, ByteBuffer.wrap(data)));
+      }
+    } finally {
+      bufferPool.offer(buffer);
+    }
+  }
+
+  private long dataOffset(int index, ChunkHeader header) {
+    return chunkMetadataList.get(index).getOffsetOfChunkHeader() + header.getSerializedSize();
+  }
+
+  private long endOffset(int index, ChunkHeader header) {
+    return dataOffset(index, header) + header.getDataSize();
+  }
+
+  private Chunk toChunk(int index, ChunkHeader header, ByteBuffer data) {
+    ChunkMetadata chunkMetadata = chunkMetadataList.get(index);
+    return new Chunk(
+        header,
+        data,
+        chunkMetadata.getDeleteIntervalList(),
+        chunkMetadata.getStatistics(),
+        encryptParam);
+  }
+
+  private ByteBuffer borrowBuffer(int length) {
+    ByteBuffer buffer = bufferPool.poll();
+    if (buffer == null || buffer.capacity() < length) {
+      buffer = ByteBuffer.allocate(length);
+    }
+    buffer.clear();
+    buffer.limit(length);
+    return buffer;
+  }
+
+  @Override
+  public void close() {
+    for (FutureTask<List<Chunk>> read : pendingReads) {
+      // do not interrupt a running read, it would close the channel shared with the reader
+      read.cancel(false);
+    }
+    pendingReads.clear();
+    currentChunks = Collections.emptyIterator();
+  }
+}
@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.read;
+
+import org.apache.tsfile.common.cache.SizeBoundedLRUCache;
+import org.apache.tsfile.file.metadata.MetadataIndexNode;
+import org.apache.tsfile.file.metadata.TimeseriesMetadata;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The deserialized MetadataIndexNodes and TimeseriesMetadata lists of {@link
+ * TsFileSequenceReader}s, bounded by one memory budget. A reader owns a cache of
+ * metadata_cache_size_in_byte, if it is positive, unless it is given a shared one, e.g. by a {@link
+ * TsFileReaderPool}, so that the memory taken does not grow with the number of open readers.
+ */
+public class TsFileMetadataCache {
+
+  private static final AtomicLong NEXT_READER_ID = new AtomicLong();
+
+  private final SizeBoundedLRUCache<Key, Object> cache;
+
+  // the keys cached for each reader, so that closing a reader does not scan the entries of others
+  private final ConcurrentHashMap<Long, Set<Key>> keysOfReaders = new ConcurrentHashMap<>();
+
+  public TsFileMetadataCache(long capacityInBytes) {
+    this.cache = new SizeBoundedLRUCache<>(capacityInBytes, this::forgetKey);
+  }
+
+  /** A distinct id for the entries of a reader. */
+  static long nextReaderId() {
+    return NEXT_READER_ID.getAndIncrement();
+  }
+
+  MetadataIndexNode getMetadataIndexNode(long readerId, long offset) {
+    return (MetadataIndexNode) cache.get(new Key(readerId, offset, false));
+  }
+
+  void putMetadataIndexNode(
+      long readerId, long offset, MetadataIndexNode metadataIndexNode, long sizeInBytes) {
+    put(new Key(readerId, offset, false), metadataIndexNode, sizeInBytes);
+  }
+
+  @SuppressWarnings("unchecked")
+  List<TimeseriesMetadata> getTimeseriesMetadataList(long readerId, long offset) {
+    return (List<TimeseriesMetadata>) cache.get(new Key(readerId, offset, true));
+  }
+
+  void putTimeseriesMetadataList(
+      long readerId,
+      long offset,
+      List<TimeseriesMetadata> timeseriesMetadataList,
+      long sizeInBytes) {
+    put(new Key(readerId, offset, true), timeseriesMetadataList, sizeInBytes);
+  }
+
+  private void put(Key key, Object value, long sizeInBytes) {
+    // the key is tracked before the value is cached, so that its eviction always finds it
+    keysOfReaders.compute(
+        key.readerId,
+        (readerId, keys) -> {
+          keys = keys == null ? new HashSet<>() : keys;
+          keys.add(key);
+          return keys;
+        });
+    if (!cache.put(key, value, sizeInBytes)) {
+      forgetKey(key);
+    }
+  }
+
+  private void forgetKey(Key key) {
+    keysOfReaders.computeIfPresent(
+        key.readerId,
+        (readerId, keys) -> {
+          keys.remove(key);
+          return keys.isEmpty() ? null : keys;
+        });
+  }
+
+  /** Drop the entries of a reader, e.g. when it is closed. */
+  void invalidate(long readerId) {
+    Set<Key> keys = keysOfReaders.remove(readerId);
+    if (keys != null) {
+      for (Key key : keys) {
+        cache.remove(key);
+      }
+    }
+  }
+
+  public void clear() {
+    cache.clear();
+    keysOfReaders.clear();
+  }
+
+  /** The total size of the cached metadata in bytes. */
+  public long getSizeInBytes() {
+    return cache.getSizeInBytes();
+  }
+
+  private static class Key {
+
+    private final long readerId;
+    private final long offset;
+    // the kind of the value, so that a lookup never casts the other one
+    private final boolean isTimeseriesMetadata;
+
+    private Key(long readerId, long offset, boolean isTimeseriesMetadata) {
+      this.readerId = readerId;
+      this.offset = offset;
+      this.isTimeseriesMetadata = isTimeseriesMetadata;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key key = (Key) o;
+      return readerId == key.readerId
+          && offset == key.offset
+          && isTimeseriesMetadata == key.isTimeseriesMetadata;
+    }
+
+    @Override
+    public int hashCode() {
+      int result = Long.hashCode(readerId);
+      result = 31 * result + Long.hashCode(offset);
+      return 31 * result + (isTimeseriesMetadata ? 1 : 0);
+    }
+  }
+}
@@ -20,16 +20,24 @@
 package org.apache.tsfile.read;
 
 import org.apache.tsfile.annotations.TsFileApi;
+import org.apache.tsfile.file.metadata.statistics.Statistics;
+import org.apache.tsfile.read.common.Path;
+import org.apache.tsfile.read.common.block.TsBlock;
 import org.apache.tsfile.read.controller.CachedChunkLoaderImpl;
 import org.apache.tsfile.read.controller.IChunkLoader;
 import org.apache.tsfile.read.controller.IMetadataQuerier;
 import org.apache.tsfile.read.controller.MetadataQuerierByFileImpl;
 import org.apache.tsfile.read.expression.QueryExpression;
+import org.apache.tsfile.read.filter.basic.Filter;
 import org.apache.tsfile.read.query.dataset.QueryDataSet;
+import org.apache.tsfile.read.query.executor.AggregationExecutor;
+import org.apache.tsfile.read.query.executor.AggregationType;
 import org.apache.tsfile.read.query.executor.TsFileExecutor;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.Serializable;
+import java.util.List;
 
 public class TsFileReader implements AutoCloseable {
 
@@ -37,6 +45,7 @@ public class TsFileReader implements AutoCloseable {
   private IMetadataQuerier metadataQuerier;
   private IChunkLoader chunkLoader;
   private TsFileExecutor tsfileExecutor;
+  private AggregationExecutor aggregationExecutor;
 
   @TsFileApi
   public TsFileReader(File file) throws IOException {
@@ -49,6 +58,7 @@ public class TsFileReader implements AutoCloseable {
     this.metadataQuerier = new MetadataQuerierByFileImpl(fileReader);
     this.chunkLoader = new CachedChunkLoaderImpl(fileReader);
     this.tsfileExecutor = new TsFileExecutor(metadataQuerier, chunkLoader);
+    this.aggregationExecutor = new AggregationExecutor(metadataQuerier, chunkLoader);
   }
 
   public QueryDataSet query(QueryExpression queryExpression) throws IOException {
@@ -61,6 +71,33 @@ public class TsFileReader implements AutoCloseable {
     return tsfileExecutor.execute(queryExpression, partitionStartOffset, partitionEndOffset);
   }
 
+  /**
+   * Aggregate the selected series from their statistics, decoding only the pages crossed by the
+   * bounds of the time filter.
+   *
+   * @param timeFilter a filter on time only, null to aggregate the whole series
+   * @return count, min, max, first, last and sum of each path, null for a path not in the file
+   */
+  @TsFileApi
+  public List<Statistics<? extends Serializable>> aggregate(List<Path> paths, Filter timeFilter)
+      throws IOException {
+    return aggregationExecutor.aggregate(paths, timeFilter);
+  }
+
+  /**
+   * Aggregate a series in the tumbling windows of {@code interval} over [startTime, endTime), e.g.
+   * with {@link AggregationExecutor#M4} for downsampling.
+   *
+   * @return one row per non-empty window, with the window start as time and one column per
+   *     aggregation, or null if the path is not in the file
+   */
+  @TsFileApi
+  public TsBlock aggregateByWindow(
+      Path path, long startTime, long endTime, long interval, List<AggregationType> aggregations)
+      throws IOException {
+    return aggregationExecutor.aggregateByWindow(path, startTime, endTime, interval, aggregations);
+  }
+
   @Override
   @TsFileApi
   public void close() throws IOException {
@@ -0,0 +1,334 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.read;
+
+import org.apache.tsfile.common.concurrent.BoundedExecutor;
+import org.apache.tsfile.common.conf.TSFileDescriptor;
+import org.apache.tsfile.read.query.executor.IoThreadPool;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded LRU of open {@link TsFileSequenceReader}s shared by the queries of one process. A
+ * reader is opened with a single read of the file tail that also brings in the file metadata, the
+ * table schemas and the bloom filter, and {@link #warmUp} opens many files concurrently, e.g. after
+ * a restart, so that the first queries find them ready.
+ *
+ * <p>Readers are leased by {@link #acquire} and must be handed back by {@link #release}. Only
+ * readers that are not leased are closed on eviction, so the pool may exceed its capacity while all
+ * its readers are in use.
+ */
+public class TsFileReaderPool implements AutoCloseable {
+
+  private static final Logger logger = LoggerFactory.getLogger(TsFileReaderPool.class);
+
+  private final int capacity;
+  private final int tailReadSize;
+  private final Executor warmUpExecutor;
+  // shared by all the readers of the pool, null if disabled
+  private final TsFileMetadataCache metadataCache;
+
+  // access ordered, guarded by this
+  private final Map<String, Handle> handles = new LinkedHashMap<>(16, 0.75f, true);
+  private boolean closed;
+
+  private final LongAdder hitCount = new LongAdder();
+  private final LongAdder missCount = new LongAdder();
+  private final LongAdder openedCount = new LongAdder();
+  private final LongAdder failedCount = new LongAdder();
+  private final LongAdder evictedCount = new LongAdder();
+  private final LongAdder openTimeNanos = new LongAdder();
+  private final LongAdder readBytes = new LongAdder();
+  private final AtomicInteger pendingWarmUpCount = new AtomicInteger();
+
+  /**
+   * @param capacity the number of readers kept open when they are not in use
+   * @param parallelism the number of files opened at the same time by {@link #warmUp}, on the I/O
+   *     thread pool
+   */
+  public TsFileReaderPool(int capacity, int parallelism) {
+    this(capacity, new BoundedExecutor(IoThreadPool.getInstance(), parallelism));
+  }
+
+  public TsFileReaderPool(int capacity, Executor warmUpExecutor) {
+    this(
+        capacity,
+        warmUpExecutor,
+        TSFileDescriptor.getInstance().getConfig().getReaderPoolMetadataCacheSizeInByte());
+  }
+
+  /**
+   * @param metadataCacheSizeInByte the memory all the readers of the pool may take together for
+   *     deserialized metadata, 0 disables the metadata cache
+   */
+  public TsFileReaderPool(int capacity, Executor warmUpExecutor, long metadataCacheSizeInByte) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("capacity should be positive: " + capacity);
+    }
+    this.capacity = capacity;
+    this.tailReadSize = TSFileDescriptor.getInstance().getConfig().getTailReadSizeInByte();
+    this.warmUpExecutor = warmUpExecutor;
+    this.metadataCache =
+        metadataCacheSizeInByte > 0 ? new TsFileMetadataCache(metadataCacheSizeInByte) : null;
+  }
+
+  /**
+   * Lease the reader of the file, opening it if it is not in the pool. Each call must be paired
+   * with a call of {@link #release}.
+   */
+  public TsFileSequenceReader acquire(String file) throws IOException {
+    Handle handle;
+    boolean opener = false;
+    synchronized (this) {
+      if (closed) {
+        throw new IllegalStateException("The reader pool is closed");
+      }
+      handle = handles.get(file);
+      if (handle == null) {
+        handle = new Handle();
+        handles.put(file, handle);
+        opener = true;
+        missCount.increment();
+      } else {
+        hitCount.increment();
+      }
+      handle.refCount++;
+    }
+
+    if (opener) {
+      open(file, handle);
+    }
+    try {
+      return handle.reader.join();
+    } catch (CompletionException e) {
+      release(file, handle);
+      throw e.getCause() instanceof IOException
+          ? (IOException) e.getCause()
+          : new IOException(e.getCause());
+    }
+  }
+
+  private void open(String file, Handle handle) {
+    long startTime = System.nanoTime();
+    TsFileSequenceReader reader = null;
+    try {
+      reader = new TsFileSequenceReader(file, false);
+      reader.setMetadataCache(metadataCache);
+      reader.readTailMetadata(tailReadSize, readBytes::add);
+      openedCount.increment();
+      handle.reader.complete(reader);
+    } catch (Throwable e) {
+      failedCount.increment();
+      synchronized (this) {
+        handles.remove(file, handle);
+      }
+      if (reader != null) {
+        closeQuietly(file, reader);
+      }
+      handle.reader.completeExceptionally(e);
+    } finally {
+      openTimeNanos.add(System.nanoTime() - startTime);
+    }
+    evictIfNeeded();
+  }
+
+  /** Hand back a reader leased by {@link #acquire}. */
+  public void release(String file) {
+    Handle handle;
+    synchronized (this) {
+      handle = handles.get(file);
+    }
+    if (handle == null) {
+      throw new IllegalStateException("The reader of " + file + " is not leased");
+    }
+    release(file, handle);
+  }
+
+  private void release(String file, Handle handle) {
+    boolean close;
+    synchronized (this) {
+      if (handle.refCount == 0) {
+        throw new IllegalStateException("The reader of " + file + " is not leased");
+      }
+      handle.refCount--;
+      close = closed && handle.refCount == 0 && handles.remove(file, handle);
+    }
+    if (close) {
+      closeReader(file, handle);
+    }
+    evictIfNeeded();
+  }
+
+  private void evictIfNeeded() {
+    List<Map.Entry<String, Handle>> evicted = new ArrayList<>();
+    synchronized (this) {
+      int excess = handles.size() - capacity;
+      Iterator<Map.Entry<String, Handle>> iterator = handles.entrySet().iterator();
+      while (excess > 0 && iterator.hasNext()) {
+        Map.Entry<String, Handle> entry = iterator.next();
+        Handle handle = entry.getValue();
+        if (handle.refCount == 0 && handle.reader.isDone()) {
+          iterator.remove();
+          evicted.add(entry);
+          excess--;
+        }
+      }
+    }
+    for (Map.Entry<String, Handle> entry : evicted) {
+      evictedCount.increment();
+      closeReader(entry.getKey(), entry.getValue());
+    }
+  }
+
+  /**
+   * Open the files concurrently and keep them in the pool, the least recently used ones being
+   * evicted once the capacity is reached. Files that fail to open are logged and counted by {@link
+   * #getFailedCount()}.
+   *
+   * @return a future completed when all the files have been handled
+   */
+  public CompletableFuture<Void> warmUp(Collection<String> files) {
+    List<CompletableFuture<Void>> futures = new ArrayList<>(files.size());
+    for (String file : files) {
+      pendingWarmUpCount.incrementAndGet();
+      futures.add(
+          CompletableFuture.runAsync(
+              () -> {
+                try {
+                  acquire(file);
+                  release(file);
+                } catch (IOException | RuntimeException e) {
+                  logger.warn("Failed to warm up the reader of {}", file, e);
+                } finally {
+                  pendingWarmUpCount.decrementAndGet();
+                }
+              },
+              warmUpExecutor));
+    }
+    return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
+  }
+
+  private void closeReader(String file, Handle handle) {
+    TsFileSequenceReader reader = handle.reader.getNow(null);
+    if (reader != null) {
+      closeQuietly(file, reader);
+    }
+  }
+
+  private static void closeQuietly(String file, TsFileSequenceReader reader) {
+    try {
+      reader.close();
+    } catch (IOException e) {
+      logger.warn("Failed to close the reader of {}", file, e);
+    }
+  }
+
+  /** Close the readers not in use, the leased ones are closed when they are released. */
+  @Override
+  public void close() {
+    List<Map.Entry<String, Handle>> idle = new ArrayList<>();
+    synchronized (this) {
+      closed = true;
+      Iterator<Map.Entry<String, Handle>> iterator = handles.entrySet().iterator();
+      while (iterator.hasNext()) {
+        Map.Entry<String, Handle> entry = iterator.next();
+        if (entry.getValue().refCount == 0) {
+          iterator.remove();
+          idle.add(entry);
+        }
+      }
+    }
+    for (Map.Entry<String, Handle> entry : idle) {
+      closeReader(entry.getKey(), entry.getValue());
+    }
+  }
+
+  public synchronized int size() {
+    return handles.size();
+  }
+
+  public int getCapacity() {
+    return capacity;
+  }
+
+  /** The memory taken by the metadata cached for the readers of the pool. */
+  public long getMetadataCacheSizeInBytes() {
+    return metadataCache == null ? 0 : metadataCache.getSizeInBytes();
+  }
+
+  /** The number of acquisitions that found the reader in the pool. */
+  public long getHitCount() {
+    return hitCount.sum();
+  }
+
+  /** The number of acquisitions that had to open the file. */
+  public long getMissCount() {
+    return missCount.sum();
+  }
+
+  public long getOpenedCount() {
+    return openedCount.sum();
+  }
+
+  public long getFailedCount() {
+    return failedCount.sum();
+  }
+
+  public long getEvictedCount() {
+    return evictedCount.sum();
+  }
+
+  /** The total time spent opening files, failed ones included. */
+  public long getOpenTimeNanos() {
+    return openTimeNanos.sum();
+  }
+
+  /** The number of bytes read to open files. */
+  public long getReadBytes() {
+    return readBytes.sum();
+  }
+
+  /** The number of files passed to {@link #warmUp} that are not handled yet. */
+  public int getPendingWarmUpCount() {
+    return pendingWarmUpCount.get();
+  }
+
+  private static class Handle {
+
+    private final CompletableFuture<TsFileSequenceReader> reader = new CompletableFuture<>();
+
+    // guarded by the pool
+    private int refCount;
+  }
+}
@@ -22,6 +22,7 @@ package org.apache.tsfile.read;
 import org.apache.tsfile.common.conf.TSFileConfig;
 import org.apache.tsfile.common.conf.TSFileDescriptor;
 import org.apache.tsfile.common.constant.TsFileConstant;
+import org.apache.tsfile.common.metrics.TsFileMetrics;
 import org.apache.tsfile.compatibility.BufferDeserializer;
 import org.apache.tsfile.compatibility.CompatibilityUtils;
 import org.apache.tsfile.compatibility.DeserializeConfig;
@@ -50,6 +51,7 @@ import org.apache.tsfile.file.metadata.DeviceMetadataIndexEntry;
 import org.apache.tsfile.file.metadata.IChunkMetadata;
 import org.apache.tsfile.file.metadata.IDeviceID;
 import org.apache.tsfile.file.metadata.ITimeSeriesMetadata;
+import org.apache.tsfile.file.metadata.LastPointSection;
 import org.apache.tsfile.file.metadata.MeasurementMetadataIndexEntry;
 import org.apache.tsfile.file.metadata.MetadataIndexNode;
 import org.apache.tsfile.file.metadata.TableDeviceTimeSeriesMetadata;
@@ -67,7 +69,10 @@ import org.apache.tsfile.read.common.Chunk;
 import org.apache.tsfile.read.common.Path;
 import org.apache.tsfile.read.controller.CachedChunkLoaderImpl;
 import org.apache.tsfile.read.controller.MetadataQuerierByFileImpl;
+import org.apache.tsfile.read.query.executor.IoThreadPool;
 import org.apache.tsfile.read.reader.TsFileInput;
+import org.apache.tsfile.read.reader.chunk.ChunkReader;
+import org.apache.tsfile.read.reader.page.CrossColumnReferencePage;
 import org.apache.tsfile.read.reader.page.PageReader;
 import org.apache.tsfile.read.reader.page.TimePageReader;
 import org.apache.tsfile.read.reader.page.ValuePageReader;
@@ -89,6 +94,7 @@ import java.io.Serializable;
 import java.nio.ByteBuffer;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Deque;
@@ -105,8 +111,6 @@ import java.util.Queue;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.LongConsumer;
 import java.util.stream.Collectors;
 
@@ -124,14 +128,23 @@ public class TsFileSequenceReader implements AutoCloseable {
   protected int fileMetadataSize;
   private ByteBuffer markerBuffer = ByteBuffer.allocate(Byte.BYTES);
 
+  /** sorted offsets of the aligned time chunks, collected on demand */
+  private volatile long[] alignedTimeChunkOffsets;
+
   @SuppressWarnings("squid:S3077")
   protected volatile TsFileMetadata tsFileMetaData;
 
   // device -> measurement -> TimeseriesMetadata
   private Map<IDeviceID, Map<String, TimeseriesMetadata>> cachedDeviceMetadata =
       new ConcurrentHashMap<>();
-  private static final ReadWriteLock cacheLock = new ReentrantReadWriteLock();
   private boolean cacheDeviceMetadata;
+
+  // offset -> deserialized MetadataIndexNode, and start offset -> all TimeseriesMetadata serialized
+  // from it to the next index entry, null if the metadata cache is disabled
+  @SuppressWarnings("squid:S3077")
+  private volatile TsFileMetadataCache metadataCache = createMetadataCache();
+
+  private final long metadataCacheId = TsFileMetadataCache.nextReaderId();
   private long minPlanIndex = Long.MAX_VALUE;
   private long maxPlanIndex = Long.MIN_VALUE;
 
@@ -323,6 +336,54 @@ public class TsFileSequenceReader implements AutoCloseable {
     }
   }
 
+  /**
+   * Loads the metadata size and reads the file metadata, table schemas and bloom filter included,
+   * with one read of the last {@code tailSize} bytes of the file. A second read is only issued if
+   * the file metadata does not fit into them.
+   *
+   * @param tailSize the number of bytes read from the end of the file at once
+   * @param ioSizeRecorder can be null
+   * @throws IOException if the file has no tail magic string or some I/O error occurs
+   */
+  public TsFileMetadata readTailMetadata(int tailSize, LongConsumer ioSizeRecorder)
+      throws IOException {
+    int magicLength = TSFileConfig.MAGIC_STRING.getBytes().length;
+    long fileSize = tsFileInput.size();
+    int readSize = (int) Math.min(Math.max(tailSize, magicLength + Integer.BYTES), fileSize);
+    ByteBuffer tail = readData(fileSize - readSize, readSize, ioSizeRecorder);
+
+    int magicPosition = tail.limit() - magicLength;
+    byte[] magic = new byte[magicLength];
+    for (int i = 0; i < magicLength; i++) {
+      magic[i] = tail.get(magicPosition + i);
+    }
+    if (readSize < magicLength + Integer.BYTES
+        || !new String(magic).equals(TSFileConfig.MAGIC_STRING)) {
+      throw new IOException("The file " + file + " is not a complete TsFile");
+    }
+    int sizePosition = magicPosition - Integer.BYTES;
+    fileMetadataSize = tail.getInt(sizePosition);
+    fileMetadataPos = fileSize - magicLength - Integer.BYTES - fileMetadataSize;
+
+    ByteBuffer buffer;
+    int metadataPosition = sizePosition - fileMetadataSize;
+    if (metadataPosition >= 0) {
+      buffer = tail.duplicate();
+      buffer.position(metadataPosition);
+      buffer.limit(sizePosition);
+      buffer = buffer.slice();
+    } else {
+      buffer = readData(fileMetadataPos, fileMetadataSize, ioSizeRecorder);
+    }
+    TsFileMetadata metadata =
+        deserializeConfig.cacheTableSchemaMapTsFileMetadataBufferDeserializer.deserialize(
+            buffer, deserializeConfig);
+    synchronized (this) {
+      tsFileMetaData = metadata;
+    }
+    return metadata;
+  }
+
   public long getFileMetadataPos() {
     return fileMetadataPos;
   }
@@ -396,6 +457,33 @@ public class TsFileSequenceReader implements AutoCloseable {
     return readFileMetadata(null);
   }
 
+  /**
+   * Get the max absolute error a series was written with, which is non-zero only if it went through
+   * a lossy stage (SDT or decimal quantization) before encoding.
+   *
+   * @return the error bound, 0 if the series is lossless
+   * @throws IOException io error
+   */
+  public double getErrorBound(IDeviceID deviceId, String measurementId) throws IOException {
+    return readFileMetadata().getErrorBound(deviceId, measurementId);
+  }
+
+  /**
+   * Read the section holding the last point of every series, see {@link LastPointSection}.
+   *
+   * @return the section, or null if the file was written without it
+   * @throws IOException io error
+   */
+  public ByteBuffer readLastPointSection() throws IOException {
+    Map<String, String> properties = readFileMetadata().getTsFileProperties();
+    if (properties == null || !properties.containsKey(LastPointSection.OFFSET_PROPERTY)) {
+      return null;
+    }
+    return readData(
+        Long.parseLong(properties.get(LastPointSection.OFFSET_PROPERTY)),
+        Integer.parseInt(properties.get(LastPointSection.SIZE_PROPERTY)));
+  }
+
   /**
    * @param ioSizeRecorder can be null
    */
@@ -497,31 +585,132 @@ public class TsFileSequenceReader implements AutoCloseable {
       return readDeviceMetadataFromDisk(device);
     }
 
-    cacheLock.readLock().lock();
-    try {
-      if (cachedDeviceMetadata.containsKey(device)) {
-        return cachedDeviceMetadata.get(device);
+    Map<String, TimeseriesMetadata> deviceMetadata = cachedDeviceMetadata.get(device);
+    if (deviceMetadata == null) {
+      // concurrent readers of the same device may both load it, only one result is kept
+      deviceMetadata = readDeviceMetadataFromDisk(device);
+      Map<String, TimeseriesMetadata> previous =
+          cachedDeviceMetadata.putIfAbsent(device, deviceMetadata);
+      if (previous != null) {
+        deviceMetadata = previous;
       }
-    } finally {
-      cacheLock.readLock().unlock();
     }
+    return deviceMetadata;
+  }
 
-    cacheLock.writeLock().lock();
-    try {
-      if (cachedDeviceMetadata.containsKey(device)) {
-        return cachedDeviceMetadata.get(device);
+  public void clearCachedDeviceMetadata() {
+    cachedDeviceMetadata.clear();
+    TsFileMetadataCache cache = metadataCache;
+    if (cache != null) {
+      cache.invalidate(metadataCacheId);
+    }
+  }
+
+  private static TsFileMetadataCache createMetadataCache() {
+    long cacheSize = TSFileDescriptor.getInstance().getConfig().getMetadataCacheSizeInByte();
+    return cacheSize > 0 ? new TsFileMetadataCache(cacheSize) : null;
+  }
+
+  /**
+   * Cache the metadata of this reader in a cache shared with other readers instead of its own one.
+   *
+   * @param metadataCache null to disable the metadata cache
+   */
+  public void setMetadataCache(TsFileMetadataCache metadataCache) {
+    TsFileMetadataCache previous = this.metadataCache;
+    this.metadataCache = metadataCache;
+    if (previous != null) {
+      previous.invalidate(metadataCacheId);
+    }
+  }
+
+  /**
+   * Read the MetadataIndexNode serialized in [start, end), or take it from the metadata cache.
+   *
+   * @param ioSizeRecorder can be null
+   */
+  private MetadataIndexNode readMetadataIndexNode(
+      long start, long end, boolean isDeviceNode, LongConsumer ioSizeRecorder) throws IOException {
+    MetadataIndexNode metadataIndexNode = null;
+    TsFileMetadataCache cache = metadataCache;
+    if (cache != null) {
+      metadataIndexNode = cache.getMetadataIndexNode(metadataCacheId, start);
+      TsFileMetrics.getInstance().recordMetadataCacheLookup(metadataIndexNode != null);
+    }
+    if (metadataIndexNode == null) {
+      ByteBuffer buffer = readData(start, end, ioSizeRecorder);
+      metadataIndexNode =
+          isDeviceNode
+              ? deserializeConfig.deviceMetadataIndexNodeBufferDeserializer.deserialize(
+                  buffer, deserializeConfig)
+              : deserializeConfig.measurementMetadataIndexNodeBufferDeserializer.deserialize(
+                  buffer, deserializeConfig);
+      if (cache != null) {
+        // the serialized size stands for the memory of the node
+        cache.putMetadataIndexNode(metadataCacheId, start, metadataIndexNode, end - start);
       }
-      readFileMetadata();
-      Map<String, TimeseriesMetadata> deviceMetadata = readDeviceMetadataFromDisk(device);
-      cachedDeviceMetadata.put(device, deviceMetadata);
-      return deviceMetadata;
-    } finally {
-      cacheLock.writeLock().unlock();
     }
+    return metadataIndexNode;
   }
 
-  public void clearCachedDeviceMetadata() {
-    cachedDeviceMetadata.clear();
+  /**
+   * Read the TimeseriesMetadata with its chunk metadata of a measurement among all those serialized
+   * in [start, end), which are kept in the metadata cache. The returned TimeseriesMetadata is a
+   * copy the caller may modify.
+   *
+   * @param measurement null for the first one, e.g. the time column of an aligned device
+   * @param ioSizeRecorder can be null
+   * @return null if the measurement is not in [start, end)
+   */
+  private TimeseriesMetadata readTimeseriesMetadataInLeaf(
+      long start, long end, String measurement, LongConsumer ioSizeRecorder) throws IOException {
+    List<TimeseriesMetadata> timeseriesMetadataList = null;
+    TsFileMetadataCache cache = metadataCache;
+    if (cache != null) {
+      timeseriesMetadataList = cache.getTimeseriesMetadataList(metadataCacheId, start);
+      TsFileMetrics.getInstance().recordMetadataCacheLookup(timeseriesMetadataList != null);
+    }
+    if (timeseriesMetadataList == null) {
+      timeseriesMetadataList = new ArrayList<>();
+      ByteBuffer buffer = readData(start, end, ioSizeRecorder);
+      long sizeInBytes = 0;
+      while (buffer.hasRemaining()) {
+        TimeseriesMetadata timeseriesMetadata;
+        try {
+          timeseriesMetadata = TimeseriesMetadata.deserializeFrom(buffer, true);
+        } catch (Exception e) {
+          logger.error(
+              "Something error happened while deserializing TimeseriesMetadata of file {}", file);
+          throw e;
+        }
+        timeseriesMetadataList.add(timeseriesMetadata);
+        sizeInBytes += timeseriesMetadata.getRetainedSizeInBytes();
+      }
+      if (cache != null) {
+        cache.putTimeseriesMetadataList(
+            metadataCacheId, start, timeseriesMetadataList, sizeInBytes);
+      }
+    }
+    int index =
+        measurement == null
+            ? 0
+            : binarySearchInTimeseriesMetadataList(timeseriesMetadataList, measurement);
+    if (index < 0 || index >= timeseriesMetadataList.size()) {
+      return null;
+    }
+    TimeseriesMetadata timeseriesMetadata = timeseriesMetadataList.get(index);
+    if (cache == null) {
+      return timeseriesMetadata;
+    }
+    // only the requested entry is copied, the cached ones are shared by later lookups
+    List<ChunkMetadata> chunkMetadataList =
+        new ArrayList<>(timeseriesMetadata.getChunkMetadataList().size());
+    for (IChunkMetadata chunkMetadata : timeseriesMetadata.getChunkMetadataList()) {
+      chunkMetadataList.add(new ChunkMetadata((ChunkMetadata) chunkMetadata));
+    }
+    TimeseriesMetadata copy = new TimeseriesMetadata(timeseriesMetadata);
+    copy.setChunkMetadataList(chunkMetadataList);
+    return copy;
   }
 
   private Map<String, TimeseriesMetadata> readDeviceMetadataFromDisk(IDeviceID device)
@@ -558,14 +747,12 @@ public class TsFileSequenceReader implements AutoCloseable {
       }
       throw new IOException("Device {" + device + "} is not in tsFileMetaData of " + file);
     }
-    ByteBuffer buffer =
-        readData(metadataIndexPair.left.getOffset(), metadataIndexPair.right, ioSizeConsumer);
     MetadataIndexNode metadataIndexNode = deviceMetadataIndexNode;
     if (!metadataIndexNode.getNodeType().equals(MetadataIndexNodeType.LEAF_MEASUREMENT)) {
       try {
         metadataIndexNode =
-            deserializeConfig.measurementMetadataIndexNodeBufferDeserializer.deserialize(
-                buffer, deserializeConfig);
+            readMetadataIndexNode(
+                metadataIndexPair.left.getOffset(), metadataIndexPair.right, false, ioSizeConsumer);
       } catch (Exception e) {
         logger.error(METADATA_INDEX_NODE_DESERIALIZE_ERROR, file);
         throw e;
@@ -579,17 +766,8 @@ public class TsFileSequenceReader implements AutoCloseable {
     }
     List<TimeseriesMetadata> timeseriesMetadataList = new ArrayList<>();
     if (metadataIndexPair.right - metadataIndexPair.left.getOffset() < Integer.MAX_VALUE) {
-      buffer =
-          readData(metadataIndexPair.left.getOffset(), metadataIndexPair.right, ioSizeConsumer);
-      while (buffer.hasRemaining()) {
-        try {
-          timeseriesMetadataList.add(TimeseriesMetadata.deserializeFrom(buffer, true));
-        } catch (Exception e) {
-          logger.error(
-              "Something error happened while deserializing TimeseriesMetadata of file {}", file);
-          throw e;
-        }
-      }
+      return readTimeseriesMetadataInLeaf(
+          metadataIndexPair.left.getOffset(), metadataIndexPair.right, measurement, ioSizeConsumer);
     } else {
       if (ioSizeConsumer != null) {
         ioSizeConsumer.accept(metadataIndexPair.right - metadataIndexPair.left.getOffset());
@@ -628,14 +806,13 @@ public class TsFileSequenceReader implements AutoCloseable {
       throw new IOException(
           "Device {" + path.getDeviceString() + "} is not in tsFileMetaData of " + file);
     }
-    ByteBuffer buffer = readData(metadataIndexPair.left.getOffset(), metadataIndexPair.right);
     MetadataIndexNode metadataIndexNode;
     TimeseriesMetadata firstTimeseriesMetadata;
     try {
       // next layer MeasurementNode of the specific DeviceNode
       metadataIndexNode =
-          deserializeConfig.measurementMetadataIndexNodeBufferDeserializer.deserialize(
-              buffer, deserializeConfig);
+          readMetadataIndexNode(
+              metadataIndexPair.left.getOffset(), metadataIndexPair.right, false, null);
     } catch (Exception e) {
       logger.error(METADATA_INDEX_NODE_DESERIALIZE_ERROR, file);
       throw e;
@@ -648,27 +825,20 @@ public class TsFileSequenceReader implements AutoCloseable {
     if (metadataIndexPair == null) {
       return null;
     }
-    List<TimeseriesMetadata> timeseriesMetadataList = new ArrayList<>();
-    buffer = readData(metadataIndexPair.left.getOffset(), metadataIndexPair.right);
-    while (buffer.hasRemaining()) {
-      try {
-        timeseriesMetadataList.add(TimeseriesMetadata.deserializeFrom(buffer, true));
-      } catch (Exception e) {
-        logger.error(
-            "Something error happened while deserializing TimeseriesMetadata of file {}", file);
-        throw e;
-      }
-    }
+    TimeseriesMetadata timeseriesMetadata =
+        readTimeseriesMetadataInLeaf(
+            metadataIndexPair.left.getOffset(),
+            metadataIndexPair.right,
+            path.getMeasurement(),
+            null);
     // return null if path does not exist in the TsFile
-    int searchResult =
-        binarySearchInTimeseriesMetadataList(timeseriesMetadataList, path.getMeasurement());
-    if (searchResult >= 0) {
+    if (timeseriesMetadata != null) {
       if (firstTimeseriesMetadata != null) {
         List<TimeseriesMetadata> valueTimeseriesMetadataList = new ArrayList<>();
-        valueTimeseriesMetadataList.add(timeseriesMetadataList.get(searchResult));
+        valueTimeseriesMetadataList.add(timeseriesMetadata);
         return new AlignedTimeSeriesMetadata(firstTimeseriesMetadata, valueTimeseriesMetadataList);
       } else {
-        return timeseriesMetadataList.get(searchResult);
+        return timeseriesMetadata;
       }
     } else {
       return null;
@@ -1190,26 +1360,23 @@ public class TsFileSequenceReader implements AutoCloseable {
 
     // Aligned timeseries
     if (measurementNode.getNodeType().equals(MetadataIndexNodeType.LEAF_MEASUREMENT)) {
-      ByteBuffer buffer;
-      if (measurementNode.getChildren().size() > 1) {
-        buffer =
-            readData(
-                measurementNode.getChildren().get(0).getOffset(),
-                measurementNode.getChildren().get(1).getOffset());
-      } else {
-        buffer =
-            readData(
-                measurementNode.getChildren().get(0).getOffset(), measurementNode.getEndOffset());
-      }
-      return TimeseriesMetadata.deserializeFrom(buffer, true);
+      long start = measurementNode.getChildren().get(0).getOffset();
+      long end =
+          measurementNode.getChildren().size() > 1
+              ? measurementNode.getChildren().get(1).getOffset()
+              : measurementNode.getEndOffset();
+      if (metadataCache != null) {
+        // the measurements following the time column are likely to be looked up next
+        return readTimeseriesMetadataInLeaf(start, end, null, null);
+      }
+      return TimeseriesMetadata.deserializeFrom(readData(start, end), true);
     } else if (measurementNode.getNodeType().equals(MetadataIndexNodeType.INTERNAL_MEASUREMENT)) {
-      ByteBuffer buffer =
-          readData(
-              measurementNode.getChildren().get(0).getOffset(),
-              measurementNode.getChildren().get(1).getOffset());
       MetadataIndexNode metadataIndexNode =
-          deserializeConfig.measurementMetadataIndexNodeBufferDeserializer.deserialize(
-              buffer, deserializeConfig);
+          readMetadataIndexNode(
+              measurementNode.getChildren().get(0).getOffset(),
+              measurementNode.getChildren().get(1).getOffset(),
+              false,
+              null);
       return getTimeColumnMetadata(metadataIndexNode);
     }
     return null;
@@ -1616,11 +1783,9 @@ public class TsFileSequenceReader implements AutoCloseable {
       if (MetadataIndexNodeType.INTERNAL_DEVICE.equals(metadataIndex.getNodeType())) {
         Pair<IMetadataIndexEntry, Long> childIndexEntry =
             metadataIndex.getChildIndexEntry(deviceID, false);
-        ByteBuffer buffer =
-            readData(childIndexEntry.left.getOffset(), childIndexEntry.right, ioSizeRecorder);
         return getMetadataAndEndOffsetOfDeviceNode(
-            deserializeConfig.deviceMetadataIndexNodeBufferDeserializer.deserialize(
-                buffer, deserializeConfig),
+            readMetadataIndexNode(
+                childIndexEntry.left.getOffset(), childIndexEntry.right, true, ioSizeRecorder),
             deviceID,
             exactSearch,
             ioSizeRecorder);
@@ -1659,11 +1824,9 @@ public class TsFileSequenceReader implements AutoCloseable {
       if (MetadataIndexNodeType.INTERNAL_MEASUREMENT.equals(metadataIndex.getNodeType())) {
         Pair<IMetadataIndexEntry, Long> childIndexEntry =
             metadataIndex.getChildIndexEntry(measurement, false);
-        ByteBuffer buffer =
-            readData(childIndexEntry.left.getOffset(), childIndexEntry.right, ioSizeRecorder);
         return getMetadataAndEndOffsetOfMeasurementNode(
-            deserializeConfig.measurementMetadataIndexNodeBufferDeserializer.deserialize(
-                buffer, deserializeConfig),
+            readMetadataIndexNode(
+                childIndexEntry.left.getOffset(), childIndexEntry.right, false, ioSizeRecorder),
             measurement,
             exactSearch,
             ioSizeRecorder);
@@ -1743,8 +1906,7 @@ public class TsFileSequenceReader implements AutoCloseable {
    * @param position the file offset of this chunk's header
    * @param ioSizeRecorder can be null
    */
-  private ChunkHeader readChunkHeader(long position, LongConsumer ioSizeRecorder)
-      throws IOException {
+  ChunkHeader readChunkHeader(long position, LongConsumer ioSizeRecorder) throws IOException {
     try {
       return ChunkHeader.deserializeFrom(tsFileInput, position, ioSizeRecorder);
     } catch (StopReadTsFileByInterruptException e) {
@@ -1838,6 +2000,119 @@ public class TsFileSequenceReader implements AutoCloseable {
     }
   }
 
+  /**
+   * Read the reference chunk of a DEXOR_CROSS value chunk. The measurement id of the reference
+   * column is recorded at the head of every page of the value chunk, and the reference chunk is
+   * found by that id among the value chunks following the time chunk, which are written next to
+   * each other.
+   *
+   * @param valueChunkOffset offset of the header of the value chunk
+   * @param timeChunkOffset offset of the header of the time chunk the value chunk belongs to, or -1
+   *     if unknown, then it is looked up in the metadata of the aligned devices
+   * @return the reference chunk, or null if the value chunk has no reference
+   */
+  public Chunk readCrossColumnReferenceChunk(
+      Chunk valueChunk, long valueChunkOffset, long timeChunkOffset) throws IOException {
+    String referenceMeasurementId = readCrossColumnReferenceMeasurementId(valueChunk);
+    if (referenceMeasurementId == null || referenceMeasurementId.isEmpty()) {
+      return null;
+    }
+    if (timeChunkOffset < 0) {
+      timeChunkOffset = findAlignedTimeChunkOffset(valueChunkOffset);
+      if (timeChunkOffset < 0) {
+        return null;
+      }
+    }
+    ChunkHeader timeChunkHeader = readChunkHeader(timeChunkOffset, null);
+    long position =
+        timeChunkOffset + timeChunkHeader.getSerializedSize() + timeChunkHeader.getDataSize();
+    long fileSize = tsFileInput.size();
+    ByteBuffer marker = ByteBuffer.allocate(Byte.BYTES);
+    while (position < fileSize) {
+      marker.clear();
+      tsFileInput.read(marker, position);
+      if (marker.get(0) != MetaMarker.VALUE_CHUNK_HEADER
+          && marker.get(0) != MetaMarker.ONLY_ONE_PAGE_VALUE_CHUNK_HEADER) {
+        // the end of the aligned chunk
+        break;
+      }
+      ChunkHeader header = readChunkHeader(position, null);
+      if (referenceMeasurementId.equals(header.getMeasurementID())) {
+        return readMemChunk(position);
+      }
+      position += header.getSerializedSize() + header.getDataSize();
+    }
+    return null;
+  }
+
+  /**
+   * @return the reference measurement id recorded in the first non-empty page, or null
+   */
+  private static String readCrossColumnReferenceMeasurementId(Chunk valueChunk) throws IOException {
+    ChunkHeader header = valueChunk.getHeader();
+    ByteBuffer chunkData = valueChunk.getData().duplicate();
+    IDecryptor decryptor = IDecryptor.getDecryptor(valueChunk.getEncryptParam());
+    while (chunkData.hasRemaining()) {
+      // the statistics of the pages are never used
+      PageHeader pageHeader =
+          (header.getChunkType() & 0x3F) == MetaMarker.ONLY_ONE_PAGE_CHUNK_HEADER
+              ? PageHeader.deserializeFrom(chunkData, (Statistics<? extends Serializable>) null)
+              : PageHeader.deserializeFrom(chunkData, header.getDataType());
+      if (pageHeader.getUncompressedSize() == 0) {
+        // an empty page has no head
+        chunkData.position(chunkData.position() + pageHeader.getCompressedSize());
+        continue;
+      }
+      ByteBuffer pageData =
+          ChunkReader.deserializePageData(pageHeader, chunkData, header, decryptor);
+      return ValuePageReader.readCrossColumnReferenceMeasurementId(pageData);
+    }
+    return null;
+  }
+
+  /**
+   * Find the offset of the time chunk that a value chunk of an aligned series belongs to. The
+   * offsets of all the time chunks are collected on the first call.
+   *
+   * @return the offset of the header of the time chunk, or -1 if there is none before the value
+   *     chunk
+   */
+  private long findAlignedTimeChunkOffset(long valueChunkOffset) throws IOException {
+    long[] offsets = alignedTimeChunkOffsets;
+    if (offsets == null) {
+      offsets = collectAlignedTimeChunkOffsets();
+      alignedTimeChunkOffsets = offsets;
+    }
+    int index = Arrays.binarySearch(offsets, valueChunkOffset);
+    // the value chunk itself is never a time chunk, so the insertion point is returned
+    int floor = -index - 2;
+    return floor < 0 ? -1 : offsets[floor];
+  }
+
+  private synchronized long[] collectAlignedTimeChunkOffsets() throws IOException {
+    if (alignedTimeChunkOffsets != null) {
+      return alignedTimeChunkOffsets;
+    }
+    List<Long> offsetList = new ArrayList<>();
+    TsFileDeviceIterator deviceIterator = getAllDevicesIteratorWithIsAligned();
+    while (deviceIterator.hasNext()) {
+      if (!deviceIterator.next().right) {
+        continue;
+      }
+      TimeseriesMetadata timeColumnMetadata =
+          getTimeColumnMetadata(deviceIterator.getFirstMeasurementNodeOfCurrentDevice());
+      for (IChunkMetadata chunkMetadata : timeColumnMetadata.getChunkMetadataList()) {
+        offsetList.add(chunkMetadata.getOffsetOfChunkHeader());
+      }
+    }
+    long[] offsets = new long[offsetList.size()];
+    for (int i = 0; i < offsets.length; i++) {
+      offsets[i] = offsetList.get(i);
+    }
+    Arrays.sort(offsets);
+    return offsets;
+  }
+
   /**
    * read memory chunk.
    *
@@ -1858,6 +2133,23 @@ public class TsFileSequenceReader implements AutoCloseable {
         getEncryptParam());
   }
 
+  /**
+   * Read the given chunks one by one while the following ones are read ahead in the background. The
+   * chunks are returned in the order of the list, and adjacent chunks are fetched with one I/O.
+   *
+   * @param chunkMetadataList chunks to read, e.g., all chunks of a device ordered by their offsets
+   * @return an iterator of the chunks, which should be closed if it is not exhausted
+   */
+  public TsFileChunkReadAheadIterator readMemChunksAhead(List<ChunkMetadata> chunkMetadataList)
+      throws IOException {
+    return new TsFileChunkReadAheadIterator(
+        this,
+        chunkMetadataList,
+        config.getChunkReadAheadNum(),
+        config.getMaxCoalescedReadSizeInByte(),
+        IoThreadPool.getInstance());
+  }
+
   /**
    * read the {@link CompressionType} and {@link TSEncoding} of a timeseries. This method will skip
    * the measurement id, and data type. This method will change the position of this reader.
@@ -1940,11 +2232,21 @@ public class TsFileSequenceReader implements AutoCloseable {
     if (decryptor == null || decryptor.getEncryptionType() == EncryptionType.UNENCRYPTED) {
       return buffer;
     }
+    if (!buffer.hasArray()) {
+      buffer = copyToHeap(buffer);
+    }
     return ByteBuffer.wrap(
         decryptor.decrypt(
             buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining()));
   }
 
+  private static ByteBuffer copyToHeap(ByteBuffer buffer) {
+    ByteBuffer heapBuffer = ByteBuffer.allocate(buffer.remaining());
+    heapBuffer.put(buffer.duplicate());
+    heapBuffer.flip();
+    return heapBuffer;
+  }
+
   private static ByteBuffer uncompress(
       CompressionType compressionType, ByteBuffer buffer, int uncompressedSize) throws IOException {
     if (compressionType == CompressionType.UNCOMPRESSED) {
@@ -1952,6 +2254,9 @@ public class TsFileSequenceReader implements AutoCloseable {
     }
     IUnCompressor unCompressor = IUnCompressor.getUnCompressor(compressionType);
     ByteBuffer uncompressedBuffer = ByteBuffer.allocate(uncompressedSize);
+    if (!buffer.hasArray()) {
+      buffer = copyToHeap(buffer);
+    }
     try {
       unCompressor.uncompress(
           buffer.array(),
@@ -1991,6 +2296,10 @@ public class TsFileSequenceReader implements AutoCloseable {
       resourceLogger.debug("{} reader is closed.", file);
     }
     this.tsFileInput.close();
+    TsFileMetadataCache cache = metadataCache;
+    if (cache != null) {
+      cache.invalidate(metadataCacheId);
+    }
   }
 
   public String getFileName() {
@@ -2033,6 +2342,17 @@ public class TsFileSequenceReader implements AutoCloseable {
     if (ioSizeRecorder != null) {
       ioSizeRecorder.accept(totalSize);
     }
+    long startTime = System.nanoTime();
+    // inputs backed by memory-mapped files can hand out the range without copying it
+    long start = position < 0 ? tsFileInput.position() : position;
+    ByteBuffer slice = tsFileInput.slice(start, totalSize);
+    if (slice != null) {
+      if (position < 0) {
+        tsFileInput.position(start + totalSize);
+      }
+      TsFileMetrics.getInstance().recordRead(totalSize, System.nanoTime() - startTime);
+      return slice;
+    }
     int allocateSize = Math.min(MAX_READ_BUFFER_SIZE, totalSize);
     int allocateNum = (int) Math.ceil((double) totalSize / allocateSize);
     ByteBuffer buffer = ByteBuffer.allocate(totalSize);
@@ -2061,6 +2381,7 @@ public class TsFileSequenceReader implements AutoCloseable {
       }
     }
     buffer.flip();
+    TsFileMetrics.getInstance().recordRead(totalSize, System.nanoTime() - startTime);
     return buffer;
   }
 
@@ -2160,6 +2481,8 @@ public class TsFileSequenceReader implements AutoCloseable {
     IDeviceID lastDeviceId = null;
     List<IMeasurementSchema> measurementSchemaList = new ArrayList<>();
     Map<String, Integer> valueColumn2TimeBatchIndex = new HashMap<>();
+    // pages of the single page DOUBLE value chunks of the current aligned chunk, by measurement id
+    Map<String, CrossColumnReferencePage> crossColumnReferencePages = new HashMap<>();
     try {
       while ((marker = this.readMarker()) != MetaMarker.SEPARATOR) {
         switch (marker) {
@@ -2188,6 +2511,9 @@ public class TsFileSequenceReader implements AutoCloseable {
                 Statistics.getStatsByType(dataType);
             int dataSize = chunkHeader.getDataSize();
 
+            if ((marker & TsFileConstant.TIME_COLUMN_MASK) == TsFileConstant.TIME_COLUMN_MASK) {
+              crossColumnReferencePages.clear();
+            }
             if (dataSize > 0) {
               if (marker == MetaMarker.TIME_CHUNK_HEADER) {
                 timeBatch.add(null);
@@ -2220,11 +2546,7 @@ public class TsFileSequenceReader implements AutoCloseable {
                     Decoder.getDecoderByType(
                         chunkHeader.getEncodingType(), chunkHeader.getDataType());
                 ByteBuffer pageData = readPage(pageHeader, chunkHeader.getCompressionType());
-                Decoder timeDecoder =
-                    Decoder.getDecoderByType(
-                        TSEncoding.valueOf(
-                            TSFileDescriptor.getInstance().getConfig().getTimeEncoder()),
-                        TSDataType.INT64);
+                Decoder timeDecoder = Decoder.getTimeDecoder(chunkHeader.getEncodingType());
 
                 if ((chunkHeader.getChunkType() & TsFileConstant.TIME_COLUMN_MASK)
                     == TsFileConstant.TIME_COLUMN_MASK) { // Time Chunk with only one page
@@ -2239,9 +2561,20 @@ public class TsFileSequenceReader implements AutoCloseable {
                 } else if ((chunkHeader.getChunkType() & TsFileConstant.VALUE_COLUMN_MASK)
                     == TsFileConstant.VALUE_COLUMN_MASK) { // Value Chunk with only one page
 
+                  if (chunkHeader.getDataType() == TSDataType.DOUBLE
+                      && chunkHeader.getEncodingType() != TSEncoding.DEXOR_CROSS) {
+                    // the reference column is written before the columns referencing it
+                    crossColumnReferencePages.put(
+                        chunkHeader.getMeasurementID(),
+                        new CrossColumnReferencePage(
+                            pageHeader, pageData.duplicate(), chunkHeader.getEncodingType()));
+                  }
                   ValuePageReader valuePageReader =
                       new ValuePageReader(
                           pageHeader, pageData, chunkHeader.getDataType(), valueDecoder);
+                  if (chunkHeader.getEncodingType() == TSEncoding.DEXOR_CROSS) {
+                    valuePageReader.setCrossColumnReferencePages(crossColumnReferencePages);
+                  }
                   int timeBatchIndex =
                       valueColumn2TimeBatchIndex.getOrDefault(chunkHeader.getMeasurementID(), 0);
                   valueColumn2TimeBatchIndex.put(
@@ -2516,10 +2849,7 @@ public class TsFileSequenceReader implements AutoCloseable {
       Decoder valueDecoder =
           Decoder.getDecoderByType(chunkHeader.getEncodingType(), chunkHeader.getDataType());
       ByteBuffer pageData = readPage(pageHeader, chunkHeader.getCompressionType());
-      Decoder timeDecoder =
-          Decoder.getDecoderByType(
-              TSEncoding.valueOf(TSFileDescriptor.getInstance().getConfig().getTimeEncoder()),
-              TSDataType.INT64);
+      Decoder timeDecoder = Decoder.getTimeDecoder(chunkHeader.getEncodingType());
       PageReader reader =
           new PageReader(
               pageHeader, pageData, chunkHeader.getDataType(), valueDecoder, timeDecoder);
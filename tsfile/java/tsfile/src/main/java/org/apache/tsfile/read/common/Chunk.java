@@ -65,6 +65,12 @@ public class Chunk {
   /** A list of deleted intervals. */
   private List<TimeRange> deleteIntervalList;
 
+  /**
+   * The reference chunk of a DEXOR_CROSS value chunk, attached when the reference column is not
+   * read by the query itself. It is only used to decode this chunk.
+   */
+  private Chunk crossColumnReferenceChunk;
+
   public Chunk(
       ChunkHeader header,
       ByteBuffer buffer,
@@ -114,6 +120,14 @@ public class Chunk {
     return chunkData;
   }
 
+  public Chunk getCrossColumnReferenceChunk() {
+    return crossColumnReferenceChunk;
+  }
+
+  public void setCrossColumnReferenceChunk(Chunk crossColumnReferenceChunk) {
+    this.crossColumnReferenceChunk = crossColumnReferenceChunk;
+  }
+
   public List<TimeRange> getDeleteIntervalList() {
     return deleteIntervalList;
   }
@@ -123,6 +137,9 @@ public class Chunk {
   }
 
   public void mergeChunkByAppendPage(Chunk chunk) throws IOException {
+    // merging works on the backing arrays, bring memory-mapped chunk data onto the heap first
+    chunkData = toHeapBuffer(chunkData);
+    chunk.chunkData = toHeapBuffer(chunk.chunkData);
     int dataSize = 0;
     // from where the page data of the merged chunk starts, if -1, it means the merged chunk has
     // more than one page
@@ -202,6 +219,19 @@ public class Chunk {
     chunkData = newChunkData;
   }
 
+  private static ByteBuffer toHeapBuffer(ByteBuffer buffer) {
+    if (buffer.hasArray()) {
+      return buffer;
+    }
+    ByteBuffer heapBuffer = ByteBuffer.allocate(buffer.capacity());
+    ByteBuffer source = buffer.duplicate();
+    source.clear();
+    heapBuffer.put(source);
+    heapBuffer.limit(buffer.limit());
+    heapBuffer.position(buffer.position());
+    return heapBuffer;
+  }
+
   public Statistics getChunkStatistic() {
     return chunkStatistic;
   }
@@ -39,6 +39,8 @@ public class ColumnEncoderFactory {
     encodingToEncoder.put(ColumnEncoding.BINARY_ARRAY, new BinaryArrayColumnEncoder());
     encodingToEncoder.put(ColumnEncoding.RLE, new RunLengthColumnEncoder());
     encodingToEncoder.put(ColumnEncoding.DICTIONARY, new DictionaryColumnEncoder());
+    encodingToEncoder.put(ColumnEncoding.DEXOR, new DeXORColumnEncoder());
+    encodingToEncoder.put(ColumnEncoding.GORILLA, new GorillaColumnEncoder());
   }
 
   public static ColumnEncoder get(ColumnEncoding columnEncoding) {
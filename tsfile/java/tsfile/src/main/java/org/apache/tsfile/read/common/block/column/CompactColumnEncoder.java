@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.read.common.block.column;
+
+import org.apache.tsfile.block.column.Column;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * A column encoder that packs the non-null values of a column into one stream of an encoding of the
+ * file format, which may take fewer bytes than the raw values.
+ */
+public abstract class CompactColumnEncoder implements ColumnEncoder {
+
+  // Serialized data layout:
+  //    +---------------+-----------------+-------------+------------+
+  //    | may have null | null indicators | stream size |   stream   |
+  //    +---------------+-----------------+-------------+------------+
+  //    | byte          | list[byte]      | int32       | list[byte] |
+  //    +---------------+-----------------+-------------+------------+
+
+  /**
+   * Encode the non-null values of the column into a stream.
+   *
+   * @return null if the encoding cannot restore the values exactly
+   */
+  abstract byte[] encodeValues(Column column);
+
+  /** Size of a raw value of the column, as written by the array encoders. */
+  abstract int getRawValueSize(Column column);
+
+  @Override
+  public void writeColumn(DataOutputStream output, Column column) throws IOException {
+    byte[] stream = encodeValues(column);
+    if (stream == null) {
+      throw new IOException(
+          "Unable to encode the " + column.getDataType() + " column without loss: " + this);
+    }
+    writeColumn(output, column, stream);
+  }
+
+  /** Write the column with the stream returned by {@link #encodeValues(Column)}. */
+  void writeColumn(DataOutputStream output, Column column, byte[] stream) throws IOException {
+    ColumnEncoder.serializeNullIndicators(output, column);
+    output.writeInt(stream.length);
+    output.write(stream);
+  }
+
+  /**
+   * Encode the non-null values of the column if the stream and its size take fewer bytes than the
+   * raw values.
+   *
+   * @return null if the raw values should be written instead
+   */
+  byte[] encodeIfSmaller(Column column) {
+    int valueCount = 0;
+    for (int i = 0, positionCount = column.getPositionCount(); i < positionCount; i++) {
+      if (!column.isNull(i)) {
+        valueCount++;
+      }
+    }
+    if (valueCount == 0) {
+      return null;
+    }
+    byte[] stream = encodeValues(column);
+    return stream != null
+            && Integer.BYTES + stream.length < (long) valueCount * getRawValueSize(column)
+        ? stream
+        : null;
+  }
+
+  /** Read the size of the stream and return the stream, moving the input behind it. */
+  static ByteBuffer readStream(ByteBuffer input) {
+    int size = input.getInt();
+    ByteBuffer stream = input.slice();
+    stream.limit(size);
+    input.position(input.position() + size);
+    return stream;
+  }
+}
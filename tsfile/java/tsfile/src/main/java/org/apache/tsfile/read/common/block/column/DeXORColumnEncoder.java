@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.read.common.block.column;
+
+import org.apache.tsfile.block.column.Column;
+import org.apache.tsfile.encoding.decoder.DoubleDeXORDecoder;
+import org.apache.tsfile.encoding.encoder.DoubleDeXOREncoder;
+import org.apache.tsfile.enums.TSDataType;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Encodes DOUBLE and FLOAT columns with DeXOR. A float is encoded as the double of its shortest
+ * decimal form, which DeXOR stores as a decimal. A column is only encoded if all its values come
+ * back bit for bit.
+ */
+public class DeXORColumnEncoder extends CompactColumnEncoder {
+
+  @Override
+  public Column readColumn(ByteBuffer input, TSDataType dataType, int positionCount) {
+    boolean[] nullIndicators = ColumnEncoder.deserializeNullIndicators(input, positionCount);
+    ByteBuffer stream = readStream(input);
+    DoubleDeXORDecoder decoder = new DoubleDeXORDecoder();
+    switch (dataType) {
+      case DOUBLE:
+        double[] doubleValues = new double[positionCount];
+        for (int i = 0; i < positionCount; i++) {
+          if (nullIndicators == null || !nullIndicators[i]) {
+            doubleValues[i] = decoder.readDouble(stream);
+          }
+        }
+        return new DoubleColumn(0, positionCount, nullIndicators, doubleValues);
+      case FLOAT:
+        float[] floatValues = new float[positionCount];
+        for (int i = 0; i < positionCount; i++) {
+          if (nullIndicators == null || !nullIndicators[i]) {
+            floatValues[i] = (float) decoder.readDouble(stream);
+          }
+        }
+        return new FloatColumn(0, positionCount, nullIndicators, floatValues);
+      default:
+        throw new IllegalArgumentException("Invalid data type: " + dataType);
+    }
+  }
+
+  @Override
+  byte[] encodeValues(Column column) {
+    TSDataType dataType = column.getDataType();
+    if (dataType != TSDataType.DOUBLE && dataType != TSDataType.FLOAT) {
+      throw new IllegalArgumentException("Invalid data type: " + dataType);
+    }
+    int positionCount = column.getPositionCount();
+    double[] values = new double[positionCount];
+    int valueCount = 0;
+    for (int i = 0; i < positionCount; i++) {
+      if (!column.isNull(i)) {
+        values[valueCount++] =
+            dataType == TSDataType.DOUBLE
+                ? column.getDouble(i)
+                : Double.parseDouble(Float.toString(column.getFloat(i)));
+      }
+    }
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try {
+      DoubleDeXOREncoder encoder = new DoubleDeXOREncoder();
+      encoder.encode(values, 0, valueCount, out);
+      encoder.flush(out);
+      byte[] stream = out.toByteArray();
+
+      // values with more digits than a double holds are not restored exactly, so the values are
+      // decoded again and compared bit for bit
+      ByteBuffer buffer = ByteBuffer.wrap(stream);
+      DoubleDeXORDecoder decoder = new DoubleDeXORDecoder();
+      for (int i = 0; i < positionCount; i++) {
+        if (column.isNull(i)) {
+          continue;
+        }
+        double value = decoder.readDouble(buffer);
+        boolean exact =
+            dataType == TSDataType.DOUBLE
+                ? Double.doubleToRawLongBits(value)
+                    == Double.doubleToRawLongBits(column.getDouble(i))
+                : Float.floatToRawIntBits((float) value)
+                    == Float.floatToRawIntBits(column.getFloat(i));
+        if (!exact) {
+          return null;
+        }
+      }
+      return stream;
+    } catch (RuntimeException e) {
+      // DeXOR does not take values of every bit pattern
+      return null;
+    }
+  }
+
+  @Override
+  int getRawValueSize(Column column) {
+    return column.getDataType() == TSDataType.FLOAT ? Float.BYTES : Double.BYTES;
+  }
+}
@@ -0,0 +1,340 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.read.common.block.column;
+
+import org.apache.tsfile.block.column.Column;
+import org.apache.tsfile.block.column.ColumnEncoding;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.utils.RamUsageEstimator;
+import org.apache.tsfile.utils.TsPrimitiveType;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.Optional;
+
+import static org.apache.tsfile.read.common.block.column.ColumnUtil.checkArrayRange;
+import static org.apache.tsfile.read.common.block.column.ColumnUtil.checkReadablePosition;
+import static org.apache.tsfile.read.common.block.column.ColumnUtil.checkValidRegion;
+import static org.apache.tsfile.utils.RamUsageEstimator.sizeOfBooleanArray;
+import static org.apache.tsfile.utils.RamUsageEstimator.sizeOfLongArray;
+
+/**
+ * A DOUBLE column kept in fixed-scale decimal form: each value is an unscaled long and the column
+ * has one scale, the value being {@code unscaled * 10^-scale}. Sums over it are exact. It reads and
+ * serializes like a {@link DoubleColumn}, except {@link #getLong} and {@link #getLongs} which
+ * return the unscaled values.
+ */
+public class DecimalColumn implements Column {
+
+  private static final int INSTANCE_SIZE =
+      (int) RamUsageEstimator.shallowSizeOfInstance(DecimalColumn.class);
+  public static final int SIZE_IN_BYTES_PER_POSITION = Long.BYTES + Byte.BYTES;
+
+  /** the largest supported scale, 10^scale is still exact as a double */
+  public static final int MAX_SCALE = 18;
+
+  private final int arrayOffset;
+  private int positionCount;
+  private boolean[] valueIsNull;
+  private final long[] values;
+  private final int scale;
+  private final double divisor;
+
+  private final long retainedSizeInBytes;
+
+  public DecimalColumn(int initialCapacity, int scale) {
+    this(0, 0, null, new long[initialCapacity], scale);
+  }
+
+  public DecimalColumn(
+      int positionCount, Optional<boolean[]> valueIsNull, long[] values, int scale) {
+    this(0, positionCount, valueIsNull.orElse(null), values, scale);
+  }
+
+  DecimalColumn(
+      int arrayOffset, int positionCount, boolean[] valueIsNull, long[] values, int scale) {
+    if (arrayOffset < 0) {
+      throw new IllegalArgumentException("arrayOffset is negative");
+    }
+    this.arrayOffset = arrayOffset;
+    if (positionCount < 0) {
+      throw new IllegalArgumentException("positionCount is negative");
+    }
+    this.positionCount = positionCount;
+
+    if (values.length - arrayOffset < positionCount) {
+      throw new IllegalArgumentException("values length is less than positionCount");
+    }
+    this.values = values;
+
+    if (valueIsNull != null && valueIsNull.length - arrayOffset < positionCount) {
+      throw new IllegalArgumentException("isNull length is less than positionCount");
+    }
+    this.valueIsNull = valueIsNull;
+
+    if (scale < 0 || scale > MAX_SCALE) {
+      throw new IllegalArgumentException("scale is out of [0, " + MAX_SCALE + "]");
+    }
+    this.scale = scale;
+    this.divisor = Math.pow(10, scale);
+
+    retainedSizeInBytes =
+        INSTANCE_SIZE + sizeOfBooleanArray(positionCount) + sizeOfLongArray(positionCount);
+  }
+
+  /**
+   * The unscaled value of a double at {@code scale} fraction digits, rounded half even from its
+   * shortest decimal representation.
+   *
+   * @throws ArithmeticException if the value does not fit into a long at this scale
+   */
+  public static long unscaledValueOf(double value, int scale) {
+    return BigDecimal.valueOf(value)
+        .setScale(scale, RoundingMode.HALF_EVEN)
+        .unscaledValue()
+        .longValueExact();
+  }
+
+  @Override
+  public TSDataType getDataType() {
+    return TSDataType.DOUBLE;
+  }
+
+  @Override
+  public ColumnEncoding getEncoding() {
+    return ColumnEncoding.INT64_ARRAY;
+  }
+
+  /** The number of fraction digits of every value in this column. */
+  public int getScale() {
+    return scale;
+  }
+
+  /** The unscaled value, i.e. the decimal value multiplied by 10^scale. */
+  @Override
+  public long getLong(int position) {
+    return values[position + arrayOffset];
+  }
+
+  @Override
+  public long[] getLongs() {
+    return values;
+  }
+
+  @Override
+  public double getDouble(int position) {
+    // both operands are exact for unscaled values below 2^53, so is the rounded quotient
+    return values[position + arrayOffset] / divisor;
+  }
+
+  @Override
+  public double[] getDoubles() {
+    double[] doubles = new double[values.length];
+    for (int i = arrayOffset, end = arrayOffset + positionCount; i < end; i++) {
+      doubles[i] = values[i] / divisor;
+    }
+    return doubles;
+  }
+
+  public BigDecimal getDecimal(int position) {
+    return BigDecimal.valueOf(values[position + arrayOffset], scale);
+  }
+
+  /** The exact sum of all non null values, null if there are none. */
+  public BigDecimal sum() {
+    long sum = 0;
+    boolean hasValue = false;
+    for (int i = arrayOffset, end = arrayOffset + positionCount; i < end; i++) {
+      if (valueIsNull != null && valueIsNull[i]) {
+        continue;
+      }
+      hasValue = true;
+      long next = sum + values[i];
+      if (((sum ^ next) & (values[i] ^ next)) < 0) {
+        return new BigDecimal(sumAsBigInteger(), scale);
+      }
+      sum = next;
+    }
+    return hasValue ? BigDecimal.valueOf(sum, scale) : null;
+  }
+
+  private BigInteger sumAsBigInteger() {
+    BigInteger sum = BigInteger.ZERO;
+    for (int i = arrayOffset, end = arrayOffset + positionCount; i < end; i++) {
+      if (valueIsNull == null || !valueIsNull[i]) {
+        sum = sum.add(BigInteger.valueOf(values[i]));
+      }
+    }
+    return sum;
+  }
+
+  @Override
+  public Object getObject(int position) {
+    return getDouble(position);
+  }
+
+  @Override
+  public TsPrimitiveType getTsPrimitiveType(int position) {
+    return new TsPrimitiveType.TsDouble(getDouble(position));
+  }
+
+  @Override
+  public boolean mayHaveNull() {
+    return valueIsNull != null;
+  }
+
+  @Override
+  public boolean isNull(int position) {
+    return valueIsNull != null && valueIsNull[position + arrayOffset];
+  }
+
+  @Override
+  public boolean[] isNull() {
+    if (valueIsNull == null) {
+      boolean[] res = new boolean[positionCount];
+      Arrays.fill(res, false);
+      return res;
+    }
+    return valueIsNull;
+  }
+
+  @Override
+  public int getPositionCount() {
+    return positionCount;
+  }
+
+  @Override
+  public long getRetainedSizeInBytes() {
+    return retainedSizeInBytes;
+  }
+
+  @Override
+  public long getSizeInBytes() {
+    return (long) positionCount * SIZE_IN_BYTES_PER_POSITION;
+  }
+
+  @Override
+  public Column getRegion(int positionOffset, int length) {
+    checkValidRegion(getPositionCount(), positionOffset, length);
+    return new DecimalColumn(positionOffset + arrayOffset, length, valueIsNull, values, scale);
+  }
+
+  @Override
+  public Column getRegionCopy(int positionOffset, int length) {
+    checkValidRegion(getPositionCount(), positionOffset, length);
+
+    int from = positionOffset + arrayOffset;
+    int to = from + length;
+    boolean[] valueIsNullCopy =
+        valueIsNull != null ? Arrays.copyOfRange(valueIsNull, from, to) : null;
+    long[] valuesCopy = Arrays.copyOfRange(values, from, to);
+
+    return new DecimalColumn(0, length, valueIsNullCopy, valuesCopy, scale);
+  }
+
+  @Override
+  public Column subColumn(int fromIndex) {
+    if (fromIndex > positionCount) {
+      throw new IllegalArgumentException("fromIndex is not valid");
+    }
+    return new DecimalColumn(
+        arrayOffset + fromIndex, positionCount - fromIndex, valueIsNull, values, scale);
+  }
+
+  @Override
+  public Column subColumnCopy(int fromIndex) {
+    if (fromIndex > positionCount) {
+      throw new IllegalArgumentException("fromIndex is not valid");
+    }
+
+    int from = arrayOffset + fromIndex;
+    int to = arrayOffset + positionCount;
+    boolean[] valueIsNullCopy =
+        valueIsNull != null ? Arrays.copyOfRange(valueIsNull, from, to) : null;
+    long[] valuesCopy = Arrays.copyOfRange(values, from, to);
+
+    int length = positionCount - fromIndex;
+    return new DecimalColumn(0, length, valueIsNullCopy, valuesCopy, scale);
+  }
+
+  @Override
+  public Column getPositions(int[] positions, int offset, int length) {
+    checkArrayRange(positions, offset, length);
+
+    return DictionaryColumn.createInternal(
+        offset, length, this, positions, DictionaryId.randomDictionaryId());
+  }
+
+  @Override
+  public Column copyPositions(int[] positions, int offset, int length) {
+    checkArrayRange(positions, offset, length);
+
+    boolean[] newValueIsNull = null;
+    if (valueIsNull != null) {
+      newValueIsNull = new boolean[length];
+    }
+    long[] newValues = new long[length];
+    for (int i = 0; i < length; i++) {
+      int position = positions[offset + i];
+      checkReadablePosition(this, position);
+      if (newValueIsNull != null) {
+        newValueIsNull[i] = valueIsNull[position + arrayOffset];
+      }
+      newValues[i] = values[position + arrayOffset];
+    }
+    return new DecimalColumn(0, length, newValueIsNull, newValues, scale);
+  }
+
+  @Override
+  public void reverse() {
+    for (int i = arrayOffset, j = arrayOffset + positionCount - 1; i < j; i++, j--) {
+      long valueTmp = values[i];
+      values[i] = values[j];
+      values[j] = valueTmp;
+    }
+    if (valueIsNull != null) {
+      for (int i = arrayOffset, j = arrayOffset + positionCount - 1; i < j; i++, j--) {
+        boolean isNullTmp = valueIsNull[i];
+        valueIsNull[i] = valueIsNull[j];
+        valueIsNull[j] = isNullTmp;
+      }
+    }
+  }
+
+  @Override
+  public int getInstanceSize() {
+    return INSTANCE_SIZE;
+  }
+
+  @Override
+  public void setPositionCount(int count) {
+    positionCount = count;
+  }
+
+  @Override
+  public void setNull(int start, int end) {
+    if (valueIsNull == null) {
+      valueIsNull = new boolean[values.length];
+    }
+    Arrays.fill(valueIsNull, start, end, true);
+  }
+}
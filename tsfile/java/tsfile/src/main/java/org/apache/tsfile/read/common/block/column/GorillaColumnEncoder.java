@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.read.common.block.column;
+
+import org.apache.tsfile.block.column.Column;
+import org.apache.tsfile.encoding.decoder.LongGorillaDecoder;
+import org.apache.tsfile.encoding.encoder.LongGorillaEncoder;
+import org.apache.tsfile.enums.TSDataType;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+
+import static org.apache.tsfile.common.conf.TSFileConfig.GORILLA_ENCODING_ENDING_LONG;
+
+/** Encodes INT64 columns, i.e. the time column, with Gorilla. */
+public class GorillaColumnEncoder extends CompactColumnEncoder {
+
+  @Override
+  public Column readColumn(ByteBuffer input, TSDataType dataType, int positionCount) {
+    if (dataType != TSDataType.INT64 && dataType != TSDataType.TIMESTAMP) {
+      throw new IllegalArgumentException("Invalid data type: " + dataType);
+    }
+    boolean[] nullIndicators = ColumnEncoder.deserializeNullIndicators(input, positionCount);
+    ByteBuffer stream = readStream(input);
+    LongGorillaDecoder decoder = new LongGorillaDecoder();
+    long[] values = new long[positionCount];
+    for (int i = 0; i < positionCount; i++) {
+      if (nullIndicators == null || !nullIndicators[i]) {
+        values[i] = decoder.readLong(stream);
+      }
+    }
+    return new LongColumn(0, positionCount, nullIndicators, values);
+  }
+
+  @Override
+  byte[] encodeValues(Column column) {
+    TSDataType dataType = column.getDataType();
+    if (dataType != TSDataType.INT64 && dataType != TSDataType.TIMESTAMP) {
+      throw new IllegalArgumentException("Invalid data type: " + dataType);
+    }
+    LongGorillaEncoder encoder = new LongGorillaEncoder();
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    for (int i = 0, positionCount = column.getPositionCount(); i < positionCount; i++) {
+      if (column.isNull(i)) {
+        continue;
+      }
+      long value = column.getLong(i);
+      if (value == GORILLA_ENCODING_ENDING_LONG) {
+        // the value would end the stream
+        return null;
+      }
+      encoder.encode(value, out);
+    }
+    encoder.flush(out);
+    return out.toByteArray();
+  }
+
+  @Override
+  int getRawValueSize(Column column) {
+    return Long.BYTES;
+  }
+}
@@ -21,6 +21,7 @@ package org.apache.tsfile.read.common.block.column;
 
 import org.apache.tsfile.block.column.Column;
 import org.apache.tsfile.block.column.ColumnEncoding;
+import org.apache.tsfile.common.conf.TSFileDescriptor;
 import org.apache.tsfile.enums.TSDataType;
 import org.apache.tsfile.read.common.block.TsBlock;
 
@@ -109,22 +110,64 @@ public class TsBlockSerde {
     // Position count.
     dataOutputStream.writeInt(tsBlock.getPositionCount());
 
-    // Column encodings.
-    tsBlock.getTimeColumn().getEncoding().serializeTo(dataOutputStream);
-    for (int i = 0; i < tsBlock.getValueColumnCount(); i++) {
-      tsBlock.getColumn(i).getEncoding().serializeTo(dataOutputStream);
+    // Columns, the time column and double and float columns may be shipped with a compact
+    // encoding instead of their raw values.
+    int columnCount = tsBlock.getValueColumnCount() + 1;
+    Column[] columns = new Column[columnCount];
+    columns[0] = tsBlock.getTimeColumn();
+    for (int i = 1; i < columnCount; i++) {
+      columns[i] = tsBlock.getColumn(i - 1);
+    }
+    ColumnEncoding[] columnEncodings = new ColumnEncoding[columnCount];
+    byte[][] compactStreams = new byte[columnCount][];
+    boolean compactEncodingEnabled =
+        TSFileDescriptor.getInstance().getConfig().isTsBlockCompactEncodingEnabled();
+    for (int i = 0; i < columnCount; i++) {
+      columnEncodings[i] = columns[i].getEncoding();
+      ColumnEncoding compactEncoding =
+          compactEncodingEnabled ? getCompactEncoding(columns[i], i == 0) : null;
+      if (compactEncoding != null) {
+        compactStreams[i] =
+            ((CompactColumnEncoder) ColumnEncoderFactory.get(compactEncoding))
+                .encodeIfSmaller(columns[i]);
+        if (compactStreams[i] != null) {
+          columnEncodings[i] = compactEncoding;
+        }
+      }
     }
 
-    // Time column.
-    ColumnEncoder columnEncoder = ColumnEncoderFactory.get(tsBlock.getTimeColumn().getEncoding());
-    columnEncoder.writeColumn(dataOutputStream, tsBlock.getTimeColumn());
+    // Column encodings.
+    for (ColumnEncoding columnEncoding : columnEncodings) {
+      columnEncoding.serializeTo(dataOutputStream);
+    }
 
-    for (int i = 0; i < tsBlock.getValueColumnCount(); i++) {
-      // Value column.
-      columnEncoder = ColumnEncoderFactory.get(tsBlock.getColumn(i).getEncoding());
-      columnEncoder.writeColumn(dataOutputStream, tsBlock.getColumn(i));
+    // Time column and value columns.
+    for (int i = 0; i < columnCount; i++) {
+      ColumnEncoder columnEncoder = ColumnEncoderFactory.get(columnEncodings[i]);
+      if (compactStreams[i] != null) {
+        ((CompactColumnEncoder) columnEncoder)
+            .writeColumn(dataOutputStream, columns[i], compactStreams[i]);
+      } else {
+        columnEncoder.writeColumn(dataOutputStream, columns[i]);
+      }
     }
 
     return ByteBuffer.wrap(byteArrayOutputStream.toByteArray());
   }
+
+  /**
+   * The compact encoding that may replace the raw values of a column, GORILLA for the time column
+   * and DEXOR for double and float columns, or null if there is none.
+   */
+  private static ColumnEncoding getCompactEncoding(Column column, boolean isTimeColumn) {
+    if (isTimeColumn) {
+      return column.getEncoding() == ColumnEncoding.INT64_ARRAY ? ColumnEncoding.GORILLA : null;
+    }
+    TSDataType dataType = column.getDataType();
+    if ((dataType == TSDataType.DOUBLE && column.getEncoding() == ColumnEncoding.INT64_ARRAY)
+        || (dataType == TSDataType.FLOAT && column.getEncoding() == ColumnEncoding.INT32_ARRAY)) {
+      return ColumnEncoding.DEXOR;
+    }
+    return null;
+  }
 }
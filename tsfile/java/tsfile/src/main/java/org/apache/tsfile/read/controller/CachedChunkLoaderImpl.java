@@ -20,9 +20,14 @@
 package org.apache.tsfile.read.controller;
 
 import org.apache.tsfile.common.cache.LRUCache;
+import org.apache.tsfile.common.conf.TSFileDescriptor;
+import org.apache.tsfile.common.constant.TsFileConstant;
+import org.apache.tsfile.file.header.ChunkHeader;
 import org.apache.tsfile.file.metadata.ChunkMetadata;
 import org.apache.tsfile.file.metadata.IChunkMetadata;
+import org.apache.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.tsfile.file.metadata.statistics.Statistics;
+import org.apache.tsfile.read.TsFileChunkReadAheadIterator;
 import org.apache.tsfile.read.TsFileSequenceReader;
 import org.apache.tsfile.read.common.Chunk;
 import org.apache.tsfile.read.common.TimeRange;
@@ -68,6 +73,21 @@ public class CachedChunkLoaderImpl implements IChunkLoader {
 
   @Override
   public Chunk loadChunk(ChunkMetadata chunkMetaData) throws IOException {
+    Chunk chunk = loadCachedChunk(chunkMetaData);
+    attachCrossColumnReferenceChunk(chunk, chunkMetaData, -1);
+    return chunk;
+  }
+
+  @Override
+  public Chunk loadValueChunk(ChunkMetadata timeChunkMetadata, ChunkMetadata valueChunkMetadata)
+      throws IOException {
+    Chunk chunk = loadCachedChunk(valueChunkMetadata);
+    attachCrossColumnReferenceChunk(
+        chunk, valueChunkMetadata, timeChunkMetadata.getOffsetOfChunkHeader());
+    return chunk;
+  }
+
+  private Chunk loadCachedChunk(ChunkMetadata chunkMetaData) throws IOException {
     Chunk chunk = chunkCache.get(new ChunkCacheKey(chunkMetaData));
     return new Chunk(
         chunk.getHeader(),
@@ -77,6 +97,27 @@ public class CachedChunkLoaderImpl implements IChunkLoader {
         reader.getEncryptParam());
   }
 
+  private void attachCrossColumnReferenceChunk(
+      Chunk chunk, ChunkMetadata chunkMetaData, long timeChunkOffset) throws IOException {
+    ChunkHeader header = chunk.getHeader();
+    if (header.getEncodingType() == TSEncoding.DEXOR_CROSS
+        && (header.getChunkType() & TsFileConstant.VALUE_COLUMN_MASK) != 0) {
+      chunk.setCrossColumnReferenceChunk(
+          reader.readCrossColumnReferenceChunk(
+              chunk, chunkMetaData.getOffsetOfChunkHeader(), timeChunkOffset));
+    }
+  }
+
+  /** The chunks read ahead bypass the cache, they are consumed once by a sequential scan. */
+  @Override
+  public TsFileChunkReadAheadIterator loadChunksAhead(List<ChunkMetadata> chunkMetadataList)
+      throws IOException {
+    if (TSFileDescriptor.getInstance().getConfig().getChunkReadAheadNum() <= 0) {
+      return null;
+    }
+    return reader.readMemChunksAhead(chunkMetadataList);
+  }
+
   @Override
   public void close() throws IOException {
     reader.close();
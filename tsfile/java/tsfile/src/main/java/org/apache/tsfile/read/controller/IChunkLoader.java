@@ -21,17 +21,42 @@ package org.apache.tsfile.read.controller;
 
 import org.apache.tsfile.file.metadata.ChunkMetadata;
 import org.apache.tsfile.file.metadata.IChunkMetadata;
+import org.apache.tsfile.read.TsFileChunkReadAheadIterator;
 import org.apache.tsfile.read.common.Chunk;
 import org.apache.tsfile.read.filter.basic.Filter;
 import org.apache.tsfile.read.reader.IChunkReader;
 
 import java.io.IOException;
+import java.util.List;
 
 public interface IChunkLoader {
 
-  /** read all content of any chunk. */
+  /**
+   * read all content of any chunk. The reference chunk is attached if it is a value chunk encoded
+   * by DEXOR_CROSS and the loader can locate it.
+   */
   Chunk loadChunk(ChunkMetadata chunkMetaData) throws IOException;
 
+  /**
+   * read a value chunk of an aligned series. The reference chunk is attached if the value chunk is
+   * encoded by DEXOR_CROSS, the time chunk saves the loader from looking up where the aligned chunk
+   * starts.
+   */
+  default Chunk loadValueChunk(ChunkMetadata timeChunkMetadata, ChunkMetadata valueChunkMetadata)
+      throws IOException {
+    return loadChunk(valueChunkMetadata);
+  }
+
+  /**
+   * read the given chunks in order while the following ones are already fetched in the background.
+   *
+   * @return null if the loader does not read ahead, then the chunks should be loaded one by one
+   */
+  default TsFileChunkReadAheadIterator loadChunksAhead(List<ChunkMetadata> chunkMetadataList)
+      throws IOException {
+    return null;
+  }
+
   /** close the file reader. */
   void close() throws IOException;
 
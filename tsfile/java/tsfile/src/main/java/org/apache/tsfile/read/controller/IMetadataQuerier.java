@@ -23,6 +23,7 @@ import org.apache.tsfile.enums.TSDataType;
 import org.apache.tsfile.exception.write.NoMeasurementException;
 import org.apache.tsfile.file.metadata.IChunkMetadata;
 import org.apache.tsfile.file.metadata.IDeviceID;
+import org.apache.tsfile.file.metadata.ITimeSeriesMetadata;
 import org.apache.tsfile.file.metadata.MetadataIndexNode;
 import org.apache.tsfile.file.metadata.TableSchema;
 import org.apache.tsfile.file.metadata.TsFileMetadata;
@@ -54,6 +55,12 @@ public interface IMetadataQuerier {
 
   Map<Path, List<IChunkMetadata>> getChunkMetaDataMap(List<Path> paths) throws IOException;
 
+  /**
+   * @return the timeseries metadata of the path, aligned if the device is aligned, or null if the
+   *     path does not exist
+   */
+  ITimeSeriesMetadata getTimeseriesMetadata(Path path) throws IOException;
+
   TsFileMetadata getWholeFileMetadata();
 
   Map<String, TableSchema> getTableSchemaMap();
@@ -126,6 +126,11 @@ public class MetadataQuerierByFileImpl implements IMetadataQuerier {
     return chunkMetaDatas;
   }
 
+  @Override
+  public ITimeSeriesMetadata getTimeseriesMetadata(Path path) throws IOException {
+    return tsFileReader.readITimeseriesMetadata(path, true);
+  }
+
   @Override
   public TsFileMetadata getWholeFileMetadata() {
     return fileMetaData;
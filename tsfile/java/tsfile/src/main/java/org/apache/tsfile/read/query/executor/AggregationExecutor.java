@@ -0,0 +1,343 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.read.query.executor;
+
+import org.apache.tsfile.block.column.Column;
+import org.apache.tsfile.block.column.ColumnBuilder;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.file.metadata.AbstractAlignedChunkMetadata;
+import org.apache.tsfile.file.metadata.AbstractAlignedTimeSeriesMetadata;
+import org.apache.tsfile.file.metadata.ChunkMetadata;
+import org.apache.tsfile.file.metadata.IChunkMetadata;
+import org.apache.tsfile.file.metadata.IMetadata;
+import org.apache.tsfile.file.metadata.ITimeSeriesMetadata;
+import org.apache.tsfile.file.metadata.TimeseriesMetadata;
+import org.apache.tsfile.file.metadata.statistics.Statistics;
+import org.apache.tsfile.read.common.Path;
+import org.apache.tsfile.read.common.block.TsBlock;
+import org.apache.tsfile.read.common.block.TsBlockBuilder;
+import org.apache.tsfile.read.controller.IChunkLoader;
+import org.apache.tsfile.read.controller.IMetadataQuerier;
+import org.apache.tsfile.read.filter.basic.Filter;
+import org.apache.tsfile.read.filter.factory.TimeFilterApi;
+import org.apache.tsfile.read.reader.IChunkReader;
+import org.apache.tsfile.read.reader.IPageReader;
+import org.apache.tsfile.read.reader.chunk.AlignedChunkReader;
+import org.apache.tsfile.read.reader.chunk.ChunkReader;
+import org.apache.tsfile.write.UnSupportedDataTypeException;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Aggregates single series of a TsFile, answering COUNT, MIN, MAX, FIRST, LAST and SUM from the
+ * statistics. A timeseries, chunk or page lying entirely inside the time filter contributes its
+ * statistics as a whole, only the pages crossed by a bound of the filter are decoded.
+ */
+public class AggregationExecutor {
+
+  /** M4 downsampling for visualization: the first, last, smallest and largest value per window. */
+  public static final List<AggregationType> M4 =
+      Collections.unmodifiableList(
+          Arrays.asList(
+              AggregationType.FIRST_VALUE,
+              AggregationType.LAST_VALUE,
+              AggregationType.MIN_VALUE,
+              AggregationType.MAX_VALUE));
+
+  private final IMetadataQuerier metadataQuerier;
+  private final IChunkLoader chunkLoader;
+
+  public AggregationExecutor(IMetadataQuerier metadataQuerier, IChunkLoader chunkLoader) {
+    this.metadataQuerier = metadataQuerier;
+    this.chunkLoader = chunkLoader;
+  }
+
+  /**
+   * @param paths the series to aggregate
+   * @param timeFilter a filter on time only, null to aggregate the whole series
+   * @return the statistics of the selected points of each path, null for a path not in the file
+   */
+  public List<Statistics<? extends Serializable>> aggregate(List<Path> paths, Filter timeFilter)
+      throws IOException {
+    List<Statistics<? extends Serializable>> results = new ArrayList<>(paths.size());
+    for (Path path : paths) {
+      results.add(aggregate(path, timeFilter));
+    }
+    return results;
+  }
+
+  /**
+   * @param timeFilter a filter on time only, null to aggregate the whole series
+   * @return the statistics of the selected points, empty if there are none, or null if the path is
+   *     not in the file
+   */
+  public Statistics<? extends Serializable> aggregate(Path path, Filter timeFilter)
+      throws IOException {
+    Windows windows = new Windows(0, 0, 1);
+    if (aggregate(path, timeFilter, windows) == null) {
+      return null;
+    }
+    return windows.get(0);
+  }
+
+  /**
+   * Aggregate a series in the tumbling windows [startTime + k * interval, startTime + (k + 1) *
+   * interval) of [startTime, endTime). A window covering a whole page, chunk or timeseries is
+   * answered from its statistics, only the pages crossing a window bound are decoded.
+   *
+   * @return one row per window holding at least one point, with the window start as time and one
+   *     column per aggregation, or null if the path is not in the file
+   */
+  public TsBlock aggregateByWindow(
+      Path path, long startTime, long endTime, long interval, List<AggregationType> aggregations)
+      throws IOException {
+    if (interval <= 0 || endTime <= startTime) {
+      throw new IllegalArgumentException(
+          String.format("Illegal windows [%d, %d) of %d", startTime, endTime, interval));
+    }
+    long windowCount = (endTime - startTime - 1) / interval + 1;
+    if (windowCount > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Too many windows: " + windowCount);
+    }
+    Windows windows = new Windows(startTime, interval, (int) windowCount);
+    TSDataType dataType = aggregate(path, TimeFilterApi.between(startTime, endTime - 1), windows);
+    if (dataType == null) {
+      return null;
+    }
+
+    List<TSDataType> outputTypes = new ArrayList<>(aggregations.size());
+    for (AggregationType aggregation : aggregations) {
+      outputTypes.add(aggregation.getOutputType(dataType));
+    }
+    TsBlockBuilder builder = new TsBlockBuilder(outputTypes);
+    for (int i = 0; i < windowCount; i++) {
+      Statistics<? extends Serializable> statistics = windows.statistics[i];
+      if (statistics == null || statistics.isEmpty()) {
+        continue;
+      }
+      builder.getTimeColumnBuilder().writeLong(startTime + i * interval);
+      for (int j = 0; j < aggregations.size(); j++) {
+        ColumnBuilder columnBuilder = builder.getColumnBuilder(j);
+        switch (aggregations.get(j)) {
+          case COUNT:
+            columnBuilder.writeLong(statistics.getCount());
+            break;
+          case SUM:
+            columnBuilder.writeDouble(statistics.getSumDoubleValue());
+            break;
+          case AVG:
+            columnBuilder.writeDouble(statistics.getSumDoubleValue() / statistics.getCount());
+            break;
+          case MIN_VALUE:
+            columnBuilder.writeObject(statistics.getMinValue());
+            break;
+          case MAX_VALUE:
+            columnBuilder.writeObject(statistics.getMaxValue());
+            break;
+          case FIRST_VALUE:
+            columnBuilder.writeObject(statistics.getFirstValue());
+            break;
+          case LAST_VALUE:
+            columnBuilder.writeObject(statistics.getLastValue());
+            break;
+          default:
+            throw new UnsupportedOperationException(aggregations.get(j).name());
+        }
+      }
+      builder.declarePosition();
+    }
+    return builder.build();
+  }
+
+  /**
+   * Accumulate the selected points of a series into the windows.
+   *
+   * @return the data type of the series, or null if the path is not in the file
+   */
+  private TSDataType aggregate(Path path, Filter timeFilter, Windows windows) throws IOException {
+    ITimeSeriesMetadata timeseriesMetadata = metadataQuerier.getTimeseriesMetadata(path);
+    if (timeseriesMetadata == null) {
+      return null;
+    }
+    TSDataType dataType = getDataType(timeseriesMetadata);
+    windows.dataType = dataType;
+    if (timeFilter != null && timeFilter.canSkip(timeseriesMetadata)) {
+      return dataType;
+    }
+    if (isCovered(timeseriesMetadata, timeseriesMetadata.isModified(), timeFilter, windows)) {
+      mergeStatistics(windows, timeseriesMetadata);
+      return dataType;
+    }
+
+    for (IChunkMetadata chunkMetadata : metadataQuerier.getChunkMetaDataList(path)) {
+      if (timeFilter != null && timeFilter.canSkip(chunkMetadata)) {
+        continue;
+      }
+      if (isCovered(chunkMetadata, chunkMetadata.isModified(), timeFilter, windows)) {
+        mergeStatistics(windows, chunkMetadata);
+        continue;
+      }
+      for (IPageReader pageReader : loadPageReaders(chunkMetadata, timeFilter)) {
+        if (timeFilter != null && timeFilter.canSkip(pageReader)) {
+          continue;
+        }
+        if (isCovered(pageReader, pageReader.isModified(), timeFilter, windows)) {
+          mergeStatistics(windows, pageReader);
+        } else {
+          // only the pages at the bounds of the filter or of a window are decoded
+          pageReader.initTsBlockBuilder(Collections.singletonList(dataType));
+          updateStatistics(windows, dataType, pageReader.getAllSatisfiedData());
+        }
+      }
+    }
+    return dataType;
+  }
+
+  /**
+   * Whether the statistics of a unit can be taken as a whole, i.e. all its points go to one window.
+   */
+  private static boolean isCovered(
+      IMetadata metadata, boolean modified, Filter timeFilter, Windows windows) {
+    if (modified || (timeFilter != null && !timeFilter.allSatisfy(metadata))) {
+      return false;
+    }
+    Statistics<? extends Serializable> timeStatistics = metadata.getTimeStatistics();
+    return windows.indexOf(timeStatistics.getStartTime())
+        == windows.indexOf(timeStatistics.getEndTime());
+  }
+
+  private static void mergeStatistics(Windows windows, IMetadata metadata) {
+    // absent if all values of an aligned series are null
+    metadata
+        .getMeasurementStatistics(0)
+        .ifPresent(
+            statistics ->
+                windows
+                    .get(windows.indexOf(statistics.getStartTime()))
+                    .mergeStatistics(statistics));
+  }
+
+  private static TSDataType getDataType(ITimeSeriesMetadata timeseriesMetadata) {
+    if (timeseriesMetadata instanceof AbstractAlignedTimeSeriesMetadata) {
+      return ((AbstractAlignedTimeSeriesMetadata) timeseriesMetadata)
+          .getValueTimeseriesMetadataList()
+          .get(0)
+          .getTsDataType();
+    }
+    return ((TimeseriesMetadata) timeseriesMetadata).getTsDataType();
+  }
+
+  private List<IPageReader> loadPageReaders(IChunkMetadata chunkMetadata, Filter timeFilter)
+      throws IOException {
+    IChunkReader chunkReader;
+    if (chunkMetadata instanceof ChunkMetadata) {
+      chunkReader =
+          new ChunkReader(chunkLoader.loadChunk((ChunkMetadata) chunkMetadata), timeFilter);
+    } else {
+      AbstractAlignedChunkMetadata alignedChunkMetadata =
+          (AbstractAlignedChunkMetadata) chunkMetadata;
+      ChunkMetadata timeChunkMetadata = (ChunkMetadata) alignedChunkMetadata.getTimeChunkMetadata();
+      IChunkMetadata valueChunkMetadata = alignedChunkMetadata.getValueChunkMetadataList().get(0);
+      if (valueChunkMetadata == null) {
+        return Collections.emptyList();
+      }
+      chunkReader =
+          new AlignedChunkReader(
+              chunkLoader.loadChunk(timeChunkMetadata),
+              Collections.singletonList(
+                  chunkLoader.loadValueChunk(
+                      timeChunkMetadata, (ChunkMetadata) valueChunkMetadata)),
+              timeFilter);
+    }
+    return chunkReader.loadPageReaderList();
+  }
+
+  private static void updateStatistics(Windows windows, TSDataType dataType, TsBlock tsBlock) {
+    Column valueColumn = tsBlock.getColumn(0);
+    for (int i = 0, count = tsBlock.getPositionCount(); i < count; i++) {
+      if (valueColumn.isNull(i)) {
+        continue;
+      }
+      long time = tsBlock.getTimeByIndex(i);
+      Statistics<? extends Serializable> statistics = windows.get(windows.indexOf(time));
+      switch (dataType) {
+        case BOOLEAN:
+          statistics.update(time, valueColumn.getBoolean(i));
+          break;
+        case INT32:
+        case DATE:
+          statistics.update(time, valueColumn.getInt(i));
+          break;
+        case INT64:
+        case TIMESTAMP:
+          statistics.update(time, valueColumn.getLong(i));
+          break;
+        case FLOAT:
+          statistics.update(time, valueColumn.getFloat(i));
+          break;
+        case DOUBLE:
+          statistics.update(time, valueColumn.getDouble(i));
+          break;
+        case TEXT:
+        case BLOB:
+        case STRING:
+          statistics.update(time, valueColumn.getBinary(i));
+          break;
+        default:
+          throw new UnSupportedDataTypeException(String.valueOf(dataType));
+      }
+    }
+  }
+
+  /**
+   * The statistics of tumbling windows [startTime + k * interval, startTime + (k + 1) * interval),
+   * or of a single window if the interval is 0.
+   */
+  private static class Windows {
+
+    private final long startTime;
+    private final long interval;
+    private final Statistics<? extends Serializable>[] statistics;
+    private TSDataType dataType;
+
+    @SuppressWarnings("unchecked")
+    private Windows(long startTime, long interval, int count) {
+      this.startTime = startTime;
+      this.interval = interval;
+      this.statistics = new Statistics[count];
+    }
+
+    private int indexOf(long time) {
+      return interval == 0 ? 0 : (int) ((time - startTime) / interval);
+    }
+
+    private Statistics<? extends Serializable> get(int index) {
+      if (statistics[index] == null) {
+        statistics[index] = Statistics.getStatsByType(dataType);
+      }
+      return statistics[index];
+    }
+  }
+}
@@ -0,0 +1,46 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.read.query.executor;
+
+import org.apache.tsfile.enums.TSDataType;
+
+/** Aggregations computed per window by {@link AggregationExecutor#aggregateByWindow}. */
+public enum AggregationType {
+  COUNT,
+  SUM,
+  AVG,
+  MIN_VALUE,
+  MAX_VALUE,
+  FIRST_VALUE,
+  LAST_VALUE;
+
+  /** The type of the aggregated value of a series of the given type. */
+  public TSDataType getOutputType(TSDataType seriesType) {
+    switch (this) {
+      case COUNT:
+        return TSDataType.INT64;
+      case SUM:
+      case AVG:
+        return TSDataType.DOUBLE;
+      default:
+        return seriesType;
+    }
+  }
+}
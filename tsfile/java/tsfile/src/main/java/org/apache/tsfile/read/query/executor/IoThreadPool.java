@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.read.query.executor;
+
+import org.apache.tsfile.common.conf.TSFileDescriptor;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The thread pool shared by the blocking file reads issued ahead of their consumers in this JVM,
+ * e.g., chunk read-ahead and reader pool warm-up. These threads mostly wait for the device, so they
+ * are kept apart from the CPU-sized {@link QueryThreadPool} and their number is given by {@code
+ * io_thread_pool_size}.
+ */
+public class IoThreadPool {
+
+  private IoThreadPool() {
+    throw new IllegalAccessError("Utility class");
+  }
+
+  public static ExecutorService getInstance() {
+    return IoThreadPoolHolder.INSTANCE;
+  }
+
+  private static class IoThreadPoolHolder {
+
+    private IoThreadPoolHolder() {
+      throw new IllegalAccessError("Utility class");
+    }
+
+    private static final ExecutorService INSTANCE =
+        Executors.newFixedThreadPool(
+            Math.max(1, TSFileDescriptor.getInstance().getConfig().getIoThreadPoolSize()),
+            new IoThreadFactory());
+  }
+
+  private static class IoThreadFactory implements ThreadFactory {
+
+    private final AtomicInteger threadIndex = new AtomicInteger();
+
+    @Override
+    public Thread newThread(Runnable r) {
+      Thread thread = new Thread(r, "TsFile-IO-" + threadIndex.getAndIncrement());
+      // never keep the JVM alive only because of idle I/O threads
+      thread.setDaemon(true);
+      return thread;
+    }
+  }
+}
@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.read.query.executor;
+
+import org.apache.tsfile.common.concurrent.BoundedExecutor;
+import org.apache.tsfile.common.conf.TSFileDescriptor;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The thread pool shared by all parallel queries in this JVM. Its size is given by {@code
+ * query_thread_pool_size}; how many of its threads one query may occupy is bounded separately by
+ * {@link BoundedExecutor}.
+ */
+public class QueryThreadPool {
+
+  private QueryThreadPool() {
+    throw new IllegalAccessError("Utility class");
+  }
+
+  public static ExecutorService getInstance() {
+    return QueryThreadPoolHolder.INSTANCE;
+  }
+
+  private static class QueryThreadPoolHolder {
+
+    private QueryThreadPoolHolder() {
+      throw new IllegalAccessError("Utility class");
+    }
+
+    private static final ExecutorService INSTANCE =
+        Executors.newFixedThreadPool(
+            Math.max(1, TSFileDescriptor.getInstance().getConfig().getQueryThreadPoolSize()),
+            new QueryThreadFactory());
+  }
+
+  private static class QueryThreadFactory implements ThreadFactory {
+
+    private final AtomicInteger threadIndex = new AtomicInteger();
+
+    @Override
+    public Thread newThread(Runnable r) {
+      Thread thread = new Thread(r, "TsFile-Query-" + threadIndex.getAndIncrement());
+      // never keep the JVM alive only because of idle query threads
+      thread.setDaemon(true);
+      return thread;
+    }
+  }
+}
@@ -19,6 +19,8 @@
 
 package org.apache.tsfile.read.query.executor;
 
+import org.apache.tsfile.common.concurrent.BoundedExecutor;
+import org.apache.tsfile.common.conf.TSFileDescriptor;
 import org.apache.tsfile.enums.ColumnCategory;
 import org.apache.tsfile.exception.read.NoColumnException;
 import org.apache.tsfile.exception.read.ReadProcessException;
@@ -49,6 +51,9 @@ public class TableQueryExecutor {
   private TableQueryOrdering tableQueryOrdering;
   private int blockSize = 1024;
 
+  /** how many columns of a device may be read and decoded concurrently, 1 means serially. */
+  private int queryParallelism = TSFileDescriptor.getInstance().getConfig().getQueryParallelism();
+
   public TableQueryExecutor(
       IMetadataQuerier metadataQuerier,
       IChunkLoader chunkLoader,
@@ -99,13 +104,24 @@ public class TableQueryExecutor {
             chunkLoader,
             timeFilter,
             measurementFilter,
-            blockSize);
+            blockSize,
+            queryParallelism > 1
+                ? new BoundedExecutor(QueryThreadPool.getInstance(), queryParallelism)
+                : null);
       case TIME:
       default:
         throw new UnsupportedOrderingException(tableQueryOrdering.toString());
     }
   }
 
+  public int getQueryParallelism() {
+    return queryParallelism;
+  }
+
+  public void setQueryParallelism(int queryParallelism) {
+    this.queryParallelism = queryParallelism;
+  }
+
   public class ColumnMapping {
     /**
      * The same column may occur multiple times in a query, but we surely do not want to read it
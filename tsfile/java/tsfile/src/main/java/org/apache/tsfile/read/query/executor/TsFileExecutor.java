@@ -19,6 +19,8 @@
 
 package org.apache.tsfile.read.query.executor;
 
+import org.apache.tsfile.common.concurrent.BoundedExecutor;
+import org.apache.tsfile.common.conf.TSFileDescriptor;
 import org.apache.tsfile.enums.TSDataType;
 import org.apache.tsfile.exception.filter.QueryFilterOptimizationException;
 import org.apache.tsfile.exception.write.NoMeasurementException;
@@ -38,23 +40,38 @@ import org.apache.tsfile.read.query.dataset.QueryDataSet;
 import org.apache.tsfile.read.reader.series.AbstractFileSeriesReader;
 import org.apache.tsfile.read.reader.series.EmptyFileSeriesReader;
 import org.apache.tsfile.read.reader.series.FileSeriesReader;
+import org.apache.tsfile.read.reader.series.PrefetchFileSeriesReader;
 import org.apache.tsfile.utils.BloomFilter;
 
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
 
 public class TsFileExecutor implements QueryExecutor {
 
   private IMetadataQuerier metadataQuerier;
   private IChunkLoader chunkLoader;
 
+  /** how many selected series may be read and decoded concurrently, 1 means serially. */
+  private int queryParallelism = TSFileDescriptor.getInstance().getConfig().getQueryParallelism();
+
   public TsFileExecutor(IMetadataQuerier metadataQuerier, IChunkLoader chunkLoader) {
     this.metadataQuerier = metadataQuerier;
     this.chunkLoader = chunkLoader;
   }
 
+  public int getQueryParallelism() {
+    return queryParallelism;
+  }
+
+  public void setQueryParallelism(int queryParallelism) {
+    this.queryParallelism = queryParallelism;
+  }
+
   @Override
   public QueryDataSet execute(QueryExpression queryExpression) throws IOException {
     // bloom filter
@@ -176,9 +193,18 @@ public class TsFileExecutor implements QueryExecutor {
       throws IOException, NoMeasurementException {
     List<AbstractFileSeriesReader> readersOfSelectedSeries = new ArrayList<>();
     List<TSDataType> dataTypes = new ArrayList<>();
+    // series are independent of each other, so their chunks can be loaded and decoded in parallel
+    // while DataSetWithoutTimeGenerator still merges the batches in the order of selectedPathList
+    BoundedExecutor executor =
+        queryParallelism > 1 && selectedPathList.size() > 1
+            ? new BoundedExecutor(QueryThreadPool.getInstance(), queryParallelism)
+            : null;
 
-    for (Path path : selectedPathList) {
-      List<IChunkMetadata> chunkMetadataList = metadataQuerier.getChunkMetaDataList(path);
+    List<List<IChunkMetadata>> chunkMetadataLists =
+        getChunkMetadataLists(selectedPathList, executor);
+    for (int i = 0; i < selectedPathList.size(); i++) {
+      Path path = selectedPathList.get(i);
+      List<IChunkMetadata> chunkMetadataList = chunkMetadataLists.get(i);
       AbstractFileSeriesReader seriesReader;
       if (chunkMetadataList.isEmpty()) {
         seriesReader = new EmptyFileSeriesReader();
@@ -205,9 +231,48 @@ public class TsFileExecutor implements QueryExecutor {
           dataType = iChunkMetadata.getDataType();
         }
         dataTypes.add(dataType);
+        if (executor != null) {
+          seriesReader = new PrefetchFileSeriesReader(seriesReader, executor);
+        }
       }
       readersOfSelectedSeries.add(seriesReader);
     }
     return new DataSetWithoutTimeGenerator(selectedPathList, dataTypes, readersOfSelectedSeries);
   }
+
+  /**
+   * Look up the chunk metadata of the paths, on the executor if there is one, as the lookups of
+   * different series read the file concurrently.
+   */
+  private List<List<IChunkMetadata>> getChunkMetadataLists(List<Path> paths, Executor executor)
+      throws IOException {
+    List<List<IChunkMetadata>> chunkMetadataLists = new ArrayList<>(paths.size());
+    if (executor == null) {
+      for (Path path : paths) {
+        chunkMetadataLists.add(metadataQuerier.getChunkMetaDataList(path));
+      }
+      return chunkMetadataLists;
+    }
+    List<FutureTask<List<IChunkMetadata>>> tasks = new ArrayList<>(paths.size());
+    for (Path path : paths) {
+      FutureTask<List<IChunkMetadata>> task =
+          new FutureTask<>(() -> metadataQuerier.getChunkMetaDataList(path));
+      executor.execute(task);
+      tasks.add(task);
+    }
+    for (FutureTask<List<IChunkMetadata>> task : tasks) {
+      try {
+        chunkMetadataLists.add(task.get());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IOException("Interrupted while reading chunk metadata", e);
+      } catch (ExecutionException e) {
+        if (e.getCause() instanceof IOException) {
+          throw (IOException) e.getCause();
+        }
+        throw new IOException("Failed to read chunk metadata", e.getCause());
+      }
+    }
+    return chunkMetadataLists;
+  }
 }
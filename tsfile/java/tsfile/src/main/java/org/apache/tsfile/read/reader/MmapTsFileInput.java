@@ -0,0 +1,248 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.read.reader;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * A {@link TsFileInput} that maps a local file read-only into memory in segments of a configurable
+ * size, so that reads are served from the page cache without a system call per read and ranges
+ * inside one segment can be handed out by {@link #slice(long, int)} without copying.
+ *
+ * <p>Only the part of the file that exists when the input is opened is mapped; anything appended
+ * afterwards is read through the underlying {@link FileChannel}. The file must not be truncated
+ * while it is mapped.
+ *
+ * <p>{@link #close()} does not unmap the segments: buffers returned by {@link #slice(long, int)}
+ * may still be referenced, e.g., by cached chunks or metadata index nodes, and touching an unmapped
+ * region would crash the JVM. A mapping is released by the GC once neither this input nor any slice
+ * of it is reachable.
+ */
+public class MmapTsFileInput implements TsFileInput {
+
+  private static final Logger logger = LoggerFactory.getLogger(MmapTsFileInput.class);
+
+  private final FileChannel channel;
+  private final String filePath;
+  private final long segmentSize;
+  private final long mappedSize;
+  private final MappedByteBuffer[] segments;
+
+  // guarded by this, like the position of a FileChannel
+  private long position;
+  private volatile boolean closed;
+
+  public MmapTsFileInput(Path file, int segmentSize) throws IOException {
+    if (segmentSize <= 0) {
+      throw new IllegalArgumentException("Illegal mmap segment size: " + segmentSize);
+    }
+    this.channel = FileChannel.open(file, StandardOpenOption.READ);
+    this.filePath = file.toString();
+    this.segmentSize = segmentSize;
+    try {
+      this.mappedSize = channel.size();
+      int segmentNum = (int) ((mappedSize + segmentSize - 1) / segmentSize);
+      this.segments = new MappedByteBuffer[segmentNum];
+      for (int i = 0; i < segmentNum; i++) {
+        long start = i * this.segmentSize;
+        segments[i] =
+            channel.map(
+                FileChannel.MapMode.READ_ONLY, start, Math.min(segmentSize, mappedSize - start));
+      }
+    } catch (IOException e) {
+      logger.error("Error happened while mapping {}", filePath);
+      channel.close();
+      throw e;
+    }
+  }
+
+  @Override
+  public long size() throws IOException {
+    try {
+      return channel.size();
+    } catch (IOException e) {
+      logger.warn("Error happened while getting {} size", filePath);
+      throw e;
+    }
+  }
+
+  @Override
+  public synchronized long position() throws IOException {
+    ensureOpen();
+    return position;
+  }
+
+  @Override
+  public synchronized TsFileInput position(long newPosition) throws IOException {
+    ensureOpen();
+    if (newPosition < 0) {
+      throw new IllegalArgumentException("Illegal position: " + newPosition);
+    }
+    position = newPosition;
+    return this;
+  }
+
+  @Override
+  public synchronized int read(ByteBuffer dst) throws IOException {
+    int readSize = read(dst, position);
+    if (readSize > 0) {
+      position += readSize;
+    }
+    return readSize;
+  }
+
+  @Override
+  public int read(ByteBuffer dst, long position) throws IOException {
+    ensureOpen();
+    if (position < 0) {
+      throw new IllegalArgumentException("Illegal position: " + position);
+    }
+    if (position >= mappedSize) {
+      // the file has grown since it was mapped
+      try {
+        return channel.read(dst, position);
+      } catch (IOException e) {
+        logger.error("Error happened while reading {} from position {}", filePath, position);
+        throw e;
+      }
+    }
+    int readSize = 0;
+    while (dst.hasRemaining() && position < mappedSize) {
+      ByteBuffer segment = segment((int) (position / segmentSize));
+      segment.position((int) (position % segmentSize));
+      int length = Math.min(dst.remaining(), segment.remaining());
+      segment.limit(segment.position() + length);
+      dst.put(segment);
+      readSize += length;
+      position += length;
+    }
+    return readSize;
+  }
+
+  @Override
+  public ByteBuffer slice(long position, int length) throws IOException {
+    ensureOpen();
+    if (position < 0 || length < 0 || position + length > mappedSize) {
+      return null;
+    }
+    int segmentIndex = (int) (position / segmentSize);
+    int offset = (int) (position % segmentSize);
+    ByteBuffer segment = segment(segmentIndex);
+    if (offset + length > segment.capacity()) {
+      // the range spans two segments
+      return null;
+    }
+    segment.position(offset);
+    segment.limit(offset + length);
+    return segment.slice();
+  }
+
+  @Override
+  public InputStream wrapAsInputStream() {
+    return new MappedInputStream();
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    // slices keep their segment reachable, so only the mappings nobody uses are released by the GC
+    Arrays.fill(segments, null);
+    try {
+      channel.close();
+    } catch (IOException e) {
+      logger.error("Error happened while closing {}", filePath);
+      throw e;
+    }
+  }
+
+  @Override
+  public String getFilePath() {
+    return filePath;
+  }
+
+  private void ensureOpen() throws ClosedChannelException {
+    if (closed) {
+      throw new ClosedChannelException();
+    }
+  }
+
+  /**
+   * @return a duplicate of the segment, a read racing with {@link #close()} may find it dropped
+   */
+  private ByteBuffer segment(int index) throws ClosedChannelException {
+    MappedByteBuffer segment = segments[index];
+    if (segment == null) {
+      throw new ClosedChannelException();
+    }
+    return segment.duplicate();
+  }
+
+  /** Reads from the current position of this input and moves it forward, like a channel does. */
+  private class MappedInputStream extends InputStream {
+
+    private final ByteBuffer singleByte = ByteBuffer.allocate(1);
+
+    @Override
+    public int read() throws IOException {
+      singleByte.clear();
+      if (MmapTsFileInput.this.read(singleByte) <= 0) {
+        return -1;
+      }
+      return singleByte.get(0) & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      if (len == 0) {
+        return 0;
+      }
+      int readSize = MmapTsFileInput.this.read(ByteBuffer.wrap(b, off, len));
+      return readSize == 0 ? -1 : readSize;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+      synchronized (MmapTsFileInput.this) {
+        long skipped = Math.max(0, Math.min(n, size() - position));
+        position += skipped;
+        return skipped;
+      }
+    }
+
+    @Override
+    public int available() throws IOException {
+      return (int) Math.min(Integer.MAX_VALUE, Math.max(0, size() - position()));
+    }
+  }
+}
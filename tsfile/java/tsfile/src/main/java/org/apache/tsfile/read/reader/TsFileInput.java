@@ -99,6 +99,20 @@ public interface TsFileInput {
    */
   int read(ByteBuffer dst, long position) throws IOException;
 
+  /**
+   * Returns a read-only view of the given range of this TsFileInput without copying it, if the
+   * underlying storage allows it. The position of this TsFileInput is not changed.
+   *
+   * @param position The position at which the range begins; must be non-negative
+   * @param length The length of the range
+   * @return a buffer whose position is 0 and limit is {@code length}, or null if this TsFileInput
+   *     cannot expose the range directly and the caller should read it into its own buffer
+   * @throws IOException If some I/O error occurs
+   */
+  default ByteBuffer slice(long position, int length) throws IOException {
+    return null;
+  }
+
   InputStream wrapAsInputStream() throws IOException;
 
   /**
@@ -25,6 +25,7 @@ import org.apache.tsfile.enums.TSDataType;
 import org.apache.tsfile.file.header.PageHeader;
 import org.apache.tsfile.file.metadata.ChunkMetadata;
 import org.apache.tsfile.file.metadata.IDeviceID;
+import org.apache.tsfile.file.metadata.LastPointSection;
 import org.apache.tsfile.file.metadata.TimeseriesMetadata;
 import org.apache.tsfile.file.metadata.enums.CompressionType;
 import org.apache.tsfile.read.TimeValuePair;
@@ -60,7 +61,11 @@ public class TsFileLastReader
   private boolean asyncIO = true;
   // when true, blob series will return a null TimeValuePair
   private boolean ignoreBlob = false;
+  private boolean initialized = false;
   private Iterator<Pair<IDeviceID, List<TimeseriesMetadata>>> timeseriesMetadataIter;
+  // the last points written by the file writer, null for files written without them
+  private ByteBuffer lastPointSection;
+  private int remainingDevicesInSection;
   private Pair<IDeviceID, List<Pair<String, TimeValuePair>>> nextValue;
 
   private BlockingQueue<Pair<IDeviceID, List<Pair<String, TimeValuePair>>>> lastValueQueue;
@@ -84,7 +89,7 @@ public class TsFileLastReader
 
   @Override
   public boolean hasNext() {
-    if (timeseriesMetadataIter == null) {
+    if (!initialized) {
       try {
         init();
       } catch (IOException e) {
@@ -98,7 +103,9 @@ public class TsFileLastReader
       return nextValue.getLeft() != null;
     }
 
-    if (asyncIO) {
+    if (lastPointSection != null) {
+      return hasNextInSection();
+    } else if (asyncIO) {
       return hasNextAsync();
     } else {
       return hasNextSync();
@@ -120,6 +127,50 @@ public class TsFileLastReader
     return nextValue.left != null;
   }
 
+  private boolean hasNextInSection() {
+    if (remainingDevicesInSection == 0) {
+      nextValue = new Pair<>(null, null);
+      return false;
+    }
+    Pair<IDeviceID, List<Pair<String, TimeValuePair>>> next =
+        LastPointSection.readDevice(lastPointSection, sequenceReader.getDeserializeContext());
+    remainingDevicesInSection--;
+    try {
+      resolveBlobLastPoints(next.left, next.right);
+    } catch (IOException e) {
+      LOGGER.error(
+          "Cannot read last points of blob series from {}", sequenceReader.getFileName(), e);
+      return false;
+    }
+    nextValue = next;
+    return true;
+  }
+
+  /** The section has no values of blob series, they are read from the chunks unless ignored. */
+  private void resolveBlobLastPoints(
+      IDeviceID deviceId, List<Pair<String, TimeValuePair>> lastPoints) throws IOException {
+    List<TimeseriesMetadata> timeseriesMetadataList = null;
+    for (Pair<String, TimeValuePair> lastPoint : lastPoints) {
+      if (lastPoint.right == null || lastPoint.right.getValue() != null) {
+        continue;
+      }
+      if (ignoreBlob) {
+        lastPoint.right = null;
+        continue;
+      }
+      if (timeseriesMetadataList == null) {
+        timeseriesMetadataList = sequenceReader.getDeviceTimeseriesMetadata(deviceId);
+      }
+      boolean isAligned = timeseriesMetadataList.get(0).getTsDataType() == TSDataType.VECTOR;
+      for (TimeseriesMetadata timeseriesMetadata : timeseriesMetadataList) {
+        if (timeseriesMetadata.getMeasurementId().equals(lastPoint.left)) {
+          lastPoint.right = readLastPoint(timeseriesMetadata, isAligned).right;
+          break;
+        }
+      }
+    }
+  }
+
   private boolean hasNextAsync() {
     try {
       nextValue = lastValueQueue.take();
@@ -270,6 +321,13 @@ public class TsFileLastReader
   }
 
   private void init() throws IOException {
+    initialized = true;
+    lastPointSection = sequenceReader.readLastPointSection();
+    if (lastPointSection != null) {
+      // a single sequential read serves all devices, no metadata index or chunk is touched
+      remainingDevicesInSection = LastPointSection.readDeviceCount(lastPointSection);
+      return;
+    }
     timeseriesMetadataIter = sequenceReader.iterAllTimeseriesMetadata(false, !ignoreBlob);
     if (asyncIO) {
       int queueCapacity = 1024;
@@ -31,6 +31,7 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.util.NoSuchElementException;
+import java.util.concurrent.Executor;
 
 public class DeviceOrderedTsBlockReader implements TsBlockReader {
 
@@ -42,6 +43,8 @@ public class DeviceOrderedTsBlockReader implements TsBlockReader {
   private SingleDeviceTsBlockReader currentReader;
   private ExpressionTree timeFilter;
   private ExpressionTree measurementFilter;
+  // null if the columns of a device are read serially
+  private final Executor executor;
 
   public DeviceOrderedTsBlockReader(
       DeviceTaskIterator taskIterator,
@@ -50,12 +53,29 @@ public class DeviceOrderedTsBlockReader implements TsBlockReader {
       ExpressionTree timeFilter,
       ExpressionTree measurementFilter,
       int blockSize) {
+    this(
+        taskIterator, metadataQuerier, chunkLoader, timeFilter, measurementFilter, blockSize, null);
+  }
+
+  /**
+   * @param executor used to read and decode the columns of each device concurrently, null to read
+   *     them serially
+   */
+  public DeviceOrderedTsBlockReader(
+      DeviceTaskIterator taskIterator,
+      IMetadataQuerier metadataQuerier,
+      IChunkLoader chunkLoader,
+      ExpressionTree timeFilter,
+      ExpressionTree measurementFilter,
+      int blockSize,
+      Executor executor) {
     this.taskIterator = taskIterator;
     this.metadataQuerier = metadataQuerier;
     this.chunkLoader = chunkLoader;
     this.blockSize = blockSize;
     this.timeFilter = timeFilter;
     this.measurementFilter = measurementFilter;
+    this.executor = executor;
   }
 
   @Override
@@ -68,7 +88,13 @@ public class DeviceOrderedTsBlockReader implements TsBlockReader {
       try {
         currentReader =
             new SingleDeviceTsBlockReader(
-                nextTask, metadataQuerier, chunkLoader, blockSize, timeFilter, measurementFilter);
+                nextTask,
+                metadataQuerier,
+                chunkLoader,
+                blockSize,
+                timeFilter,
+                measurementFilter,
+                executor);
       } catch (IOException e) {
         LOGGER.error("Failed to construct reader for {}", nextTask, e);
       }
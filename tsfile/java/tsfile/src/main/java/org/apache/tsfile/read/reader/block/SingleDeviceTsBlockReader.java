@@ -31,6 +31,7 @@ import org.apache.tsfile.read.filter.basic.Filter;
 import org.apache.tsfile.read.query.executor.task.DeviceQueryTask;
 import org.apache.tsfile.read.reader.series.AbstractFileSeriesReader;
 import org.apache.tsfile.read.reader.series.FileSeriesReader;
+import org.apache.tsfile.read.reader.series.PrefetchFileSeriesReader;
 import org.apache.tsfile.utils.Binary;
 import org.apache.tsfile.utils.TsPrimitiveType;
 
@@ -46,6 +47,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.NoSuchElementException;
+import java.util.concurrent.Executor;
 
 public class SingleDeviceTsBlockReader implements TsBlockReader {
 
@@ -69,6 +71,21 @@ public class SingleDeviceTsBlockReader implements TsBlockReader {
       ExpressionTree timeExpression,
       ExpressionTree measurementFilter)
       throws IOException {
+    this(task, metadataQuerier, chunkLoader, blockSize, timeExpression, measurementFilter, null);
+  }
+
+  /**
+   * @param executor used to read and decode the columns concurrently, null to read them serially
+   */
+  public SingleDeviceTsBlockReader(
+      DeviceQueryTask task,
+      IMetadataQuerier metadataQuerier,
+      IChunkLoader chunkLoader,
+      int blockSize,
+      ExpressionTree timeExpression,
+      ExpressionTree measurementFilter,
+      Executor executor)
+      throws IOException {
     this.task = task;
     this.blockSize = blockSize;
     this.measurementExpression = measurementFilter;
@@ -85,8 +102,22 @@ public class SingleDeviceTsBlockReader implements TsBlockReader {
             task.getIndexRoot());
 
     Filter timeFilter = timeExpression == null ? null : timeExpression.toFilter();
+    // create all the series readers before consuming any of them, so that prefetching readers can
+    // load the first batches of all columns at the same time
+    List<AbstractFileSeriesReader> seriesReaders = new ArrayList<>(chunkMetadataLists.size());
+    boolean parallel = executor != null && chunkMetadataLists.size() > 1;
     for (List<IChunkMetadata> chunkMetadataList : chunkMetadataLists) {
-      constructColumnContext(chunkMetadataList, chunkLoader, timeFilter);
+      if (chunkMetadataList.isEmpty()) {
+        seriesReaders.add(null);
+        continue;
+      }
+      AbstractFileSeriesReader seriesReader =
+          new FileSeriesReader(chunkLoader, chunkMetadataList, timeFilter, false);
+      seriesReaders.add(
+          parallel ? new PrefetchFileSeriesReader(seriesReader, executor) : seriesReader);
+    }
+    for (int i = 0; i < chunkMetadataLists.size(); i++) {
+      constructColumnContext(chunkMetadataLists.get(i), seriesReaders.get(i));
     }
 
     for (String idColumn : task.getColumnMapping().getIdColumns()) {
@@ -98,14 +129,12 @@ public class SingleDeviceTsBlockReader implements TsBlockReader {
   }
 
   private void constructColumnContext(
-      List<IChunkMetadata> chunkMetadataList, IChunkLoader chunkLoader, Filter timeFilter)
+      List<IChunkMetadata> chunkMetadataList, AbstractFileSeriesReader seriesReader)
       throws IOException {
     if (chunkMetadataList.isEmpty()) {
       return;
     }
     final IChunkMetadata chunkMetadata = chunkMetadataList.get(0);
-    AbstractFileSeriesReader seriesReader =
-        new FileSeriesReader(chunkLoader, chunkMetadataList, timeFilter, false);
     if (seriesReader.hasNextBatch()) {
       if (chunkMetadata instanceof AbstractAlignedChunkMetadata) {
         final List<String> currentChunkMeasurementNames =
@@ -19,6 +19,7 @@
 
 package org.apache.tsfile.read.reader.chunk;
 
+import org.apache.tsfile.common.metrics.TsFileMetrics;
 import org.apache.tsfile.compress.IUnCompressor;
 import org.apache.tsfile.encoding.decoder.Decoder;
 import org.apache.tsfile.encrypt.EncryptParameter;
@@ -27,18 +28,25 @@ import org.apache.tsfile.enums.TSDataType;
 import org.apache.tsfile.file.MetaMarker;
 import org.apache.tsfile.file.header.ChunkHeader;
 import org.apache.tsfile.file.header.PageHeader;
+import org.apache.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.tsfile.file.metadata.statistics.Statistics;
 import org.apache.tsfile.read.common.Chunk;
 import org.apache.tsfile.read.common.TimeRange;
 import org.apache.tsfile.read.filter.basic.Filter;
 import org.apache.tsfile.read.reader.page.AbstractAlignedPageReader;
+import org.apache.tsfile.read.reader.page.CrossColumnReferencePage;
 import org.apache.tsfile.read.reader.page.LazyLoadPageData;
+import org.apache.tsfile.read.reader.page.ValuePageReader;
 
 import java.io.IOException;
 import java.io.Serializable;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public abstract class AbstractAlignedChunkReader extends AbstractChunkReader {
   // chunk header of the time column
@@ -57,6 +65,15 @@ public abstract class AbstractAlignedChunkReader extends AbstractChunkReader {
 
   private final EncryptParameter encryptParam;
 
+  // whether any sub sensor is encoded by DEXOR_CROSS and needs the pages of its reference column
+  private boolean hasCrossColumnEncoding = false;
+  // chunk headers of the reference columns that are not sub sensors of this reader
+  private final List<ChunkHeader> referenceChunkHeaderList = new ArrayList<>();
+  // chunk data of the reference columns that are not sub sensors of this reader
+  private final List<ByteBuffer> referenceChunkDataBufferList = new ArrayList<>();
+  // page headers of the reference columns at the current page
+  private final List<PageHeader> referencePageHeaderList = new ArrayList<>();
+
   @SuppressWarnings("unchecked")
   AbstractAlignedChunkReader(
       Chunk timeChunk, List<Chunk> valueChunkList, long readStopTime, Filter queryFilter)
@@ -74,11 +91,54 @@ public abstract class AbstractAlignedChunkReader extends AbstractChunkReader {
           this.valueDeleteIntervalsList.add(chunk == null ? null : chunk.getDeleteIntervalList());
 
           valueChunkStatisticsList.add(chunk == null ? null : chunk.getChunkStatistic());
+          if (chunk != null && chunk.getHeader().getEncodingType() == TSEncoding.DEXOR_CROSS) {
+            this.hasCrossColumnEncoding = true;
+          }
         });
     this.encryptParam = timeChunk.getEncryptParam();
+    if (hasCrossColumnEncoding) {
+      addCrossColumnReferenceChunks(valueChunkList);
+    }
     initAllPageReaders(timeChunk.getChunkStatistic(), valueChunkStatisticsList);
   }
 
+  private void addCrossColumnReferenceChunks(List<Chunk> valueChunkList) {
+    Set<String> measurements = new HashSet<>();
+    for (ChunkHeader header : valueChunkHeaderList) {
+      if (header != null) {
+        measurements.add(header.getMeasurementID());
+      }
+    }
+    for (Chunk chunk : valueChunkList) {
+      Chunk referenceChunk = chunk == null ? null : chunk.getCrossColumnReferenceChunk();
+      if (referenceChunk != null
+          && measurements.add(referenceChunk.getHeader().getMeasurementID())) {
+        referenceChunkHeaderList.add(referenceChunk.getHeader());
+        referenceChunkDataBufferList.add(referenceChunk.getData());
+      }
+    }
+  }
+
+  private void deserializeReferencePageHeaders() {
+    referencePageHeaderList.clear();
+    for (int i = 0; i < referenceChunkHeaderList.size(); i++) {
+      ChunkHeader header = referenceChunkHeaderList.get(i);
+      ByteBuffer buffer = referenceChunkDataBufferList.get(i);
+      // the statistics of the reference pages are never used
+      referencePageHeaderList.add(
+          (header.getChunkType() & 0x3F) == MetaMarker.ONLY_ONE_PAGE_CHUNK_HEADER
+              ? PageHeader.deserializeFrom(buffer, (Statistics<? extends Serializable>) null)
+              : PageHeader.deserializeFrom(buffer, header.getDataType()));
+    }
+  }
+
+  private void skipReferencePages() {
+    for (int i = 0; i < referencePageHeaderList.size(); i++) {
+      ByteBuffer buffer = referenceChunkDataBufferList.get(i);
+      buffer.position(buffer.position() + referencePageHeaderList.get(i).getCompressedSize());
+    }
+  }
+
   /** construct all the page readers in this chunk */
   private void initAllPageReaders(
       Statistics<? extends Serializable> timeChunkStatistics,
@@ -121,6 +181,8 @@ public abstract class AbstractAlignedChunkReader extends AbstractChunkReader {
       }
     }
 
+    deserializeReferencePageHeaders();
+
     if (needSkipForSinglePageChunk(isAllNull, timePageHeader)) {
       // when there is only one page in the chunk, the page statistic is the same as the chunk, so
       // we needn't filter the page again
@@ -149,6 +211,8 @@ public abstract class AbstractAlignedChunkReader extends AbstractChunkReader {
       }
     }
 
+    deserializeReferencePageHeaders();
+
     if (needSkipForMultiPageChunk(isAllNull, timePageHeader)) {
       skipCurrentPage(timePageHeader, valuePageHeaderList);
       return null;
@@ -168,6 +232,8 @@ public abstract class AbstractAlignedChunkReader extends AbstractChunkReader {
   }
 
   private void skipCurrentPage(PageHeader timePageHeader, List<PageHeader> valuePageHeader) {
+    TsFileMetrics.getInstance().recordPageSkipped();
+    skipReferencePages();
     timeChunkDataBuffer.position(
         timeChunkDataBuffer.position() + timePageHeader.getCompressedSize());
     for (int i = 0; i < valuePageHeader.size(); i++) {
@@ -184,18 +250,28 @@ public abstract class AbstractAlignedChunkReader extends AbstractChunkReader {
   private AbstractAlignedPageReader constructAlignedPageReader(
       PageHeader timePageHeader, List<PageHeader> rawValuePageHeaderList) throws IOException {
     IDecryptor decrytor = IDecryptor.getDecryptor(encryptParam);
+    long startTime = System.nanoTime();
     ByteBuffer timePageData =
         ChunkReader.deserializePageData(
             timePageHeader, timeChunkDataBuffer, timeChunkHeader, decrytor);
+    TsFileMetrics.getInstance()
+        .recordPageUncompressed(
+            timePageHeader.getUncompressedSize(), System.nanoTime() - startTime);
 
     List<PageHeader> valuePageHeaderList = new ArrayList<>();
     LazyLoadPageData[] lazyLoadPageDataArray = new LazyLoadPageData[rawValuePageHeaderList.size()];
     List<TSDataType> valueDataTypeList = new ArrayList<>();
     List<Decoder> valueDecoderList = new ArrayList<>();
 
+    Map<String, CrossColumnReferencePage> crossColumnReferencePages =
+        hasCrossColumnEncoding ? new HashMap<>() : null;
+
     boolean isAllNull = true;
     for (int i = 0; i < rawValuePageHeaderList.size(); i++) {
       PageHeader valuePageHeader = rawValuePageHeaderList.get(i);
+      if (crossColumnReferencePages != null && valuePageHeader != null) {
+        collectCrossColumnReferencePage(crossColumnReferencePages, i, valuePageHeader);
+      }
 
       if (valuePageHeader == null || valuePageHeader.getUncompressedSize() == 0) {
         // Empty Page
@@ -224,7 +300,7 @@ public abstract class AbstractAlignedChunkReader extends AbstractChunkReader {
         valuePageHeaderList.add(valuePageHeader);
         lazyLoadPageDataArray[i] =
             new LazyLoadPageData(
-                valueChunkDataBufferList.get(i).array(),
+                valueChunkDataBufferList.get(i),
                 currentPagePosition,
                 IUnCompressor.getUnCompressor(valueChunkHeader.getCompressionType()),
                 encryptParam);
@@ -235,19 +311,73 @@ public abstract class AbstractAlignedChunkReader extends AbstractChunkReader {
         isAllNull = false;
       }
     }
+    if (crossColumnReferencePages != null) {
+      for (int i = 0; i < referenceChunkHeaderList.size(); i++) {
+        ChunkHeader referenceChunkHeader = referenceChunkHeaderList.get(i);
+        ByteBuffer referenceChunkDataBuffer = referenceChunkDataBufferList.get(i);
+        crossColumnReferencePages.put(
+            referenceChunkHeader.getMeasurementID(),
+            new CrossColumnReferencePage(
+                referencePageHeaderList.get(i),
+                new LazyLoadPageData(
+                    referenceChunkDataBuffer,
+                    referenceChunkDataBuffer.position(),
+                    IUnCompressor.getUnCompressor(referenceChunkHeader.getCompressionType()),
+                    encryptParam),
+                referenceChunkHeader.getEncodingType()));
+      }
+    }
+    skipReferencePages();
     if (canSkip(isAllNull, timePageHeader)) {
+      TsFileMetrics.getInstance().recordPageSkipped();
       return null;
     }
-    return constructPageReader(
-        timePageHeader,
-        timePageData,
-        defaultTimeDecoder,
-        valuePageHeaderList,
-        lazyLoadPageDataArray,
-        valueDataTypeList,
-        valueDecoderList,
-        queryFilter,
-        valueDeleteIntervalsList);
+    AbstractAlignedPageReader alignedPageReader =
+        constructPageReader(
+            timePageHeader,
+            timePageData,
+            defaultTimeDecoder,
+            valuePageHeaderList,
+            lazyLoadPageDataArray,
+            valueDataTypeList,
+            valueDecoderList,
+            queryFilter,
+            valueDeleteIntervalsList);
+    if (crossColumnReferencePages != null) {
+      List<ValuePageReader> valuePageReaderList = alignedPageReader.getValuePageReaderList();
+      for (int i = 0; i < valuePageReaderList.size(); i++) {
+        if (valuePageReaderList.get(i) != null
+            && valueChunkHeaderList.get(i).getEncodingType() == TSEncoding.DEXOR_CROSS) {
+          valuePageReaderList.get(i).setCrossColumnReferencePages(crossColumnReferencePages);
+        }
+      }
+    }
+    return alignedPageReader;
+  }
+
+  /**
+   * Record the current page of a DOUBLE sub sensor as a candidate reference of DEXOR_CROSS sub
+   * sensors. It must be called before the position of the chunk data is moved to the next page.
+   */
+  private void collectCrossColumnReferencePage(
+      Map<String, CrossColumnReferencePage> crossColumnReferencePages,
+      int index,
+      PageHeader valuePageHeader) {
+    ChunkHeader valueChunkHeader = valueChunkHeaderList.get(index);
+    if (valueChunkHeader.getDataType() != TSDataType.DOUBLE
+        || valueChunkHeader.getEncodingType() == TSEncoding.DEXOR_CROSS) {
+      return;
+    }
+    crossColumnReferencePages.put(
+        valueChunkHeader.getMeasurementID(),
+        new CrossColumnReferencePage(
+            valuePageHeader,
+            new LazyLoadPageData(
+                valueChunkDataBufferList.get(index),
+                valueChunkDataBufferList.get(index).position(),
+                IUnCompressor.getUnCompressor(valueChunkHeader.getCompressionType()),
+                encryptParam),
+            valueChunkHeader.getEncodingType()));
   }
 
   abstract boolean canSkip(boolean isAllNull, PageHeader timePageHeader);
@@ -19,6 +19,7 @@
 
 package org.apache.tsfile.read.reader.chunk;
 
+import org.apache.tsfile.common.metrics.TsFileMetrics;
 import org.apache.tsfile.compress.IUnCompressor;
 import org.apache.tsfile.encoding.decoder.Decoder;
 import org.apache.tsfile.encrypt.EncryptParameter;
@@ -27,6 +28,7 @@ import org.apache.tsfile.file.MetaMarker;
 import org.apache.tsfile.file.header.ChunkHeader;
 import org.apache.tsfile.file.header.PageHeader;
 import org.apache.tsfile.file.metadata.enums.EncryptionType;
+import org.apache.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.tsfile.file.metadata.statistics.Statistics;
 import org.apache.tsfile.read.common.Chunk;
 import org.apache.tsfile.read.common.TimeRange;
@@ -47,6 +49,8 @@ public class ChunkReader extends AbstractChunkReader {
 
   private final EncryptParameter encryptParam;
 
+  private final Decoder timeDecoder;
+
   @SuppressWarnings("unchecked")
   public ChunkReader(Chunk chunk, long readStopTime, Filter queryFilter) {
     super(readStopTime, queryFilter);
@@ -54,6 +58,10 @@ public class ChunkReader extends AbstractChunkReader {
     this.chunkDataBuffer = chunk.getData();
     this.deleteIntervalList = chunk.getDeleteIntervalList();
     this.encryptParam = chunk.getEncryptParam();
+    this.timeDecoder =
+        chunkHeader.getEncodingType() == TSEncoding.DEXOR_TIMED
+            ? Decoder.getTimeDecoder(chunkHeader.getEncodingType())
+            : defaultTimeDecoder;
     initAllPageReaders(chunk.getChunkStatistic());
   }
 
@@ -87,12 +95,14 @@ public class ChunkReader extends AbstractChunkReader {
         // if the current page satisfies
         if (pageCanSkip(pageHeader)) {
           skipCurrentPage(pageHeader);
+          TsFileMetrics.getInstance().recordPageSkipped();
           continue;
         }
       }
 
       if (pageDeleted(pageHeader)) {
         skipCurrentPage(pageHeader);
+        TsFileMetrics.getInstance().recordPageSkipped();
       } else {
         pageReaderList.add(constructPageReader(pageHeader));
       }
@@ -132,17 +142,16 @@ public class ChunkReader extends AbstractChunkReader {
   private PageReader constructPageReader(PageHeader pageHeader) {
     IUnCompressor unCompressor = IUnCompressor.getUnCompressor(chunkHeader.getCompressionType());
     // record the current position of chunkDataBuffer, use this to get the page data in PageReader
-    // through directly accessing the buffer array
+    // through directly accessing the buffer
     int currentPagePosition = chunkDataBuffer.position();
     skipCurrentPage(pageHeader);
     PageReader reader =
         new PageReader(
             pageHeader,
-            new LazyLoadPageData(
-                chunkDataBuffer.array(), currentPagePosition, unCompressor, encryptParam),
+            new LazyLoadPageData(chunkDataBuffer, currentPagePosition, unCompressor, encryptParam),
             chunkHeader.getDataType(),
             Decoder.getDecoderByType(chunkHeader.getEncodingType(), chunkHeader.getDataType()),
-            defaultTimeDecoder,
+            timeDecoder,
             queryFilter);
     reader.setDeleteIntervalList(deleteIntervalList);
     return reader;
@@ -174,9 +183,13 @@ public class ChunkReader extends AbstractChunkReader {
     int compressedPageBodyLength = pageHeader.getCompressedSize();
     byte[] uncompressedPageData = new byte[pageHeader.getUncompressedSize()];
     try {
+      ByteBuffer heapPageData =
+          compressedPageData.hasArray()
+              ? compressedPageData
+              : readCompressedPageData(pageHeader, compressedPageData.duplicate());
       unCompressor.uncompress(
-          compressedPageData.array(),
-          compressedPageData.arrayOffset() + compressedPageData.position(),
+          heapPageData.array(),
+          heapPageData.arrayOffset() + heapPageData.position(),
           compressedPageBodyLength,
           uncompressedPageData,
           0);
@@ -204,10 +217,14 @@ public class ChunkReader extends AbstractChunkReader {
     int compressedPageBodyLength = pageHeader.getCompressedSize();
     byte[] uncompressedPageData = new byte[pageHeader.getUncompressedSize()];
     try {
+      ByteBuffer heapPageData =
+          compressedPageData.hasArray()
+              ? compressedPageData
+              : readCompressedPageData(pageHeader, compressedPageData.duplicate());
       byte[] decryptedPageData =
           decryptor.decrypt(
-              compressedPageData.array(),
-              compressedPageData.arrayOffset() + compressedPageData.position(),
+              heapPageData.array(),
+              heapPageData.arrayOffset() + heapPageData.position(),
               compressedPageBodyLength);
       unCompressor.uncompress(
           decryptedPageData, 0, compressedPageBodyLength, uncompressedPageData, 0);
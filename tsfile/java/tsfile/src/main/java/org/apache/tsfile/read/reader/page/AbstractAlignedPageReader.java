@@ -125,6 +125,13 @@ public abstract class AbstractAlignedPageReader implements IPageReader {
 
   @Override
   public BatchData getAllSatisfiedPageData(boolean ascending) throws IOException {
+    long startTime = System.nanoTime();
+    BatchData pageData = buildAllSatisfiedPageData(ascending);
+    recordPageDecoded(pageData.length(), startTime);
+    return pageData;
+  }
+
+  private BatchData buildAllSatisfiedPageData(boolean ascending) throws IOException {
     BatchData pageData = BatchDataFactory.createBatchData(TSDataType.VECTOR, ascending, false);
     int timeIndex = -1;
     Object[] rowValues = new Object[valueCount];
@@ -181,6 +188,29 @@ public abstract class AbstractAlignedPageReader implements IPageReader {
 
   @Override
   public TsBlock getAllSatisfiedData() throws IOException {
+    long startTime = System.nanoTime();
+    TsBlock tsBlock = buildAllSatisfiedData();
+    recordPageDecoded(tsBlock.getPositionCount(), startTime);
+    return tsBlock;
+  }
+
+  /** The time spent decoding the aligned page is shared evenly by its value pages. */
+  private void recordPageDecoded(int returnedCount, long startTime) {
+    long nanos = System.nanoTime() - startTime;
+    int pageCount = 0;
+    for (ValuePageReader pageReader : valuePageReaderList) {
+      if (pageReader != null) {
+        pageCount++;
+      }
+    }
+    for (ValuePageReader pageReader : valuePageReaderList) {
+      if (pageReader != null) {
+        pageReader.recordPageDecoded(returnedCount, nanos / pageCount);
+      }
+    }
+  }
+
+  private TsBlock buildAllSatisfiedData() throws IOException {
     long[] timeBatch = timePageReader.getNextTimeBatch();
 
     if (allPageDataSatisfy()) {
@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.read.reader.page;
+
+import org.apache.tsfile.encoding.decoder.Decoder;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.file.header.PageHeader;
+import org.apache.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.tsfile.utils.ReadWriteIOUtils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * A page of a DOUBLE value column that may be referenced by a DEXOR_CROSS column of the same
+ * aligned chunk. It is decoded independently of the page reader of the column itself, at most once,
+ * and only if some DEXOR_CROSS page actually needs it.
+ */
+public class CrossColumnReferencePage {
+
+  private static final int MASK = 0x80;
+
+  private final PageHeader pageHeader;
+
+  private final LazyLoadPageData pageData;
+
+  /** the data of a page that is already uncompressed, null if {@link #pageData} is used */
+  private final ByteBuffer uncompressedPageData;
+
+  private final TSEncoding encoding;
+
+  private int size;
+
+  private byte[] bitmap;
+
+  /** values indexed by row, valid only where the bitmap is set */
+  private double[] values;
+
+  public CrossColumnReferencePage(
+      PageHeader pageHeader, LazyLoadPageData pageData, TSEncoding encoding) {
+    this.pageHeader = pageHeader;
+    this.pageData = pageData;
+    this.uncompressedPageData = null;
+    this.encoding = encoding;
+  }
+
+  public CrossColumnReferencePage(
+      PageHeader pageHeader, ByteBuffer uncompressedPageData, TSEncoding encoding) {
+    this.pageHeader = pageHeader;
+    this.pageData = null;
+    this.uncompressedPageData = uncompressedPageData;
+    this.encoding = encoding;
+  }
+
+  private void decodeIfNecessary() throws IOException {
+    if (values != null) {
+      return;
+    }
+    if (pageHeader == null || pageHeader.getUncompressedSize() == 0) {
+      // the whole page is null
+      values = new double[0];
+      return;
+    }
+    ByteBuffer buffer =
+        pageData == null
+            ? uncompressedPageData.duplicate()
+            : pageData.uncompressPageData(pageHeader);
+    size = ReadWriteIOUtils.readInt(buffer);
+    bitmap = new byte[(size + 7) / 8];
+    buffer.get(bitmap);
+    values = new double[size];
+    Decoder decoder = Decoder.getDecoderByType(encoding, TSDataType.DOUBLE);
+    for (int row = 0; row < size; row++) {
+      if (isNotNullInternal(row)) {
+        values[row] = decoder.readDouble(buffer);
+      }
+    }
+  }
+
+  private boolean isNotNullInternal(int row) {
+    return row < size && ((bitmap[row / 8] & 0xFF) & (MASK >>> (row % 8))) != 0;
+  }
+
+  /**
+   * Collect the reference values of the rows in which the referencing column is not null.
+   *
+   * @param referencingBitmap bitmap of the referencing column
+   * @param referencingSize row count of the referencing page
+   * @param values output, aligned with the non-null values of the referencing column
+   * @param present output, whether this column is not null in the corresponding row
+   */
+  public void fillReferenceValues(
+      byte[] referencingBitmap, int referencingSize, double[] values, boolean[] present)
+      throws IOException {
+    decodeIfNecessary();
+    int index = 0;
+    for (int row = 0; row < referencingSize; row++) {
+      if (((referencingBitmap[row / 8] & 0xFF) & (MASK >>> (row % 8))) == 0) {
+        continue;
+      }
+      if (isNotNullInternal(row)) {
+        values[index] = this.values[row];
+        present[index] = true;
+      }
+      index++;
+    }
+  }
+}
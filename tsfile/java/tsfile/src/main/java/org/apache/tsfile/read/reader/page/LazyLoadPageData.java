@@ -19,18 +19,22 @@
 
 package org.apache.tsfile.read.reader.page;
 
+import org.apache.tsfile.common.conf.TSFileDescriptor;
 import org.apache.tsfile.compress.IUnCompressor;
+import org.apache.tsfile.compress.UnCompressBufferPool;
 import org.apache.tsfile.encrypt.EncryptParameter;
 import org.apache.tsfile.encrypt.EncryptUtils;
 import org.apache.tsfile.encrypt.IDecryptor;
 import org.apache.tsfile.file.header.PageHeader;
+import org.apache.tsfile.file.metadata.enums.CompressionType;
+import org.apache.tsfile.file.metadata.enums.EncryptionType;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
 
 public class LazyLoadPageData {
   /** Reference to the data of original chunkDataBuffer. * */
-  private final byte[] chunkData;
+  private final ByteBuffer chunkData;
 
   private final int pageDataOffset;
 
@@ -38,15 +42,25 @@ public class LazyLoadPageData {
 
   private final EncryptParameter encryptParam;
 
+  /** The buffer of {@link UnCompressBufferPool} the page is uncompressed into, if any. */
+  private ByteBuffer pooledPageData;
+
   public LazyLoadPageData(byte[] data, int offset, IUnCompressor unCompressor) {
-    this.chunkData = data;
-    this.pageDataOffset = offset;
-    this.unCompressor = unCompressor;
-    this.encryptParam = EncryptUtils.getEncryptParameter();
+    this(ByteBuffer.wrap(data), offset, unCompressor, EncryptUtils.getEncryptParameter());
   }
 
   public LazyLoadPageData(
       byte[] data, int offset, IUnCompressor unCompressor, EncryptParameter encryptParam) {
+    this(ByteBuffer.wrap(data), offset, unCompressor, encryptParam);
+  }
+
+  /**
+   * @param data the chunk data, which may be a heap buffer, a slice of one, or a direct buffer such
+   *     as a memory-mapped region of the file
+   * @param offset the index of the first byte of the page data in {@code data}
+   */
+  public LazyLoadPageData(
+      ByteBuffer data, int offset, IUnCompressor unCompressor, EncryptParameter encryptParam) {
     this.chunkData = data;
     this.pageDataOffset = offset;
     this.unCompressor = unCompressor;
@@ -54,11 +68,60 @@ public class LazyLoadPageData {
   }
 
   public ByteBuffer uncompressPageData(PageHeader pageHeader) throws IOException {
+    return uncompressPageData(pageHeader, false);
+  }
+
+  /**
+   * @param pooled whether the page may be uncompressed into a direct buffer taken from {@link
+   *     UnCompressBufferPool}. If so, the caller must call {@link #releasePageData()} once it no
+   *     longer reads the returned buffer, or the buffer is left to the GC.
+   */
+  public ByteBuffer uncompressPageData(PageHeader pageHeader, boolean pooled) throws IOException {
     int compressedPageBodyLength = pageHeader.getCompressedSize();
-    byte[] uncompressedPageData = new byte[pageHeader.getUncompressedSize()];
     IDecryptor decryptor = IDecryptor.getDecryptor(encryptParam);
-    byte[] decryptedPageData =
-        decryptor.decrypt(chunkData, pageDataOffset, compressedPageBodyLength);
+    boolean encrypted = decryptor.getEncryptionType() != EncryptionType.UNENCRYPTED;
+    if (!encrypted && unCompressor.getCodecName() == CompressionType.UNCOMPRESSED) {
+      // nothing to transform, hand out the page in place
+      return slicePageData(compressedPageBodyLength);
+    }
+    if (pooled
+        && !encrypted
+        && unCompressor.supportDirectUncompress()
+        && TSFileDescriptor.getInstance().getConfig().isEnableDirectUncompress()) {
+      ByteBuffer uncompressedPageData =
+          UnCompressBufferPool.acquire(pageHeader.getUncompressedSize());
+      try {
+        int uncompressedSize =
+            unCompressor.uncompress(slicePageData(compressedPageBodyLength), uncompressedPageData);
+        uncompressedPageData.position(0);
+        uncompressedPageData.limit(uncompressedSize);
+      } catch (Exception e) {
+        UnCompressBufferPool.release(uncompressedPageData);
+        throw new IOException(
+            "Uncompress error! uncompress size: "
+                + pageHeader.getUncompressedSize()
+                + "compressed size: "
+                + pageHeader.getCompressedSize()
+                + "page header: "
+                + pageHeader
+                + e.getMessage());
+      }
+      pooledPageData = uncompressedPageData;
+      return uncompressedPageData;
+    }
+    byte[] uncompressedPageData = new byte[pageHeader.getUncompressedSize()];
+    byte[] decryptedPageData;
+    if (chunkData.hasArray()) {
+      decryptedPageData =
+          decryptor.decrypt(
+              chunkData.array(),
+              chunkData.arrayOffset() + pageDataOffset,
+              compressedPageBodyLength);
+    } else {
+      byte[] compressedPageData = new byte[compressedPageBodyLength];
+      slicePageData(compressedPageBodyLength).get(compressedPageData);
+      decryptedPageData = decryptor.decrypt(compressedPageData, 0, compressedPageBodyLength);
+    }
     try {
       unCompressor.uncompress(
           decryptedPageData, 0, compressedPageBodyLength, uncompressedPageData, 0);
@@ -75,6 +138,21 @@ public class LazyLoadPageData {
     return ByteBuffer.wrap(uncompressedPageData);
   }
 
+  /** Hands the pooled buffer returned by {@link #uncompressPageData(PageHeader, boolean)} back. */
+  public void releasePageData() {
+    if (pooledPageData != null) {
+      UnCompressBufferPool.release(pooledPageData);
+      pooledPageData = null;
+    }
+  }
+
+  private ByteBuffer slicePageData(int length) {
+    ByteBuffer pageData = chunkData.duplicate();
+    pageData.position(pageDataOffset);
+    pageData.limit(pageDataOffset + length);
+    return pageData.slice();
+  }
+
   public IUnCompressor getUnCompressor() {
     return unCompressor;
   }
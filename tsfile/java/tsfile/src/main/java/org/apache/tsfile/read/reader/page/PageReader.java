@@ -20,7 +20,11 @@
 package org.apache.tsfile.read.reader.page;
 
 import org.apache.tsfile.block.column.ColumnBuilder;
+import org.apache.tsfile.common.metrics.TsFileMetrics;
+import org.apache.tsfile.encoding.decoder.AutoDecoder;
 import org.apache.tsfile.encoding.decoder.Decoder;
+import org.apache.tsfile.encoding.decoder.DoubleDeXORDecoder;
+import org.apache.tsfile.encoding.decoder.RegularSegmentDecoder;
 import org.apache.tsfile.enums.TSDataType;
 import org.apache.tsfile.file.header.PageHeader;
 import org.apache.tsfile.file.metadata.statistics.Statistics;
@@ -29,6 +33,8 @@ import org.apache.tsfile.read.common.BatchDataFactory;
 import org.apache.tsfile.read.common.TimeRange;
 import org.apache.tsfile.read.common.block.TsBlock;
 import org.apache.tsfile.read.common.block.TsBlockBuilder;
+import org.apache.tsfile.read.common.block.column.DecimalColumn;
+import org.apache.tsfile.read.common.block.column.TimeColumn;
 import org.apache.tsfile.read.common.block.column.TimeColumnBuilder;
 import org.apache.tsfile.read.filter.basic.Filter;
 import org.apache.tsfile.read.filter.factory.FilterFactory;
@@ -41,6 +47,7 @@ import org.apache.tsfile.write.UnSupportedDataTypeException;
 import java.io.IOException;
 import java.io.Serializable;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -50,12 +57,14 @@ import static org.apache.tsfile.utils.Preconditions.checkArgument;
 
 public class PageReader implements IPageReader {
 
+  private static final ByteBuffer EMPTY_BUFFER = ByteBuffer.allocate(0);
+
   private final PageHeader pageHeader;
 
   private final TSDataType dataType;
 
   /** decoder for value column */
-  private final Decoder valueDecoder;
+  private Decoder valueDecoder;
 
   /** decoder for time column */
   private final Decoder timeDecoder;
@@ -78,6 +87,9 @@ public class PageReader implements IPageReader {
 
   private LazyLoadPageData lazyLoadPageData;
 
+  /** The loaded page data whose buffer goes back to the pool once the page is fully decoded. */
+  private LazyLoadPageData loadedPageData;
+
   public PageReader(
       ByteBuffer pageData, TSDataType dataType, Decoder valueDecoder, Decoder timeDecoder) {
     this(null, pageData, dataType, valueDecoder, timeDecoder, null);
@@ -135,16 +147,37 @@ public class PageReader implements IPageReader {
 
     valueBuffer = pageData.slice();
     valueBuffer.position(timeBufferLength);
+    // the time decoder may be shared by the pages of a chunk, every page starts a new stream
+    timeDecoder.reset();
+    // decode an AUTO page with the decoder it was written with, without delegating every value
+    valueDecoder = AutoDecoder.selectDecoder(valueDecoder, valueBuffer);
   }
 
   /** Call this method before accessing data. */
   private void uncompressDataIfNecessary() throws IOException {
     if (lazyLoadPageData != null && (timeBuffer == null || valueBuffer == null)) {
-      splitDataToTimeStampAndValue(lazyLoadPageData.uncompressPageData(pageHeader));
+      long startTime = System.nanoTime();
+      splitDataToTimeStampAndValue(lazyLoadPageData.uncompressPageData(pageHeader, true));
+      TsFileMetrics.getInstance()
+          .recordPageUncompressed(pageHeader.getUncompressedSize(), System.nanoTime() - startTime);
+      loadedPageData = lazyLoadPageData;
       lazyLoadPageData = null;
     }
   }
 
+  /**
+   * Call this method after decoding. The slices of the released buffer are dropped with it, since
+   * the pool may hand the buffer to another page; later reads of this page see no more data.
+   */
+  private void releasePageDataIfConsumed() throws IOException {
+    if (loadedPageData != null && !timeDecoder.hasNext(timeBuffer)) {
+      timeBuffer = EMPTY_BUFFER;
+      valueBuffer = EMPTY_BUFFER;
+      loadedPageData.releasePageData();
+      loadedPageData = null;
+    }
+  }
+
   /**
    * @return the returned BatchData may be empty, but never be null
    */
@@ -152,6 +185,7 @@ public class PageReader implements IPageReader {
   @Override
   public BatchData getAllSatisfiedPageData(boolean ascending) throws IOException {
     uncompressDataIfNecessary();
+    long startTime = System.nanoTime();
     BatchData pageData = BatchDataFactory.createBatchData(dataType, ascending, false);
     boolean allSatisfy = recordFilter == null || recordFilter.allSatisfy(this);
     while (timeDecoder.hasNext(timeBuffer)) {
@@ -206,12 +240,19 @@ public class PageReader implements IPageReader {
           throw new UnSupportedDataTypeException(String.valueOf(dataType));
       }
     }
+    releasePageDataIfConsumed();
+    recordPageDecoded(pageData.length(), startTime);
     return pageData.flip();
   }
 
+  /**
+   * Decodes the rest of the page. A page is read once: the decoded data is consumed, and with
+   * enable_direct_uncompress its buffer goes back to the pool, so a second call returns no rows.
+   */
   @Override
   public TsBlock getAllSatisfiedData() throws IOException {
     uncompressDataIfNecessary();
+    long startTime = System.nanoTime();
     TsBlockBuilder builder;
     int initialExpectedEntries = (int) pageHeader.getStatistics().getCount();
     if (paginationController.hasLimit()) {
@@ -315,6 +356,10 @@ public class PageReader implements IPageReader {
         }
         break;
       case DOUBLE:
+        if (timeDecoder instanceof RegularSegmentDecoder) {
+          readDoublesBySegment(builder, timeBuilder, valueBuilder, allSatisfy);
+          break;
+        }
         while (timeDecoder.hasNext(timeBuffer)) {
           long timestamp = timeDecoder.readLong(timeBuffer);
           double aDouble = valueDecoder.readDouble(valueBuffer);
@@ -363,9 +408,116 @@ public class PageReader implements IPageReader {
       default:
         throw new UnSupportedDataTypeException(String.valueOf(dataType));
     }
+    releasePageDataIfConsumed();
+    recordPageDecoded(builder.getPositionCount(), startTime);
     return builder.build();
   }
 
+  private void recordPageDecoded(int returnedCount, long startTime) {
+    if (pageHeader != null && pageHeader.getStatistics() != null) {
+      TsFileMetrics.getInstance()
+          .recordPageDecoded(
+              valueDecoder.getType(),
+              pageHeader.getStatistics().getCount(),
+              returnedCount,
+              System.nanoTime() - startTime);
+    }
+  }
+
+  /**
+   * The fused loop of a DEXOR_TIMED page: the timestamps of each segment are generated in place
+   * while the values are decoded, so both columns are filled without a time decoder call per point.
+   */
+  private void readDoublesBySegment(
+      TsBlockBuilder builder,
+      TimeColumnBuilder timeBuilder,
+      ColumnBuilder valueBuilder,
+      boolean allSatisfy)
+      throws IOException {
+    RegularSegmentDecoder segmentDecoder = (RegularSegmentDecoder) timeDecoder;
+    while (segmentDecoder.hasNext(timeBuffer)) {
+      int count = segmentDecoder.readSegment(timeBuffer);
+      long timestamp = segmentDecoder.getSegmentStart();
+      long interval = segmentDecoder.getSegmentInterval();
+      for (int i = 0; i < count; i++, timestamp += interval) {
+        double aDouble = valueDecoder.readDouble(valueBuffer);
+        if (isDeleted(timestamp)
+            || (!allSatisfy && !recordFilter.satisfyDouble(timestamp, aDouble))) {
+          continue;
+        }
+        if (paginationController.hasCurOffset()) {
+          paginationController.consumeOffset();
+          continue;
+        }
+        if (paginationController.hasCurLimit()) {
+          timeBuilder.writeLong(timestamp);
+          valueBuilder.writeDouble(aDouble);
+          builder.declarePosition();
+          paginationController.consumeLimit();
+        } else {
+          return;
+        }
+      }
+    }
+  }
+
+  /**
+   * Same as {@link #getAllSatisfiedData()} for a DOUBLE page, but the values are read as
+   * fixed-scale decimals into a {@link DecimalColumn}. DeXOR pages are decoded from their decimal
+   * digits directly, other encodings are rounded from the decoded doubles.
+   *
+   * @param scale the number of fraction digits kept, values with more digits are rounded half even
+   */
+  public TsBlock getAllSatisfiedDecimalData(int scale) throws IOException {
+    if (dataType != TSDataType.DOUBLE) {
+      throw new UnSupportedDataTypeException(String.valueOf(dataType));
+    }
+    uncompressDataIfNecessary();
+    int capacity = (int) pageHeader.getStatistics().getCount();
+    if (paginationController.hasLimit()) {
+      capacity = (int) Math.min(capacity, paginationController.getCurLimit());
+    }
+    long[] timestamps = new long[capacity];
+    long[] values = new long[capacity];
+    int count = 0;
+    DoubleDeXORDecoder deXORDecoder =
+        valueDecoder instanceof DoubleDeXORDecoder ? (DoubleDeXORDecoder) valueDecoder : null;
+    double divisor = Math.pow(10, scale);
+    boolean allSatisfy = recordFilter == null || recordFilter.allSatisfy(this);
+    while (timeDecoder.hasNext(timeBuffer)) {
+      long timestamp = timeDecoder.readLong(timeBuffer);
+      long unscaled =
+          deXORDecoder != null
+              ? deXORDecoder.readUnscaled(valueBuffer, scale)
+              : DecimalColumn.unscaledValueOf(valueDecoder.readDouble(valueBuffer), scale);
+      if (isDeleted(timestamp)
+          || (!allSatisfy && !recordFilter.satisfyDouble(timestamp, unscaled / divisor))) {
+        continue;
+      }
+      if (paginationController.hasCurOffset()) {
+        paginationController.consumeOffset();
+        continue;
+      }
+      if (paginationController.hasCurLimit()) {
+        if (count == timestamps.length) {
+          timestamps = Arrays.copyOf(timestamps, Math.max(1, count << 1));
+          values = Arrays.copyOf(values, timestamps.length);
+        }
+        timestamps[count] = timestamp;
+        values[count] = unscaled;
+        count++;
+        paginationController.consumeLimit();
+      } else {
+        break;
+      }
+    }
+    releasePageDataIfConsumed();
+    return new TsBlock(
+        count,
+        new TimeColumn(count, timestamps),
+        new DecimalColumn(count, Optional.empty(), values, scale));
+  }
+
   @Override
   public Statistics<? extends Serializable> getStatistics() {
     return pageHeader.getStatistics();
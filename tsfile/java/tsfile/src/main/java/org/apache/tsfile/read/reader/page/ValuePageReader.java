@@ -20,7 +20,10 @@
 package org.apache.tsfile.read.reader.page;
 
 import org.apache.tsfile.block.column.ColumnBuilder;
+import org.apache.tsfile.common.metrics.TsFileMetrics;
+import org.apache.tsfile.encoding.decoder.AutoDecoder;
 import org.apache.tsfile.encoding.decoder.Decoder;
+import org.apache.tsfile.encoding.decoder.DoubleDeXORCrossDecoder;
 import org.apache.tsfile.enums.TSDataType;
 import org.apache.tsfile.file.header.PageHeader;
 import org.apache.tsfile.file.metadata.statistics.Statistics;
@@ -38,6 +41,7 @@ import java.io.Serializable;
 import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 public class ValuePageReader {
 
@@ -48,7 +52,7 @@ public class ValuePageReader {
   private final TSDataType dataType;
 
   /** decoder for value column */
-  private final Decoder valueDecoder;
+  private Decoder valueDecoder;
 
   private byte[] bitmap;
 
@@ -64,6 +68,14 @@ public class ValuePageReader {
 
   private LazyLoadPageData lazyLoadPageData;
 
+  /**
+   * pages of the sibling columns in the same aligned page, used to resolve the reference of a
+   * DEXOR_CROSS column
+   */
+  private Map<String, CrossColumnReferencePage> crossColumnReferencePages;
+
+  private boolean crossColumnReferenceBound = false;
+
   public ValuePageReader(
       PageHeader pageHeader, ByteBuffer pageData, TSDataType dataType, Decoder valueDecoder) {
     this.dataType = dataType;
@@ -73,6 +85,7 @@ public class ValuePageReader {
       splitDataToBitmapAndValue(pageData);
     }
     this.valueBuffer = pageData;
+    this.valueDecoder = AutoDecoder.selectDecoder(valueDecoder, valueBuffer);
   }
 
   public ValuePageReader(
@@ -99,11 +112,75 @@ public class ValuePageReader {
   /** Call this method before accessing data. */
   private void uncompressDataIfNecessary() throws IOException {
     if (lazyLoadPageData != null && valueBuffer == null) {
+      long startTime = System.nanoTime();
       ByteBuffer pageData = lazyLoadPageData.uncompressPageData(pageHeader);
+      TsFileMetrics.getInstance()
+          .recordPageUncompressed(pageHeader.getUncompressedSize(), System.nanoTime() - startTime);
       splitDataToBitmapAndValue(pageData);
       this.valueBuffer = pageData;
+      this.valueDecoder = AutoDecoder.selectDecoder(valueDecoder, valueBuffer);
       lazyLoadPageData = null;
     }
+    if (!crossColumnReferenceBound && valueDecoder instanceof DoubleDeXORCrossDecoder) {
+      bindCrossColumnReference((DoubleDeXORCrossDecoder) valueDecoder);
+    }
+  }
+
+  /**
+   * @param returnedCount the rows returned from the aligned page, some of which may be null in this
+   *     column
+   * @param nanos the share of this page in decoding the aligned page
+   */
+  void recordPageDecoded(long returnedCount, long nanos) {
+    if (pageHeader != null && pageHeader.getStatistics() != null) {
+      TsFileMetrics.getInstance()
+          .recordPageDecoded(
+              valueDecoder.getType(), pageHeader.getStatistics().getCount(), returnedCount, nanos);
+    }
+  }
+
+  /**
+   * Read the measurement id of the reference column of a DEXOR_CROSS page, which is recorded at the
+   * head of its values.
+   *
+   * @param pageData the uncompressed data of a non-empty page, its position is not changed
+   */
+  public static String readCrossColumnReferenceMeasurementId(ByteBuffer pageData) {
+    ByteBuffer buffer = pageData.duplicate();
+    int size = ReadWriteIOUtils.readInt(buffer);
+    buffer.position(buffer.position() + (size + 7) / 8);
+    return new DoubleDeXORCrossDecoder().readReferenceMeasurementId(buffer);
+  }
+
+  public void setCrossColumnReferencePages(
+      Map<String, CrossColumnReferencePage> crossColumnReferencePages) {
+    this.crossColumnReferencePages = crossColumnReferencePages;
+  }
+
+  private void bindCrossColumnReference(DoubleDeXORCrossDecoder decoder) throws IOException {
+    crossColumnReferenceBound = true;
+    if (valueBuffer == null || bitmap == null || !valueBuffer.hasRemaining()) {
+      return;
+    }
+    String referenceMeasurementId = decoder.readReferenceMeasurementId(valueBuffer);
+    CrossColumnReferencePage referencePage =
+        crossColumnReferencePages == null
+            ? null
+            : crossColumnReferencePages.get(referenceMeasurementId);
+    if (referencePage == null) {
+      // the decoder fails only if a value is really predicted from the missing reference
+      return;
+    }
+    int valueCount = 0;
+    for (int row = 0; row < size; row++) {
+      if (((bitmap[row / 8] & 0xFF) & (MASK >>> (row % 8))) != 0) {
+        valueCount++;
+      }
+    }
+    double[] referenceValues = new double[valueCount];
+    boolean[] referencePresent = new boolean[valueCount];
+    referencePage.fillReferenceValues(bitmap, size, referenceValues, referencePresent);
+    decoder.setReferenceValues(referenceValues, referencePresent);
   }
 
   /**
@@ -22,6 +22,7 @@ package org.apache.tsfile.read.reader.series;
 import org.apache.tsfile.file.metadata.AbstractAlignedChunkMetadata;
 import org.apache.tsfile.file.metadata.ChunkMetadata;
 import org.apache.tsfile.file.metadata.IChunkMetadata;
+import org.apache.tsfile.read.TsFileChunkReadAheadIterator;
 import org.apache.tsfile.read.common.Chunk;
 import org.apache.tsfile.read.controller.IChunkLoader;
 import org.apache.tsfile.read.filter.basic.Filter;
@@ -39,6 +40,13 @@ import java.util.List;
  */
 public class FileSeriesReader extends AbstractFileSeriesReader {
 
+  /** the chunks still to be read by the read-ahead iterator, in the order they are returned. */
+  private List<ChunkMetadata> chunksReadAhead;
+
+  private int nextChunkReadAhead;
+  private TsFileChunkReadAheadIterator readAheadIterator;
+  private boolean readAheadStarted;
+
   public FileSeriesReader(
       IChunkLoader chunkLoader, List<IChunkMetadata> chunkMetadataList, Filter filter) {
     super(chunkLoader, chunkMetadataList, filter);
@@ -56,7 +64,7 @@ public class FileSeriesReader extends AbstractFileSeriesReader {
   protected void initChunkReader(IChunkMetadata chunkMetaData) throws IOException {
     currentChunkMeasurementNames.clear();
     if (chunkMetaData instanceof ChunkMetadata) {
-      Chunk chunk = chunkLoader.loadChunk((ChunkMetadata) chunkMetaData);
+      Chunk chunk = loadChunk((ChunkMetadata) chunkMetaData);
       this.chunkReader = new ChunkReader(chunk, filter);
       currentChunkMeasurementNames.add(chunkMetaData.getMeasurementUid());
     } else {
@@ -67,7 +75,10 @@ public class FileSeriesReader extends AbstractFileSeriesReader {
       List<Chunk> valueChunkList = new ArrayList<>();
       for (IChunkMetadata metadata : alignedChunkMetadata.getValueChunkMetadataList()) {
         if (metadata != null) {
-          valueChunkList.add(chunkLoader.loadChunk((ChunkMetadata) metadata));
+          valueChunkList.add(
+              chunkLoader.loadValueChunk(
+                  (ChunkMetadata) alignedChunkMetadata.getTimeChunkMetadata(),
+                  (ChunkMetadata) metadata));
           currentChunkMeasurementNames.add(metadata.getMeasurementUid());
           continue;
         }
@@ -82,8 +93,59 @@ public class FileSeriesReader extends AbstractFileSeriesReader {
     }
   }
 
+  /**
+   * The first chunk to read starts a read-ahead of all the chunks that will not be skipped after
+   * it, so a sequential scan decodes one chunk while the following ones are read. Chunks requested
+   * out of that order are loaded one by one.
+   */
+  private Chunk loadChunk(ChunkMetadata chunkMetaData) throws IOException {
+    if (!readAheadStarted) {
+      readAheadStarted = true;
+      startReadAhead(chunkMetaData);
+    }
+    if (readAheadIterator != null) {
+      if (nextChunkReadAhead < chunksReadAhead.size()
+          && chunksReadAhead.get(nextChunkReadAhead) == chunkMetaData
+          && readAheadIterator.hasNext()) {
+        nextChunkReadAhead++;
+        return readAheadIterator.next();
+      }
+      closeReadAhead();
+    }
+    return chunkLoader.loadChunk(chunkMetaData);
+  }
+
+  private void startReadAhead(ChunkMetadata firstChunk) throws IOException {
+    List<ChunkMetadata> chunks = new ArrayList<>();
+    boolean found = false;
+    for (IChunkMetadata metadata : chunkMetadataList) {
+      found |= metadata == firstChunk;
+      if (found && metadata instanceof ChunkMetadata && !chunkCanSkip(metadata)) {
+        chunks.add((ChunkMetadata) metadata);
+      }
+    }
+    // a single chunk gains nothing from being read in the background
+    if (chunks.size() > 1) {
+      readAheadIterator = chunkLoader.loadChunksAhead(chunks);
+      chunksReadAhead = chunks;
+    }
+  }
+
+  private void closeReadAhead() {
+    readAheadIterator.close();
+    readAheadIterator = null;
+  }
+
   @Override
   protected boolean chunkCanSkip(IChunkMetadata chunkMetaData) {
     return filter != null && filter.canSkip(chunkMetaData);
   }
+
+  @Override
+  public void close() throws IOException {
+    if (readAheadIterator != null) {
+      closeReadAhead();
+    }
+    super.close();
+  }
 }
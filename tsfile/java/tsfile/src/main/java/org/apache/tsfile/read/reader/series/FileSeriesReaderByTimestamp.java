@@ -157,7 +157,10 @@ public class FileSeriesReaderByTimestamp {
           chunkLoader.loadChunk((ChunkMetadata) (alignedChunkMetadata.getTimeChunkMetadata()));
       List<Chunk> valueChunkList = new ArrayList<>();
       for (IChunkMetadata metadata : alignedChunkMetadata.getValueChunkMetadataList()) {
-        valueChunkList.add(chunkLoader.loadChunk((ChunkMetadata) metadata));
+        valueChunkList.add(
+            chunkLoader.loadValueChunk(
+                (ChunkMetadata) alignedChunkMetadata.getTimeChunkMetadata(),
+                (ChunkMetadata) metadata));
       }
       this.chunkReader = new AlignedChunkReader(timeChunk, valueChunkList, currentTimestamp);
     }
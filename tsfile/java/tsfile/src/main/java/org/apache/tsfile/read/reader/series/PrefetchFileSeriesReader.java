@@ -0,0 +1,177 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.read.reader.series;
+
+import org.apache.tsfile.file.metadata.IChunkMetadata;
+import org.apache.tsfile.read.common.BatchData;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A series reader that loads chunks and decodes pages of the wrapped reader on an {@link Executor},
+ * always keeping one batch ready ahead of the consumer. When one such reader is created for each
+ * selected series, the series of a query are read and decoded concurrently while the batches are
+ * still consumed in the original order.
+ */
+public class PrefetchFileSeriesReader extends AbstractFileSeriesReader {
+
+  private final AbstractFileSeriesReader seriesReader;
+  private final Executor executor;
+
+  /** the batch being prepared by the executor, null if the wrapped reader is exhausted. */
+  private FutureTask<PrefetchedBatch> nextBatchTask;
+
+  /** set by whichever comes first, the task starting to read or the reader being closed */
+  private AtomicBoolean nextBatchClaimed;
+
+  private PrefetchedBatch prefetchedBatch;
+
+  public PrefetchFileSeriesReader(AbstractFileSeriesReader seriesReader, Executor executor) {
+    super(
+        seriesReader.chunkLoader,
+        seriesReader.chunkMetadataList,
+        seriesReader.filter,
+        seriesReader.ignoreAllNullRows);
+    this.seriesReader = seriesReader;
+    this.executor = executor;
+    prefetch();
+  }
+
+  private void prefetch() {
+    AtomicBoolean claimed = new AtomicBoolean();
+    nextBatchClaimed = claimed;
+    nextBatchTask =
+        new FutureTask<>(
+            () -> {
+              if (!claimed.compareAndSet(false, true)) {
+                // the reader is closed
+                return null;
+              }
+              if (!seriesReader.hasNextBatch()) {
+                return null;
+              }
+              // the names must be captured before the wrapped reader moves to the next chunk
+              List<String> measurementNames =
+                  new ArrayList<>(seriesReader.getCurrentChunkMeasurementNames());
+              return new PrefetchedBatch(seriesReader.nextBatch(), measurementNames);
+            });
+    executor.execute(nextBatchTask);
+  }
+
+  @Override
+  public boolean hasNextBatch() throws IOException {
+    if (prefetchedBatch != null) {
+      return true;
+    }
+    if (nextBatchTask == null) {
+      return false;
+    }
+    try {
+      prefetchedBatch = nextBatchTask.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while prefetching series data", e);
+    } catch (ExecutionException e) {
+      nextBatchTask = null;
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      throw new IOException("Failed to prefetch series data", e.getCause());
+    }
+    if (prefetchedBatch == null) {
+      nextBatchTask = null;
+      return false;
+    }
+    currentChunkMeasurementNames = prefetchedBatch.measurementNames;
+    return true;
+  }
+
+  @Override
+  public BatchData nextBatch() throws IOException {
+    if (!hasNextBatch()) {
+      throw new IOException("No more batch");
+    }
+    BatchData batchData = prefetchedBatch.batchData;
+    prefetchedBatch = null;
+    prefetch();
+    return batchData;
+  }
+
+  @Override
+  protected void initChunkReader(IChunkMetadata chunkMetaData) throws IOException {
+    seriesReader.initChunkReader(chunkMetaData);
+  }
+
+  @Override
+  protected boolean chunkCanSkip(IChunkMetadata chunkMetaData) {
+    return seriesReader.chunkCanSkip(chunkMetaData);
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (nextBatchTask != null) {
+      if (nextBatchClaimed.compareAndSet(false, true)) {
+        nextBatchTask.cancel(false);
+      } else {
+        // do not interrupt a running read, it would close the channel shared with other readers,
+        // but wait for it so that the wrapped reader is not closed under it
+        awaitQuietly(nextBatchTask);
+      }
+      nextBatchTask = null;
+    }
+    seriesReader.close();
+  }
+
+  /** Wait for the task to finish, ignoring its result and failure. */
+  private static void awaitQuietly(FutureTask<?> task) {
+    boolean interrupted = false;
+    while (true) {
+      try {
+        task.get();
+        break;
+      } catch (InterruptedException e) {
+        interrupted = true;
+      } catch (ExecutionException | CancellationException e) {
+        break;
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static class PrefetchedBatch {
+
+    private final BatchData batchData;
+    private final List<String> measurementNames;
+
+    private PrefetchedBatch(BatchData batchData, List<String> measurementNames) {
+      this.batchData = batchData;
+      this.measurementNames = measurementNames;
+    }
+  }
+}
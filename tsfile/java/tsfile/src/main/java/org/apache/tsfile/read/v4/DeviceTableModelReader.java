@@ -20,28 +20,39 @@
 package org.apache.tsfile.read.v4;
 
 import org.apache.tsfile.annotations.TsFileApi;
+import org.apache.tsfile.enums.ColumnCategory;
 import org.apache.tsfile.enums.TSDataType;
 import org.apache.tsfile.exception.read.ReadProcessException;
 import org.apache.tsfile.exception.write.NoMeasurementException;
 import org.apache.tsfile.exception.write.NoTableException;
+import org.apache.tsfile.file.metadata.IDeviceID;
+import org.apache.tsfile.file.metadata.MetadataIndexNode;
 import org.apache.tsfile.file.metadata.TableSchema;
+import org.apache.tsfile.file.metadata.statistics.Statistics;
 import org.apache.tsfile.read.TsFileSequenceReader;
+import org.apache.tsfile.read.common.Path;
 import org.apache.tsfile.read.controller.CachedChunkLoaderImpl;
 import org.apache.tsfile.read.controller.IChunkLoader;
 import org.apache.tsfile.read.controller.IMetadataQuerier;
 import org.apache.tsfile.read.controller.MetadataQuerierByFileImpl;
 import org.apache.tsfile.read.expression.ExpressionTree;
+import org.apache.tsfile.read.filter.basic.Filter;
+import org.apache.tsfile.read.filter.factory.TimeFilterApi;
 import org.apache.tsfile.read.query.dataset.ResultSet;
 import org.apache.tsfile.read.query.dataset.TableResultSet;
+import org.apache.tsfile.read.query.executor.AggregationExecutor;
 import org.apache.tsfile.read.query.executor.TableQueryExecutor;
 import org.apache.tsfile.read.reader.block.TsBlockReader;
+import org.apache.tsfile.utils.Pair;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -52,6 +63,7 @@ public class DeviceTableModelReader implements ITsFileReader {
   protected IMetadataQuerier metadataQuerier;
   protected IChunkLoader chunkLoader;
   protected TableQueryExecutor queryExecutor;
+  protected AggregationExecutor aggregationExecutor;
   private static final Logger LOG = LoggerFactory.getLogger(DeviceTableModelReader.class);
 
   public DeviceTableModelReader(File file) throws IOException {
@@ -62,6 +74,7 @@ public class DeviceTableModelReader implements ITsFileReader {
     this.queryExecutor =
         new TableQueryExecutor(
             metadataQuerier, chunkLoader, TableQueryExecutor.TableQueryOrdering.DEVICE);
+    this.aggregationExecutor = new AggregationExecutor(metadataQuerier, chunkLoader);
   }
 
   @TsFileApi
@@ -105,6 +118,41 @@ public class DeviceTableModelReader implements ITsFileReader {
     return new TableResultSet(tsBlockReader, columnNames, dataTypeList);
   }
 
+  @TsFileApi
+  public Statistics<? extends Serializable> aggregate(
+      String tableName, String columnName, long startTime, long endTime)
+      throws IOException, NoTableException, NoMeasurementException {
+    String lowerCaseTableName = tableName.toLowerCase();
+    TableSchema tableSchema = fileReader.getTableSchemaMap().get(lowerCaseTableName);
+    if (tableSchema == null) {
+      throw new NoTableException(tableName);
+    }
+    String lowerCaseColumnName = columnName.toLowerCase();
+    int columnIndex = tableSchema.findColumnIndex(lowerCaseColumnName);
+    if (columnIndex < 0 || tableSchema.getColumnTypes().get(columnIndex) != ColumnCategory.FIELD) {
+      throw new NoMeasurementException(columnName);
+    }
+    Statistics<? extends Serializable> result =
+        Statistics.getStatsByType(tableSchema.getColumnSchemas().get(columnIndex).getType());
+    MetadataIndexNode tableRoot =
+        metadataQuerier.getWholeFileMetadata().getTableMetadataIndexNode(lowerCaseTableName);
+    if (tableRoot == null) {
+      return result;
+    }
+    Filter timeFilter = TimeFilterApi.between(startTime, endTime);
+    Iterator<Pair<IDeviceID, MetadataIndexNode>> deviceIterator =
+        metadataQuerier.deviceIterator(tableRoot, null);
+    while (deviceIterator.hasNext()) {
+      Statistics<? extends Serializable> deviceStatistics =
+          aggregationExecutor.aggregate(
+              new Path(deviceIterator.next().getLeft(), lowerCaseColumnName, false), timeFilter);
+      if (deviceStatistics != null) {
+        result.mergeStatistics(deviceStatistics);
+      }
+    }
+    return result;
+  }
+
   @Override
   public void close() {
     try {
@@ -24,9 +24,11 @@ import org.apache.tsfile.exception.read.ReadProcessException;
 import org.apache.tsfile.exception.write.NoMeasurementException;
 import org.apache.tsfile.exception.write.NoTableException;
 import org.apache.tsfile.file.metadata.TableSchema;
+import org.apache.tsfile.file.metadata.statistics.Statistics;
 import org.apache.tsfile.read.query.dataset.ResultSet;
 
 import java.io.IOException;
+import java.io.Serializable;
 import java.util.List;
 import java.util.Optional;
 
@@ -36,6 +38,17 @@ public interface ITsFileReader extends AutoCloseable {
   ResultSet query(String tableName, List<String> columnNames, long startTime, long endTime)
       throws ReadProcessException, IOException, NoTableException, NoMeasurementException;
 
+  /**
+   * Aggregate a field column over all devices of a table in [startTime, endTime], from the
+   * statistics wherever a timeseries, chunk or page is fully inside the range.
+   *
+   * @return count, min, max, first, last and sum of the column
+   */
+  @TsFileApi
+  Statistics<? extends Serializable> aggregate(
+      String tableName, String columnName, long startTime, long endTime)
+      throws IOException, NoTableException, NoMeasurementException;
+
   @TsFileApi
   Optional<TableSchema> getTableSchemas(String tableName) throws IOException;
 
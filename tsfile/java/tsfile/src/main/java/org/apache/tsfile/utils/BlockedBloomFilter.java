@@ -0,0 +1,280 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.utils;
+
+import org.apache.tsfile.common.constant.TsFileConstant;
+import org.apache.tsfile.file.metadata.IDeviceID;
+import org.apache.tsfile.read.common.Path;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+import static org.apache.tsfile.utils.RamUsageEstimator.sizeOfLongArray;
+
+/**
+ * A bloom filter whose bits of one key all fall into one 64-byte block, so a probe touches one
+ * cache line. The block and the bits in it are derived from a single 128-bit murmur3 hash of the
+ * key's UTF-16 code units, computed straight from the path or from the device segments without
+ * building strings or byte arrays.
+ *
+ * <p>Besides the series, it holds one key per device, so {@link #containsDevice} can prune a file
+ * for a device as a whole.
+ */
+public class BlockedBloomFilter extends BloomFilter {
+
+  private static final int INSTANCE_SIZE =
+      (int) RamUsageEstimator.shallowSizeOfInstance(BlockedBloomFilter.class);
+
+  static final int BITS_PER_BLOCK = 512;
+  private static final int WORDS_PER_BLOCK = BITS_PER_BLOCK / Long.SIZE;
+
+  private static final long SERIES_SEED = 0x5eedL;
+  private static final long DEVICE_SEED = 0xde71ceL;
+
+  private static final long C1 = 0x87c37b91114253d5L;
+  private static final long C2 = 0x4cf5ad432745937fL;
+
+  private final int blockNum;
+  private final long[] words;
+
+  BlockedBloomFilter(int blockNum, int hashFunctionSize) {
+    this(blockNum, hashFunctionSize, new long[blockNum * WORDS_PER_BLOCK]);
+  }
+
+  private BlockedBloomFilter(int blockNum, int hashFunctionSize, long[] words) {
+    super(blockNum * BITS_PER_BLOCK, hashFunctionSize, null);
+    this.blockNum = blockNum;
+    this.words = words;
+  }
+
+  static BlockedBloomFilter build(byte[] bytes, int size, int hashFunctionSize) {
+    int blockNum = size / BITS_PER_BLOCK;
+    long[] words = new long[blockNum * WORDS_PER_BLOCK];
+    ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).asLongBuffer().get(words);
+    return new BlockedBloomFilter(blockNum, hashFunctionSize, words);
+  }
+
+  @Override
+  public int getVersion() {
+    return BLOCKED_VERSION;
+  }
+
+  @Override
+  public void add(Path path) {
+    set(hashPath(path));
+  }
+
+  @Override
+  public void add(String value) {
+    set(new CharHasher(SERIES_SEED).put(value));
+  }
+
+  @Override
+  public void addDevice(IDeviceID deviceID) {
+    set(new CharHasher(DEVICE_SEED).put(deviceID));
+  }
+
+  @Override
+  public boolean contains(Path value) {
+    return value != null && test(hashPath(value));
+  }
+
+  @Override
+  public boolean contains(String value) {
+    return value != null && test(new CharHasher(SERIES_SEED).put(value));
+  }
+
+  @Override
+  public boolean contains(IDeviceID deviceID, String measurement) {
+    CharHasher hasher = new CharHasher(SERIES_SEED).put(deviceID);
+    hasher.put(TsFileConstant.PATH_SEPARATOR_CHAR);
+    return test(hasher.put(measurement));
+  }
+
+  @Override
+  public boolean containsDevice(IDeviceID deviceID) {
+    return test(new CharHasher(DEVICE_SEED).put(deviceID));
+  }
+
+  private static CharHasher hashPath(Path path) {
+    IDeviceID deviceID = path.getIDeviceID();
+    String measurement = path.getMeasurement();
+    if (deviceID == null || measurement == null) {
+      return new CharHasher(SERIES_SEED).put(path.getFullPath());
+    }
+    CharHasher hasher = new CharHasher(SERIES_SEED).put(deviceID);
+    hasher.put(TsFileConstant.PATH_SEPARATOR_CHAR);
+    return hasher.put(measurement);
+  }
+
+  private void set(CharHasher hasher) {
+    hasher.finish();
+    int wordOffset = blockOf(hasher.h1) * WORDS_PER_BLOCK;
+    long h = hasher.h2;
+    long step = hasher.h1 | 1;
+    for (int i = 0; i < getHashFunctionSize(); i++) {
+      // the top 9 bits address a bit in the 512-bit block
+      int bit = (int) (h >>> 55);
+      words[wordOffset + (bit >>> 6)] |= 1L << bit;
+      h += step;
+    }
+  }
+
+  private boolean test(CharHasher hasher) {
+    hasher.finish();
+    int wordOffset = blockOf(hasher.h1) * WORDS_PER_BLOCK;
+    long h = hasher.h2;
+    long step = hasher.h1 | 1;
+    for (int i = 0; i < getHashFunctionSize(); i++) {
+      int bit = (int) (h >>> 55);
+      if ((words[wordOffset + (bit >>> 6)] & (1L << bit)) == 0) {
+        return false;
+      }
+      h += step;
+    }
+    return true;
+  }
+
+  private int blockOf(long hash) {
+    return (int) (((hash >>> 32) * blockNum) >>> 32);
+  }
+
+  @Override
+  public byte[] serialize() {
+    byte[] bytes = new byte[words.length * Long.BYTES];
+    ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).asLongBuffer().put(words);
+    return bytes;
+  }
+
+  @Override
+  public long getRetainedSizeInBytes() {
+    return INSTANCE_SIZE + sizeOfLongArray(words.length);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    BlockedBloomFilter that = (BlockedBloomFilter) o;
+    return getHashFunctionSize() == that.getHashFunctionSize() && Arrays.equals(words, that.words);
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * getHashFunctionSize() + Arrays.hashCode(words);
+  }
+
+  /** Murmur3 x64 128-bit over the UTF-16 code units fed to it, little endian. */
+  private static final class CharHasher {
+
+    private long h1;
+    private long h2;
+    private long k1;
+    private long k2;
+    // number of chars in the pending 16-byte block and in total
+    private int pending;
+    private int length;
+
+    private CharHasher(long seed) {
+      h1 = seed;
+      h2 = seed;
+    }
+
+    private CharHasher put(IDeviceID deviceID) {
+      for (int i = 0; i < deviceID.segmentNum(); i++) {
+        if (i > 0) {
+          put(TsFileConstant.PATH_SEPARATOR_CHAR);
+        }
+        Object segment = deviceID.segment(i);
+        // consistent with IDeviceID#toString, which joins the segments
+        put(segment instanceof String ? (String) segment : String.valueOf(segment));
+      }
+      return this;
+    }
+
+    private CharHasher put(String value) {
+      for (int i = 0; i < value.length(); i++) {
+        put(value.charAt(i));
+      }
+      return this;
+    }
+
+    private void put(char c) {
+      if (pending < 4) {
+        k1 |= (long) c << (pending << 4);
+      } else {
+        k2 |= (long) c << ((pending - 4) << 4);
+      }
+      length++;
+      if (++pending == 8) {
+        mixBlock();
+      }
+    }
+
+    private void mixBlock() {
+      h1 ^= mixK1(k1);
+      h1 = Murmur128Hash.rotl64(h1, 27);
+      h1 += h2;
+      h1 = h1 * 5 + 0x52dce729;
+      h2 ^= mixK2(k2);
+      h2 = Murmur128Hash.rotl64(h2, 31);
+      h2 += h1;
+      h2 = h2 * 5 + 0x38495ab5;
+      k1 = 0;
+      k2 = 0;
+      pending = 0;
+    }
+
+    private void finish() {
+      if (pending > 4) {
+        h2 ^= mixK2(k2);
+      }
+      if (pending > 0) {
+        h1 ^= mixK1(k1);
+      }
+      long byteLength = (long) length << 1;
+      h1 ^= byteLength;
+      h2 ^= byteLength;
+      h1 += h2;
+      h2 += h1;
+      h1 = Murmur128Hash.fmix(h1);
+      h2 = Murmur128Hash.fmix(h2);
+      h1 += h2;
+      h2 += h1;
+    }
+
+    private static long mixK1(long k1) {
+      k1 *= C1;
+      k1 = Murmur128Hash.rotl64(k1, 31);
+      return k1 * C2;
+    }
+
+    private static long mixK2(long k2) {
+      k2 *= C2;
+      k2 = Murmur128Hash.rotl64(k2, 33);
+      return k2 * C1;
+    }
+  }
+}
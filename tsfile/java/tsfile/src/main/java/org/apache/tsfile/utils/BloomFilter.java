@@ -19,6 +19,8 @@
 package org.apache.tsfile.utils;
 
 import org.apache.tsfile.common.conf.TSFileConfig;
+import org.apache.tsfile.common.constant.TsFileConstant;
+import org.apache.tsfile.file.metadata.IDeviceID;
 import org.apache.tsfile.read.common.Path;
 
 import java.io.IOException;
@@ -40,6 +42,15 @@ public class BloomFilter {
   private static final int MAXIMAL_HASH_FUNCTION_SIZE = 8;
   private static final int[] SEEDS = new int[] {5, 7, 11, 19, 31, 37, 43, 59};
 
+  /** a BitSet probed with one seeded hash per hash function */
+  public static final int LEGACY_VERSION = 1;
+
+  /** a {@link BlockedBloomFilter} */
+  public static final int BLOCKED_VERSION = 2;
+
+  // the version is kept above the hash function size in the serialized form
+  private static final int VERSION_SHIFT = 8;
+
   private final int size;
   private final int hashFunctionSize;
   private final BitSet bits;
@@ -57,6 +68,12 @@ public class BloomFilter {
     bits = new BitSet(size);
   }
 
+  BloomFilter(int size, int hashFunctionSize, BitSet bits) {
+    this.size = size;
+    this.hashFunctionSize = hashFunctionSize;
+    this.bits = bits;
+  }
+
   /**
    * get empty bloom filter
    *
@@ -75,6 +92,28 @@ public class BloomFilter {
         Math.max(MINIMAL_SIZE, size), Math.min(MAXIMAL_HASH_FUNCTION_SIZE, hashFunctionSize));
   }
 
+  /**
+   * get empty bloom filter of the given version
+   *
+   * @param errorPercent the tolerant percent of error of the bloom filter
+   * @param numOfString the number of string want to store in the bloom filter
+   * @param version {@link #LEGACY_VERSION} or {@link #BLOCKED_VERSION}
+   * @return empty bloom
+   */
+  public static BloomFilter getEmptyBloomFilter(double errorPercent, int numOfString, int version) {
+    BloomFilter filter = getEmptyBloomFilter(errorPercent, numOfString);
+    switch (version) {
+      case LEGACY_VERSION:
+        return filter;
+      case BLOCKED_VERSION:
+        // the keys do not spread evenly over the blocks, a quarter more bits makes up for it
+        int blockNum = (int) Math.ceil(filter.size * 1.25 / BlockedBloomFilter.BITS_PER_BLOCK);
+        return new BlockedBloomFilter(blockNum, filter.hashFunctionSize);
+      default:
+        throw new IllegalArgumentException("Unsupported bloom filter version: " + version);
+    }
+  }
+
   /**
    * build bloom filter by bytes
    *
@@ -93,6 +132,10 @@ public class BloomFilter {
     return size;
   }
 
+  public int getVersion() {
+    return LEGACY_VERSION;
+  }
+
   public void add(Path path) {
     for (int i = 0; i < hashFunctionSize; i++) {
       bits.set(hash(path.getFullPath(), size, SEEDS[i]), true);
@@ -105,6 +148,11 @@ public class BloomFilter {
     }
   }
 
+  /** Adds a device as a whole, the legacy filter only keeps series. */
+  public void addDevice(IDeviceID deviceID) {
+    // only series are kept
+  }
+
   public boolean contains(Path value) {
     if (value == null) {
       return false;
@@ -131,6 +179,17 @@ public class BloomFilter {
     return ret;
   }
 
+  public boolean contains(IDeviceID deviceID, String measurement) {
+    return contains(deviceID.toString() + TsFileConstant.PATH_SEPARATOR + measurement);
+  }
+
+  /**
+   * Whether the device may have been added, always true for a filter that does not keep devices.
+   */
+  public boolean containsDevice(IDeviceID deviceID) {
+    return true;
+  }
+
   public byte[] serialize() {
     return bits.toByteArray();
   }
@@ -177,7 +236,9 @@ public class BloomFilter {
       outputStream.write(bytes);
       byteLen += bytes.length;
       byteLen += ReadWriteForEncodingUtils.writeUnsignedVarInt(getSize(), outputStream);
-      byteLen += ReadWriteForEncodingUtils.writeUnsignedVarInt(getHashFunctionSize(), outputStream);
+      byteLen +=
+          ReadWriteForEncodingUtils.writeUnsignedVarInt(
+              getHashFunctionSize() | (getVersion() - 1) << VERSION_SHIFT, outputStream);
     }
     return byteLen;
   }
@@ -187,6 +248,11 @@ public class BloomFilter {
     if (bytes.length != 0) {
       int filterSize = ReadWriteForEncodingUtils.readUnsignedVarInt(buffer);
       int hashFunctionSize = ReadWriteForEncodingUtils.readUnsignedVarInt(buffer);
+      int version = (hashFunctionSize >>> VERSION_SHIFT) + 1;
+      hashFunctionSize &= (1 << VERSION_SHIFT) - 1;
+      if (version == BLOCKED_VERSION) {
+        return BlockedBloomFilter.build(bytes, filterSize, hashFunctionSize);
+      }
       return BloomFilter.buildBloomFilter(bytes, filterSize, hashFunctionSize);
     }
     return null;
@@ -66,11 +66,11 @@ public class Murmur128Hash {
         + (((long) key[blockOffset + 7] & 0xff) << 56);
   }
 
-  private static long rotl64(long v, int n) {
+  static long rotl64(long v, int n) {
     return ((v << n) | (v >>> (64 - n)));
   }
 
-  private static long fmix(long k) {
+  static long fmix(long k) {
     k ^= k >>> 33;
     k *= 0xff51afd7ed558ccdL;
     k ^= k >>> 33;
@@ -23,6 +23,7 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 
 /**
@@ -50,7 +51,7 @@ public class PublicBAOS extends ByteArrayOutputStream {
     }
   }
 
-  private void grow(int minCapacity) {
+  protected void grow(int minCapacity) {
     // overflow-conscious code
     int oldCapacity = buf.length;
     int newCapacity = oldCapacity << 1;
@@ -88,6 +89,14 @@ public class PublicBAOS extends ByteArrayOutputStream {
     count += len;
   }
 
+  /** Write the remaining bytes of the buffer, heap or direct, consuming them. */
+  public void write(ByteBuffer buffer) {
+    int len = buffer.remaining();
+    ensureCapacity(count + len);
+    buffer.get(buf, count, len);
+    count += len;
+  }
+
   @Override
   public byte[] toByteArray() {
     return Arrays.copyOf(buf, count);
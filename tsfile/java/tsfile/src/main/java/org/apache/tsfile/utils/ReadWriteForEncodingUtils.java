@@ -220,6 +220,36 @@ public class ReadWriteForEncodingUtils {
     return writeUnsignedVarInt(uValue, buffer);
   }
 
+  /**
+   * write a long value to stream using zigzag var long format, i.e., the long counterpart of {@link
+   * #writeVarInt(int, ByteArrayOutputStream)}.
+   *
+   * @return the number of bytes that the value consume.
+   */
+  public static int writeVarLong(long value, ByteArrayOutputStream out) {
+    long uValue = (value << 1) ^ (value >> 63);
+    int position = 1;
+    while ((uValue & 0xFFFFFFFFFFFFFF80L) != 0L) {
+      out.write((int) ((uValue & 0x7F) | 0x80));
+      uValue >>>= 7;
+      position++;
+    }
+    out.write((int) (uValue & 0x7F));
+    return position;
+  }
+
+  public static long readVarLong(ByteBuffer buffer) {
+    long value = 0;
+    int i = 0;
+    long b;
+    while (((b = buffer.get()) & 0x80) != 0) {
+      value |= (b & 0x7F) << i;
+      i += 7;
+    }
+    value |= b << i;
+    return (value >>> 1) ^ -(value & 1);
+  }
+
   /**
    * Returns the encoding size in bytes of its input value.
    *
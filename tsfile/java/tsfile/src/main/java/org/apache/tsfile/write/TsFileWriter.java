@@ -19,6 +19,7 @@
 package org.apache.tsfile.write;
 
 import org.apache.tsfile.annotations.TsFileApi;
+import org.apache.tsfile.common.concurrent.BoundedExecutor;
 import org.apache.tsfile.common.conf.TSFileConfig;
 import org.apache.tsfile.common.conf.TSFileDescriptor;
 import org.apache.tsfile.encrypt.EncryptParameter;
@@ -63,6 +64,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
 
 /**
  * TsFileWriter is the entrance for writing processing. It receives a record and send it to
@@ -108,6 +112,9 @@ public class TsFileWriter implements AutoCloseable {
 
   private boolean isTableWriteAligned = true;
 
+  /** the maximum number of chunk groups sealed concurrently in one flush. */
+  private int flushParallelism;
+
   /**
    * init this TsFileWriter.
    *
@@ -180,6 +187,7 @@ public class TsFileWriter implements AutoCloseable {
 
     this.pageSize = conf.getPageSizeInByte();
     this.chunkGroupSizeThreshold = conf.getGroupSizeInByte();
+    this.flushParallelism = conf.getFlushParallelism();
     config.setTSFileStorageFs(conf.getTSFileStorageFs());
     if (this.pageSize >= chunkGroupSizeThreshold) {
       LOG.warn(
@@ -541,9 +549,8 @@ public class TsFileWriter implements AutoCloseable {
           schema.getTableSchemaMap().get(deviceID.getTableName()).getColumnSchemas());
     } else {
       MeasurementGroup deviceSchema = schema.getSeriesSchema(deviceID);
-      for (IMeasurementSchema measurementSchema : deviceSchema.getMeasurementSchemaMap().values()) {
-        alignedChunkGroupWriter.tryToAddSeriesWriterInternal(measurementSchema);
-      }
+      alignedChunkGroupWriter.tryToAddSeriesWriter(
+          new ArrayList<>(deviceSchema.getMeasurementSchemaMap().values()));
     }
   }
 
@@ -646,6 +653,7 @@ public class TsFileWriter implements AutoCloseable {
   @TsFileApi
   public boolean flush() throws IOException {
     if (recordCount > 0) {
+      sealChunkGroupsInParallel();
       for (Map.Entry<IDeviceID, IChunkGroupWriter> entry : groupWriters.entrySet()) {
         IDeviceID deviceId = entry.getKey();
         IChunkGroupWriter groupWriter = entry.getValue();
@@ -689,6 +697,50 @@ public class TsFileWriter implements AutoCloseable {
     return false;
   }
 
+  /**
+   * Seal the unsealed pages of all chunk groups on the flush thread pool, so that encoding and
+   * compressing them is spread over several cores. Only sealing runs concurrently; the chunk groups
+   * are still appended to the file one after another in device order, so the layout is the same as
+   * that of a serial flush.
+   */
+  private void sealChunkGroupsInParallel() throws IOException {
+    if (flushParallelism <= 1 || groupWriters.size() <= 1) {
+      return;
+    }
+    Executor executor = new BoundedExecutor(FlushThreadPool.getInstance(), flushParallelism);
+    List<FutureTask<Void>> sealTasks = new ArrayList<>(groupWriters.size());
+    for (IChunkGroupWriter groupWriter : groupWriters.values()) {
+      FutureTask<Void> sealTask = new FutureTask<>(groupWriter::sealAllChunks, null);
+      sealTasks.add(sealTask);
+      executor.execute(sealTask);
+    }
+    IOException exception = null;
+    boolean interrupted = false;
+    // wait for every task even if one fails or we are interrupted, so that no chunk writer is still
+    // being sealed by another thread when this method returns
+    for (FutureTask<Void> sealTask : sealTasks) {
+      while (true) {
+        try {
+          sealTask.get();
+          break;
+        } catch (InterruptedException e) {
+          interrupted = true;
+        } catch (ExecutionException e) {
+          if (exception == null) {
+            exception = new IOException("Failed to seal chunk group", e.getCause());
+          }
+          break;
+        }
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+    if (exception != null) {
+      throw exception;
+    }
+  }
+
   private void reset() {
     groupWriters.clear();
     recordCount = 0;
@@ -778,6 +830,14 @@ public class TsFileWriter implements AutoCloseable {
     isTableWriteAligned = tableWriteAligned;
   }
 
+  public int getFlushParallelism() {
+    return flushParallelism;
+  }
+
+  public void setFlushParallelism(int flushParallelism) {
+    this.flushParallelism = flushParallelism;
+  }
+
   public void registerTableSchema(TableSchema tableSchema) {
     getSchema().registerTableSchema(tableSchema);
   }
@@ -44,6 +44,8 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -66,6 +68,12 @@ public class AlignedChunkGroupWriterImpl implements IChunkGroupWriter {
   private boolean isInitLastTime = false;
   private boolean convertColumnNameToLowerCase = false;
 
+  /**
+   * whether a DEXOR_CROSS column has a reference, then the columns of a row are written in the
+   * order of their writers, as a reference precedes the columns referencing it
+   */
+  private boolean hasCrossColumnReference = false;
+
   public AlignedChunkGroupWriterImpl(IDeviceID deviceId) {
     this.deviceId = deviceId;
     String timeMeasurementId = "";
@@ -107,6 +115,7 @@ public class AlignedChunkGroupWriterImpl implements IChunkGroupWriter {
             : measurementSchema.getMeasurementName();
     ValueChunkWriter valueChunkWriter = valueChunkWriterMap.get(measurementName);
     if (valueChunkWriter == null) {
+      ValueChunkWriter.checkNotQuantized(measurementSchema);
       valueChunkWriter =
           new ValueChunkWriter(
               measurementName,
@@ -114,20 +123,39 @@ public class AlignedChunkGroupWriterImpl implements IChunkGroupWriter {
               measurementSchema.getType(),
               measurementSchema.getEncodingType(),
               measurementSchema.getValueEncoder());
+      hasCrossColumnReference |=
+          valueChunkWriter.bindCrossColumnReference(
+              valueChunkWriterMap.values(), convertColumnNameToLowerCase);
       valueChunkWriterMap.put(measurementName, valueChunkWriter);
       tryToAddEmptyPageAndData(valueChunkWriter);
     }
     return valueChunkWriter;
   }
 
+  /**
+   * Add the writers of the given columns. DEXOR_CROSS columns are added after the others, as their
+   * references must be registered before them.
+   */
   @Override
   public void tryToAddSeriesWriter(List<IMeasurementSchema> measurementSchemas) throws IOException {
+    List<IMeasurementSchema> orderedSchemas = new ArrayList<>(measurementSchemas.size());
+    for (IMeasurementSchema schema : measurementSchemas) {
+      if (schema.getEncodingType() != TSEncoding.DEXOR_CROSS) {
+        orderedSchemas.add(schema);
+      }
+    }
     for (IMeasurementSchema schema : measurementSchemas) {
+      if (schema.getEncodingType() == TSEncoding.DEXOR_CROSS) {
+        orderedSchemas.add(schema);
+      }
+    }
+    for (IMeasurementSchema schema : orderedSchemas) {
       String measurementName =
           convertColumnNameToLowerCase
               ? schema.getMeasurementName().toLowerCase()
               : schema.getMeasurementName();
       if (!valueChunkWriterMap.containsKey(measurementName)) {
+        ValueChunkWriter.checkNotQuantized(schema);
         ValueChunkWriter valueChunkWriter =
             new ValueChunkWriter(
                 measurementName,
@@ -135,6 +163,9 @@ public class AlignedChunkGroupWriterImpl implements IChunkGroupWriter {
                 schema.getType(),
                 schema.getEncodingType(),
                 schema.getValueEncoder());
+        hasCrossColumnReference |=
+            valueChunkWriter.bindCrossColumnReference(
+                valueChunkWriterMap.values(), convertColumnNameToLowerCase);
         valueChunkWriterMap.put(measurementName, valueChunkWriter);
         tryToAddEmptyPageAndData(valueChunkWriter);
       }
@@ -158,6 +189,18 @@ public class AlignedChunkGroupWriterImpl implements IChunkGroupWriter {
         emptyValueChunkWriters.add(entry.getValue());
       }
     }
+    if (hasCrossColumnReference) {
+      Map<ValueChunkWriter, Integer> writerOrder = getWriterOrder();
+      data = new ArrayList<>(data);
+      data.sort(
+          Comparator.comparingInt(
+              point ->
+                  writerOrder.get(
+                      valueChunkWriterMap.get(
+                          convertColumnNameToLowerCase
+                              ? point.getMeasurementId().toLowerCase()
+                              : point.getMeasurementId()))));
+    }
     for (DataPoint point : data) {
       boolean isNull = point.getValue() == null;
       String measurementId =
@@ -230,12 +273,13 @@ public class AlignedChunkGroupWriterImpl implements IChunkGroupWriter {
         emptyValueChunkWriters.add(entry.getValue());
       }
     }
+    List<Integer> columnOrder = getColumnOrder(tablet);
     // TODO: changing to a column-first style by calculating the remaining page space of each
     // column firsts
     for (int row = startRowIndex; row < endRowIndex; row++) {
       long time = tablet.getTimestamps()[row];
       checkIsHistoryData(time);
-      for (int columnIndex = 0; columnIndex < tablet.getSchemas().size(); columnIndex++) {
+      for (int columnIndex : columnOrder) {
         if (tablet.getColumnTypes() != null
             && tablet.getColumnTypes().get(columnIndex) != ColumnCategory.FIELD) {
           continue;
@@ -303,6 +347,43 @@ public class AlignedChunkGroupWriterImpl implements IChunkGroupWriter {
     return pointCount;
   }
 
+  /**
+   * @return the indexes of the columns of the tablet in the order they are written in a row
+   */
+  private List<Integer> getColumnOrder(Tablet tablet) {
+    List<IMeasurementSchema> measurementSchemas = tablet.getSchemas();
+    List<Integer> columnOrder = new ArrayList<>(measurementSchemas.size());
+    for (int columnIndex = 0; columnIndex < measurementSchemas.size(); columnIndex++) {
+      columnOrder.add(columnIndex);
+    }
+    if (!hasCrossColumnReference) {
+      return columnOrder;
+    }
+    Map<ValueChunkWriter, Integer> writerOrder = getWriterOrder();
+    int[] positions = new int[measurementSchemas.size()];
+    for (int columnIndex = 0; columnIndex < measurementSchemas.size(); columnIndex++) {
+      String measurementName = measurementSchemas.get(columnIndex).getMeasurementName();
+      ValueChunkWriter valueChunkWriter =
+          valueChunkWriterMap.get(
+              convertColumnNameToLowerCase ? measurementName.toLowerCase() : measurementName);
+      // the writers of the other columns are added after the existing ones in the tablet order
+      positions[columnIndex] =
+          valueChunkWriter == null
+              ? writerOrder.size() + columnIndex
+              : writerOrder.get(valueChunkWriter);
+    }
+    columnOrder.sort(Comparator.comparingInt(columnIndex -> positions[columnIndex]));
+    return columnOrder;
+  }
+
+  private Map<ValueChunkWriter, Integer> getWriterOrder() {
+    Map<ValueChunkWriter, Integer> writerOrder = new IdentityHashMap<>();
+    for (ValueChunkWriter valueChunkWriter : valueChunkWriterMap.values()) {
+      writerOrder.put(valueChunkWriter, writerOrder.size());
+    }
+    return writerOrder;
+  }
+
   @Override
   public long flushToFileWriter(TsFileIOWriter tsfileWriter) throws IOException {
     LOG.debug("start flush device id:{}", deviceId);
@@ -403,7 +484,8 @@ public class AlignedChunkGroupWriterImpl implements IChunkGroupWriter {
     }
   }
 
-  private void sealAllChunks() {
+  @Override
+  public void sealAllChunks() {
     timeChunkWriter.sealCurrentPage();
     for (ValueChunkWriter valueChunkWriter : valueChunkWriterMap.values()) {
       valueChunkWriter.sealCurrentPage();
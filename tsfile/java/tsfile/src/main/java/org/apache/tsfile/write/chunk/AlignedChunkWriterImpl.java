@@ -82,6 +82,7 @@ public class AlignedChunkWriterImpl implements IChunkWriter {
               valueEncoderList.get(i),
               this.encryptParam));
     }
+    bindCrossColumnReferences();
 
     this.valueIndex = 0;
     this.remainingPointsNumber = timeChunkWriter.getRemainingPointNumberForCurrentPage();
@@ -113,6 +114,7 @@ public class AlignedChunkWriterImpl implements IChunkWriter {
               valueEncoderList.get(i),
               this.encryptParam));
     }
+    bindCrossColumnReferences();
 
     this.valueIndex = 0;
     this.remainingPointsNumber = timeChunkWriter.getRemainingPointNumberForCurrentPage();
@@ -138,6 +140,7 @@ public class AlignedChunkWriterImpl implements IChunkWriter {
 
     valueChunkWriterList = new ArrayList<>(valueSchemaList.size());
     for (int i = 0; i < valueSchemaList.size(); i++) {
+      ValueChunkWriter.checkNotQuantized(valueSchemaList.get(i));
       valueChunkWriterList.add(
           new ValueChunkWriter(
               valueSchemaList.get(i).getMeasurementName(),
@@ -147,6 +150,7 @@ public class AlignedChunkWriterImpl implements IChunkWriter {
               valueSchemaList.get(i).getValueEncoder(),
               this.encryptParam));
     }
+    bindCrossColumnReferences();
 
     this.valueIndex = 0;
     this.remainingPointsNumber = timeChunkWriter.getRemainingPointNumberForCurrentPage();
@@ -167,6 +171,7 @@ public class AlignedChunkWriterImpl implements IChunkWriter {
 
     valueChunkWriterList = new ArrayList<>(valueSchemaList.size());
     for (int i = 0; i < valueSchemaList.size(); i++) {
+      ValueChunkWriter.checkNotQuantized(valueSchemaList.get(i));
       valueChunkWriterList.add(
           new ValueChunkWriter(
               valueSchemaList.get(i).getMeasurementName(),
@@ -176,6 +181,7 @@ public class AlignedChunkWriterImpl implements IChunkWriter {
               valueSchemaList.get(i).getValueEncoder(),
               this.encryptParam));
     }
+    bindCrossColumnReferences();
 
     this.valueIndex = 0;
     this.remainingPointsNumber = timeChunkWriter.getRemainingPointNumberForCurrentPage();
@@ -205,6 +211,7 @@ public class AlignedChunkWriterImpl implements IChunkWriter {
 
     valueChunkWriterList = new ArrayList<>(schemaList.size());
     for (int i = 0; i < schemaList.size(); i++) {
+      ValueChunkWriter.checkNotQuantized(schemaList.get(i));
       valueChunkWriterList.add(
           new ValueChunkWriter(
               schemaList.get(i).getMeasurementName(),
@@ -214,6 +221,7 @@ public class AlignedChunkWriterImpl implements IChunkWriter {
               schemaList.get(i).getValueEncoder(),
               this.encryptParam));
     }
+    bindCrossColumnReferences();
 
     this.valueIndex = 0;
 
@@ -237,6 +245,7 @@ public class AlignedChunkWriterImpl implements IChunkWriter {
 
     valueChunkWriterList = new ArrayList<>(schemaList.size());
     for (int i = 0; i < schemaList.size(); i++) {
+      ValueChunkWriter.checkNotQuantized(schemaList.get(i));
       valueChunkWriterList.add(
           new ValueChunkWriter(
               schemaList.get(i).getMeasurementName(),
@@ -246,12 +255,19 @@ public class AlignedChunkWriterImpl implements IChunkWriter {
               schemaList.get(i).getValueEncoder(),
               this.encryptParam));
     }
+    bindCrossColumnReferences();
 
     this.valueIndex = 0;
 
     this.remainingPointsNumber = timeChunkWriter.getRemainingPointNumberForCurrentPage();
   }
 
+  private void bindCrossColumnReferences() {
+    for (int i = 1; i < valueChunkWriterList.size(); i++) {
+      valueChunkWriterList.get(i).bindCrossColumnReference(valueChunkWriterList.subList(0, i));
+    }
+  }
+
   public void write(long time, int value, boolean isNull) {
     valueChunkWriterList.get(valueIndex++).write(time, value, isNull);
   }
@@ -19,7 +19,9 @@
 package org.apache.tsfile.write.chunk;
 
 import org.apache.tsfile.common.conf.TSFileDescriptor;
+import org.apache.tsfile.common.metrics.TsFileMetrics;
 import org.apache.tsfile.compress.ICompressor;
+import org.apache.tsfile.encoding.encoder.Encoder;
 import org.apache.tsfile.encoding.encoder.SDTEncoder;
 import org.apache.tsfile.encrypt.EncryptParameter;
 import org.apache.tsfile.encrypt.EncryptUtils;
@@ -31,6 +33,8 @@ import org.apache.tsfile.file.metadata.statistics.Statistics;
 import org.apache.tsfile.utils.Binary;
 import org.apache.tsfile.utils.PublicBAOS;
 import org.apache.tsfile.utils.ReadWriteForEncodingUtils;
+import org.apache.tsfile.write.FlushThreadPool;
+import org.apache.tsfile.write.page.PageBuffer;
 import org.apache.tsfile.write.page.PageWriter;
 import org.apache.tsfile.write.schema.IMeasurementSchema;
 import org.apache.tsfile.write.writer.TsFileIOWriter;
@@ -41,8 +45,11 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.io.Serializable;
 import java.nio.ByteBuffer;
-import java.nio.channels.Channels;
-import java.nio.channels.WritableByteChannel;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.function.IntConsumer;
 
 public class ChunkWriterImpl implements IChunkWriter {
 
@@ -55,7 +62,7 @@ public class ChunkWriterImpl implements IChunkWriter {
   private final EncryptParameter encryptParam;
 
   /** all pages of this chunk. */
-  private final PublicBAOS pageBuffer;
+  private final PageBuffer pageBuffer;
 
   private int numOfPages;
 
@@ -86,8 +93,20 @@ public class ChunkWriterImpl implements IChunkWriter {
   private boolean isMerging;
   private SDTEncoder sdtEncoder;
 
+  /** decimal quantization parameters, values are rounded to a multiple of 1 / quantizationScale */
+  private boolean isQuantizing;
+
+  private double quantizationScale;
+
+  /** values at least this large in magnitude have no fraction at the scale and are kept as is */
+  private double quantizationLimit;
+
+  /** max absolute error introduced by the lossy stage, 0 for lossless series */
+  private double errorBound;
+
   private static final String LOSS = "loss";
   private static final String SDT = "sdt";
+  private static final String QUANTIZE = "quantize";
   private static final String SDT_COMP_DEV = "compdev";
   private static final String SDT_COMP_MIN_TIME = "compmintime";
   private static final String SDT_COMP_MAX_TIME = "compmaxtime";
@@ -97,6 +116,19 @@ public class ChunkWriterImpl implements IChunkWriter {
 
   private Statistics<?> firstPageStatistics;
 
+  /**
+   * full pages being compressed on the {@link FlushThreadPool}, in the order they are appended to
+   * the page buffer. At most {@code maxPendingPages} of them are in flight, 0 seals every page on
+   * the writer thread.
+   */
+  private final Deque<PendingPage> pendingPages = new ArrayDeque<>();
+
+  private final int maxPendingPages = getMaxPendingPages();
+
+  private long pendingPagesSize;
+
+  private long pendingPointNum;
+
   /**
    * @param schema schema of this measurement
    */
@@ -104,7 +136,7 @@ public class ChunkWriterImpl implements IChunkWriter {
     this.measurementSchema = schema;
     this.compressor = ICompressor.getCompressor(schema.getCompressor());
     this.encryptParam = EncryptUtils.getEncryptParameter();
-    this.pageBuffer = new PublicBAOS();
+    this.pageBuffer = new PageBuffer();
 
     this.pageSizeThreshold = TSFileDescriptor.getInstance().getConfig().getPageSizeInByte();
     this.maxNumberOfPointsInPage =
@@ -128,7 +160,7 @@ public class ChunkWriterImpl implements IChunkWriter {
     this.measurementSchema = schema;
     this.compressor = ICompressor.getCompressor(schema.getCompressor());
     this.encryptParam = encryptParam;
-    this.pageBuffer = new PublicBAOS();
+    this.pageBuffer = new PageBuffer();
 
     this.pageSizeThreshold = TSFileDescriptor.getInstance().getConfig().getPageSizeInByte();
     this.maxNumberOfPointsInPage =
@@ -180,9 +212,36 @@ public class ChunkWriterImpl implements IChunkWriter {
         sdtEncoder.setCompMaxTime(
             Long.parseLong(measurementSchema.getProps().get(SDT_COMP_MAX_TIME)));
       }
+
+      if (isSdtEncoding) {
+        // dropped points are within compDeviation of the line between the stored points
+        errorBound = Math.max(sdtEncoder.getCompDeviation(), 0);
+      }
+
+      if (isQuantized(measurementSchema)) {
+        int digits =
+            measurementSchema.getProps().containsKey(Encoder.MAX_POINT_NUMBER)
+                ? Integer.parseInt(measurementSchema.getProps().get(Encoder.MAX_POINT_NUMBER))
+                : TSFileDescriptor.getInstance().getConfig().getFloatPrecision();
+        isQuantizing = true;
+        quantizationScale = Math.pow(10, digits);
+        quantizationLimit = 0x1p52 / quantizationScale;
+        // rounding to the nearest multiple of 10^-digits moves a value by at most half a step
+        errorBound = 0.5 / quantizationScale;
+      }
     }
   }
 
+  /**
+   * @return whether the FLOAT or DOUBLE values of the series are rounded to decimal digits
+   */
+  static boolean isQuantized(IMeasurementSchema measurementSchema) {
+    return measurementSchema.getProps() != null
+        && QUANTIZE.equals(measurementSchema.getProps().get(LOSS))
+        && (measurementSchema.getType() == TSDataType.FLOAT
+            || measurementSchema.getType() == TSDataType.DOUBLE);
+  }
+
   public void write(long time, long value) {
     // store last point for sdtEncoding, it still needs to go through encoding process
     // in case it exceeds compdev and needs to store second last point
@@ -215,6 +274,12 @@ public class ChunkWriterImpl implements IChunkWriter {
   }
 
   public void write(long time, float value) {
+    if (isQuantizing) {
+      float quantized = (float) quantize(value);
+      // the cast to float rounds once more, widen the bound by the error actually made
+      errorBound = widenErrorBound(Math.abs((double) quantized - value));
+      value = quantized;
+    }
     if (!isSdtEncoding || sdtEncoder.encodeFloat(time, value)) {
       pageWriter.write(
           isSdtEncoding ? sdtEncoder.getTime() : time,
@@ -228,6 +293,12 @@ public class ChunkWriterImpl implements IChunkWriter {
   }
 
   public void write(long time, double value) {
+    if (isQuantizing) {
+      double quantized = quantize(value);
+      // scaling and dividing round as well, widen the bound by the error actually made
+      errorBound = widenErrorBound(Math.abs(quantized - value));
+      value = quantized;
+    }
     if (!isSdtEncoding || sdtEncoder.encodeDouble(time, value)) {
       pageWriter.write(
           isSdtEncoding ? sdtEncoder.getTime() : time,
@@ -244,6 +315,27 @@ public class ChunkWriterImpl implements IChunkWriter {
     checkPageSizeAndMayOpenANewPage();
   }
 
+  private double widenErrorBound(double error) {
+    // NaN and infinities are kept unchanged, their NaN difference does not count
+    return error > errorBound ? error : errorBound;
+  }
+
+  private double quantize(double value) {
+    // NaN, infinities and values whose scaled form has no fraction are kept unchanged, which also
+    // keeps the scaling from overflowing
+    if (!(Math.abs(value) < quantizationLimit)) {
+      return value;
+    }
+    return Math.rint(value * quantizationScale) / quantizationScale;
+  }
+
+  /**
+   * @return the max absolute error introduced by the lossy stage of this series, 0 if lossless
+   */
+  public double getErrorBound() {
+    return errorBound;
+  }
+
   public void write(long[] timestamps, int[] values, int batchSize) {
     if (isSdtEncoding) {
       batchSize = sdtEncoder.encode(timestamps, values, batchSize);
@@ -266,6 +358,13 @@ public class ChunkWriterImpl implements IChunkWriter {
   }
 
   public void write(long[] timestamps, float[] values, int batchSize) {
+    if (isQuantizing) {
+      // the lossy stages work point by point, the caller's array is left untouched
+      for (int i = 0; i < batchSize; i++) {
+        write(timestamps[i], values[i]);
+      }
+      return;
+    }
     if (isSdtEncoding) {
       batchSize = sdtEncoder.encode(timestamps, values, batchSize);
     }
@@ -274,6 +373,13 @@ public class ChunkWriterImpl implements IChunkWriter {
   }
 
   public void write(long[] timestamps, double[] values, int batchSize) {
+    if (isQuantizing) {
+      // the lossy stages work point by point, the caller's array is left untouched
+      for (int i = 0; i < batchSize; i++) {
+        write(timestamps[i], values[i]);
+      }
+      return;
+    }
     if (isSdtEncoding) {
       batchSize = sdtEncoder.encode(timestamps, values, batchSize);
     }
@@ -286,6 +392,94 @@ public class ChunkWriterImpl implements IChunkWriter {
     checkPageSizeAndMayOpenANewPage();
   }
 
+  /** Write {@code batchSize} points starting at {@code arrayOffset} column by column. */
+  public void write(long[] timestamps, int[] values, int batchSize, int arrayOffset) {
+    writeSlices(
+        batchSize,
+        arrayOffset,
+        isSdtEncoding,
+        i -> write(timestamps[i], values[i]),
+        (offset, length) -> pageWriter.write(timestamps, values, length, offset));
+  }
+
+  /** Write {@code batchSize} points starting at {@code arrayOffset} column by column. */
+  public void write(long[] timestamps, long[] values, int batchSize, int arrayOffset) {
+    writeSlices(
+        batchSize,
+        arrayOffset,
+        isSdtEncoding,
+        i -> write(timestamps[i], values[i]),
+        (offset, length) -> pageWriter.write(timestamps, values, length, offset));
+  }
+
+  /** Write {@code batchSize} points starting at {@code arrayOffset} column by column. */
+  public void write(long[] timestamps, float[] values, int batchSize, int arrayOffset) {
+    writeSlices(
+        batchSize,
+        arrayOffset,
+        isSdtEncoding || isQuantizing,
+        i -> write(timestamps[i], values[i]),
+        (offset, length) -> pageWriter.write(timestamps, values, length, offset));
+  }
+
+  /** Write {@code batchSize} points starting at {@code arrayOffset} column by column. */
+  public void write(long[] timestamps, double[] values, int batchSize, int arrayOffset) {
+    writeSlices(
+        batchSize,
+        arrayOffset,
+        isSdtEncoding || isQuantizing,
+        i -> write(timestamps[i], values[i]),
+        (offset, length) -> pageWriter.write(timestamps, values, length, offset));
+  }
+
+  /**
+   * Write {@code batchSize} points starting at {@code arrayOffset}. The slice is cut at the points
+   * where the page size would be checked anyway, so pages are sealed exactly as if the points were
+   * written one by one. The lossy stages work point by point, so {@code pointByPoint} bypasses the
+   * slices.
+   */
+  private void writeSlices(
+      int batchSize,
+      int arrayOffset,
+      boolean pointByPoint,
+      IntConsumer pointWriter,
+      SliceWriter sliceWriter) {
+    if (pointByPoint) {
+      for (int i = arrayOffset; i < arrayOffset + batchSize; i++) {
+        pointWriter.accept(i);
+      }
+      return;
+    }
+    while (batchSize > 0) {
+      int length = Math.min(batchSize, getPointNumberBeforeNextCheck());
+      sliceWriter.write(arrayOffset, length);
+      checkPageSizeAndMayOpenANewPage();
+      arrayOffset += length;
+      batchSize -= length;
+    }
+  }
+
+  @FunctionalInterface
+  private interface SliceWriter {
+    void write(int offset, int length);
+  }
+
+  private int getPointNumberBeforeNextCheck() {
+    if (pageWriter.isSizeExact()) {
+      // each point grows the page by at most one item, so this many points surely fit
+      long pointsThatFit =
+          (pageSizeThreshold - pageWriter.estimateMaxMemSize()) / pageWriter.getOneItemMaxSize();
+      return (int)
+          Math.max(
+              1L, Math.min(maxNumberOfPointsInPage - pageWriter.getPointNumber(), pointsThatFit));
+    }
+    return (int)
+        Math.max(
+            1L,
+            Math.min(maxNumberOfPointsInPage, valueCountInOnePageForNextCheck)
+                - pageWriter.getPointNumber());
+  }
+
   /**
    * check occupied memory size, if it exceeds the PageSize threshold, construct a page and put it
    * to pageBuffer
@@ -294,6 +488,18 @@ public class ChunkWriterImpl implements IChunkWriter {
     if (pageWriter.getPointNumber() == maxNumberOfPointsInPage) {
       logger.debug("current line count reaches the upper bound, write page {}", measurementSchema);
       writePageToPageBuffer();
+    } else if (pageWriter.isSizeExact()) {
+      // the size is exact, seal the page as soon as the next point might not fit into it
+      long currentPageSize = pageWriter.estimateMaxMemSize();
+      if (currentPageSize + pageWriter.getOneItemMaxSize() > pageSizeThreshold) {
+        logger.debug(
+            "page is full, write page {}, pageSizeThreshold:{}, currentPageSize:{}, valueCountInOnePage:{}",
+            measurementSchema.getMeasurementName(),
+            pageSizeThreshold,
+            currentPageSize,
+            pageWriter.getPointNumber());
+        writePageToPageBuffer();
+      }
     } else if (pageWriter.getPointNumber()
         >= valueCountInOnePageForNextCheck) { // need to check memory size
       // not checking the memory used for every value
@@ -317,16 +523,18 @@ public class ChunkWriterImpl implements IChunkWriter {
   }
 
   private void writePageToPageBuffer() {
+    if (maxPendingPages > 0) {
+      sealPageAsync();
+      return;
+    }
+    long startTime = System.nanoTime();
+    int startSize = pageBuffer.size();
     try {
       if (numOfPages == 0) { // record the firstPageStatistics
         this.firstPageStatistics = pageWriter.getStatistics();
         this.sizeWithoutStatistic = pageWriter.writePageHeaderAndDataIntoBuff(pageBuffer, true);
       } else if (numOfPages == 1) { // put the firstPageStatistics into pageBuffer
-        byte[] b = pageBuffer.toByteArray();
-        pageBuffer.reset();
-        pageBuffer.write(b, 0, this.sizeWithoutStatistic);
-        firstPageStatistics.serialize(pageBuffer);
-        pageBuffer.write(b, this.sizeWithoutStatistic, b.length - this.sizeWithoutStatistic);
+        insertFirstPageStatistics();
         pageWriter.writePageHeaderAndDataIntoBuff(pageBuffer, false);
         firstPageStatistics = null;
       } else {
@@ -336,6 +544,12 @@ public class ChunkWriterImpl implements IChunkWriter {
       // update statistics of this chunk
       numOfPages++;
       this.statistics.mergeStatistics(pageWriter.getStatistics());
+      TsFileMetrics.getInstance()
+          .recordPageSealed(
+              measurementSchema.getEncodingType(),
+              pageWriter.getPointNumber(),
+              pageBuffer.size() - startSize,
+              System.nanoTime() - startTime);
     } catch (IOException e) {
       logger.error("meet error in pageWriter.writePageHeaderAndDataIntoBuff,ignore this page:", e);
     } finally {
@@ -344,13 +558,143 @@ public class ChunkWriterImpl implements IChunkWriter {
     }
   }
 
+  private static int getMaxPendingPages() {
+    int flushParallelism = TSFileDescriptor.getInstance().getConfig().getFlushParallelism();
+    return flushParallelism > 1 ? flushParallelism : 0;
+  }
+
+  /**
+   * Hand the full page with its encoders over to the flush thread pool and go on writing into a new
+   * page. The sealed pages are appended to the page buffer in order by {@link
+   * #appendSealedPages()}, which also completes the first page statistics once a second page comes.
+   */
+  private void sealPageAsync() {
+    if (pageWriter.getPointNumber() == 0) {
+      return;
+    }
+    if (pendingPages.size() >= maxPendingPages) {
+      appendSealedPage(pendingPages.poll());
+    }
+    PendingPage pendingPage = new PendingPage(pageWriter, measurementSchema);
+    pendingPages.add(pendingPage);
+    pendingPagesSize += pendingPage.estimatedSize;
+    pendingPointNum += pendingPage.statistics.getCount();
+    FlushThreadPool.getInstance().execute(pendingPage.sealTask);
+
+    pageWriter = new PageWriter(measurementSchema, encryptParam);
+    pageWriter.setTimeEncoder(measurementSchema.getTimeEncoder());
+    pageWriter.setValueEncoder(measurementSchema.getValueEncoder());
+  }
+
+  /** Wait for the pages being sealed and append them to the page buffer. */
+  private void appendSealedPages() {
+    while (!pendingPages.isEmpty()) {
+      appendSealedPage(pendingPages.poll());
+    }
+  }
+
+  private void appendSealedPage(PendingPage pendingPage) {
+    pendingPagesSize -= pendingPage.estimatedSize;
+    pendingPointNum -= pendingPage.statistics.getCount();
+    // run the task here if the pool has not started it yet, a pool thread may be the one waiting
+    pendingPage.sealTask.run();
+    boolean interrupted = false;
+    try {
+      while (true) {
+        try {
+          int pageSizeWithoutStatistic = pendingPage.sealTask.get();
+          // whether the page is the first one is only known now, as a page before it may have
+          // failed, so every page is sealed without statistics and gets them here if it is not
+          byte[] data = pendingPage.data.getBuf();
+          if (numOfPages == 0) { // record the firstPageStatistics
+            this.firstPageStatistics = pendingPage.statistics;
+            this.sizeWithoutStatistic = pageBuffer.size() + pageSizeWithoutStatistic;
+            pageBuffer.write(data, 0, pendingPage.data.size());
+          } else {
+            if (numOfPages == 1) { // put the firstPageStatistics into pageBuffer
+              insertFirstPageStatistics();
+              firstPageStatistics = null;
+            }
+            pageBuffer.write(data, 0, pageSizeWithoutStatistic);
+            pendingPage.statistics.serialize(pageBuffer);
+            pageBuffer.write(
+                data, pageSizeWithoutStatistic, pendingPage.data.size() - pageSizeWithoutStatistic);
+          }
+          numOfPages++;
+          this.statistics.mergeStatistics(pendingPage.statistics);
+          return;
+        } catch (InterruptedException e) {
+          interrupted = true;
+        } catch (ExecutionException | IOException e) {
+          logger.error(
+              "meet error in pageWriter.writePageHeaderAndDataIntoBuff,ignore this page:", e);
+          return;
+        }
+      }
+    } finally {
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  /** A full page that is compressed and serialized off the writer thread. */
+  private static class PendingPage {
+
+    private final PublicBAOS data = new PublicBAOS();
+    private final Statistics<?> statistics;
+    private final long estimatedSize;
+
+    /**
+     * returns the size of the page header, which is written without statistics, see {@link
+     * PageWriter}
+     */
+    private final FutureTask<Integer> sealTask;
+
+    private PendingPage(PageWriter pageWriter, IMeasurementSchema schema) {
+      this.statistics = pageWriter.getStatistics();
+      this.estimatedSize = pageWriter.estimateMaxMemSize();
+      this.sealTask =
+          new FutureTask<>(
+              () -> {
+                long startTime = System.nanoTime();
+                try {
+                  int sizeWithoutStatistic = pageWriter.writePageHeaderAndDataIntoBuff(data, true);
+                  TsFileMetrics.getInstance()
+                      .recordPageSealed(
+                          schema.getEncodingType(),
+                          statistics.getCount(),
+                          data.size(),
+                          System.nanoTime() - startTime);
+                  return sizeWithoutStatistic;
+                } finally {
+                  pageWriter.releaseBuffers();
+                }
+              });
+    }
+  }
+
+  /** Put the statistics of the first page behind its header, once a second page comes. */
+  private void insertFirstPageStatistics() throws IOException {
+    PublicBAOS statisticsOut = new PublicBAOS();
+    firstPageStatistics.serialize(statisticsOut);
+    pageBuffer.insert(sizeWithoutStatistic, statisticsOut.getBuf(), 0, statisticsOut.size());
+  }
+
   @Override
   public void writeToFileWriter(TsFileIOWriter tsfileWriter) throws IOException {
     sealCurrentPage();
+    appendSealedPages();
     writeAllPagesOfChunkToTsFile(tsfileWriter, statistics);
+    if (errorBound > 0 && statistics.getCount() > 0) {
+      tsfileWriter.recordErrorBound(measurementSchema.getMeasurementName(), errorBound);
+    }
 
-    // reinit this chunk writer
-    pageBuffer.reset();
+    // reinit this chunk writer, handing the buffers back to the pool until the next chunk
+    pageBuffer.release();
+    if (pageWriter != null) {
+      pageWriter.releaseBuffers();
+    }
     numOfPages = 0;
     sizeWithoutStatistic = 0;
     firstPageStatistics = null;
@@ -360,6 +704,7 @@ public class ChunkWriterImpl implements IChunkWriter {
   @Override
   public long estimateMaxSeriesMemSize() {
     return pageBuffer.size()
+        + pendingPagesSize
         + pageWriter.estimateMaxMemSize()
         + PageHeader.estimateMaxPageHeaderSizeWithoutStatistics()
         + pageWriter.getStatistics().getSerializedSize();
@@ -367,6 +712,7 @@ public class ChunkWriterImpl implements IChunkWriter {
 
   @Override
   public long getSerializedChunkSize() {
+    appendSealedPages();
     if (pageBuffer.size() == 0) {
       return 0;
     }
@@ -400,17 +746,17 @@ public class ChunkWriterImpl implements IChunkWriter {
   @Override
   public boolean checkIsChunkSizeOverThreshold(
       long size, long pointNum, boolean returnTrueIfChunkEmpty) {
-    if (returnTrueIfChunkEmpty && statistics.getCount() + pageWriter.getPointNumber() == 0) {
+    long pointNumOfChunk = statistics.getCount() + pendingPointNum + pageWriter.getPointNumber();
+    if (returnTrueIfChunkEmpty && pointNumOfChunk == 0) {
       // return true if there is no unsealed chunk
       return true;
     }
-    return estimateMaxSeriesMemSize() >= size
-        || statistics.getCount() + pageWriter.getPointNumber() >= pointNum;
+    return estimateMaxSeriesMemSize() >= size || pointNumOfChunk >= pointNum;
   }
 
   @Override
   public boolean isEmpty() {
-    return statistics.getCount() + pageWriter.getPointNumber() == 0;
+    return statistics.getCount() + pendingPointNum + pageWriter.getPointNumber() == 0;
   }
 
   public TSDataType getDataType() {
@@ -423,6 +769,7 @@ public class ChunkWriterImpl implements IChunkWriter {
    */
   public void writePageHeaderAndDataIntoBuff(ByteBuffer data, PageHeader header)
       throws PageException {
+    appendSealedPages();
     // write the page header to pageBuffer
     try {
       logger.debug(
@@ -435,11 +782,7 @@ public class ChunkWriterImpl implements IChunkWriter {
         this.sizeWithoutStatistic +=
             ReadWriteForEncodingUtils.writeUnsignedVarInt(header.getCompressedSize(), pageBuffer);
       } else if (numOfPages == 1) { // put the firstPageStatistics into pageBuffer
-        byte[] b = pageBuffer.toByteArray();
-        pageBuffer.reset();
-        pageBuffer.write(b, 0, this.sizeWithoutStatistic);
-        firstPageStatistics.serialize(pageBuffer);
-        pageBuffer.write(b, this.sizeWithoutStatistic, b.length - this.sizeWithoutStatistic);
+        insertFirstPageStatistics();
         ReadWriteForEncodingUtils.writeUnsignedVarInt(header.getUncompressedSize(), pageBuffer);
         ReadWriteForEncodingUtils.writeUnsignedVarInt(header.getCompressedSize(), pageBuffer);
         header.getStatistics().serialize(pageBuffer);
@@ -462,11 +805,7 @@ public class ChunkWriterImpl implements IChunkWriter {
     }
     numOfPages++;
     // write page content to temp PBAOS
-    try (WritableByteChannel channel = Channels.newChannel(pageBuffer)) {
-      channel.write(data);
-    } catch (IOException e) {
-      throw new PageException(e);
-    }
+    pageBuffer.write(data);
   }
 
   /**
@@ -529,14 +868,16 @@ public class ChunkWriterImpl implements IChunkWriter {
   }
 
   public int getNumOfPages() {
-    return numOfPages;
+    return numOfPages + pendingPages.size();
   }
 
   public ByteBuffer getByteBuffer() {
+    appendSealedPages();
     return ByteBuffer.wrap(pageBuffer.toByteArray());
   }
 
   public Statistics getStatistics() {
+    appendSealedPages();
     Statistics copy = Statistics.getStatsByType(statistics.getType());
     copy.mergeStatistics(statistics);
     return copy;
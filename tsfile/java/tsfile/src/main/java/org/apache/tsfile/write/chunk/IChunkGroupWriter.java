@@ -65,6 +65,13 @@ public interface IChunkGroupWriter {
    */
   long flushToFileWriter(TsFileIOWriter tsfileWriter) throws IOException;
 
+  /**
+   * seal the unsealed pages of all series, encoding and compressing them into the buffers of their
+   * chunk writers. It does not touch the file, so different chunk groups can be sealed concurrently
+   * before they are flushed one after another by {@link #flushToFileWriter(TsFileIOWriter)}.
+   */
+  default void sealAllChunks() {}
+
   /**
    * get the max memory occupied at this time. Note that, this method should be called after running
    * {@code long calcAllocatedSize()}
@@ -26,6 +26,7 @@ import org.apache.tsfile.enums.TSDataType;
 import org.apache.tsfile.exception.write.WriteProcessException;
 import org.apache.tsfile.file.metadata.IDeviceID;
 import org.apache.tsfile.utils.Binary;
+import org.apache.tsfile.utils.BitMap;
 import org.apache.tsfile.utils.DateUtils;
 import org.apache.tsfile.write.UnSupportedDataTypeException;
 import org.apache.tsfile.write.record.Tablet;
@@ -118,6 +119,11 @@ public class NonAlignedChunkGroupWriterImpl implements IChunkGroupWriter {
       }
       String measurementId = timeseries.get(column).getMeasurementName();
       TSDataType tsDataType = timeseries.get(column).getType();
+      if (isColumnarWritable(tsDataType)) {
+        pointCount = writeColumn(tablet, column, measurementId, startRowIndex, endRowIndex);
+        maxPointCount = Math.max(pointCount, maxPointCount);
+        continue;
+      }
       pointCount = 0;
       for (int row = startRowIndex; row < endRowIndex; row++) {
         // check isNull in tablet
@@ -178,6 +184,81 @@ public class NonAlignedChunkGroupWriterImpl implements IChunkGroupWriter {
     return maxPointCount;
   }
 
+  private static boolean isColumnarWritable(TSDataType tsDataType) {
+    switch (tsDataType) {
+      case INT32:
+      case INT64:
+      case TIMESTAMP:
+      case FLOAT:
+      case DOUBLE:
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  /**
+   * Write the non-null runs of a numeric tablet column as array slices, so that the encoders see
+   * whole runs instead of one value per call.
+   */
+  private int writeColumn(
+      Tablet tablet, int column, String measurementId, int startRowIndex, int endRowIndex)
+      throws WriteProcessException {
+    BitMap bitMap = tablet.getBitMaps() == null ? null : tablet.getBitMaps()[column];
+    int pointCount = 0;
+    int row = startRowIndex;
+    while (row < endRowIndex) {
+      if (bitMap != null && bitMap.isMarked(row)) {
+        row++;
+        continue;
+      }
+      int runEnd = row + 1;
+      while (runEnd < endRowIndex && (bitMap == null || !bitMap.isMarked(runEnd))) {
+        runEnd++;
+      }
+      writeColumnSlice(tablet, column, measurementId, row, runEnd);
+      pointCount += runEnd - row;
+      row = runEnd;
+    }
+    return pointCount;
+  }
+
+  private void writeColumnSlice(
+      Tablet tablet, int column, String measurementId, int fromRow, int toRow)
+      throws WriteProcessException {
+    long[] timestamps = tablet.getTimestamps();
+    // find the in-order prefix of the slice, the same check checkIsHistoryData does per point
+    Long lastTime = lastTimeMap.get(measurementId);
+    boolean hasLastTime = lastTime != null;
+    long last = hasLastTime ? lastTime : 0;
+    int end = fromRow;
+    while (end < toRow && (!hasLastTime || timestamps[end] > last)) {
+      last = timestamps[end];
+      hasLastTime = true;
+      end++;
+    }
+
+    ChunkWriterImpl chunkWriter = chunkWriters.get(measurementId);
+    Object values = tablet.getValues()[column];
+    int batchSize = end - fromRow;
+    if (values instanceof int[]) {
+      chunkWriter.write(timestamps, (int[]) values, batchSize, fromRow);
+    } else if (values instanceof long[]) {
+      chunkWriter.write(timestamps, (long[]) values, batchSize, fromRow);
+    } else if (values instanceof float[]) {
+      chunkWriter.write(timestamps, (float[]) values, batchSize, fromRow);
+    } else {
+      chunkWriter.write(timestamps, (double[]) values, batchSize, fromRow);
+    }
+    if (batchSize > 0) {
+      lastTimeMap.put(measurementId, last);
+    }
+    if (end < toRow) {
+      // throws for the first out-of-order point, after the points before it have been written
+      checkIsHistoryData(measurementId, timestamps[end]);
+    }
+  }
+
   @Override
   public long flushToFileWriter(TsFileIOWriter fileWriter) throws IOException {
     LOG.debug("start flush device id:{}", deviceId);
@@ -210,7 +291,8 @@ public class NonAlignedChunkGroupWriterImpl implements IChunkGroupWriter {
   }
 
   /** seal all the chunks which may has un-sealed pages in force. */
-  private void sealAllChunks() {
+  @Override
+  public void sealAllChunks() {
     for (IChunkWriter writer : chunkWriters.values()) {
       writer.sealCurrentPage();
     }
@@ -20,6 +20,7 @@ package org.apache.tsfile.write.chunk;
 
 import org.apache.tsfile.common.conf.TSFileDescriptor;
 import org.apache.tsfile.common.constant.TsFileConstant;
+import org.apache.tsfile.common.metrics.TsFileMetrics;
 import org.apache.tsfile.compress.ICompressor;
 import org.apache.tsfile.encoding.encoder.Encoder;
 import org.apache.tsfile.encrypt.EncryptParameter;
@@ -34,6 +35,7 @@ import org.apache.tsfile.file.metadata.statistics.Statistics;
 import org.apache.tsfile.file.metadata.statistics.TimeStatistics;
 import org.apache.tsfile.utils.PublicBAOS;
 import org.apache.tsfile.utils.ReadWriteForEncodingUtils;
+import org.apache.tsfile.write.page.PageBuffer;
 import org.apache.tsfile.write.page.TimePageWriter;
 import org.apache.tsfile.write.writer.TsFileIOWriter;
 
@@ -42,8 +44,6 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
-import java.nio.channels.Channels;
-import java.nio.channels.WritableByteChannel;
 
 public class TimeChunkWriter {
 
@@ -58,7 +58,7 @@ public class TimeChunkWriter {
   private EncryptParameter encryptParam;
 
   /** all pages of this chunk. */
-  private PublicBAOS pageBuffer;
+  private PageBuffer pageBuffer;
 
   private int numOfPages;
 
@@ -95,7 +95,7 @@ public class TimeChunkWriter {
     this.encodingType = encodingType;
     this.compressionType = compressionType;
     this.encryptParam = EncryptUtils.getEncryptParameter();
-    this.pageBuffer = new PublicBAOS();
+    this.pageBuffer = new PageBuffer();
 
     this.pageSizeThreshold = TSFileDescriptor.getInstance().getConfig().getPageSizeInByte();
     this.maxNumberOfPointsInPage =
@@ -121,7 +121,7 @@ public class TimeChunkWriter {
     this.encodingType = encodingType;
     this.compressionType = compressionType;
     this.encryptParam = encryptParam;
-    this.pageBuffer = new PublicBAOS();
+    this.pageBuffer = new PageBuffer();
 
     this.pageSizeThreshold = TSFileDescriptor.getInstance().getConfig().getPageSizeInByte();
     this.maxNumberOfPointsInPage =
@@ -180,16 +180,14 @@ public class TimeChunkWriter {
   }
 
   public void writePageToPageBuffer() {
+    long startTime = System.nanoTime();
+    int startSize = pageBuffer.size();
     try {
       if (numOfPages == 0) { // record the firstPageStatistics
         this.firstPageStatistics = pageWriter.getStatistics();
         this.sizeWithoutStatistic = pageWriter.writePageHeaderAndDataIntoBuff(pageBuffer, true);
       } else if (numOfPages == 1) { // put the firstPageStatistics into pageBuffer
-        byte[] b = pageBuffer.toByteArray();
-        pageBuffer.reset();
-        pageBuffer.write(b, 0, this.sizeWithoutStatistic);
-        firstPageStatistics.serialize(pageBuffer);
-        pageBuffer.write(b, this.sizeWithoutStatistic, b.length - this.sizeWithoutStatistic);
+        insertFirstPageStatistics();
         pageWriter.writePageHeaderAndDataIntoBuff(pageBuffer, false);
         firstPageStatistics = null;
       } else {
@@ -199,6 +197,12 @@ public class TimeChunkWriter {
       // update statistics of this chunk
       numOfPages++;
       this.statistics.mergeStatistics(pageWriter.getStatistics());
+      TsFileMetrics.getInstance()
+          .recordPageSealed(
+              encodingType,
+              pageWriter.getStatistics().getCount(),
+              pageBuffer.size() - startSize,
+              System.nanoTime() - startTime);
     } catch (IOException e) {
       logger.error("meet error in pageWriter.writePageHeaderAndDataIntoBuff,ignore this page:", e);
     } finally {
@@ -221,11 +225,7 @@ public class TimeChunkWriter {
         this.sizeWithoutStatistic +=
             ReadWriteForEncodingUtils.writeUnsignedVarInt(header.getCompressedSize(), pageBuffer);
       } else if (numOfPages == 1) { // put the firstPageStatistics into pageBuffer
-        byte[] b = pageBuffer.toByteArray();
-        pageBuffer.reset();
-        pageBuffer.write(b, 0, this.sizeWithoutStatistic);
-        firstPageStatistics.serialize(pageBuffer);
-        pageBuffer.write(b, this.sizeWithoutStatistic, b.length - this.sizeWithoutStatistic);
+        insertFirstPageStatistics();
         ReadWriteForEncodingUtils.writeUnsignedVarInt(header.getUncompressedSize(), pageBuffer);
         ReadWriteForEncodingUtils.writeUnsignedVarInt(header.getCompressedSize(), pageBuffer);
         header.getStatistics().serialize(pageBuffer);
@@ -247,19 +247,25 @@ public class TimeChunkWriter {
     }
     numOfPages++;
     // write page content to temp PBAOS
-    try (WritableByteChannel channel = Channels.newChannel(pageBuffer)) {
-      channel.write(data);
-    } catch (IOException e) {
-      throw new PageException(e);
-    }
+    pageBuffer.write(data);
+  }
+
+  /** Put the statistics of the first page behind its header, once a second page comes. */
+  private void insertFirstPageStatistics() throws IOException {
+    PublicBAOS statisticsOut = new PublicBAOS();
+    firstPageStatistics.serialize(statisticsOut);
+    pageBuffer.insert(sizeWithoutStatistic, statisticsOut.getBuf(), 0, statisticsOut.size());
   }
 
   public void writeToFileWriter(TsFileIOWriter tsfileWriter) throws IOException {
     sealCurrentPage();
     writeAllPagesOfChunkToTsFile(tsfileWriter);
 
-    // reinit this chunk writer
-    pageBuffer.reset();
+    // reinit this chunk writer, handing the buffers back to the pool until the next chunk
+    pageBuffer.release();
+    if (pageWriter != null) {
+      pageWriter.releaseBuffers();
+    }
     numOfPages = 0;
     sizeWithoutStatistic = 0;
     firstPageStatistics = null;
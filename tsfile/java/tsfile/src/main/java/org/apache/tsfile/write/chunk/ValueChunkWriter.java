@@ -20,7 +20,9 @@ package org.apache.tsfile.write.chunk;
 
 import org.apache.tsfile.common.conf.TSFileDescriptor;
 import org.apache.tsfile.common.constant.TsFileConstant;
+import org.apache.tsfile.common.metrics.TsFileMetrics;
 import org.apache.tsfile.compress.ICompressor;
+import org.apache.tsfile.encoding.encoder.DoubleDeXORCrossEncoder;
 import org.apache.tsfile.encoding.encoder.Encoder;
 import org.apache.tsfile.encrypt.EncryptParameter;
 import org.apache.tsfile.encrypt.EncryptUtils;
@@ -34,7 +36,9 @@ import org.apache.tsfile.file.metadata.statistics.Statistics;
 import org.apache.tsfile.utils.Binary;
 import org.apache.tsfile.utils.PublicBAOS;
 import org.apache.tsfile.utils.ReadWriteForEncodingUtils;
+import org.apache.tsfile.write.page.PageBuffer;
 import org.apache.tsfile.write.page.ValuePageWriter;
+import org.apache.tsfile.write.schema.IMeasurementSchema;
 import org.apache.tsfile.write.writer.TsFileIOWriter;
 
 import org.slf4j.Logger;
@@ -43,8 +47,6 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.io.Serializable;
 import java.nio.ByteBuffer;
-import java.nio.channels.Channels;
-import java.nio.channels.WritableByteChannel;
 
 public class ValueChunkWriter {
 
@@ -61,7 +63,7 @@ public class ValueChunkWriter {
   private final EncryptParameter encryptParam;
 
   /** all pages of this chunk. */
-  private final PublicBAOS pageBuffer;
+  private final PageBuffer pageBuffer;
 
   private int numOfPages;
 
@@ -98,7 +100,7 @@ public class ValueChunkWriter {
     this.dataType = dataType;
     this.compressionType = compressionType;
     this.encryptParam = EncryptUtils.getEncryptParameter();
-    this.pageBuffer = new PublicBAOS();
+    this.pageBuffer = new PageBuffer();
     this.pageSizeThreshold = TSFileDescriptor.getInstance().getConfig().getPageSizeInByte();
     this.maxNumberOfPointsInPage =
         TSFileDescriptor.getInstance().getConfig().getMaxNumberOfPointsInPage();
@@ -124,7 +126,7 @@ public class ValueChunkWriter {
     this.dataType = dataType;
     this.compressionType = compressionType;
     this.encryptParam = encryptParam;
-    this.pageBuffer = new PublicBAOS();
+    this.pageBuffer = new PageBuffer();
     this.pageSizeThreshold = TSFileDescriptor.getInstance().getConfig().getPageSizeInByte();
     this.maxNumberOfPointsInPage =
         TSFileDescriptor.getInstance().getConfig().getMaxNumberOfPointsInPage();
@@ -138,6 +140,79 @@ public class ValueChunkWriter {
             valueEncoder, ICompressor.getCompressor(compressionType), dataType, this.encryptParam);
   }
 
+  /**
+   * The lossy stages of {@link ChunkWriterImpl} are not applied to the columns of aligned series,
+   * so a schema asking for quantization is rejected instead of being written unchanged.
+   */
+  static void checkNotQuantized(IMeasurementSchema measurementSchema) {
+    if (ChunkWriterImpl.isQuantized(measurementSchema)) {
+      throw new UnsupportedOperationException(
+          "loss=quantize is not supported by the aligned series "
+              + measurementSchema.getMeasurementName());
+    }
+  }
+
+  /**
+   * Bind this column to its reference column if it is encoded by DEXOR_CROSS. The reference is the
+   * column named by the {@link Encoder#REFERENCE} property of the schema, and must be a preceding
+   * DOUBLE column that is not encoded by DEXOR_CROSS itself.
+   *
+   * @param precedingWriters value chunk writers before this one in the same aligned chunk group
+   * @return whether a reference is bound, then the reference must be written before this column in
+   *     every row
+   * @throws UnsupportedOperationException if the reference is not named or is not such a column
+   */
+  public boolean bindCrossColumnReference(Iterable<ValueChunkWriter> precedingWriters) {
+    return bindCrossColumnReference(precedingWriters, false);
+  }
+
+  /**
+   * @param referenceToLowerCase whether the name of the reference is converted to lower case, as
+   *     the measurement ids of the chunk group are
+   * @see #bindCrossColumnReference(Iterable)
+   */
+  public boolean bindCrossColumnReference(
+      Iterable<ValueChunkWriter> precedingWriters, boolean referenceToLowerCase) {
+    if (pageWriter == null || !(pageWriter.getValueEncoder() instanceof DoubleDeXORCrossEncoder)) {
+      return false;
+    }
+    DoubleDeXORCrossEncoder encoder = (DoubleDeXORCrossEncoder) pageWriter.getValueEncoder();
+    String referenceMeasurementId = encoder.getReferenceMeasurementId();
+    if (referenceToLowerCase) {
+      referenceMeasurementId = referenceMeasurementId.toLowerCase();
+    }
+    if (referenceMeasurementId.isEmpty()) {
+      throw new UnsupportedOperationException(
+          "DEXOR_CROSS column "
+              + measurementId
+              + " must name its reference column by the property "
+              + Encoder.REFERENCE);
+    }
+    for (ValueChunkWriter writer : precedingWriters) {
+      if (writer.measurementId.equals(referenceMeasurementId)) {
+        if (writer.dataType != TSDataType.DOUBLE
+            || writer.encodingType == TSEncoding.DEXOR_CROSS
+            || writer.pageWriter == null) {
+          throw new UnsupportedOperationException(
+              "the reference "
+                  + referenceMeasurementId
+                  + " of DEXOR_CROSS column "
+                  + measurementId
+                  + " must be a DOUBLE column not encoded by DEXOR_CROSS");
+        }
+        encoder.setReferenceMeasurementId(referenceMeasurementId);
+        pageWriter.bindCrossColumnReference(writer.pageWriter);
+        return true;
+      }
+    }
+    throw new UnsupportedOperationException(
+        "the reference "
+            + referenceMeasurementId
+            + " of DEXOR_CROSS column "
+            + measurementId
+            + " is not a column registered before it");
+  }
+
   public void write(long time, long value, boolean isNull) {
     pageWriter.write(time, value, isNull);
   }
@@ -189,11 +264,7 @@ public class ValueChunkWriter {
   public void writeEmptyPageToPageBuffer() throws IOException {
     if (numOfPages == 1 && firstPageStatistics != null) {
       // if the first page is not an empty page
-      byte[] b = pageBuffer.toByteArray();
-      pageBuffer.reset();
-      pageBuffer.write(b, 0, this.sizeWithoutStatistic);
-      firstPageStatistics.serialize(pageBuffer);
-      pageBuffer.write(b, this.sizeWithoutStatistic, b.length - this.sizeWithoutStatistic);
+      insertFirstPageStatistics();
       firstPageStatistics = null;
     }
     pageWriter.writeEmptyPageIntoBuff(pageBuffer);
@@ -201,6 +272,8 @@ public class ValueChunkWriter {
   }
 
   public void writePageToPageBuffer() {
+    long startTime = System.nanoTime();
+    int startSize = pageBuffer.size();
     try {
       if (numOfPages == 0) {
         if (pageWriter.getStatistics().getCount() != 0) {
@@ -210,11 +283,7 @@ public class ValueChunkWriter {
         this.sizeWithoutStatistic = pageWriter.writePageHeaderAndDataIntoBuff(pageBuffer, true);
       } else if (numOfPages == 1) { // put the firstPageStatistics into pageBuffer
         if (firstPageStatistics != null) { // Consider previous page is an empty page
-          byte[] b = pageBuffer.toByteArray();
-          pageBuffer.reset();
-          pageBuffer.write(b, 0, this.sizeWithoutStatistic);
-          firstPageStatistics.serialize(pageBuffer);
-          pageBuffer.write(b, this.sizeWithoutStatistic, b.length - this.sizeWithoutStatistic);
+          insertFirstPageStatistics();
         }
         pageWriter.writePageHeaderAndDataIntoBuff(pageBuffer, false);
         firstPageStatistics = null;
@@ -225,6 +294,12 @@ public class ValueChunkWriter {
       // update statistics of this chunk
       numOfPages++;
       this.statistics.mergeStatistics(pageWriter.getStatistics());
+      TsFileMetrics.getInstance()
+          .recordPageSealed(
+              encodingType,
+              pageWriter.getStatistics().getCount(),
+              pageBuffer.size() - startSize,
+              System.nanoTime() - startTime);
     } catch (IOException e) {
       logger.error("meet error in pageWriter.writePageHeaderAndDataIntoBuff,ignore this page:", e);
     } finally {
@@ -254,11 +329,7 @@ public class ValueChunkWriter {
         }
       } else if (numOfPages == 1) { // put the firstPageStatistics into pageBuffer
         if (firstPageStatistics != null) {
-          byte[] b = pageBuffer.toByteArray();
-          pageBuffer.reset();
-          pageBuffer.write(b, 0, this.sizeWithoutStatistic);
-          firstPageStatistics.serialize(pageBuffer);
-          pageBuffer.write(b, this.sizeWithoutStatistic, b.length - this.sizeWithoutStatistic);
+          insertFirstPageStatistics();
         }
         ReadWriteForEncodingUtils.writeUnsignedVarInt(header.getUncompressedSize(), pageBuffer);
         if (header.getUncompressedSize() != 0) {
@@ -287,19 +358,25 @@ public class ValueChunkWriter {
     }
     numOfPages++;
     // write page content to temp PBAOS
-    try (WritableByteChannel channel = Channels.newChannel(pageBuffer)) {
-      channel.write(data);
-    } catch (IOException e) {
-      throw new PageException(e);
-    }
+    pageBuffer.write(data);
+  }
+
+  /** Put the statistics of the first page behind its header, once a second page comes. */
+  private void insertFirstPageStatistics() throws IOException {
+    PublicBAOS statisticsOut = new PublicBAOS();
+    firstPageStatistics.serialize(statisticsOut);
+    pageBuffer.insert(sizeWithoutStatistic, statisticsOut.getBuf(), 0, statisticsOut.size());
   }
 
   public void writeToFileWriter(TsFileIOWriter tsfileWriter) throws IOException {
     sealCurrentPage();
     writeAllPagesOfChunkToTsFile(tsfileWriter);
 
-    // reinit this chunk writer
-    pageBuffer.reset();
+    // reinit this chunk writer, handing the buffers back to the pool until the next chunk
+    pageBuffer.release();
+    if (pageWriter != null) {
+      pageWriter.releaseBuffers();
+    }
     numOfPages = 0;
     sizeWithoutStatistic = 0;
     firstPageStatistics = null;
@@ -337,6 +414,18 @@ public class ValueChunkWriter {
     if (pageWriter.getPointNumber() == maxNumberOfPointsInPage) {
       logger.debug("current line count reaches the upper bound, write page {}", measurementId);
       return true;
+    } else if (pageWriter.isSizeExact()) {
+      // the size is exact, seal the page as soon as the next row might not fit into it
+      long currentPageSize = pageWriter.estimateMaxMemSize();
+      if (currentPageSize + pageWriter.getOneItemMaxSize() > pageSizeThreshold) {
+        logger.debug(
+            "page is full, write page {}, pageSizeThreshold:{}, currentPageSize:{}, valueCountInOnePage:{}",
+            measurementId,
+            pageSizeThreshold,
+            currentPageSize,
+            pageWriter.getPointNumber());
+        return true;
+      }
     } else if (pageWriter.getPointNumber()
         >= valueCountInOnePageForNextCheck) { // need to check memory size
       // not checking the memory used for every value
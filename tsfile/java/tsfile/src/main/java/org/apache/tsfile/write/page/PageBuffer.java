@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.write.page;
+
+import org.apache.tsfile.utils.PublicBAOS;
+
+/**
+ * A {@link PublicBAOS} whose segment is taken from the {@link PageBufferPool}. It grows into a
+ * larger pooled segment, is reset in place when its page is sealed, and hands its segment back by
+ * {@link #release()} once the chunk it belongs to is written. The buffer stays usable after being
+ * released and takes a new segment on the next write. Not thread safe.
+ */
+public class PageBuffer extends PublicBAOS {
+
+  private static final byte[] EMPTY = new byte[0];
+
+  public PageBuffer() {
+    super(0);
+  }
+
+  @Override
+  protected void grow(int minCapacity) {
+    byte[] segment = PageBufferPool.acquire(Math.max(minCapacity, buf.length << 1));
+    System.arraycopy(buf, 0, segment, 0, count);
+    PageBufferPool.release(buf);
+    buf = segment;
+  }
+
+  /**
+   * Insert {@code len} bytes of {@code b} at {@code position} of this buffer, moving the bytes
+   * after it, e.g. the statistics of the first page of a chunk once a second page comes.
+   */
+  public void insert(int position, byte[] b, int off, int len) {
+    if (position < 0 || position > count) {
+      throw new IndexOutOfBoundsException();
+    }
+    int tail = count - position;
+    // extend the buffer by len bytes, then move the tail behind the inserted bytes
+    write(b, off, len);
+    System.arraycopy(buf, position, buf, position + len, tail);
+    System.arraycopy(b, off, buf, position, len);
+  }
+
+  /** Hand the segment back to the {@link PageBufferPool}, discarding the content. */
+  public void release() {
+    PageBufferPool.release(buf);
+    buf = EMPTY;
+    count = 0;
+  }
+}
@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.write.page;
+
+import org.apache.tsfile.common.conf.TSFileDescriptor;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Process-wide pool of the byte arrays pages are encoded, assembled and compressed in, so that the
+ * write path reuses the segments of sealed pages and flushed chunks instead of allocating and
+ * growing fresh arrays for every series of every flush. Segments are kept in power-of-two size
+ * classes, and the idle ones take at most {@link
+ * org.apache.tsfile.common.conf.TSFileConfig#getPageBufferPoolSizeInByte()} bytes; the others are
+ * left to the GC.
+ *
+ * <p>A segment taken by {@link #acquire(int)} is owned by the caller until it is handed back by
+ * {@link #release(byte[])}, after which the caller must not touch it any more. Unlike {@link
+ * org.apache.tsfile.compress.UnCompressBufferPool} the pool is shared by all threads, as the
+ * buffers of a writer may be sealed by the threads of a parallel flush.
+ */
+public class PageBufferPool {
+
+  /** 64 bytes, smaller requests are served by a segment of this size. */
+  private static final int MIN_SIZE_CLASS = 6;
+
+  /** 64 MB, larger segments are neither pooled nor rounded up. */
+  private static final int MAX_SIZE_CLASS = 26;
+
+  @SuppressWarnings("unchecked")
+  private static final ConcurrentLinkedQueue<byte[]>[] IDLE_SEGMENTS =
+      new ConcurrentLinkedQueue[MAX_SIZE_CLASS - MIN_SIZE_CLASS + 1];
+
+  private static final AtomicLong IDLE_BYTES = new AtomicLong();
+
+  static {
+    for (int i = 0; i < IDLE_SEGMENTS.length; i++) {
+      IDLE_SEGMENTS[i] = new ConcurrentLinkedQueue<>();
+    }
+  }
+
+  private PageBufferPool() {
+    // util class
+  }
+
+  /**
+   * @return a segment of at least {@code size} bytes, whose content is undefined
+   */
+  public static byte[] acquire(int size) {
+    int sizeClass = sizeClass(size);
+    if (sizeClass > MAX_SIZE_CLASS || getMaxIdleBytes() <= 0) {
+      // not pooled, no need to round the size up
+      return new byte[size];
+    }
+    byte[] segment = IDLE_SEGMENTS[sizeClass - MIN_SIZE_CLASS].poll();
+    if (segment != null) {
+      IDLE_BYTES.addAndGet(-segment.length);
+      return segment;
+    }
+    return new byte[1 << sizeClass];
+  }
+
+  /**
+   * Gives a segment back to the pool. Segments that do not fit a size class, or that would exceed
+   * the idle limit, are dropped.
+   */
+  public static void release(byte[] segment) {
+    int length = segment.length;
+    if (Integer.bitCount(length) != 1
+        || length < 1 << MIN_SIZE_CLASS
+        || length > 1 << MAX_SIZE_CLASS) {
+      return;
+    }
+    if (IDLE_BYTES.addAndGet(length) > getMaxIdleBytes()) {
+      IDLE_BYTES.addAndGet(-length);
+      return;
+    }
+    IDLE_SEGMENTS[Integer.numberOfTrailingZeros(length) - MIN_SIZE_CLASS].offer(segment);
+  }
+
+  private static long getMaxIdleBytes() {
+    return TSFileDescriptor.getInstance().getConfig().getPageBufferPoolSizeInByte();
+  }
+
+  /** The bytes of the idle segments, only used for tests and metrics. */
+  public static long getIdleBytes() {
+    return IDLE_BYTES.get();
+  }
+
+  /** Drop all idle segments. */
+  public static void clear() {
+    for (ConcurrentLinkedQueue<byte[]> segments : IDLE_SEGMENTS) {
+      byte[] segment;
+      while ((segment = segments.poll()) != null) {
+        IDLE_BYTES.addAndGet(-segment.length);
+      }
+    }
+  }
+
+  private static int sizeClass(int size) {
+    if (size <= 1 << MIN_SIZE_CLASS) {
+      return MIN_SIZE_CLASS;
+    }
+    return 32 - Integer.numberOfLeadingZeros(size - 1);
+  }
+}
@@ -38,8 +38,6 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.io.Serializable;
 import java.nio.ByteBuffer;
-import java.nio.channels.Channels;
-import java.nio.channels.WritableByteChannel;
 
 /**
  * This writer is used to write time-value into a page. It consists of a time encoder, a value
@@ -55,10 +53,10 @@ public class PageWriter {
 
   // time
   private Encoder timeEncoder;
-  private PublicBAOS timeOut;
+  private PageBuffer timeOut;
   // value
   private Encoder valueEncoder;
-  private PublicBAOS valueOut;
+  private PageBuffer valueOut;
 
   /**
    * statistic of current page. It will be reset after calling {@code
@@ -78,8 +76,8 @@ public class PageWriter {
   }
 
   private PageWriter(Encoder timeEncoder, Encoder valueEncoder) {
-    this.timeOut = new PublicBAOS();
-    this.valueOut = new PublicBAOS();
+    this.timeOut = new PageBuffer();
+    this.valueOut = new PageBuffer();
     this.timeEncoder = timeEncoder;
     this.valueEncoder = valueEncoder;
     this.encryptParam = EncryptUtils.getEncryptParameter();
@@ -96,8 +94,8 @@ public class PageWriter {
   }
 
   private PageWriter(Encoder timeEncoder, Encoder valueEncoder, EncryptParameter encryptParam) {
-    this.timeOut = new PublicBAOS();
-    this.valueOut = new PublicBAOS();
+    this.timeOut = new PageBuffer();
+    this.valueOut = new PageBuffer();
     this.timeEncoder = timeEncoder;
     this.valueEncoder = valueEncoder;
     this.encryptParam = encryptParam;
@@ -163,38 +161,66 @@ public class PageWriter {
 
   /** write time series into encoder */
   public void write(long[] timestamps, int[] values, int batchSize) {
-    for (int i = 0; i < batchSize; i++) {
-      timeEncoder.encode(timestamps[i], timeOut);
-      valueEncoder.encode(values[i], valueOut);
+    write(timestamps, values, batchSize, 0);
+  }
+
+  /** write a column slice starting at {@code arrayOffset} into encoder */
+  public void write(long[] timestamps, int[] values, int batchSize, int arrayOffset) {
+    if (batchSize == 0) {
+      return;
     }
-    statistics.update(timestamps, values, batchSize);
+    int end = arrayOffset + batchSize;
+    timeEncoder.encode(timestamps, arrayOffset, end, timeOut);
+    valueEncoder.encode(values, arrayOffset, end, valueOut);
+    statistics.update(timestamps, values, batchSize, arrayOffset);
   }
 
   /** write time series into encoder */
   public void write(long[] timestamps, long[] values, int batchSize) {
-    for (int i = 0; i < batchSize; i++) {
-      timeEncoder.encode(timestamps[i], timeOut);
-      valueEncoder.encode(values[i], valueOut);
+    write(timestamps, values, batchSize, 0);
+  }
+
+  /** write a column slice starting at {@code arrayOffset} into encoder */
+  public void write(long[] timestamps, long[] values, int batchSize, int arrayOffset) {
+    if (batchSize == 0) {
+      return;
     }
-    statistics.update(timestamps, values, batchSize);
+    int end = arrayOffset + batchSize;
+    timeEncoder.encode(timestamps, arrayOffset, end, timeOut);
+    valueEncoder.encode(values, arrayOffset, end, valueOut);
+    statistics.update(timestamps, values, batchSize, arrayOffset);
   }
 
   /** write time series into encoder */
   public void write(long[] timestamps, float[] values, int batchSize) {
-    for (int i = 0; i < batchSize; i++) {
-      timeEncoder.encode(timestamps[i], timeOut);
-      valueEncoder.encode(values[i], valueOut);
+    write(timestamps, values, batchSize, 0);
+  }
+
+  /** write a column slice starting at {@code arrayOffset} into encoder */
+  public void write(long[] timestamps, float[] values, int batchSize, int arrayOffset) {
+    if (batchSize == 0) {
+      return;
     }
-    statistics.update(timestamps, values, batchSize);
+    int end = arrayOffset + batchSize;
+    timeEncoder.encode(timestamps, arrayOffset, end, timeOut);
+    valueEncoder.encode(values, arrayOffset, end, valueOut);
+    statistics.update(timestamps, values, batchSize, arrayOffset);
   }
 
   /** write time series into encoder */
   public void write(long[] timestamps, double[] values, int batchSize) {
-    for (int i = 0; i < batchSize; i++) {
-      timeEncoder.encode(timestamps[i], timeOut);
-      valueEncoder.encode(values[i], valueOut);
+    write(timestamps, values, batchSize, 0);
+  }
+
+  /** write a column slice starting at {@code arrayOffset} into encoder */
+  public void write(long[] timestamps, double[] values, int batchSize, int arrayOffset) {
+    if (batchSize == 0) {
+      return;
     }
-    statistics.update(timestamps, values, batchSize);
+    int end = arrayOffset + batchSize;
+    timeEncoder.encode(timestamps, arrayOffset, end, timeOut);
+    valueEncoder.encode(values, arrayOffset, end, valueOut);
+    statistics.update(timestamps, values, batchSize, arrayOffset);
   }
 
   /** write time series into encoder */
@@ -220,7 +246,19 @@ public class PageWriter {
    */
   public ByteBuffer getUncompressedBytes() throws IOException {
     prepareEndWriteOnePage();
-    ByteBuffer buffer = ByteBuffer.allocate(timeOut.size() + valueOut.size() + 4);
+    return putUncompressedBytes(ByteBuffer.allocate(getMaxUncompressedSize()));
+  }
+
+  private int getMaxUncompressedSize() {
+    return timeOut.size() + valueOut.size() + 4;
+  }
+
+  /**
+   * Put the page of {@link #getUncompressedBytes()} into {@code buffer}.
+   *
+   * @return {@code buffer}, flipped
+   */
+  private ByteBuffer putUncompressedBytes(ByteBuffer buffer) {
     ReadWriteForEncodingUtils.writeUnsignedVarInt(timeOut.size(), buffer);
     buffer.put(timeOut.getBuf(), 0, timeOut.size());
     buffer.put(valueOut.getBuf(), 0, valueOut.size());
@@ -235,68 +273,81 @@ public class PageWriter {
       return 0;
     }
 
-    ByteBuffer pageData = getUncompressedBytes();
-    int uncompressedSize = pageData.remaining();
-    int compressedSize;
+    prepareEndWriteOnePage();
+    // the page is assembled and compressed in pooled segments, handed back once it is copied into
+    // the page buffer
+    byte[] uncompressedBytes = PageBufferPool.acquire(getMaxUncompressedSize());
     byte[] compressedBytes = null;
-
-    if (compressor.getType().equals(CompressionType.UNCOMPRESSED)) {
-      compressedSize = uncompressedSize;
-    } else if (compressor.getType().equals(CompressionType.GZIP)) {
-      compressedBytes =
-          compressor.compress(pageData.array(), pageData.position(), uncompressedSize);
-      compressedSize = compressedBytes.length;
-    } else {
-      compressedBytes = new byte[compressor.getMaxBytesForCompression(uncompressedSize)];
-      // data is never a directByteBuffer now, so we can use data.array()
-      compressedSize =
-          compressor.compress(
-              pageData.array(), pageData.position(), uncompressedSize, compressedBytes);
-    }
-
-    // write the page header to IOWriter
-    int sizeWithoutStatistic = 0;
-    if (first) {
-      sizeWithoutStatistic +=
-          ReadWriteForEncodingUtils.writeUnsignedVarInt(uncompressedSize, pageBuffer);
-      sizeWithoutStatistic +=
-          ReadWriteForEncodingUtils.writeUnsignedVarInt(compressedSize, pageBuffer);
-    } else {
-      ReadWriteForEncodingUtils.writeUnsignedVarInt(uncompressedSize, pageBuffer);
-      ReadWriteForEncodingUtils.writeUnsignedVarInt(compressedSize, pageBuffer);
-      statistics.serialize(pageBuffer);
-    }
-
-    IEncryptor encryptor = IEncryptor.getEncryptor(encryptParam);
-
-    // write page content to temp PBAOS
-    logger.trace("start to flush a page data into buffer, buffer position {} ", pageBuffer.size());
-    if (compressor.getType().equals(CompressionType.UNCOMPRESSED)) {
-      if (encryptor.getEncryptionType().equals(EncryptionType.UNENCRYPTED)) {
-        try (WritableByteChannel channel = Channels.newChannel(pageBuffer)) {
-          channel.write(pageData);
-        }
+    try {
+      ByteBuffer pageData = putUncompressedBytes(ByteBuffer.wrap(uncompressedBytes));
+      int uncompressedSize = pageData.remaining();
+      int compressedSize;
+
+      if (compressor.getType().equals(CompressionType.UNCOMPRESSED)) {
+        compressedSize = uncompressedSize;
+      } else if (compressor.getType().equals(CompressionType.GZIP)) {
+        compressedBytes =
+            compressor.compress(pageData.array(), pageData.position(), uncompressedSize);
+        compressedSize = compressedBytes.length;
       } else {
-        byte[] encryptedBytes = null;
-        encryptedBytes = encryptor.encrypt(pageData.array(), pageData.position(), uncompressedSize);
+        compressedBytes =
+            PageBufferPool.acquire(compressor.getMaxBytesForCompression(uncompressedSize));
         // data is never a directByteBuffer now, so we can use data.array()
-        int encryptedSize = encryptedBytes.length;
-        pageBuffer.write(encryptedBytes, 0, encryptedSize);
+        compressedSize =
+            compressor.compress(
+                pageData.array(), pageData.position(), uncompressedSize, compressedBytes);
       }
 
-    } else {
-      if (encryptor.getEncryptionType().equals(EncryptionType.UNENCRYPTED)) {
-        pageBuffer.write(compressedBytes, 0, compressedSize);
+      // write the page header to IOWriter
+      int sizeWithoutStatistic = 0;
+      if (first) {
+        sizeWithoutStatistic +=
+            ReadWriteForEncodingUtils.writeUnsignedVarInt(uncompressedSize, pageBuffer);
+        sizeWithoutStatistic +=
+            ReadWriteForEncodingUtils.writeUnsignedVarInt(compressedSize, pageBuffer);
       } else {
-        byte[] encryptedBytes = null;
-        encryptedBytes = encryptor.encrypt(compressedBytes, 0, compressedSize);
-        // data is never a directByteBuffer now, so we can use data.array()
-        int encryptedSize = encryptedBytes.length;
-        pageBuffer.write(encryptedBytes, 0, encryptedSize);
+        ReadWriteForEncodingUtils.writeUnsignedVarInt(uncompressedSize, pageBuffer);
+        ReadWriteForEncodingUtils.writeUnsignedVarInt(compressedSize, pageBuffer);
+        statistics.serialize(pageBuffer);
+      }
+
+      IEncryptor encryptor = IEncryptor.getEncryptor(encryptParam);
+
+      // write page content to temp PBAOS
+      logger.trace(
+          "start to flush a page data into buffer, buffer position {} ", pageBuffer.size());
+      if (compressor.getType().equals(CompressionType.UNCOMPRESSED)) {
+        if (encryptor.getEncryptionType().equals(EncryptionType.UNENCRYPTED)) {
+          pageBuffer.write(pageData.array(), pageData.position(), uncompressedSize);
+        } else {
+          byte[] encryptedBytes = null;
+          encryptedBytes =
+              encryptor.encrypt(pageData.array(), pageData.position(), uncompressedSize);
+          // data is never a directByteBuffer now, so we can use data.array()
+          int encryptedSize = encryptedBytes.length;
+          pageBuffer.write(encryptedBytes, 0, encryptedSize);
+        }
+
+      } else {
+        if (encryptor.getEncryptionType().equals(EncryptionType.UNENCRYPTED)) {
+          pageBuffer.write(compressedBytes, 0, compressedSize);
+        } else {
+          byte[] encryptedBytes = null;
+          encryptedBytes = encryptor.encrypt(compressedBytes, 0, compressedSize);
+          // data is never a directByteBuffer now, so we can use data.array()
+          int encryptedSize = encryptedBytes.length;
+          pageBuffer.write(encryptedBytes, 0, encryptedSize);
+        }
+      }
+      logger.trace(
+          "start to flush a page data into buffer, buffer position {} ", pageBuffer.size());
+      return sizeWithoutStatistic;
+    } finally {
+      PageBufferPool.release(uncompressedBytes);
+      if (compressedBytes != null) {
+        PageBufferPool.release(compressedBytes);
       }
     }
-    logger.trace("start to flush a page data into buffer, buffer position {} ", pageBuffer.size());
-    return sizeWithoutStatistic;
   }
 
   /**
@@ -312,6 +363,19 @@ public class PageWriter {
         + valueEncoder.getMaxByteSize();
   }
 
+  /**
+   * Whether {@link #estimateMaxMemSize()} tracks the encoded value size exactly, see {@link
+   * Encoder#isSizeExact()}.
+   */
+  public boolean isSizeExact() {
+    return valueEncoder.isSizeExact();
+  }
+
+  /** The most {@link #estimateMaxMemSize()} can grow by when one more point is written. */
+  public int getOneItemMaxSize() {
+    return timeEncoder.getOneItemMaxSize() + valueEncoder.getOneItemMaxSize();
+  }
+
   /** reset this page */
   public void reset(IMeasurementSchema measurementSchema) {
     timeOut.reset();
@@ -319,6 +383,12 @@ public class PageWriter {
     statistics = Statistics.getStatsByType(measurementSchema.getType());
   }
 
+  /** Hand the buffers of this page back to the {@link PageBufferPool} once its chunk is written. */
+  public void releaseBuffers() {
+    timeOut.release();
+    valueOut.release();
+  }
+
   public void setTimeEncoder(Encoder encoder) {
     this.timeEncoder = encoder;
   }
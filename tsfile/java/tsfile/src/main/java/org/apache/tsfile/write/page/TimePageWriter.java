@@ -34,8 +34,6 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
-import java.nio.channels.Channels;
-import java.nio.channels.WritableByteChannel;
 
 /**
  * This writer is used to write time into a page. It consists of a time encoder and respective
@@ -51,7 +49,7 @@ public class TimePageWriter {
 
   // time
   private Encoder timeEncoder;
-  private final PublicBAOS timeOut;
+  private final PageBuffer timeOut;
 
   /**
    * statistic of current page. It will be reset after calling {@code
@@ -60,7 +58,7 @@ public class TimePageWriter {
   private TimeStatistics statistics;
 
   public TimePageWriter(Encoder timeEncoder, ICompressor compressor) {
-    this.timeOut = new PublicBAOS();
+    this.timeOut = new PageBuffer();
     this.timeEncoder = timeEncoder;
     this.statistics = new TimeStatistics();
     this.compressor = compressor;
@@ -69,7 +67,7 @@ public class TimePageWriter {
 
   public TimePageWriter(
       Encoder timeEncoder, ICompressor compressor, EncryptParameter encryptParam) {
-    this.timeOut = new PublicBAOS();
+    this.timeOut = new PageBuffer();
     this.timeEncoder = timeEncoder;
     this.statistics = new TimeStatistics();
     this.compressor = compressor;
@@ -84,9 +82,7 @@ public class TimePageWriter {
 
   /** write time series into encoder */
   public void write(long[] timestamps, int batchSize, int arrayOffset) {
-    for (int i = arrayOffset; i < batchSize + arrayOffset; i++) {
-      timeEncoder.encode(timestamps[i], timeOut);
-    }
+    timeEncoder.encode(timestamps, arrayOffset, batchSize + arrayOffset, timeOut);
     if (batchSize != 0) {
       statistics.update(timestamps, batchSize, arrayOffset);
     }
@@ -105,7 +101,19 @@ public class TimePageWriter {
    */
   public ByteBuffer getUncompressedBytes() throws IOException {
     prepareEndWriteOnePage();
-    ByteBuffer buffer = ByteBuffer.allocate(timeOut.size());
+    return putUncompressedBytes(ByteBuffer.allocate(getMaxUncompressedSize()));
+  }
+
+  private int getMaxUncompressedSize() {
+    return timeOut.size();
+  }
+
+  /**
+   * Put the page of {@link #getUncompressedBytes()} into {@code buffer}.
+   *
+   * @return {@code buffer}, flipped
+   */
+  private ByteBuffer putUncompressedBytes(ByteBuffer buffer) {
     buffer.put(timeOut.getBuf(), 0, timeOut.size());
     buffer.flip();
     return buffer;
@@ -118,69 +126,80 @@ public class TimePageWriter {
       return 0;
     }
 
-    ByteBuffer pageData = getUncompressedBytes();
-    int uncompressedSize = pageData.remaining();
-    int compressedSize;
+    prepareEndWriteOnePage();
+    // the page is assembled and compressed in pooled segments, handed back once it is copied into
+    // the page buffer
+    byte[] uncompressedBytes = PageBufferPool.acquire(getMaxUncompressedSize());
     byte[] compressedBytes = null;
-
-    if (compressor.getType().equals(CompressionType.UNCOMPRESSED)) {
-      compressedSize = uncompressedSize;
-    } else if (compressor.getType().equals(CompressionType.GZIP)) {
-      compressedBytes =
-          compressor.compress(pageData.array(), pageData.position(), uncompressedSize);
-      compressedSize = compressedBytes.length;
-    } else {
-      compressedBytes = new byte[compressor.getMaxBytesForCompression(uncompressedSize)];
-      // data is never a directByteBuffer now, so we can use data.array()
-      compressedSize =
-          compressor.compress(
-              pageData.array(), pageData.position(), uncompressedSize, compressedBytes);
-    }
-
-    // write the page header to IOWriter
-    int sizeWithoutStatistic = 0;
-    if (first) {
-      sizeWithoutStatistic +=
-          ReadWriteForEncodingUtils.writeUnsignedVarInt(uncompressedSize, pageBuffer);
-      sizeWithoutStatistic +=
-          ReadWriteForEncodingUtils.writeUnsignedVarInt(compressedSize, pageBuffer);
-    } else {
-      ReadWriteForEncodingUtils.writeUnsignedVarInt(uncompressedSize, pageBuffer);
-      ReadWriteForEncodingUtils.writeUnsignedVarInt(compressedSize, pageBuffer);
-      statistics.serialize(pageBuffer);
-    }
-
-    // write page content to temp PBAOS
-    logger.trace(
-        "start to flush a time page data into buffer, buffer position {} ", pageBuffer.size());
-    IEncryptor encryptor = IEncryptor.getEncryptor(encryptParam);
-    if (compressor.getType().equals(CompressionType.UNCOMPRESSED)) {
-      if (encryptor.getEncryptionType().equals(EncryptionType.UNENCRYPTED)) {
-        try (WritableByteChannel channel = Channels.newChannel(pageBuffer)) {
-          channel.write(pageData);
-        }
+    try {
+      ByteBuffer pageData = putUncompressedBytes(ByteBuffer.wrap(uncompressedBytes));
+      int uncompressedSize = pageData.remaining();
+      int compressedSize;
+
+      if (compressor.getType().equals(CompressionType.UNCOMPRESSED)) {
+        compressedSize = uncompressedSize;
+      } else if (compressor.getType().equals(CompressionType.GZIP)) {
+        compressedBytes =
+            compressor.compress(pageData.array(), pageData.position(), uncompressedSize);
+        compressedSize = compressedBytes.length;
       } else {
-        byte[] encryptedBytes = null;
-        encryptedBytes = encryptor.encrypt(pageData.array(), pageData.position(), uncompressedSize);
+        compressedBytes =
+            PageBufferPool.acquire(compressor.getMaxBytesForCompression(uncompressedSize));
         // data is never a directByteBuffer now, so we can use data.array()
-        int encryptedSize = encryptedBytes.length;
-        pageBuffer.write(encryptedBytes, 0, encryptedSize);
+        compressedSize =
+            compressor.compress(
+                pageData.array(), pageData.position(), uncompressedSize, compressedBytes);
       }
 
-    } else {
-      if (encryptor.getEncryptionType().equals(EncryptionType.UNENCRYPTED)) {
-        pageBuffer.write(compressedBytes, 0, compressedSize);
+      // write the page header to IOWriter
+      int sizeWithoutStatistic = 0;
+      if (first) {
+        sizeWithoutStatistic +=
+            ReadWriteForEncodingUtils.writeUnsignedVarInt(uncompressedSize, pageBuffer);
+        sizeWithoutStatistic +=
+            ReadWriteForEncodingUtils.writeUnsignedVarInt(compressedSize, pageBuffer);
       } else {
-        byte[] encryptedBytes = null;
-        encryptedBytes = encryptor.encrypt(compressedBytes, 0, compressedSize);
-        // data is never a directByteBuffer now, so we can use data.array()
-        int encryptedSize = encryptedBytes.length;
-        pageBuffer.write(encryptedBytes, 0, encryptedSize);
+        ReadWriteForEncodingUtils.writeUnsignedVarInt(uncompressedSize, pageBuffer);
+        ReadWriteForEncodingUtils.writeUnsignedVarInt(compressedSize, pageBuffer);
+        statistics.serialize(pageBuffer);
+      }
+
+      // write page content to temp PBAOS
+      logger.trace(
+          "start to flush a time page data into buffer, buffer position {} ", pageBuffer.size());
+      IEncryptor encryptor = IEncryptor.getEncryptor(encryptParam);
+      if (compressor.getType().equals(CompressionType.UNCOMPRESSED)) {
+        if (encryptor.getEncryptionType().equals(EncryptionType.UNENCRYPTED)) {
+          pageBuffer.write(pageData.array(), pageData.position(), uncompressedSize);
+        } else {
+          byte[] encryptedBytes = null;
+          encryptedBytes =
+              encryptor.encrypt(pageData.array(), pageData.position(), uncompressedSize);
+          // data is never a directByteBuffer now, so we can use data.array()
+          int encryptedSize = encryptedBytes.length;
+          pageBuffer.write(encryptedBytes, 0, encryptedSize);
+        }
+
+      } else {
+        if (encryptor.getEncryptionType().equals(EncryptionType.UNENCRYPTED)) {
+          pageBuffer.write(compressedBytes, 0, compressedSize);
+        } else {
+          byte[] encryptedBytes = null;
+          encryptedBytes = encryptor.encrypt(compressedBytes, 0, compressedSize);
+          // data is never a directByteBuffer now, so we can use data.array()
+          int encryptedSize = encryptedBytes.length;
+          pageBuffer.write(encryptedBytes, 0, encryptedSize);
+        }
+      }
+      logger.trace(
+          "finish flushing a time page data into buffer, buffer position {} ", pageBuffer.size());
+      return sizeWithoutStatistic;
+    } finally {
+      PageBufferPool.release(uncompressedBytes);
+      if (compressedBytes != null) {
+        PageBufferPool.release(compressedBytes);
       }
     }
-    logger.trace(
-        "finish flushing a time page data into buffer, buffer position {} ", pageBuffer.size());
-    return sizeWithoutStatistic;
   }
 
   /**
@@ -199,6 +218,11 @@ public class TimePageWriter {
     statistics = new TimeStatistics();
   }
 
+  /** Hand the buffers of this page back to the {@link PageBufferPool} once its chunk is written. */
+  public void releaseBuffers() {
+    timeOut.release();
+  }
+
   public void setTimeEncoder(Encoder encoder) {
     this.timeEncoder = encoder;
   }
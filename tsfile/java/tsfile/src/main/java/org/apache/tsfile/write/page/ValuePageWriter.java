@@ -19,6 +19,7 @@
 package org.apache.tsfile.write.page;
 
 import org.apache.tsfile.compress.ICompressor;
+import org.apache.tsfile.encoding.encoder.DoubleDeXORCrossEncoder;
 import org.apache.tsfile.encoding.encoder.Encoder;
 import org.apache.tsfile.encrypt.EncryptParameter;
 import org.apache.tsfile.encrypt.EncryptUtils;
@@ -37,8 +38,7 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.io.Serializable;
 import java.nio.ByteBuffer;
-import java.nio.channels.Channels;
-import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
 
 /**
  * This writer is used to write value into a page. It consists of a value encoder and respective
@@ -53,7 +53,7 @@ public class ValuePageWriter {
 
   // value
   private Encoder valueEncoder;
-  private final PublicBAOS valueOut;
+  private final PageBuffer valueOut;
 
   /**
    * statistic of current page. It will be reset after calling {@code
@@ -65,15 +65,25 @@ public class ValuePageWriter {
 
   private int size;
 
-  private final PublicBAOS bitmapOut;
+  private final PageBuffer bitmapOut;
 
   private static final int MASK = 1 << 7;
 
+  private static final int INITIAL_TAPPED_SIZE = 64;
+
+  /** the reference column of a DEXOR_CROSS column, null for other columns */
+  private ValuePageWriter referencePageWriter;
+
+  /** values of the current page, recorded only if this column is referenced by another column */
+  private double[] tappedValues;
+
+  private boolean[] tappedNotNull;
+
   public ValuePageWriter(Encoder valueEncoder, ICompressor compressor, TSDataType dataType) {
-    this.valueOut = new PublicBAOS();
+    this.valueOut = new PageBuffer();
     this.bitmap = 0;
     this.size = 0;
-    this.bitmapOut = new PublicBAOS();
+    this.bitmapOut = new PageBuffer();
     this.valueEncoder = valueEncoder;
     this.statistics = Statistics.getStatsByType(dataType);
     this.compressor = compressor;
@@ -85,10 +95,10 @@ public class ValuePageWriter {
       ICompressor compressor,
       TSDataType dataType,
       EncryptParameter encryptParam) {
-    this.valueOut = new PublicBAOS();
+    this.valueOut = new PageBuffer();
     this.bitmap = 0;
     this.size = 0;
-    this.bitmapOut = new PublicBAOS();
+    this.bitmapOut = new PageBuffer();
     this.valueEncoder = valueEncoder;
     this.statistics = Statistics.getStatsByType(dataType);
     this.compressor = compressor;
@@ -142,9 +152,13 @@ public class ValuePageWriter {
 
   /** write a time value pair into encoder */
   public void write(long time, double value, boolean isNull) {
+    int row = size;
     setBit(isNull);
     if (!isNull) {
-      valueEncoder.encode(value, valueOut);
+      if (tappedValues != null) {
+        tap(row, value);
+      }
+      encode(row, value);
       statistics.update(time, value);
     }
   }
@@ -158,7 +172,54 @@ public class ValuePageWriter {
     }
   }
 
+  private void encode(int row, double value) {
+    if (referencePageWriter == null) {
+      valueEncoder.encode(value, valueOut);
+    } else {
+      boolean hasReference = referencePageWriter.hasTappedValue(row);
+      ((DoubleDeXORCrossEncoder) valueEncoder)
+          .encode(
+              value,
+              hasReference,
+              hasReference ? referencePageWriter.tappedValues[row] : 0,
+              valueOut);
+    }
+  }
+
+  private void tap(int row, double value) {
+    tappedValues[row] = value;
+    tappedNotNull[row] = true;
+  }
+
+  private boolean hasTappedValue(int row) {
+    // rows of this page that have not been written yet are treated as null
+    return tappedValues != null && row < size && row < tappedNotNull.length && tappedNotNull[row];
+  }
+
+  /**
+   * Let a DEXOR_CROSS column predict its values from the same-row values of this column. Both
+   * columns must belong to the same aligned chunk group, so that their pages are sealed together.
+   */
+  public void bindCrossColumnReference(ValuePageWriter referencePageWriter) {
+    if (!(valueEncoder instanceof DoubleDeXORCrossEncoder)) {
+      return;
+    }
+    if (referencePageWriter.tappedValues == null) {
+      referencePageWriter.tappedValues = new double[INITIAL_TAPPED_SIZE];
+      referencePageWriter.tappedNotNull = new boolean[INITIAL_TAPPED_SIZE];
+    }
+    this.referencePageWriter = referencePageWriter;
+  }
+
   private void setBit(boolean isNull) {
+    if (tappedValues != null) {
+      if (size >= tappedValues.length) {
+        int newLength = Math.max(size + 1, tappedValues.length << 1);
+        tappedValues = Arrays.copyOf(tappedValues, newLength);
+        tappedNotNull = Arrays.copyOf(tappedNotNull, newLength);
+      }
+      tappedNotNull[size] = false;
+    }
     if (!isNull) {
       bitmap |= (MASK >>> (size % 8));
     }
@@ -221,9 +282,13 @@ public class ValuePageWriter {
   public void write(
       long[] timestamps, double[] values, boolean[] isNull, int batchSize, int arrayOffset) {
     for (int i = arrayOffset; i < batchSize + arrayOffset; i++) {
+      int row = size;
       setBit(isNull[i]);
       if (!isNull[i]) {
-        valueEncoder.encode(values[i], valueOut);
+        if (tappedValues != null) {
+          tap(row, values[i]);
+        }
+        encode(row, values[i]);
         statistics.update(timestamps[i], values[i]);
       }
     }
@@ -257,7 +322,19 @@ public class ValuePageWriter {
    */
   public ByteBuffer getUncompressedBytes() throws IOException {
     prepareEndWriteOnePage();
-    ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES + bitmapOut.size() + valueOut.size());
+    return putUncompressedBytes(ByteBuffer.allocate(getMaxUncompressedSize()));
+  }
+
+  private int getMaxUncompressedSize() {
+    return Integer.BYTES + bitmapOut.size() + valueOut.size();
+  }
+
+  /**
+   * Put the page of {@link #getUncompressedBytes()} into {@code buffer}.
+   *
+   * @return {@code buffer}, flipped
+   */
+  private ByteBuffer putUncompressedBytes(ByteBuffer buffer) {
     buffer.putInt(size);
     buffer.put(bitmapOut.getBuf(), 0, bitmapOut.size());
     buffer.put(valueOut.getBuf(), 0, valueOut.size());
@@ -279,66 +356,79 @@ public class ValuePageWriter {
       return writeEmptyPageIntoBuff(pageBuffer);
     }
 
-    ByteBuffer pageData = getUncompressedBytes();
-    int uncompressedSize = pageData.remaining();
-    int compressedSize;
+    prepareEndWriteOnePage();
+    // the page is assembled and compressed in pooled segments, handed back once it is copied into
+    // the page buffer
+    byte[] uncompressedBytes = PageBufferPool.acquire(getMaxUncompressedSize());
     byte[] compressedBytes = null;
-
-    if (compressor.getType().equals(CompressionType.UNCOMPRESSED)) {
-      compressedSize = uncompressedSize;
-    } else if (compressor.getType().equals(CompressionType.GZIP)) {
-      compressedBytes =
-          compressor.compress(pageData.array(), pageData.position(), uncompressedSize);
-      compressedSize = compressedBytes.length;
-    } else {
-      compressedBytes = new byte[compressor.getMaxBytesForCompression(uncompressedSize)];
-      // data is never a directByteBuffer now, so we can use data.array()
-      compressedSize =
-          compressor.compress(
-              pageData.array(), pageData.position(), uncompressedSize, compressedBytes);
-    }
-
-    // write the page header to IOWriter
-    int sizeWithoutStatistic = 0;
-    if (first) {
-      sizeWithoutStatistic +=
-          ReadWriteForEncodingUtils.writeUnsignedVarInt(uncompressedSize, pageBuffer);
-      sizeWithoutStatistic +=
-          ReadWriteForEncodingUtils.writeUnsignedVarInt(compressedSize, pageBuffer);
-    } else {
-      ReadWriteForEncodingUtils.writeUnsignedVarInt(uncompressedSize, pageBuffer);
-      ReadWriteForEncodingUtils.writeUnsignedVarInt(compressedSize, pageBuffer);
-      statistics.serialize(pageBuffer);
-    }
-    IEncryptor encryptor = IEncryptor.getEncryptor(encryptParam);
-    // write page content to temp PBAOS
-    logger.trace("start to flush a page data into buffer, buffer position {} ", pageBuffer.size());
-    if (compressor.getType().equals(CompressionType.UNCOMPRESSED)) {
-      if (encryptor.getEncryptionType().equals(EncryptionType.UNENCRYPTED)) {
-        try (WritableByteChannel channel = Channels.newChannel(pageBuffer)) {
-          channel.write(pageData);
-        }
+    try {
+      ByteBuffer pageData = putUncompressedBytes(ByteBuffer.wrap(uncompressedBytes));
+      int uncompressedSize = pageData.remaining();
+      int compressedSize;
+
+      if (compressor.getType().equals(CompressionType.UNCOMPRESSED)) {
+        compressedSize = uncompressedSize;
+      } else if (compressor.getType().equals(CompressionType.GZIP)) {
+        compressedBytes =
+            compressor.compress(pageData.array(), pageData.position(), uncompressedSize);
+        compressedSize = compressedBytes.length;
       } else {
-        byte[] encryptedBytes = null;
-        encryptedBytes = encryptor.encrypt(pageData.array(), pageData.position(), uncompressedSize);
+        compressedBytes =
+            PageBufferPool.acquire(compressor.getMaxBytesForCompression(uncompressedSize));
         // data is never a directByteBuffer now, so we can use data.array()
-        int encryptedSize = encryptedBytes.length;
-        pageBuffer.write(encryptedBytes, 0, encryptedSize);
+        compressedSize =
+            compressor.compress(
+                pageData.array(), pageData.position(), uncompressedSize, compressedBytes);
       }
 
-    } else {
-      if (encryptor.getEncryptionType().equals(EncryptionType.UNENCRYPTED)) {
-        pageBuffer.write(compressedBytes, 0, compressedSize);
+      // write the page header to IOWriter
+      int sizeWithoutStatistic = 0;
+      if (first) {
+        sizeWithoutStatistic +=
+            ReadWriteForEncodingUtils.writeUnsignedVarInt(uncompressedSize, pageBuffer);
+        sizeWithoutStatistic +=
+            ReadWriteForEncodingUtils.writeUnsignedVarInt(compressedSize, pageBuffer);
       } else {
-        byte[] encryptedBytes = null;
-        encryptedBytes = encryptor.encrypt(compressedBytes, 0, compressedSize);
-        // data is never a directByteBuffer now, so we can use data.array()
-        int encryptedSize = encryptedBytes.length;
-        pageBuffer.write(encryptedBytes, 0, encryptedSize);
+        ReadWriteForEncodingUtils.writeUnsignedVarInt(uncompressedSize, pageBuffer);
+        ReadWriteForEncodingUtils.writeUnsignedVarInt(compressedSize, pageBuffer);
+        statistics.serialize(pageBuffer);
+      }
+      IEncryptor encryptor = IEncryptor.getEncryptor(encryptParam);
+      // write page content to temp PBAOS
+      logger.trace(
+          "start to flush a page data into buffer, buffer position {} ", pageBuffer.size());
+      if (compressor.getType().equals(CompressionType.UNCOMPRESSED)) {
+        if (encryptor.getEncryptionType().equals(EncryptionType.UNENCRYPTED)) {
+          pageBuffer.write(pageData.array(), pageData.position(), uncompressedSize);
+        } else {
+          byte[] encryptedBytes = null;
+          encryptedBytes =
+              encryptor.encrypt(pageData.array(), pageData.position(), uncompressedSize);
+          // data is never a directByteBuffer now, so we can use data.array()
+          int encryptedSize = encryptedBytes.length;
+          pageBuffer.write(encryptedBytes, 0, encryptedSize);
+        }
+
+      } else {
+        if (encryptor.getEncryptionType().equals(EncryptionType.UNENCRYPTED)) {
+          pageBuffer.write(compressedBytes, 0, compressedSize);
+        } else {
+          byte[] encryptedBytes = null;
+          encryptedBytes = encryptor.encrypt(compressedBytes, 0, compressedSize);
+          // data is never a directByteBuffer now, so we can use data.array()
+          int encryptedSize = encryptedBytes.length;
+          pageBuffer.write(encryptedBytes, 0, encryptedSize);
+        }
+      }
+      logger.trace(
+          "start to flush a page data into buffer, buffer position {} ", pageBuffer.size());
+      return sizeWithoutStatistic;
+    } finally {
+      PageBufferPool.release(uncompressedBytes);
+      if (compressedBytes != null) {
+        PageBufferPool.release(compressedBytes);
       }
     }
-    logger.trace("start to flush a page data into buffer, buffer position {} ", pageBuffer.size());
-    return sizeWithoutStatistic;
   }
 
   /**
@@ -351,6 +441,20 @@ public class ValuePageWriter {
     return Integer.BYTES + bitmapOut.size() + 1 + valueOut.size() + valueEncoder.getMaxByteSize();
   }
 
+  /**
+   * Whether {@link #estimateMaxMemSize()} tracks the encoded value size exactly, see {@link
+   * Encoder#isSizeExact()}.
+   */
+  public boolean isSizeExact() {
+    return valueEncoder.isSizeExact();
+  }
+
+  /** The most {@link #estimateMaxMemSize()} can grow by when one more row is written. */
+  public int getOneItemMaxSize() {
+    // one more bitmap byte at most every eight rows
+    return valueEncoder.getOneItemMaxSize() + 1;
+  }
+
   /** reset this page */
   public void reset(TSDataType dataType) {
     bitmapOut.reset();
@@ -360,6 +464,16 @@ public class ValuePageWriter {
     statistics = Statistics.getStatsByType(dataType);
   }
 
+  /** Hand the buffers of this page back to the {@link PageBufferPool} once its chunk is written. */
+  public void releaseBuffers() {
+    bitmapOut.release();
+    valueOut.release();
+  }
+
+  public Encoder getValueEncoder() {
+    return valueEncoder;
+  }
+
   public void setValueEncoder(Encoder encoder) {
     this.valueEncoder = encoder;
   }
@@ -21,6 +21,7 @@ package org.apache.tsfile.write.schema;
 import org.apache.tsfile.annotations.TsFileApi;
 import org.apache.tsfile.common.conf.TSFileDescriptor;
 import org.apache.tsfile.encoding.encoder.Encoder;
+import org.apache.tsfile.encoding.encoder.RegularSegmentEncoder;
 import org.apache.tsfile.encoding.encoder.TSEncodingBuilder;
 import org.apache.tsfile.enums.TSDataType;
 import org.apache.tsfile.file.metadata.enums.CompressionType;
@@ -229,6 +230,10 @@ public class MeasurementSchema
 
   @Override
   public TSEncoding getTimeTSEncoding() {
+    if (encoding == TSEncoding.DEXOR_TIMED) {
+      // the time column belongs to the format of the values
+      return TSEncoding.DEXOR_TIMED;
+    }
     return TSEncoding.valueOf(TSFileDescriptor.getInstance().getConfig().getTimeEncoder());
   }
 
@@ -239,6 +244,10 @@ public class MeasurementSchema
   /** function for getting time encoder. */
   @Override
   public Encoder getTimeEncoder() {
+    if (encoding == TSEncoding.DEXOR_TIMED) {
+      // the time column belongs to the format of the values
+      return new RegularSegmentEncoder();
+    }
     TSEncoding timeEncoding =
         TSEncoding.valueOf(TSFileDescriptor.getInstance().getConfig().getTimeEncoder());
     TSDataType timeType = TSFileDescriptor.getInstance().getConfig().getTimeSeriesDataType();
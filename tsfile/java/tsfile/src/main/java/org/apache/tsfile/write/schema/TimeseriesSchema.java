@@ -21,6 +21,7 @@ package org.apache.tsfile.write.schema;
 
 import org.apache.tsfile.common.conf.TSFileDescriptor;
 import org.apache.tsfile.encoding.encoder.Encoder;
+import org.apache.tsfile.encoding.encoder.RegularSegmentEncoder;
 import org.apache.tsfile.encoding.encoder.TSEncodingBuilder;
 import org.apache.tsfile.enums.TSDataType;
 import org.apache.tsfile.file.metadata.enums.CompressionType;
@@ -147,6 +148,10 @@ public class TimeseriesSchema implements Comparable<TimeseriesSchema>, Serializa
 
   /** function for getting time encoder. */
   public Encoder getTimeEncoder() {
+    if (encoding == TSEncoding.DEXOR_TIMED) {
+      // the time column belongs to the format of the values
+      return new RegularSegmentEncoder();
+    }
     TSEncoding timeEncoding =
         TSEncoding.valueOf(TSFileDescriptor.getInstance().getConfig().getTimeEncoder());
     TSDataType timeType = TSFileDescriptor.getInstance().getConfig().getTimeSeriesDataType();
@@ -67,8 +67,18 @@ public class LocalTsFileOutput extends OutputStream implements TsFileOutput {
 
   @Override
   public void write(ByteBuffer b) throws IOException {
-    bufferedStream.write(b.array());
-    position += b.array().length;
+    if (b.hasArray()) {
+      bufferedStream.write(b.array());
+      position += b.array().length;
+    } else {
+      // e.g. chunk data sliced from a memory-mapped file
+      ByteBuffer source = b.duplicate();
+      source.clear();
+      byte[] bytes = new byte[source.remaining()];
+      source.get(bytes);
+      bufferedStream.write(bytes);
+      position += bytes.length;
+    }
   }
 
   @Override
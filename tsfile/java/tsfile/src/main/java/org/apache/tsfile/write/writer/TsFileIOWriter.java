@@ -30,6 +30,7 @@ import org.apache.tsfile.file.metadata.ChunkGroupMetadata;
 import org.apache.tsfile.file.metadata.ChunkMetadata;
 import org.apache.tsfile.file.metadata.IChunkMetadata;
 import org.apache.tsfile.file.metadata.IDeviceID;
+import org.apache.tsfile.file.metadata.LastPointSection;
 import org.apache.tsfile.file.metadata.MeasurementMetadataIndexEntry;
 import org.apache.tsfile.file.metadata.MetadataIndexNode;
 import org.apache.tsfile.file.metadata.TimeseriesMetadata;
@@ -106,6 +107,9 @@ public class TsFileIOWriter implements AutoCloseable {
   private long markedPosition;
   private IDeviceID currentChunkGroupDeviceId;
 
+  // errorBound property key -> max error of the lossy series, recorded in the file metadata
+  private final Map<String, Double> errorBounds = new TreeMap<>();
+
   // the two longs marks the index range of operations in current MemTable
   // and are serialized after MetaMarker.OPERATION_INDEX_RANGE to recover file-level range
   private long minPlanIndex;
@@ -267,6 +271,17 @@ public class TsFileIOWriter implements AutoCloseable {
     out.flush();
   }
 
+  /**
+   * Record the max absolute error of a lossy series of the current chunk group. The largest bound
+   * of all its chunks is written into the file metadata properties.
+   */
+  public void recordErrorBound(String measurementId, double errorBound) {
+    errorBounds.merge(
+        TsFileMetadata.getErrorBoundKey(currentChunkGroupDeviceId, measurementId),
+        errorBound,
+        Math::max);
+  }
+
   /**
    * For TsFileReWriteTool / UpgradeTool. Use this method to determine if needs to start a
    * ChunkGroup.
@@ -459,9 +474,13 @@ public class TsFileIOWriter implements AutoCloseable {
     MetadataIndexNode currentIndexNode =
         new MetadataIndexNode(MetadataIndexNodeType.LEAF_MEASUREMENT);
     int seriesIdxForCurrDevice = 0;
+    LastPointSection lastPoints =
+        TS_FILE_CONFIG.isLastPointSectionEnabled() ? new LastPointSection() : null;
     BloomFilter filter =
         BloomFilter.getEmptyBloomFilter(
-            TSFileDescriptor.getInstance().getConfig().getBloomFilterErrorRate(), pathCount);
+            TSFileDescriptor.getInstance().getConfig().getBloomFilterErrorRate(),
+            pathCount,
+            TS_FILE_CONFIG.getBloomFilterVersion());
 
     while (tsmIterator.hasNext()) {
       // read in all chunk metadata of one series
@@ -475,6 +494,7 @@ public class TsFileIOWriter implements AutoCloseable {
       // construct the index tree node for the series
       currentDevice = currentPath.getIDeviceID();
       if (!currentDevice.equals(prevDevice)) {
+        filter.addDevice(currentDevice);
         if (prevDevice != null) {
           addCurrentIndexNodeToQueue(currentIndexNode, measurementMetadataIndexQueue, out);
           deviceMetadataIndexMap.put(
@@ -504,6 +524,9 @@ public class TsFileIOWriter implements AutoCloseable {
       seriesIdxForCurrDevice++;
       // serialize the timeseries metadata to file
       timeseriesMetadata.serializeTo(out.wrapAsStream());
+      if (lastPoints != null) {
+        lastPoints.add(currentDevice, timeseriesMetadata);
+      }
     }
 
     addCurrentIndexNodeToQueue(currentIndexNode, measurementMetadataIndexQueue, out);
@@ -523,6 +546,9 @@ public class TsFileIOWriter implements AutoCloseable {
       tableNodesMap.put(entry.getKey(), checkAndBuildLevelIndex(entry.getValue(), out));
     }
 
+    long lastPointOffset = out.getPosition();
+    int lastPointSize = lastPoints != null ? lastPoints.serializeTo(out.wrapAsStream()) : 0;
+
     TsFileMetadata tsFileMetadata = new TsFileMetadata();
     tsFileMetadata.setTableMetadataIndexNodeMap(tableNodesMap);
     tsFileMetadata.setTableSchemaMap(schema.getTableSchemaMap());
@@ -531,6 +557,13 @@ public class TsFileIOWriter implements AutoCloseable {
     tsFileMetadata.addProperty("encryptLevel", encryptLevel);
     tsFileMetadata.addProperty("encryptType", encryptType);
     tsFileMetadata.addProperty("encryptKey", encryptKey);
+    if (lastPoints != null) {
+      tsFileMetadata.addProperty(LastPointSection.OFFSET_PROPERTY, Long.toString(lastPointOffset));
+      tsFileMetadata.addProperty(LastPointSection.SIZE_PROPERTY, Integer.toString(lastPointSize));
+    }
+    for (Entry<String, Double> errorBound : errorBounds.entrySet()) {
+      tsFileMetadata.addProperty(errorBound.getKey(), Double.toString(errorBound.getValue()));
+    }
 
     int size = tsFileMetadata.serializeTo(out.wrapAsStream());
 
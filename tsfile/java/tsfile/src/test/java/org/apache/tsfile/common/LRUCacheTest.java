@@ -24,6 +24,11 @@ import org.junit.Assert;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class LRUCacheTest {
 
@@ -52,4 +57,44 @@ public class LRUCacheTest {
       Assert.fail();
     }
   }
+
+  @Test
+  public void testLoadOutsideLock() throws Exception {
+    CountDownLatch slowLoadStarted = new CountDownLatch(1);
+    CountDownLatch releaseSlowLoad = new CountDownLatch(1);
+    AtomicInteger loadCount = new AtomicInteger();
+    cache =
+        new LRUCache<Integer, Integer>(5) {
+          @Override
+          public Integer loadObjectByKey(Integer key) throws IOException {
+            loadCount.incrementAndGet();
+            if (key == 1) {
+              slowLoadStarted.countDown();
+              try {
+                releaseSlowLoad.await();
+              } catch (InterruptedException e) {
+                throw new IOException(e);
+              }
+            }
+            return key * 10;
+          }
+        };
+
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      Future<Integer> slow = executor.submit(() -> cache.get(1));
+      slowLoadStarted.await();
+      Future<Integer> sameKey = executor.submit(() -> cache.get(1));
+      // another key is loaded while the first load still runs
+      Assert.assertEquals(20, (int) cache.get(2));
+      releaseSlowLoad.countDown();
+      Assert.assertEquals(10, (int) slow.get());
+      Assert.assertEquals(10, (int) sameKey.get());
+      // the concurrent gets of key 1 shared one load
+      Assert.assertEquals(2, loadCount.get());
+    } finally {
+      releaseSlowLoad.countDown();
+      executor.shutdownNow();
+    }
+  }
 }
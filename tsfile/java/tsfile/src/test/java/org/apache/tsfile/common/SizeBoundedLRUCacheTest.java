@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.common;
+
+import org.apache.tsfile.common.cache.SizeBoundedLRUCache;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class SizeBoundedLRUCacheTest {
+
+  @Test
+  public void testEvictLeastRecentlyUsed() {
+    // one key of each segment at most 100 bytes
+    SizeBoundedLRUCache<Integer, String> cache = new SizeBoundedLRUCache<>(16 * 100, 16);
+    int[] keys = {1, 17, 33};
+    cache.put(keys[0], "a", 40);
+    cache.put(keys[1], "b", 40);
+    Assert.assertEquals("a", cache.get(keys[0]));
+    // evicts 17, the least recently used one of the segment
+    cache.put(keys[2], "c", 40);
+    Assert.assertEquals("a", cache.get(keys[0]));
+    Assert.assertNull(cache.get(keys[1]));
+    Assert.assertEquals("c", cache.get(keys[2]));
+    Assert.assertEquals(80, cache.getSizeInBytes());
+
+    // replacing a value accounts the new size only
+    cache.put(keys[2], "d", 10);
+    Assert.assertEquals(50, cache.getSizeInBytes());
+
+    // values larger than a segment are not cached
+    cache.put(2, "e", 101);
+    Assert.assertNull(cache.get(2));
+
+    cache.clear();
+    Assert.assertNull(cache.get(keys[0]));
+    Assert.assertEquals(0, cache.getSizeInBytes());
+  }
+
+  @Test
+  public void testSmallCacheIsNotSegmented() {
+    SizeBoundedLRUCache<Integer, String> cache = new SizeBoundedLRUCache<>(1024 * 1024);
+    // a value of most of the capacity still fits
+    cache.put(1, "a", 1000 * 1000);
+    Assert.assertEquals("a", cache.get(1));
+    cache.put(2, "b", 100 * 1000);
+    Assert.assertNull(cache.get(1));
+    Assert.assertEquals("b", cache.get(2));
+
+    cache.removeIf(key -> key == 2);
+    Assert.assertNull(cache.get(2));
+    Assert.assertEquals(0, cache.getSizeInBytes());
+  }
+
+  @Test
+  public void testEvictionListener() {
+    List<Integer> evicted = new ArrayList<>();
+    SizeBoundedLRUCache<Integer, String> cache = new SizeBoundedLRUCache<>(100, evicted::add);
+    Assert.assertTrue(cache.put(1, "a", 40));
+    Assert.assertTrue(cache.put(2, "b", 40));
+    Assert.assertFalse(cache.put(3, "c", 101));
+    Assert.assertTrue(evicted.isEmpty());
+
+    // removed values are not reported
+    cache.remove(2);
+    Assert.assertNull(cache.get(2));
+    Assert.assertEquals(40, cache.getSizeInBytes());
+    Assert.assertTrue(cache.put(4, "d", 70));
+    Assert.assertEquals(Collections.singletonList(1), evicted);
+    Assert.assertEquals(70, cache.getSizeInBytes());
+  }
+
+  @Test
+  public void testBoundedSize() {
+    SizeBoundedLRUCache<Integer, Integer> cache = new SizeBoundedLRUCache<>(1024);
+    for (int i = 0; i < 10000; i++) {
+      cache.put(i, i, 1 + i % 50);
+      Assert.assertTrue(cache.getSizeInBytes() <= 1024);
+      Assert.assertEquals(i, (int) cache.get(i));
+    }
+  }
+}
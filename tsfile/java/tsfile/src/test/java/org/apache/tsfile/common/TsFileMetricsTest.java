@@ -0,0 +1,240 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.common;
+
+import org.apache.tsfile.common.conf.TSFileConfig;
+import org.apache.tsfile.common.conf.TSFileDescriptor;
+import org.apache.tsfile.common.metrics.InMemoryHistogram;
+import org.apache.tsfile.common.metrics.InMemoryMetricsRegistry;
+import org.apache.tsfile.common.metrics.MetricsRegistry;
+import org.apache.tsfile.common.metrics.TsFileMetrics;
+import org.apache.tsfile.constant.TestConstant;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.exception.write.WriteProcessException;
+import org.apache.tsfile.file.metadata.AbstractAlignedChunkMetadata;
+import org.apache.tsfile.file.metadata.ChunkMetadata;
+import org.apache.tsfile.file.metadata.IChunkMetadata;
+import org.apache.tsfile.file.metadata.IDeviceID;
+import org.apache.tsfile.file.metadata.IDeviceID.Factory;
+import org.apache.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.tsfile.read.TsFileSequenceReader;
+import org.apache.tsfile.read.common.Chunk;
+import org.apache.tsfile.read.common.Path;
+import org.apache.tsfile.read.filter.factory.TimeFilterApi;
+import org.apache.tsfile.read.reader.IPageReader;
+import org.apache.tsfile.read.reader.chunk.AlignedChunkReader;
+import org.apache.tsfile.read.reader.chunk.ChunkReader;
+import org.apache.tsfile.write.TsFileWriter;
+import org.apache.tsfile.write.record.TSRecord;
+import org.apache.tsfile.write.record.datapoint.DoubleDataPoint;
+import org.apache.tsfile.write.schema.MeasurementSchema;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class TsFileMetricsTest {
+
+  @Test
+  public void testHistogram() {
+    InMemoryHistogram histogram = new InMemoryHistogram();
+    Assert.assertEquals(0, histogram.getValueAtPercentile(50));
+    for (int i = 1; i <= 10000; i++) {
+      histogram.record(i);
+    }
+    Assert.assertEquals(10000, histogram.getCount());
+    Assert.assertEquals(50005000, histogram.getSum());
+    Assert.assertEquals(10000, histogram.getMax());
+    assertWithinBucketError(5000, histogram.getValueAtPercentile(50));
+    assertWithinBucketError(9900, histogram.getValueAtPercentile(99));
+    Assert.assertEquals(10000, histogram.getValueAtPercentile(100));
+    Assert.assertEquals(1, histogram.getValueAtPercentile(0));
+
+    // small values are exact, the largest ones do not overflow
+    InMemoryHistogram extremes = new InMemoryHistogram();
+    extremes.record(3);
+    extremes.record(Long.MAX_VALUE);
+    Assert.assertEquals(3, extremes.getValueAtPercentile(50));
+    Assert.assertEquals(Long.MAX_VALUE, extremes.getValueAtPercentile(100));
+  }
+
+  private static void assertWithinBucketError(long expected, long actual) {
+    Assert.assertTrue(actual + " for " + expected, actual >= expected);
+    Assert.assertTrue(actual + " for " + expected, actual <= expected + expected / 16);
+  }
+
+  @Test
+  public void testDumpJson() throws IOException {
+    InMemoryMetricsRegistry registry = new InMemoryMetricsRegistry();
+    registry.counter("b").add(2);
+    registry.counter("a").increment();
+    registry.histogram("h").record(5);
+    StringBuilder json = new StringBuilder();
+    registry.dumpJson(json);
+    Assert.assertEquals(
+        "{\"counters\":{\"a\":1,\"b\":2},\"histograms\":{\"h\":{\"count\":1,\"sum\":5,\"max\":5,"
+            + "\"mean\":5.0,\"p50\":5,\"p90\":5,\"p99\":5,\"p999\":5}}}",
+        json.toString());
+
+    json.setLength(0);
+    MetricsRegistry.NOOP.dumpJson(json);
+    Assert.assertEquals("{}", json.toString());
+  }
+
+  @Test
+  public void testReadAndWriteMetrics() throws IOException, WriteProcessException {
+    TSFileConfig config = TSFileDescriptor.getInstance().getConfig();
+    int oldMaxPointNum = config.getMaxNumberOfPointsInPage();
+    long oldMetadataCacheSize = config.getMetadataCacheSizeInByte();
+    MetricsRegistry oldRegistry = TsFileMetrics.getInstance().getRegistry();
+    InMemoryMetricsRegistry registry = new InMemoryMetricsRegistry();
+    TsFileMetrics.setRegistry(registry);
+    File file = new File(TestConstant.BASE_OUTPUT_PATH + "metrics.tsfile");
+    IDeviceID deviceID = Factory.DEFAULT_FACTORY.create("root.sg.d1");
+    try {
+      config.setMaxNumberOfPointsInPage(100);
+      try (TsFileWriter writer = new TsFileWriter(file)) {
+        writer.registerTimeseries(
+            deviceID, new MeasurementSchema("s", TSDataType.DOUBLE, TSEncoding.GORILLA));
+        for (int i = 0; i < 1000; i++) {
+          TSRecord record = new TSRecord(deviceID, i);
+          record.addTuple(new DoubleDataPoint("s", i * 0.5));
+          writer.writeRecord(record);
+        }
+      }
+      Assert.assertEquals(10, registry.counter(TsFileMetrics.PAGE_SEALED).getCount());
+      Assert.assertTrue(registry.counter(TsFileMetrics.PAGE_SEALED_BYTES).getCount() > 0);
+      Assert.assertEquals(
+          1000, registry.counter(TsFileMetrics.ENCODE_VALUES + ".GORILLA").getCount());
+      Assert.assertEquals(
+          10, registry.histogram(TsFileMetrics.ENCODE_NANOS + ".GORILLA").getCount());
+
+      int returnedCount = 0;
+      config.setMetadataCacheSizeInByte(1024 * 1024);
+      try (TsFileSequenceReader reader = new TsFileSequenceReader(file.getAbsolutePath())) {
+        List<ChunkMetadata> chunkMetadataList =
+            reader.getChunkMetadataList(new Path(deviceID, "s", true));
+        for (ChunkMetadata chunkMetadata : chunkMetadataList) {
+          ChunkReader chunkReader =
+              new ChunkReader(reader.readMemChunk(chunkMetadata), TimeFilterApi.gt(549));
+          for (IPageReader pageReader : chunkReader.loadPageReaderList()) {
+            returnedCount += pageReader.getAllSatisfiedData().getPositionCount();
+          }
+        }
+      }
+      Assert.assertEquals(450, returnedCount);
+      Assert.assertTrue(registry.counter(TsFileMetrics.READ_IO_COUNT).getCount() > 0);
+      Assert.assertTrue(registry.counter(TsFileMetrics.READ_IO_BYTES).getCount() > 0);
+      Assert.assertTrue(registry.counter(TsFileMetrics.METADATA_CACHE_MISS).getCount() > 0);
+      Assert.assertEquals(5, registry.counter(TsFileMetrics.PAGE_SKIPPED).getCount());
+      Assert.assertEquals(5, registry.counter(TsFileMetrics.PAGE_UNCOMPRESSED).getCount());
+      Assert.assertEquals(
+          500, registry.counter(TsFileMetrics.DECODE_VALUES + ".GORILLA").getCount());
+      Assert.assertEquals(
+          5, registry.histogram(TsFileMetrics.DECODE_NANOS + ".GORILLA").getCount());
+      Assert.assertEquals(50, registry.counter(TsFileMetrics.PAGE_VALUES_FILTERED).getCount());
+      Assert.assertTrue(TsFileMetrics.dumpJson().contains("\"read.decode.values.GORILLA\":500"));
+    } finally {
+      config.setMaxNumberOfPointsInPage(oldMaxPointNum);
+      config.setMetadataCacheSizeInByte(oldMetadataCacheSize);
+      TsFileMetrics.setRegistry(oldRegistry);
+      Files.deleteIfExists(file.toPath());
+    }
+  }
+
+  @Test
+  public void testAlignedReadAndWriteMetrics() throws IOException, WriteProcessException {
+    TSFileConfig config = TSFileDescriptor.getInstance().getConfig();
+    int oldMaxPointNum = config.getMaxNumberOfPointsInPage();
+    MetricsRegistry oldRegistry = TsFileMetrics.getInstance().getRegistry();
+    InMemoryMetricsRegistry registry = new InMemoryMetricsRegistry();
+    TsFileMetrics.setRegistry(registry);
+    File file = new File(TestConstant.BASE_OUTPUT_PATH + "alignedMetrics.tsfile");
+    IDeviceID deviceID = Factory.DEFAULT_FACTORY.create("root.sg.d1");
+    try {
+      config.setMaxNumberOfPointsInPage(100);
+      try (TsFileWriter writer = new TsFileWriter(file)) {
+        writer.registerAlignedTimeseries(
+            deviceID,
+            Arrays.asList(
+                new MeasurementSchema("s1", TSDataType.DOUBLE, TSEncoding.GORILLA),
+                new MeasurementSchema("s2", TSDataType.DOUBLE, TSEncoding.PLAIN)));
+        for (int i = 0; i < 1000; i++) {
+          TSRecord record = new TSRecord(deviceID, i);
+          record.addTuple(new DoubleDataPoint("s1", i * 0.5));
+          record.addTuple(new DoubleDataPoint("s2", i));
+          writer.writeRecord(record);
+        }
+      }
+      // the pages of the time chunk and of both value chunks
+      Assert.assertEquals(30, registry.counter(TsFileMetrics.PAGE_SEALED).getCount());
+      Assert.assertTrue(registry.counter(TsFileMetrics.PAGE_SEALED_BYTES).getCount() > 0);
+      Assert.assertEquals(
+          1000,
+          registry.counter(TsFileMetrics.ENCODE_VALUES + "." + config.getTimeEncoder()).getCount());
+      Assert.assertEquals(
+          1000, registry.counter(TsFileMetrics.ENCODE_VALUES + ".GORILLA").getCount());
+      Assert.assertEquals(
+          1000, registry.counter(TsFileMetrics.ENCODE_VALUES + ".PLAIN").getCount());
+      Assert.assertEquals(
+          10, registry.histogram(TsFileMetrics.ENCODE_NANOS + ".GORILLA").getCount());
+
+      int returnedCount = 0;
+      try (TsFileSequenceReader reader = new TsFileSequenceReader(file.getAbsolutePath())) {
+        for (AbstractAlignedChunkMetadata chunkMetadata :
+            reader.getAlignedChunkMetadata(deviceID, true)) {
+          List<Chunk> valueChunks = new ArrayList<>();
+          for (IChunkMetadata valueChunkMetadata : chunkMetadata.getValueChunkMetadataList()) {
+            valueChunks.add(reader.readMemChunk((ChunkMetadata) valueChunkMetadata));
+          }
+          AlignedChunkReader chunkReader =
+              new AlignedChunkReader(
+                  reader.readMemChunk((ChunkMetadata) chunkMetadata.getTimeChunkMetadata()),
+                  valueChunks,
+                  TimeFilterApi.gt(549));
+          for (IPageReader pageReader : chunkReader.loadPageReaderList()) {
+            pageReader.initTsBlockBuilder(Arrays.asList(TSDataType.DOUBLE, TSDataType.DOUBLE));
+            returnedCount += pageReader.getAllSatisfiedData().getPositionCount();
+          }
+        }
+      }
+      Assert.assertEquals(450, returnedCount);
+      Assert.assertEquals(5, registry.counter(TsFileMetrics.PAGE_SKIPPED).getCount());
+      // the time pages and the value pages of both columns
+      Assert.assertEquals(15, registry.counter(TsFileMetrics.PAGE_UNCOMPRESSED).getCount());
+      Assert.assertEquals(
+          500, registry.counter(TsFileMetrics.DECODE_VALUES + ".GORILLA").getCount());
+      Assert.assertEquals(500, registry.counter(TsFileMetrics.DECODE_VALUES + ".PLAIN").getCount());
+      Assert.assertEquals(
+          5, registry.histogram(TsFileMetrics.DECODE_NANOS + ".GORILLA").getCount());
+      Assert.assertEquals(100, registry.counter(TsFileMetrics.PAGE_VALUES_FILTERED).getCount());
+    } finally {
+      config.setMaxNumberOfPointsInPage(oldMaxPointNum);
+      TsFileMetrics.setRegistry(oldRegistry);
+      Files.deleteIfExists(file.toPath());
+    }
+  }
+}
@@ -22,6 +22,7 @@ package org.apache.tsfile.common.block;
 import org.apache.tsfile.block.column.ColumnBuilder;
 import org.apache.tsfile.block.column.ColumnEncoding;
 import org.apache.tsfile.common.conf.TSFileConfig;
+import org.apache.tsfile.common.conf.TSFileDescriptor;
 import org.apache.tsfile.enums.TSDataType;
 import org.apache.tsfile.read.common.block.TsBlock;
 import org.apache.tsfile.read.common.block.TsBlockBuilder;
@@ -39,8 +40,11 @@ import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Random;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 public class TsBlockSerdeTest {
@@ -185,4 +189,71 @@ public class TsBlockSerdeTest {
       fail();
     }
   }
+
+  @Test
+  public void testCompactEncodings() throws IOException {
+    final int positionCount = 1000;
+    List<TSDataType> dataTypes = new ArrayList<>();
+    dataTypes.add(TSDataType.FLOAT);
+    dataTypes.add(TSDataType.DOUBLE);
+    dataTypes.add(TSDataType.DOUBLE);
+    dataTypes.add(TSDataType.INT64);
+    TsBlockBuilder tsBlockBuilder = new TsBlockBuilder(dataTypes);
+    Random random = new Random(5);
+    for (int i = 0; i < positionCount; i++) {
+      tsBlockBuilder.getTimeColumnBuilder().writeLong(1_700_000_000_000L + i * 1000L);
+      if (i % 7 == 0) {
+        tsBlockBuilder.getColumnBuilder(0).appendNull();
+      } else {
+        tsBlockBuilder.getColumnBuilder(0).writeFloat(20 + random.nextInt(1000) / 100F);
+      }
+      tsBlockBuilder.getColumnBuilder(1).writeDouble(random.nextInt(100_000) / 1000D);
+      // random bits, which DeXOR does not shrink
+      tsBlockBuilder.getColumnBuilder(2).writeDouble(Double.longBitsToDouble(random.nextLong()));
+      tsBlockBuilder.getColumnBuilder(3).writeLong(random.nextLong());
+      tsBlockBuilder.declarePosition();
+    }
+    TsBlock tsBlock = tsBlockBuilder.build();
+
+    TsBlockSerde tsBlockSerde = new TsBlockSerde();
+    int rawSize = tsBlockSerde.serialize(tsBlock).remaining();
+    TSFileConfig config = TSFileDescriptor.getInstance().getConfig();
+    boolean enabled = config.isTsBlockCompactEncodingEnabled();
+    ByteBuffer output;
+    try {
+      config.setTsBlockCompactEncodingEnabled(true);
+      output = tsBlockSerde.serialize(tsBlock);
+    } finally {
+      config.setTsBlockCompactEncodingEnabled(enabled);
+    }
+    assertTrue(output.remaining() < rawSize);
+
+    // skip the value column count, the data types and the position count
+    output.position(Integer.BYTES + dataTypes.size() + Integer.BYTES);
+    assertEquals(ColumnEncoding.GORILLA, ColumnEncoding.deserializeFrom(output));
+    assertEquals(ColumnEncoding.DEXOR, ColumnEncoding.deserializeFrom(output));
+    assertEquals(ColumnEncoding.DEXOR, ColumnEncoding.deserializeFrom(output));
+    assertEquals(ColumnEncoding.INT64_ARRAY, ColumnEncoding.deserializeFrom(output));
+    assertEquals(ColumnEncoding.INT64_ARRAY, ColumnEncoding.deserializeFrom(output));
+
+    output.rewind();
+    TsBlock deserialized = tsBlockSerde.deserialize(output);
+    assertFalse(output.hasRemaining());
+    assertEquals(positionCount, deserialized.getPositionCount());
+    for (int i = 0; i < positionCount; i++) {
+      assertEquals(tsBlock.getTimeByIndex(i), deserialized.getTimeByIndex(i));
+      assertEquals(tsBlock.getColumn(0).isNull(i), deserialized.getColumn(0).isNull(i));
+      if (!tsBlock.getColumn(0).isNull(i)) {
+        assertEquals(
+            Float.floatToRawIntBits(tsBlock.getColumn(0).getFloat(i)),
+            Float.floatToRawIntBits(deserialized.getColumn(0).getFloat(i)));
+      }
+      for (int column = 1; column < 3; column++) {
+        assertEquals(
+            Double.doubleToRawLongBits(tsBlock.getColumn(column).getDouble(i)),
+            Double.doubleToRawLongBits(deserialized.getColumn(column).getDouble(i)));
+      }
+      assertEquals(tsBlock.getColumn(3).getLong(i), deserialized.getColumn(3).getLong(i));
+    }
+  }
 }
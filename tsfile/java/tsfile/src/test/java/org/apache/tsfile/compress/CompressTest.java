@@ -18,6 +18,7 @@
  */
 package org.apache.tsfile.compress;
 
+import org.apache.tsfile.file.metadata.enums.CompressionType;
 import org.apache.tsfile.utils.PublicBAOS;
 import org.apache.tsfile.utils.ReadWriteIOUtils;
 
@@ -32,6 +33,8 @@ import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 public class CompressTest {
 
@@ -142,4 +145,38 @@ public class CompressTest {
     uncompressed.position(0);
     assertEquals(inputString, ReadWriteIOUtils.readStringFromDirectByteBuffer(uncompressed));
   }
+
+  @Test
+  public void directUncompressFromHeapTest() throws IOException {
+    byte[] input = inputString.getBytes(StandardCharsets.UTF_8);
+    for (CompressionType type :
+        new CompressionType[] {CompressionType.LZ4, CompressionType.ZSTD, CompressionType.SNAPPY}) {
+      IUnCompressor unCompressor = IUnCompressor.getUnCompressor(type);
+      assertTrue(unCompressor.supportDirectUncompress());
+      byte[] compressed = ICompressor.getCompressor(type).compress(input);
+      // a heap buffer with a non-zero array offset, as sliced out of a chunk
+      byte[] chunk = new byte[compressed.length + 3];
+      System.arraycopy(compressed, 0, chunk, 3, compressed.length);
+      ByteBuffer compressedBuffer = ByteBuffer.wrap(chunk, 3, compressed.length).slice();
+
+      ByteBuffer uncompressed = UnCompressBufferPool.acquire(input.length);
+      assertEquals(input.length, unCompressor.uncompress(compressedBuffer, uncompressed));
+      uncompressed.position(0);
+      uncompressed.limit(input.length);
+      assertEquals(inputString, ReadWriteIOUtils.readStringFromDirectByteBuffer(uncompressed));
+      UnCompressBufferPool.release(uncompressed);
+    }
+  }
+
+  @Test
+  public void unCompressBufferPoolTest() {
+    ByteBuffer buffer = UnCompressBufferPool.acquire(1000);
+    assertTrue(buffer.isDirect());
+    assertEquals(1000, buffer.remaining());
+    UnCompressBufferPool.release(buffer);
+    ByteBuffer reused = UnCompressBufferPool.acquire(500);
+    assertSame(buffer, reused);
+    assertEquals(500, reused.remaining());
+    UnCompressBufferPool.release(reused);
+  }
 }
@@ -0,0 +1,167 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.encoding.advisor;
+
+import org.apache.tsfile.constant.TestConstant;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.exception.write.WriteProcessException;
+import org.apache.tsfile.file.metadata.IDeviceID;
+import org.apache.tsfile.file.metadata.IDeviceID.Factory;
+import org.apache.tsfile.file.metadata.enums.CompressionType;
+import org.apache.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.tsfile.read.TsFileSequenceReader;
+import org.apache.tsfile.write.TsFileWriter;
+import org.apache.tsfile.write.record.TSRecord;
+import org.apache.tsfile.write.record.datapoint.DoubleDataPoint;
+import org.apache.tsfile.write.record.datapoint.LongDataPoint;
+import org.apache.tsfile.write.schema.IMeasurementSchema;
+import org.apache.tsfile.write.schema.MeasurementSchema;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+public class EncodingAdvisorTest {
+
+  private static EncodingAdvisor newAdvisor() {
+    EncodingAdvisor advisor = new EncodingAdvisor(4);
+    advisor.setCompressionTypes(Arrays.asList(CompressionType.UNCOMPRESSED, CompressionType.LZ4));
+    advisor.setPageSize(1000);
+    advisor.setRounds(1);
+    return advisor;
+  }
+
+  @Test
+  public void testAdviseDecimals() {
+    double[] values = new double[5000];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = 20 + (i % 300) / 100.0;
+    }
+    List<EncodingTrial> trials = newAdvisor().advise(values, values.length);
+    Assert.assertFalse(trials.isEmpty());
+    for (int i = 1; i < trials.size(); i++) {
+      Assert.assertTrue(trials.get(i - 1).getCompressedSize() <= trials.get(i).getCompressedSize());
+    }
+
+    EncodingTrial plain = find(trials, TSEncoding.PLAIN, CompressionType.UNCOMPRESSED);
+    Assert.assertEquals(values.length, plain.getValueCount());
+    Assert.assertEquals(8L * values.length, plain.getRawSize());
+    Assert.assertEquals(plain.getRawSize(), plain.getEncodedSize());
+    Assert.assertEquals(1.0, plain.getCompressionRatio(), 0.0);
+    Assert.assertNotNull(find(trials, TSEncoding.GORILLA, CompressionType.UNCOMPRESSED));
+    Assert.assertNotNull(find(trials, TSEncoding.CHIMP, CompressionType.LZ4));
+    Assert.assertTrue(trials.get(0).getCompressionRatio() > 2);
+    Assert.assertTrue(trials.get(0).getEncodeNanosPerValue() > 0);
+    Assert.assertTrue(trials.get(0).getDecodeNanosPerValue() > 0);
+  }
+
+  @Test
+  public void testLossyPairsAreLeftOut() {
+    Random random = new Random(7);
+    float[] values = new float[3000];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = random.nextFloat() * 1000;
+    }
+    List<EncodingTrial> trials = newAdvisor().advise(values, values.length);
+    Assert.assertNotNull(find(trials, TSEncoding.GORILLA, CompressionType.LZ4));
+    for (EncodingTrial trial : trials) {
+      // the float encoder keeps 2 fraction digits by default
+      Assert.assertNotEquals(TSEncoding.RLE, trial.getEncoding());
+      Assert.assertNotEquals(TSEncoding.TS_2DIFF, trial.getEncoding());
+    }
+  }
+
+  @Test
+  public void testAdviseIntegers() {
+    long[] values = new long[2500];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = 1_700_000_000_000L + i * 1000L;
+    }
+    List<EncodingTrial> trials = newAdvisor().advise(values, values.length);
+    // regular timestamps shrink to almost nothing with a delta encoding
+    Assert.assertTrue(trials.get(0).getCompressionRatio() > 20);
+    Assert.assertTrue(
+        find(trials, TSEncoding.TS_2DIFF, CompressionType.UNCOMPRESSED).getCompressionRatio() > 20);
+    for (EncodingTrial trial : trials) {
+      Assert.assertTrue(trial.getEncoding().isSupported(TSDataType.INT64));
+    }
+    Assert.assertTrue(newAdvisor().advise(new int[0], 0).isEmpty());
+  }
+
+  @Test
+  public void testAdviseFileColumns() throws IOException, WriteProcessException {
+    File file = new File(TestConstant.BASE_OUTPUT_PATH + "advisor.tsfile");
+    IDeviceID nonAligned = Factory.DEFAULT_FACTORY.create("root.sg.d1");
+    IDeviceID aligned = Factory.DEFAULT_FACTORY.create("root.sg.d2");
+    try {
+      try (TsFileWriter writer = new TsFileWriter(file)) {
+        writer.registerTimeseries(nonAligned, new MeasurementSchema("s1", TSDataType.INT64));
+        writer.registerAlignedTimeseries(
+            aligned,
+            Collections.<IMeasurementSchema>singletonList(
+                new MeasurementSchema("s2", TSDataType.DOUBLE)));
+        for (int i = 0; i < 3000; i++) {
+          TSRecord record = new TSRecord(nonAligned, i);
+          record.addTuple(new LongDataPoint("s1", i % 17));
+          writer.writeRecord(record);
+          if (i % 2 == 0) {
+            record = new TSRecord(aligned, i);
+            record.addTuple(new DoubleDataPoint("s2", i / 4.0));
+            writer.writeRecord(record);
+          }
+        }
+      }
+
+      EncodingAdvisor advisor = newAdvisor();
+      try (TsFileSequenceReader reader = new TsFileSequenceReader(file.getAbsolutePath())) {
+        List<EncodingTrial> trials = advisor.advise(reader, nonAligned, "s1", 2000);
+        Assert.assertFalse(trials.isEmpty());
+        Assert.assertEquals(2000, trials.get(0).getValueCount());
+        Assert.assertEquals(8L * 2000, trials.get(0).getRawSize());
+
+        trials = advisor.advise(reader, aligned, "s2", 2000);
+        Assert.assertFalse(trials.isEmpty());
+        Assert.assertEquals(1500, trials.get(0).getValueCount());
+        Assert.assertNotNull(find(trials, TSEncoding.DEXOR, CompressionType.UNCOMPRESSED));
+
+        Assert.assertTrue(advisor.advise(reader, nonAligned, "s3", 2000).isEmpty());
+      }
+    } finally {
+      Files.deleteIfExists(file.toPath());
+    }
+  }
+
+  private static EncodingTrial find(
+      List<EncodingTrial> trials, TSEncoding encoding, CompressionType compressionType) {
+    for (EncodingTrial trial : trials) {
+      if (trial.getEncoding() == encoding && trial.getCompressionType() == compressionType) {
+        return trial;
+      }
+    }
+    return null;
+  }
+}
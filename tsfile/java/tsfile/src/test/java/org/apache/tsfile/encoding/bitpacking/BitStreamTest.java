@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.encoding.bitpacking;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class BitStreamTest {
+
+  @Test
+  public void testAgainstBitByBit() {
+    Random random = new Random(7);
+    int count = 20000;
+    long[] values = new long[count];
+    int[] widths = new int[count];
+    for (int i = 0; i < count; i++) {
+      widths[i] = random.nextInt(Long.SIZE + 1);
+      // random high bits above the width are ignored by the writer
+      values[i] = random.nextLong();
+    }
+
+    BitWriter writer = new BitWriter();
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    ByteArrayOutputStream expectedOut = new ByteArrayOutputStream();
+    int expectedByte = 0;
+    int expectedBits = 0;
+    for (int i = 0; i < count; i++) {
+      if (widths[i] == 1 && (values[i] & 2) == 0) {
+        // mix in the single bit calls
+        if ((values[i] & 1) == 1) {
+          writer.writeBit(out);
+        } else {
+          writer.skipBit(out);
+        }
+      } else {
+        writer.writeBits(values[i], widths[i], out);
+      }
+      for (int b = widths[i] - 1; b >= 0; b--) {
+        expectedByte = (expectedByte << 1) | (int) ((values[i] >>> b) & 1);
+        if (++expectedBits == Byte.SIZE) {
+          expectedOut.write(expectedByte);
+          expectedByte = 0;
+          expectedBits = 0;
+        }
+      }
+    }
+    writer.flush(out);
+    // the last byte is padded, an empty byte is written if the bits are byte aligned
+    expectedOut.write(expectedByte << (Byte.SIZE - expectedBits));
+    byte[] bytes = out.toByteArray();
+    assertArrayEquals(expectedOut.toByteArray(), bytes);
+    assertEquals(0, writer.getBufferedBits());
+
+    BitReader reader = new BitReader();
+    ByteBuffer buffer = ByteBuffer.wrap(bytes);
+    for (int i = 0; i < count; i++) {
+      long mask = widths[i] == 0 ? 0 : -1L >>> (Long.SIZE - widths[i]);
+      if (widths[i] == 1 && (values[i] & 2) == 0) {
+        assertEquals((values[i] & 1) == 1, reader.readBit(buffer));
+      } else {
+        assertEquals(values[i] & mask, reader.readBits(widths[i], buffer));
+      }
+    }
+    reader.finish(buffer);
+    assertEquals(bytes.length, buffer.position());
+  }
+
+  @Test
+  public void testFinishAtByteBoundary() {
+    BitWriter writer = new BitWriter();
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    // two streams back to back, the first one ends at a byte boundary
+    writer.writeBits(0xABCDL, 16, out);
+    writer.flush(out);
+    writer.writeBits(5, 3, out);
+    writer.flush(out);
+    assertArrayEquals(new byte[] {(byte) 0xAB, (byte) 0xCD, 0, (byte) 0xA0}, out.toByteArray());
+
+    BitReader reader = new BitReader();
+    ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+    assertEquals(0xABCDL, reader.readBits(16, buffer));
+    reader.finish(buffer);
+    assertEquals(3, buffer.position());
+    assertEquals(5, reader.readBits(3, buffer));
+    reader.finish(buffer);
+    assertEquals(4, buffer.position());
+  }
+}
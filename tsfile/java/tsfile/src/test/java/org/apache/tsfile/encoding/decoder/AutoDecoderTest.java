@@ -0,0 +1,247 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.encoding.decoder;
+
+import org.apache.tsfile.common.conf.TSFileConfig;
+import org.apache.tsfile.common.conf.TSFileDescriptor;
+import org.apache.tsfile.common.metrics.InMemoryMetricsRegistry;
+import org.apache.tsfile.common.metrics.MetricsRegistry;
+import org.apache.tsfile.common.metrics.TsFileMetrics;
+import org.apache.tsfile.constant.TestConstant;
+import org.apache.tsfile.encoding.encoder.AutoEncoder;
+import org.apache.tsfile.encoding.encoder.Encoder;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.exception.write.WriteProcessException;
+import org.apache.tsfile.file.metadata.ChunkMetadata;
+import org.apache.tsfile.file.metadata.IDeviceID;
+import org.apache.tsfile.file.metadata.IDeviceID.Factory;
+import org.apache.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.tsfile.read.TsFileSequenceReader;
+import org.apache.tsfile.read.common.BatchData;
+import org.apache.tsfile.read.common.Chunk;
+import org.apache.tsfile.read.common.Path;
+import org.apache.tsfile.read.reader.chunk.ChunkReader;
+import org.apache.tsfile.write.TsFileWriter;
+import org.apache.tsfile.write.record.TSRecord;
+import org.apache.tsfile.write.record.datapoint.DoubleDataPoint;
+import org.apache.tsfile.write.schema.MeasurementSchema;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class AutoDecoderTest {
+
+  private static final int SIZE = 1000;
+
+  @Test
+  public void testDecimalsPickDeXOR() throws IOException {
+    double[] values = new double[SIZE];
+    for (int i = 0; i < SIZE; i++) {
+      values[i] = (2000 + i % 300) / 100.0;
+    }
+    byte[] page = encode(new AutoEncoder(TSDataType.DOUBLE, 1024), values);
+    assertEquals(TSEncoding.DEXOR, TSEncoding.deserialize(page[0]));
+    assertTrue(page.length < SIZE * 4);
+    assertRoundTrip(page, values);
+  }
+
+  @Test
+  public void testRandomBitsFallBackToPlain() throws IOException {
+    Random random = new Random(3);
+    double[] values = new double[SIZE];
+    for (int i = 0; i < SIZE; i++) {
+      values[i] = Double.longBitsToDouble(random.nextLong() & 0x7FEFFFFFFFFFFFFFL);
+    }
+    AutoEncoder encoder = new AutoEncoder(TSDataType.DOUBLE, 100);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    encoder.encode(values, 0, values.length, out);
+    // the values are buffered until the page is sealed, bounded by their plain size
+    assertEquals(0, out.size());
+    assertEquals(1 + SIZE * 8L, encoder.getMaxByteSize());
+    encoder.flush(out);
+    byte[] page = out.toByteArray();
+    assertTrue(page.length <= 1 + SIZE * 8);
+    assertEquals(0, encoder.getMaxByteSize());
+    assertRoundTrip(page, values);
+  }
+
+  @Test
+  public void testValuesNotRestoredByACandidate() throws IOException {
+    // DEXOR restores NaN as 0, GORILLA and CHIMP end a page at a NaN
+    assertRoundTrip(
+        encode(
+            new AutoEncoder(TSDataType.DOUBLE, 1024),
+            new double[] {1.5, Double.NaN, 2.5, 3.5, 4.5}),
+        new double[] {1.5, Double.NaN, 2.5, 3.5, 4.5});
+    double[] values = new double[SIZE];
+    Random random = new Random(11);
+    for (int i = 0; i < SIZE; i++) {
+      switch (i % 50) {
+        case 7:
+          values[i] = Double.NaN;
+          break;
+        case 19:
+          values[i] = Double.POSITIVE_INFINITY;
+          break;
+        case 31:
+          values[i] = Double.NEGATIVE_INFINITY;
+          break;
+        case 43:
+          values[i] = 983.103184833703;
+          break;
+        default:
+          values[i] = i % 3 == 0 ? random.nextDouble() : (2000 + i % 300) / 100.0;
+      }
+    }
+    for (int sampleSize : new int[] {16, 1024}) {
+      assertRoundTrip(encode(new AutoEncoder(TSDataType.DOUBLE, sampleSize), values), values);
+    }
+    float[] floats = {
+      1.5f, Float.NaN, 2.5f, Float.POSITIVE_INFINITY, Float.NEGATIVE_INFINITY, 4.5f
+    };
+    AutoEncoder encoder = new AutoEncoder(TSDataType.FLOAT, 1024);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    encoder.encode(floats, 0, floats.length, out);
+    encoder.flush(out);
+    ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+    Decoder decoder = Decoder.getDecoderByType(TSEncoding.AUTO, TSDataType.FLOAT);
+    for (float value : floats) {
+      assertTrue(decoder.hasNext(buffer));
+      assertEquals(Float.floatToIntBits(value), Float.floatToIntBits(decoder.readFloat(buffer)));
+    }
+    assertFalse(decoder.hasNext(buffer));
+  }
+
+  @Test
+  public void testFloats() throws IOException {
+    AutoEncoder encoder = new AutoEncoder(TSDataType.FLOAT, 64);
+    float[] values = new float[SIZE];
+    for (int i = 0; i < SIZE; i++) {
+      values[i] = 12.5f + (i % 4) * 0.25f;
+    }
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    // one by one and in bulk
+    for (int i = 0; i < SIZE / 2; i++) {
+      encoder.encode(values[i], out);
+    }
+    encoder.encode(values, SIZE / 2, SIZE, out);
+    encoder.flush(out);
+    ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+    assertFalse(TSEncoding.PLAIN == TSEncoding.deserialize(buffer.get(0)));
+
+    Decoder decoder = Decoder.getDecoderByType(TSEncoding.AUTO, TSDataType.FLOAT);
+    for (float value : values) {
+      assertTrue(decoder.hasNext(buffer));
+      assertEquals(value, decoder.readFloat(buffer), 0);
+    }
+  }
+
+  @Test
+  public void testPagesOfAFile() throws IOException, WriteProcessException {
+    TSFileConfig config = TSFileDescriptor.getInstance().getConfig();
+    int oldMaxPointNum = config.getMaxNumberOfPointsInPage();
+    MetricsRegistry oldRegistry = TsFileMetrics.getInstance().getRegistry();
+    InMemoryMetricsRegistry registry = new InMemoryMetricsRegistry();
+    File file = new File(TestConstant.BASE_OUTPUT_PATH + "auto.tsfile");
+    IDeviceID deviceID = Factory.DEFAULT_FACTORY.create("root.sg.d1");
+    Random random = new Random(7);
+    double[] values = new double[SIZE];
+    for (int i = 0; i < SIZE; i++) {
+      // a sensor switching from 1 to 15 significant digits half way
+      values[i] = i < SIZE / 2 ? (300 + i % 7) / 10.0 : random.nextDouble();
+    }
+    try {
+      config.setMaxNumberOfPointsInPage(SIZE / 2);
+      try (TsFileWriter writer = new TsFileWriter(file)) {
+        writer.registerTimeseries(
+            deviceID, new MeasurementSchema("s", TSDataType.DOUBLE, TSEncoding.AUTO));
+        for (int i = 0; i < SIZE; i++) {
+          TSRecord record = new TSRecord(deviceID, i);
+          record.addTuple(new DoubleDataPoint("s", values[i]));
+          writer.writeRecord(record);
+        }
+      }
+
+      TsFileMetrics.setRegistry(registry);
+      int index = 0;
+      try (TsFileSequenceReader reader = new TsFileSequenceReader(file.getAbsolutePath())) {
+        for (ChunkMetadata chunkMetadata :
+            reader.getChunkMetadataList(new Path(deviceID, "s", true))) {
+          Chunk chunk = reader.readMemChunk(chunkMetadata);
+          assertEquals(TSEncoding.AUTO, chunk.getHeader().getEncodingType());
+          ChunkReader chunkReader = new ChunkReader(chunk);
+          while (chunkReader.hasNextSatisfiedPage()) {
+            BatchData batchData = chunkReader.nextPageData();
+            while (batchData.hasCurrent()) {
+              assertEquals(index, batchData.currentTime());
+              assertEquals(
+                  Double.doubleToLongBits(values[index]),
+                  Double.doubleToLongBits(batchData.getDouble()));
+              index++;
+              batchData.next();
+            }
+          }
+        }
+      }
+      assertEquals(SIZE, index);
+      // each page is decoded by the decoder it was written with
+      assertEquals(SIZE / 2, registry.counter(TsFileMetrics.DECODE_VALUES + ".DEXOR").getCount());
+      assertEquals(0, registry.counter(TsFileMetrics.DECODE_VALUES + ".AUTO").getCount());
+    } finally {
+      config.setMaxNumberOfPointsInPage(oldMaxPointNum);
+      TsFileMetrics.setRegistry(oldRegistry);
+      Files.deleteIfExists(file.toPath());
+    }
+  }
+
+  private static void assertRoundTrip(byte[] page, double[] values) throws IOException {
+    Decoder decoder = Decoder.getDecoderByType(TSEncoding.AUTO, TSDataType.DOUBLE);
+    // the decoder is reused between pages
+    for (int round = 0; round < 2; round++) {
+      ByteBuffer buffer = ByteBuffer.wrap(page);
+      for (double value : values) {
+        assertTrue(decoder.hasNext(buffer));
+        assertEquals(
+            Double.toString(value),
+            Double.doubleToLongBits(value),
+            Double.doubleToLongBits(decoder.readDouble(buffer)));
+      }
+      assertFalse(decoder.hasNext(buffer));
+      decoder.reset();
+    }
+  }
+
+  private static byte[] encode(Encoder encoder, double[] values) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    encoder.encode(values, 0, values.length, out);
+    encoder.flush(out);
+    return out.toByteArray();
+  }
+}
@@ -0,0 +1,162 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.encoding.decoder;
+
+import org.apache.tsfile.encoding.encoder.DeltaBinaryEncoder;
+import org.apache.tsfile.encoding.encoder.DoubleDeXORCrossEncoder;
+import org.apache.tsfile.encoding.encoder.DoubleDeXOREncoder;
+import org.apache.tsfile.encoding.encoder.DoubleDeXORFireEncoder;
+import org.apache.tsfile.encoding.encoder.DoublePrecisionEncoderV2;
+import org.apache.tsfile.encoding.encoder.Encoder;
+import org.apache.tsfile.encoding.encoder.LongGorillaEncoder;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.assertArrayEquals;
+
+/** Column slice encoding must produce exactly the bytes of value by value encoding. */
+public class ColumnEncodeTest {
+
+  private static final int SIZE = 1000;
+
+  private final Random random = new Random(11);
+
+  @Test
+  public void testDoubleEncoders() throws IOException {
+    double[] values = new double[SIZE];
+    double value = 20.0;
+    for (int i = 0; i < SIZE; i++) {
+      value = Math.round((value + random.nextGaussian()) * 100) / 100.0;
+      values[i] = i % 97 == 0 ? Math.PI * i : value;
+    }
+    checkDouble(DoubleDeXOREncoder::new, values);
+    checkDouble(DoubleDeXORFireEncoder::new, values);
+    checkDouble(DoubleDeXORCrossEncoder::new, values);
+    checkDouble(DoublePrecisionEncoderV2::new, values);
+  }
+
+  @Test
+  public void testDeXORScaleAndSignChanges() throws IOException {
+    double[] values = new double[SIZE];
+    for (int i = 0; i < SIZE; i++) {
+      // values around 0 and changing their number of decimal digits
+      values[i] = (random.nextInt(2001) - 1000) / Math.pow(10, i / 50 % 4);
+      if (i % 89 == 0) {
+        values[i] = Double.NaN;
+      }
+    }
+    checkDouble(DoubleDeXOREncoder::new, values);
+  }
+
+  @Test
+  public void testLongEncoders() throws IOException {
+    long[] values = new long[SIZE];
+    long time = 1_700_000_000_000L;
+    for (int i = 0; i < SIZE; i++) {
+      time += i % 50 == 0 ? random.nextInt(100_000) : 1000;
+      values[i] = time;
+    }
+    checkLong(DeltaBinaryEncoder.LongDeltaEncoder::new, values);
+    checkLong(LongGorillaEncoder::new, values);
+  }
+
+  @Test
+  public void testIntEncoders() throws IOException {
+    int[] values = new int[SIZE];
+    for (int i = 0; i < SIZE; i++) {
+      values[i] = random.nextInt(1000) - 500;
+    }
+    Supplier<Encoder> supplier = DeltaBinaryEncoder.IntDeltaEncoder::new;
+    for (int[] slices : slicings()) {
+      ByteArrayOutputStream expected = new ByteArrayOutputStream();
+      Encoder encoder = supplier.get();
+      for (int value : values) {
+        encoder.encode(value, expected);
+      }
+      encoder.flush(expected);
+
+      ByteArrayOutputStream actual = new ByteArrayOutputStream();
+      encoder = supplier.get();
+      int from = 0;
+      for (int to : slices) {
+        encoder.encode(values, from, to, actual);
+        from = to;
+      }
+      encoder.flush(actual);
+      assertArrayEquals(expected.toByteArray(), actual.toByteArray());
+    }
+  }
+
+  private void checkDouble(Supplier<Encoder> supplier, double[] values) throws IOException {
+    for (int[] slices : slicings()) {
+      ByteArrayOutputStream expected = new ByteArrayOutputStream();
+      Encoder encoder = supplier.get();
+      for (double value : values) {
+        encoder.encode(value, expected);
+      }
+      encoder.flush(expected);
+
+      ByteArrayOutputStream actual = new ByteArrayOutputStream();
+      encoder = supplier.get();
+      int from = 0;
+      for (int to : slices) {
+        encoder.encode(values, from, to, actual);
+        from = to;
+      }
+      encoder.flush(actual);
+      assertArrayEquals(expected.toByteArray(), actual.toByteArray());
+    }
+  }
+
+  private void checkLong(Supplier<Encoder> supplier, long[] values) throws IOException {
+    for (int[] slices : slicings()) {
+      ByteArrayOutputStream expected = new ByteArrayOutputStream();
+      Encoder encoder = supplier.get();
+      for (long value : values) {
+        encoder.encode(value, expected);
+      }
+      encoder.flush(expected);
+
+      ByteArrayOutputStream actual = new ByteArrayOutputStream();
+      encoder = supplier.get();
+      int from = 0;
+      for (int to : slices) {
+        encoder.encode(values, from, to, actual);
+        from = to;
+      }
+      encoder.flush(actual);
+      assertArrayEquals(expected.toByteArray(), actual.toByteArray());
+    }
+  }
+
+  /** Slice end positions: one slice, block-misaligned slices and single-value slices. */
+  private static int[][] slicings() {
+    int[] single = new int[SIZE];
+    for (int i = 0; i < SIZE; i++) {
+      single[i] = i + 1;
+    }
+    return new int[][] {{SIZE}, {1, 127, 128, 129, 500, 500, 777, SIZE}, single};
+  }
+}
@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.encoding.decoder;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Decodes DEXOR pages written by the encoder of the first release of the DeXOR format, so that
+ * changes of the decoder cannot change how existing files read. The decoder of that release
+ * returned the previous value in place of an exception value, reused a stale prefix when the scale
+ * did not change, and never reported the end of a page; these streams decode to the values that
+ * were written.
+ */
+public class DoubleDeXORBaselineStreamTest {
+
+  @Test
+  public void testDecimals() {
+    // the decoder of the first release restored these
+    shouldDecode(
+        "JnH0kUsoJkkA1JQQEmmGn9MNQSLwAAASaQ+0kRlvc+LcdmA=",
+        12.5,
+        12.75,
+        13.0,
+        -4.25,
+        0.0,
+        1999.99,
+        2000.01,
+        0.001,
+        100.5,
+        100.25);
+  }
+
+  @Test
+  public void testExceptions() {
+    // read as 21.6 and 21.7 in place of the exceptions, and 9.950000000000001 by the first release
+    shouldDecode(
+        "JnNdFugBJD9qiIWjE/oQyoccfZLk/QSTKQpD0/jVicVJrE4qSaAHxt7nxbjswA==",
+        21.5,
+        21.6,
+        Math.PI,
+        21.7,
+        Math.E * 1e10,
+        21.8,
+        95.05,
+        95.15,
+        99.95,
+        100.05,
+        1000.5,
+        9.95);
+  }
+
+  @Test
+  public void testPrefixChanges() {
+    // read as 1.2345000000000002 by the first release
+    shouldDecode(
+        "ILGByRWMDkksYHJNYwOSixgck2gYHJJoGByRaBgckGgYHKoYHJK9z4tx2YA=",
+        1.2345,
+        12.345,
+        123.45,
+        1234.5,
+        12345.0,
+        1234.5,
+        123.45,
+        12.345,
+        1.2345,
+        -1.2345);
+  }
+
+  private static void shouldDecode(String stream, double... values) {
+    ByteBuffer buffer = ByteBuffer.wrap(Base64.getDecoder().decode(stream));
+    DoubleDeXORDecoder decoder = new DoubleDeXORDecoder();
+    for (double value : values) {
+      assertTrue(decoder.hasNext(buffer));
+      assertEquals(
+          Double.toString(value),
+          Double.doubleToRawLongBits(value),
+          Double.doubleToRawLongBits(decoder.readDouble(buffer)));
+    }
+    assertFalse(decoder.hasNext(buffer));
+  }
+}
@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.encoding.decoder;
+
+import org.apache.tsfile.encoding.encoder.DoubleDeXORCrossEncoder;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class DoubleDeXORCrossDecoderTest {
+
+  private static final int SIZE = 5000;
+
+  // DeXOR restores the decimal digits of a value, the last ulp may differ
+  private static final double DELTA = 1e-9;
+
+  @Test
+  public void testEncodeAndDecodeWithReference() {
+    Random random = new Random(7);
+    double[] references = new double[SIZE];
+    boolean[] present = new boolean[SIZE];
+    double[] values = new double[SIZE];
+    double phase = 220.0;
+    for (int i = 0; i < SIZE; i++) {
+      phase = Math.round((phase + random.nextGaussian()) * 100) / 100.0;
+      references[i] = phase;
+      present[i] = i % 7 != 0;
+      if (i % 97 == 0) {
+        // not representable with a few decimal digits, encoded as an exception
+        values[i] = Math.PI * i;
+      } else {
+        values[i] = Math.round((phase + random.nextInt(20) / 100.0) * 100) / 100.0;
+      }
+    }
+
+    DoubleDeXORCrossEncoder encoder = new DoubleDeXORCrossEncoder();
+    encoder.setReferenceMeasurementId("s1");
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    for (int i = 0; i < SIZE; i++) {
+      encoder.encode(values[i], present[i], references[i], out);
+    }
+    encoder.flush(out);
+
+    ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+    DoubleDeXORCrossDecoder decoder = new DoubleDeXORCrossDecoder();
+    assertEquals("s1", decoder.readReferenceMeasurementId(buffer));
+    decoder.setReferenceValues(references, present);
+    for (int i = 0; i < SIZE; i++) {
+      assertTrue(decoder.hasNext(buffer));
+      assertEquals(values[i], decoder.readDouble(buffer), DELTA);
+    }
+    assertFalse(decoder.hasNext(buffer));
+    assertEquals(buffer.limit(), buffer.position());
+  }
+
+  @Test
+  public void testReferenceIsCheaperThanOwnHistory() {
+    Random random = new Random(11);
+    double[] references = new double[SIZE];
+    boolean[] present = new boolean[SIZE];
+    double[] values = new double[SIZE];
+    for (int i = 0; i < SIZE; i++) {
+      references[i] = Math.round(random.nextDouble() * 1000000) / 100.0;
+      present[i] = true;
+      values[i] = references[i] + 0.01;
+    }
+    DoubleDeXORCrossEncoder crossEncoder = new DoubleDeXORCrossEncoder();
+    DoubleDeXORCrossEncoder plainEncoder = new DoubleDeXORCrossEncoder();
+    ByteArrayOutputStream crossOut = new ByteArrayOutputStream();
+    ByteArrayOutputStream plainOut = new ByteArrayOutputStream();
+    for (int i = 0; i < SIZE; i++) {
+      crossEncoder.encode(values[i], true, references[i], crossOut);
+      plainEncoder.encode(values[i], false, 0, plainOut);
+    }
+    crossEncoder.flush(crossOut);
+    plainEncoder.flush(plainOut);
+    assertTrue(crossOut.size() < plainOut.size() / 2);
+
+    ByteBuffer buffer = ByteBuffer.wrap(plainOut.toByteArray());
+    DoubleDeXORCrossDecoder decoder = new DoubleDeXORCrossDecoder();
+    // the values are decodable without any reference if no reference was used
+    for (int i = 0; i < SIZE; i++) {
+      assertEquals(values[i], decoder.readDouble(buffer), DELTA);
+    }
+    assertFalse(decoder.hasNext(buffer));
+  }
+
+  @Test
+  public void testMissingReference() {
+    DoubleDeXORCrossEncoder encoder = new DoubleDeXORCrossEncoder();
+    encoder.setReferenceMeasurementId("s1");
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    encoder.encode(1.25, true, 1.24, out);
+    encoder.flush(out);
+
+    DoubleDeXORCrossDecoder decoder = new DoubleDeXORCrossDecoder();
+    try {
+      decoder.readDouble(ByteBuffer.wrap(out.toByteArray()));
+      fail();
+    } catch (RuntimeException e) {
+      assertTrue(e.getMessage().contains("s1"));
+    }
+  }
+}
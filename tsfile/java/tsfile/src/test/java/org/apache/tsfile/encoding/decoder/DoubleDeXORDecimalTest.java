@@ -0,0 +1,146 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.encoding.decoder;
+
+import org.apache.tsfile.encoding.encoder.DoubleDeXOREncoder;
+import org.apache.tsfile.encoding.encoder.DoubleDeXORFireEncoder;
+import org.apache.tsfile.encoding.encoder.Encoder;
+import org.apache.tsfile.read.common.block.column.DecimalColumn;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class DoubleDeXORDecimalTest {
+
+  private static final int SIZE = 10000;
+
+  @Test
+  public void testPrices() throws IOException {
+    Random random = new Random(7);
+    long[] cents = new long[SIZE];
+    double[] values = new double[SIZE];
+    long price = 1999;
+    for (int i = 0; i < SIZE; i++) {
+      price += random.nextInt(41) - 20;
+      cents[i] = i % 97 == 0 ? price * 100 : price;
+      values[i] = cents[i] / 100.0;
+    }
+    values[5] = Math.PI; // an exception
+    cents[5] = 314;
+    testUnscaled(new DoubleDeXOREncoder(), new DoubleDeXORDecoder(), values, cents, 2);
+    testUnscaled(new DoubleDeXORFireEncoder(), new DoubleDeXORFireDecoder(), values, cents, 2);
+  }
+
+  @Test
+  public void testFullPrecisionRoundTrip() throws IOException {
+    Random random = new Random(11);
+    double[] values = new double[SIZE];
+    for (int i = 0; i < SIZE; i++) {
+      // 15 significant digits, as many as a double keeps for any decimal
+      long digits = 100000000000000L + (long) (random.nextDouble() * 899999999999999L);
+      values[i] = Double.parseDouble(BigDecimal.valueOf(digits, 12 - i % 10).toString());
+    }
+    // used to come back one ulp below
+    values[0] = 983.103184833703;
+    values[1] = 983.103184833703;
+    Encoder encoder = new DoubleDeXOREncoder();
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    for (double value : values) {
+      encoder.encode(value, out);
+    }
+    encoder.flush(out);
+    ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+    Decoder decoder = new DoubleDeXORDecoder();
+    for (double value : values) {
+      assertEquals(
+          Double.toString(value),
+          Double.doubleToRawLongBits(value),
+          Double.doubleToRawLongBits(decoder.readDouble(buffer)));
+    }
+  }
+
+  @Test
+  public void testScales() throws IOException {
+    double[] values = {12.5, -3.25, 0.125, 100, -0.0, 7.75, 1.005};
+    // to 4 digits every value is exact
+    testUnscaled(
+        new DoubleDeXOREncoder(),
+        new DoubleDeXORDecoder(),
+        values,
+        new long[] {125000, -32500, 1250, 1000000, 0, 77500, 10050},
+        4);
+    // to 1 digit values are rounded half even
+    testUnscaled(
+        new DoubleDeXOREncoder(),
+        new DoubleDeXORDecoder(),
+        values,
+        new long[] {125, -32, 1, 1000, 0, 78, 10},
+        1);
+  }
+
+  @Test
+  public void testExactSum() throws IOException {
+    double[] values = new double[SIZE];
+    long[] cents = new long[SIZE];
+    for (int i = 0; i < SIZE; i++) {
+      cents[i] = 10 + i % 3;
+      values[i] = cents[i] / 100.0;
+    }
+    ByteBuffer buffer = ByteBuffer.wrap(encode(new DoubleDeXOREncoder(), values));
+    DoubleDeXORDecoder decoder = new DoubleDeXORDecoder();
+    long[] unscaled = new long[SIZE];
+    for (int i = 0; i < SIZE; i++) {
+      unscaled[i] = decoder.readUnscaled(buffer, 2);
+    }
+    DecimalColumn column = new DecimalColumn(SIZE, Optional.empty(), unscaled, 2);
+    // 0.10 + 0.11 + 0.12 per three values and a last 0.10
+    assertEquals(new BigDecimal("1099.99"), column.sum());
+    assertEquals(0.11, column.getDouble(1), 0);
+    assertEquals(new BigDecimal("0.12"), column.getDecimal(2));
+  }
+
+  private void testUnscaled(
+      Encoder encoder, DoubleDeXORDecoder decoder, double[] values, long[] expected, int scale)
+      throws IOException {
+    // the encoder and the decoder are reused between pages
+    for (int page = 0; page < 2; page++) {
+      ByteBuffer buffer = ByteBuffer.wrap(encode(encoder, values));
+      for (int i = 0; i < values.length; i++) {
+        assertEquals("value " + i, expected[i], decoder.readUnscaled(buffer, scale));
+      }
+      decoder.reset();
+    }
+  }
+
+  private byte[] encode(Encoder encoder, double[] values) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    encoder.encode(values, 0, values.length, out);
+    encoder.flush(out);
+    return out.toByteArray();
+  }
+}
@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.encoding.decoder;
+
+import org.apache.tsfile.encoding.encoder.DoubleDeXOREncoder;
+import org.apache.tsfile.encoding.encoder.DoubleDeXORFireEncoder;
+import org.apache.tsfile.encoding.encoder.Encoder;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class DoubleDeXORFireDecoderTest {
+
+  private static final int SIZE = 10000;
+
+  // DeXOR restores the decimal digits of a value, the last ulp may differ
+  private static final double DELTA = 1e-9;
+
+  @Test
+  public void testTrendWithNoiseAndExceptions() throws IOException {
+    Random random = new Random(5);
+    double[] values = new double[SIZE];
+    double level = -40.0;
+    for (int i = 0; i < SIZE; i++) {
+      level += 0.013;
+      if (i % 113 == 0) {
+        values[i] = Math.E * i;
+      } else if (i % 501 == 0) {
+        values[i] = 0;
+      } else if (i % 1000 < 50) {
+        // more decimal digits for a while
+        values[i] = Math.round((level + random.nextInt(7) / 1000.0) * 10000) / 10000.0;
+      } else {
+        values[i] = Math.round((level + random.nextInt(7) / 100.0) * 100) / 100.0;
+      }
+    }
+    testRoundTrip(values);
+  }
+
+  @Test
+  public void testScaleChanges() throws IOException {
+    double[] values = {
+      1234567.5,
+      -98765.25,
+      1.5,
+      2.5,
+      3.5,
+      4.5,
+      -0.0,
+      1e-6,
+      7.25,
+      7.5,
+      7.75,
+      8.0,
+      8.25,
+      8.125,
+      9,
+      10,
+      11,
+      123456789.125,
+      123456790.0,
+      12,
+      13.5,
+      15,
+      16.5
+    };
+    testRoundTrip(values);
+  }
+
+  @Test
+  public void testLinearTrendIsCheaper() throws IOException {
+    double[] values = new double[SIZE];
+    for (int i = 0; i < SIZE; i++) {
+      // a cumulative meter
+      values[i] = Math.round((1000 + i * 0.37) * 100) / 100.0;
+    }
+    int fireSize = encode(new DoubleDeXORFireEncoder(), values).length;
+    int plainSize = encode(new DoubleDeXOREncoder(), values).length;
+    assertTrue(fireSize + " vs " + plainSize, fireSize * 2 < plainSize);
+    testRoundTrip(values);
+  }
+
+  private void testRoundTrip(double[] values) throws IOException {
+    DoubleDeXORFireEncoder encoder = new DoubleDeXORFireEncoder();
+    DoubleDeXORFireDecoder decoder = new DoubleDeXORFireDecoder();
+    // the encoder and the decoder are reused between pages
+    for (int page = 0; page < 2; page++) {
+      ByteBuffer buffer = ByteBuffer.wrap(encode(encoder, values));
+      for (double value : values) {
+        assertEquals(value, decoder.readDouble(buffer), DELTA);
+      }
+      decoder.reset();
+    }
+  }
+
+  private byte[] encode(Encoder encoder, double[] values) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    encoder.encode(values, 0, values.length, out);
+    encoder.flush(out);
+    return out.toByteArray();
+  }
+}
@@ -0,0 +1,221 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.encoding.decoder;
+
+import org.apache.tsfile.encoding.encoder.Encoder;
+import org.apache.tsfile.encoding.encoder.TSEncodingBuilder;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.file.metadata.enums.TSEncoding;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.zip.CRC32;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The streams of the GORILLA, CHIMP and DEXOR encoders are compared with checksums of the streams
+ * written by the byte-at-a-time bit writer they used before, so that the files written by any
+ * version can be read by any other.
+ */
+public class GorillaFamilyCompatibilityTest {
+
+  private static final int SIZE = 3000;
+
+  // DeXOR restores the decimal digits of a value, the last ulp may differ
+  private static final double DEXOR_DELTA = 1e-9;
+
+  @Test
+  public void testInt() throws IOException {
+    int[][] pages = new int[3][SIZE];
+    Random random = new Random(1);
+    for (int i = 0; i < SIZE; i++) {
+      pages[0][i] = random.nextInt();
+      pages[1][i] = i == 0 ? 0 : pages[1][i - 1] + random.nextInt(21) - 10;
+      pages[2][i] = i % 97 == 0 ? -random.nextInt(1000) : 42;
+    }
+    assertStream(TSEncoding.GORILLA, TSDataType.INT32, pages, 3065169930L);
+    assertStream(TSEncoding.CHIMP, TSDataType.INT32, pages, 1372081355L);
+  }
+
+  @Test
+  public void testLong() throws IOException {
+    long[][] pages = new long[3][SIZE];
+    Random random = new Random(2);
+    for (int i = 0; i < SIZE; i++) {
+      pages[0][i] = random.nextLong();
+      pages[1][i] = i == 0 ? 1_700_000_000_000L : pages[1][i - 1] + 1000 + random.nextInt(5);
+      pages[2][i] = i % 89 == 0 ? -random.nextInt(100_000) : 1L << 40;
+    }
+    assertStream(TSEncoding.GORILLA, TSDataType.INT64, pages, 1420385077L);
+    assertStream(TSEncoding.CHIMP, TSDataType.INT64, pages, 997672877L);
+  }
+
+  @Test
+  public void testFloat() throws IOException {
+    float[][] pages = new float[3][SIZE];
+    Random random = new Random(3);
+    for (int i = 0; i < SIZE; i++) {
+      pages[0][i] = Float.intBitsToFloat(random.nextInt());
+      pages[1][i] = i == 0 ? 20.5f : pages[1][i - 1] + (random.nextInt(21) - 10) / 100f;
+      pages[2][i] = i % 83 == 0 ? -random.nextFloat() : 0.1f;
+    }
+    assertStream(TSEncoding.GORILLA, TSDataType.FLOAT, pages, 1685564607L);
+    assertStream(TSEncoding.CHIMP, TSDataType.FLOAT, pages, 232363487L);
+  }
+
+  @Test
+  public void testDouble() throws IOException {
+    double[][] pages = new double[3][SIZE];
+    Random random = new Random(4);
+    for (int i = 0; i < SIZE; i++) {
+      pages[0][i] = Double.longBitsToDouble(random.nextLong());
+      pages[1][i] = i == 0 ? 20.5 : pages[1][i - 1] + (random.nextInt(21) - 10) / 100.0;
+      pages[2][i] = i % 83 == 0 ? -random.nextDouble() : 0.1;
+    }
+    assertStream(TSEncoding.GORILLA, TSDataType.DOUBLE, pages, 2598571147L);
+    assertStream(TSEncoding.CHIMP, TSDataType.DOUBLE, pages, 236803395L);
+
+    // DEXOR only takes decimals
+    double[][] decimals = new double[3][SIZE];
+    for (int i = 0; i < SIZE; i++) {
+      decimals[0][i] = Math.round(random.nextDouble() * 100_000) / 100.0;
+      decimals[1][i] = Math.round(pages[1][i] * 100) / 100.0;
+      decimals[2][i] = i % 83 == 0 ? -random.nextInt(1000) / 10.0 : 0.1;
+    }
+    assertStream(TSEncoding.DEXOR, TSDataType.DOUBLE, decimals, 3753866232L);
+    assertStream(TSEncoding.DEXOR_FIRE, TSDataType.DOUBLE, decimals, 2497242331L);
+  }
+
+  /**
+   * Encode the pages with one encoder, check the checksum of the concatenated streams, and decode
+   * each page with one decoder.
+   */
+  private static void assertStream(
+      TSEncoding encoding, TSDataType dataType, Object pages, long expectedChecksum)
+      throws IOException {
+    Encoder encoder = TSEncodingBuilder.getEncodingBuilder(encoding).getEncoder(dataType);
+    Decoder decoder = Decoder.getDecoderByType(encoding, dataType);
+    CRC32 checksum = new CRC32();
+    int pageNum = Array.getLength(pages);
+    for (int p = 0; p < pageNum; p++) {
+      Object page = Array.get(pages, p);
+      int count = Array.getLength(page);
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      // one by one for the first half, in bulk for the rest
+      for (int i = 0; i < count / 2; i++) {
+        encodeOne(encoder, dataType, page, i, out);
+      }
+      encodeRest(encoder, dataType, page, count / 2, count, out);
+      encoder.flush(out);
+      byte[] bytes = out.toByteArray();
+      checksum.update(bytes, 0, bytes.length);
+
+      ByteBuffer buffer = ByteBuffer.wrap(bytes);
+      for (int i = 0; i < count; i++) {
+        assertTrue(decoder.hasNext(buffer));
+        assertValue(encoding, dataType, page, i, decoder, buffer);
+      }
+      assertFalse(decoder.hasNext(buffer));
+      assertEquals(bytes.length, buffer.position());
+      decoder.reset();
+    }
+    assertEquals(encoding + " " + dataType, expectedChecksum, checksum.getValue());
+  }
+
+  private static void encodeOne(
+      Encoder encoder, TSDataType dataType, Object page, int i, ByteArrayOutputStream out) {
+    switch (dataType) {
+      case INT32:
+        encoder.encode(((int[]) page)[i], out);
+        break;
+      case INT64:
+        encoder.encode(((long[]) page)[i], out);
+        break;
+      case FLOAT:
+        encoder.encode(((float[]) page)[i], out);
+        break;
+      default:
+        encoder.encode(((double[]) page)[i], out);
+        break;
+    }
+  }
+
+  private static void encodeRest(
+      Encoder encoder,
+      TSDataType dataType,
+      Object page,
+      int from,
+      int to,
+      ByteArrayOutputStream out) {
+    switch (dataType) {
+      case INT32:
+        encoder.encode((int[]) page, from, to, out);
+        break;
+      case INT64:
+        encoder.encode((long[]) page, from, to, out);
+        break;
+      case FLOAT:
+        encoder.encode((float[]) page, from, to, out);
+        break;
+      default:
+        encoder.encode((double[]) page, from, to, out);
+        break;
+    }
+  }
+
+  private static void assertValue(
+      TSEncoding encoding,
+      TSDataType dataType,
+      Object page,
+      int i,
+      Decoder decoder,
+      ByteBuffer buffer) {
+    switch (dataType) {
+      case INT32:
+        assertEquals(((int[]) page)[i], decoder.readInt(buffer));
+        break;
+      case INT64:
+        assertEquals(((long[]) page)[i], decoder.readLong(buffer));
+        break;
+      case FLOAT:
+        assertEquals(
+            Float.floatToRawIntBits(((float[]) page)[i]),
+            Float.floatToRawIntBits(decoder.readFloat(buffer)));
+        break;
+      default:
+        double expected = ((double[]) page)[i];
+        double actual = decoder.readDouble(buffer);
+        if (encoding == TSEncoding.GORILLA || encoding == TSEncoding.CHIMP) {
+          assertEquals(Double.doubleToRawLongBits(expected), Double.doubleToRawLongBits(actual));
+        } else {
+          assertEquals(expected, actual, DEXOR_DELTA);
+        }
+        break;
+    }
+  }
+}
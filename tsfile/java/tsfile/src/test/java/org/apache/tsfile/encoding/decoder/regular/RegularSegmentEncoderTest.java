@@ -0,0 +1,147 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.encoding.decoder.regular;
+
+import org.apache.tsfile.encoding.decoder.Decoder;
+import org.apache.tsfile.encoding.decoder.RegularSegmentDecoder;
+import org.apache.tsfile.encoding.encoder.RegularSegmentEncoder;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.tsfile.write.schema.MeasurementSchema;
+import org.apache.tsfile.write.schema.TimeseriesSchema;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RegularSegmentEncoderTest {
+
+  @Test
+  public void testRegularTimestampsTakeOneSegment() {
+    long[] times = new long[100000];
+    for (int i = 0; i < times.length; i++) {
+      times[i] = 1700000000000L + i * 1000L;
+    }
+    byte[] bytes = encode(times);
+    assertTrue(bytes.length < 16);
+    shouldReadAndWrite(times, bytes);
+
+    RegularSegmentDecoder decoder = new RegularSegmentDecoder();
+    ByteBuffer buffer = ByteBuffer.wrap(bytes);
+    assertEquals(times.length, decoder.readSegment(buffer));
+    assertEquals(times[0], decoder.getSegmentStart());
+    assertEquals(1000L, decoder.getSegmentInterval());
+    assertFalse(decoder.hasNext(buffer));
+  }
+
+  @Test
+  public void testMissingPointsAndIntervalChanges() {
+    Random random = new Random(3);
+    long[] times = new long[20000];
+    long time = -5000;
+    for (int i = 0; i < times.length; i++) {
+      times[i] = time;
+      if (random.nextInt(100) == 0) {
+        time += random.nextInt(10000) + 1;
+      } else {
+        time += i < times.length / 2 ? 10 : 7;
+      }
+    }
+    shouldReadAndWrite(times, encode(times));
+    shouldReadAndWrite(new long[] {42}, encode(new long[] {42}));
+    shouldReadAndWrite(new long[] {1, 5}, encode(new long[] {1, 5}));
+    shouldReadAndWrite(
+        new long[] {Long.MIN_VALUE, 0, Long.MAX_VALUE},
+        encode(new long[] {Long.MIN_VALUE, 0, Long.MAX_VALUE}));
+  }
+
+  @Test
+  public void testSchemasAgreeOnTimeEncoding() {
+    MeasurementSchema measurementSchema =
+        new MeasurementSchema("s1", TSDataType.DOUBLE, TSEncoding.DEXOR_TIMED);
+    TimeseriesSchema timeseriesSchema =
+        new TimeseriesSchema("s1", TSDataType.DOUBLE, TSEncoding.DEXOR_TIMED);
+    assertEquals(TSEncoding.DEXOR_TIMED, measurementSchema.getTimeTSEncoding());
+    assertTrue(measurementSchema.getTimeEncoder() instanceof RegularSegmentEncoder);
+    assertTrue(timeseriesSchema.getTimeEncoder() instanceof RegularSegmentEncoder);
+    assertEquals(
+        measurementSchema.getTimeTSEncoding(), measurementSchema.getTimeEncoder().getType());
+    assertTrue(Decoder.getTimeDecoder(TSEncoding.DEXOR_TIMED) instanceof RegularSegmentDecoder);
+  }
+
+  @Test
+  public void testHasNextKeepsState() {
+    long[] times = {10, 20, 30};
+    ByteBuffer buffer = ByteBuffer.wrap(encode(times));
+    RegularSegmentDecoder decoder = new RegularSegmentDecoder();
+    for (long time : times) {
+      assertTrue(decoder.hasNext(buffer));
+      assertEquals(time, decoder.readLong(buffer));
+    }
+    assertFalse(decoder.hasNext(buffer));
+    assertFalse(decoder.hasNext(buffer));
+  }
+
+  @Test
+  public void testReadPartOfSegment() {
+    long[] times = {10, 20, 30, 40, 50, 55, 60};
+    ByteBuffer buffer = ByteBuffer.wrap(encode(times));
+    RegularSegmentDecoder decoder = new RegularSegmentDecoder();
+    assertEquals(10, decoder.readLong(buffer));
+    assertEquals(20, decoder.readLong(buffer));
+    assertEquals(3, decoder.readSegment(buffer));
+    assertEquals(30, decoder.getSegmentStart());
+    assertEquals(10, decoder.getSegmentInterval());
+    assertEquals(2, decoder.readSegment(buffer));
+    assertEquals(55, decoder.getSegmentStart());
+    assertEquals(5, decoder.getSegmentInterval());
+    assertFalse(decoder.hasNext(buffer));
+  }
+
+  private byte[] encode(long[] times) {
+    RegularSegmentEncoder encoder = new RegularSegmentEncoder();
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    encoder.encode(times, 0, times.length, out);
+    long maxSize = out.size() + encoder.getMaxByteSize();
+    encoder.flush(out);
+    assertTrue(out.size() <= maxSize);
+    return out.toByteArray();
+  }
+
+  private void shouldReadAndWrite(long[] times, byte[] bytes) {
+    RegularSegmentDecoder decoder = new RegularSegmentDecoder();
+    // the decoder is reused for the next page once it is reset
+    for (int page = 0; page < 2; page++) {
+      decoder.reset();
+      ByteBuffer buffer = ByteBuffer.wrap(bytes);
+      for (long time : times) {
+        assertTrue(decoder.hasNext(buffer));
+        assertEquals(time, decoder.readLong(buffer));
+      }
+      assertFalse(decoder.hasNext(buffer));
+    }
+  }
+}
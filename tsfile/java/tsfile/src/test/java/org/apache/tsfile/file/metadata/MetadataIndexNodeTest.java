@@ -19,13 +19,22 @@
 
 package org.apache.tsfile.file.metadata;
 
+import org.apache.tsfile.common.conf.TSFileConfig;
+import org.apache.tsfile.common.conf.TSFileDescriptor;
+import org.apache.tsfile.compatibility.DeserializeConfig;
 import org.apache.tsfile.file.IMetadataIndexEntry;
 import org.apache.tsfile.file.metadata.enums.MetadataIndexNodeType;
+import org.apache.tsfile.utils.Pair;
+import org.apache.tsfile.utils.PublicBAOS;
 
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 public class MetadataIndexNodeTest {
@@ -48,4 +57,112 @@ public class MetadataIndexNodeTest {
     Assert.assertEquals(-1, metadataIndexNode.binarySearchInChildren("s13", true));
     Assert.assertEquals(-1, metadataIndexNode.binarySearchInChildren("s23", true));
   }
+
+  @Test
+  public void testCompactMeasurementNode() throws IOException {
+    List<String> names = new ArrayList<>();
+    names.add("");
+    for (int i = 0; i < 100; i++) {
+      names.add("temperature_" + i);
+      names.add("t" + i + "\u0000x");
+    }
+    names.add("\u00e9t\u00e9");
+    Collections.sort(names);
+    List<IMetadataIndexEntry> list = new ArrayList<>();
+    for (int i = 0; i < names.size(); i++) {
+      list.add(new MeasurementMetadataIndexEntry(names.get(i), i * 10L));
+    }
+    MetadataIndexNode legacyNode =
+        new MetadataIndexNode(list, names.size() * 10L, MetadataIndexNodeType.LEAF_MEASUREMENT);
+
+    List<String> keys = new ArrayList<>(names);
+    keys.add("a");
+    keys.add("temperature_");
+    keys.add("temperature_99x");
+    keys.add("zzz");
+    checkCompactNode(legacyNode, false, keys);
+  }
+
+  @Test
+  public void testCompactDeviceNode() throws IOException {
+    List<IDeviceID> deviceIDs = new ArrayList<>();
+    for (int i = 0; i < 40; i++) {
+      deviceIDs.add(new StringArrayDeviceID("root.sg.d" + i));
+      deviceIDs.add(new StringArrayDeviceID("table" + i % 3, null, "d" + i));
+      deviceIDs.add(new StringArrayDeviceID("table" + i % 3, "a\u0000" + i, "d" + i));
+      deviceIDs.add(new StringArrayDeviceID("table" + i % 3, "a" + i));
+    }
+    deviceIDs.add(new StringArrayDeviceID("table0"));
+    deviceIDs.add(new StringArrayDeviceID("table0", ""));
+    Collections.sort(deviceIDs);
+    List<IMetadataIndexEntry> list = new ArrayList<>();
+    for (int i = 0; i < deviceIDs.size(); i++) {
+      list.add(new DeviceMetadataIndexEntry(deviceIDs.get(i), i * 10L));
+    }
+    MetadataIndexNode legacyNode =
+        new MetadataIndexNode(list, deviceIDs.size() * 10L, MetadataIndexNodeType.LEAF_DEVICE);
+
+    List<Comparable> keys = new ArrayList<>(deviceIDs);
+    keys.add(new StringArrayDeviceID("a"));
+    keys.add(new StringArrayDeviceID("table1", null));
+    keys.add(new StringArrayDeviceID("table1", "a1", "d"));
+    keys.add(new StringArrayDeviceID("table2", "a\u0000"));
+    keys.add(new StringArrayDeviceID("zzz"));
+    checkCompactNode(legacyNode, true, keys);
+  }
+
+  @Test
+  public void testSurrogateKeysFallBackToLegacyNode() throws IOException {
+    List<IMetadataIndexEntry> list = new ArrayList<>();
+    list.add(new MeasurementMetadataIndexEntry("s\ud83d\ude00", 0));
+    list.add(new MeasurementMetadataIndexEntry("s\uffff", 10));
+    MetadataIndexNode legacyNode =
+        new MetadataIndexNode(list, 20, MetadataIndexNodeType.LEAF_MEASUREMENT);
+    MetadataIndexNode node = serializeAndDeserialize(legacyNode, false);
+    Assert.assertFalse(node instanceof CompactMetadataIndexNode);
+    Assert.assertEquals(10, node.getChildIndexEntry("s\uffff", true).left.getOffset());
+  }
+
+  private void checkCompactNode(
+      MetadataIndexNode legacyNode, boolean isDeviceLevel, List<? extends Comparable> keys)
+      throws IOException {
+    MetadataIndexNode node = serializeAndDeserialize(legacyNode, isDeviceLevel);
+    Assert.assertTrue(node instanceof CompactMetadataIndexNode);
+    Assert.assertEquals(legacyNode.getEndOffset(), node.getEndOffset());
+    Assert.assertEquals(legacyNode.getNodeType(), node.getNodeType());
+    Assert.assertEquals(legacyNode.getChildren().toString(), node.getChildren().toString());
+    for (Comparable key : keys) {
+      for (boolean exactSearch : new boolean[] {true, false}) {
+        Pair<IMetadataIndexEntry, Long> expected = legacyNode.getChildIndexEntry(key, exactSearch);
+        Pair<IMetadataIndexEntry, Long> actual = node.getChildIndexEntry(key, exactSearch);
+        Assert.assertEquals(String.valueOf(expected), String.valueOf(actual));
+      }
+    }
+
+    // a compact node is written back as it was read, and can also be read from a stream
+    PublicBAOS out = new PublicBAOS();
+    node.serializeTo(out);
+    MetadataIndexNode streamNode =
+        new DeserializeConfig()
+            .deserializeMetadataIndexNode(
+                new ByteArrayInputStream(out.getBuf(), 0, out.size()), isDeviceLevel);
+    Assert.assertEquals(legacyNode.getChildren().toString(), streamNode.getChildren().toString());
+  }
+
+  private MetadataIndexNode serializeAndDeserialize(MetadataIndexNode node, boolean isDeviceLevel)
+      throws IOException {
+    TSFileConfig config = TSFileDescriptor.getInstance().getConfig();
+    PublicBAOS out = new PublicBAOS();
+    config.setCompactMetadataIndexEnabled(true);
+    try {
+      node.serializeTo(out);
+    } finally {
+      config.setCompactMetadataIndexEnabled(false);
+    }
+    ByteBuffer buffer = ByteBuffer.wrap(out.getBuf(), 0, out.size());
+    MetadataIndexNode result =
+        new DeserializeConfig().deserializeMetadataIndexNode(buffer, isDeviceLevel);
+    Assert.assertFalse(buffer.hasRemaining());
+    return result;
+  }
 }
@@ -20,8 +20,12 @@ package org.apache.tsfile.file.metadata.statistics;
 
 import org.junit.Test;
 
+import java.math.BigDecimal;
+
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
 
 public class DoubleStatisticsTest {
 
@@ -91,4 +95,21 @@ public class DoubleStatisticsTest {
     assertEquals(122.34d, doubleStats3.getFirstValue(), maxError);
     assertEquals(125.34d, doubleStats3.getLastValue(), maxError);
   }
+
+  @Test
+  public void testDecimalSum() {
+    DoubleStatistics doubleStats = new DoubleStatistics();
+    double sum = 0;
+    for (int i = 0; i < 1000; i++) {
+      doubleStats.update(i, 0.1d);
+      sum += 0.1d;
+    }
+    assertNotEquals(100d, sum, 0);
+    assertEquals(new BigDecimal("100.0"), doubleStats.getDecimalSum(1));
+    assertEquals(new BigDecimal("100.00"), doubleStats.getDecimalSum(2));
+    assertEquals(0, new BigDecimal("0.1").compareTo(doubleStats.getDecimalAvg(1)));
+    // the accumulated error is too large to prove a sum of 15 fraction digits
+    assertNull(doubleStats.getDecimalSum(15));
+    assertNull(new DoubleStatistics().getDecimalSum(2));
+  }
 }
@@ -0,0 +1,216 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.read;
+
+import org.apache.tsfile.constant.TestConstant;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.exception.write.WriteProcessException;
+import org.apache.tsfile.file.metadata.IDeviceID;
+import org.apache.tsfile.file.metadata.IDeviceID.Factory;
+import org.apache.tsfile.file.metadata.TsFileMetadata;
+import org.apache.tsfile.write.TsFileWriter;
+import org.apache.tsfile.write.record.TSRecord;
+import org.apache.tsfile.write.record.datapoint.LongDataPoint;
+import org.apache.tsfile.write.schema.MeasurementSchema;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+public class TsFileReaderPoolTest {
+
+  private static final int FILE_NUM = 10;
+
+  private final List<String> files = new ArrayList<>();
+
+  @Before
+  public void setUp() throws IOException, WriteProcessException {
+    for (int i = 0; i < FILE_NUM; i++) {
+      File file = new File(TestConstant.BASE_OUTPUT_PATH + "pool" + i + ".tsfile");
+      try (TsFileWriter writer = new TsFileWriter(file)) {
+        for (int d = 0; d <= i; d++) {
+          IDeviceID deviceID = Factory.DEFAULT_FACTORY.create("root.sg.d" + d);
+          writer.registerTimeseries(deviceID, new MeasurementSchema("s", TSDataType.INT64));
+          TSRecord record = new TSRecord(deviceID, i);
+          record.addTuple(new LongDataPoint("s", i));
+          writer.writeRecord(record);
+        }
+      }
+      files.add(file.getAbsolutePath());
+    }
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    for (String file : files) {
+      Files.deleteIfExists(new File(file).toPath());
+    }
+  }
+
+  @Test
+  public void testReadTailMetadata() throws IOException {
+    for (int tailSize : new int[] {0, 64, 64 * 1024}) {
+      try (TsFileSequenceReader expectedReader = new TsFileSequenceReader(files.get(3));
+          TsFileSequenceReader reader = new TsFileSequenceReader(files.get(3), false)) {
+        long[] readBytes = new long[1];
+        TsFileMetadata metadata = reader.readTailMetadata(tailSize, size -> readBytes[0] += size);
+        Assert.assertEquals(expectedReader.getFileMetadataPos(), reader.getFileMetadataPos());
+        Assert.assertEquals(expectedReader.getTsFileMetadataSize(), reader.getTsFileMetadataSize());
+        Assert.assertEquals(
+            expectedReader.readFileMetadata().getMetaOffset(), metadata.getMetaOffset());
+        Assert.assertEquals(expectedReader.readBloomFilter(), metadata.getBloomFilter());
+        Assert.assertEquals(expectedReader.getAllDevices(), reader.getAllDevices());
+        Assert.assertTrue(readBytes[0] > 0);
+      }
+    }
+  }
+
+  @Test
+  public void testWarmUp() throws IOException, InterruptedException, ExecutionException {
+    try (TsFileReaderPool pool = new TsFileReaderPool(4, 3)) {
+      pool.warmUp(files).get();
+      Assert.assertEquals(0, pool.getPendingWarmUpCount());
+      Assert.assertEquals(FILE_NUM, pool.getOpenedCount());
+      Assert.assertEquals(FILE_NUM, pool.getMissCount());
+      Assert.assertEquals(0, pool.getFailedCount());
+      Assert.assertEquals(FILE_NUM - 4, pool.getEvictedCount());
+      Assert.assertEquals(4, pool.size());
+      Assert.assertTrue(pool.getReadBytes() > 0);
+
+      for (int i = 0; i < FILE_NUM; i++) {
+        TsFileSequenceReader reader = pool.acquire(files.get(i));
+        try {
+          Assert.assertEquals(i + 1, reader.getAllDevices().size());
+        } finally {
+          pool.release(files.get(i));
+        }
+      }
+      Assert.assertEquals(2 * FILE_NUM, pool.getHitCount() + pool.getMissCount());
+      Assert.assertEquals(pool.getMissCount(), pool.getOpenedCount());
+
+      long hitCount = pool.getHitCount();
+      pool.acquire(files.get(FILE_NUM - 1));
+      pool.release(files.get(FILE_NUM - 1));
+      Assert.assertEquals(hitCount + 1, pool.getHitCount());
+      Assert.assertEquals(4, pool.size());
+    }
+  }
+
+  @Test
+  public void testSharedMetadataCache() throws IOException {
+    IDeviceID deviceID = Factory.DEFAULT_FACTORY.create("root.sg.d0");
+    try (TsFileReaderPool pool = new TsFileReaderPool(4, Runnable::run, 1024 * 1024)) {
+      long sizeInBytes = 0;
+      for (int i = 0; i < 2; i++) {
+        TsFileSequenceReader reader = pool.acquire(files.get(i));
+        try {
+          Assert.assertNotNull(reader.readTimeseriesMetadata(deviceID, "s", false));
+        } finally {
+          pool.release(files.get(i));
+        }
+        // the metadata of both readers is in the cache of the pool
+        Assert.assertTrue(pool.getMetadataCacheSizeInBytes() > sizeInBytes);
+        sizeInBytes = pool.getMetadataCacheSizeInBytes();
+      }
+      pool.close();
+      // closed readers leave nothing behind
+      Assert.assertEquals(0, pool.getMetadataCacheSizeInBytes());
+    }
+    try (TsFileReaderPool pool = new TsFileReaderPool(4, Runnable::run, 0)) {
+      TsFileSequenceReader reader = pool.acquire(files.get(0));
+      try {
+        Assert.assertNotNull(reader.readTimeseriesMetadata(deviceID, "s", false));
+      } finally {
+        pool.release(files.get(0));
+      }
+      Assert.assertEquals(0, pool.getMetadataCacheSizeInBytes());
+    }
+  }
+
+  @Test
+  public void testLeasedReadersAreNotEvicted() throws IOException {
+    try (TsFileReaderPool pool = new TsFileReaderPool(1, 1)) {
+      TsFileSequenceReader first = pool.acquire(files.get(0));
+      TsFileSequenceReader second = pool.acquire(files.get(1));
+      Assert.assertEquals(2, pool.size());
+      Assert.assertSame(first, pool.acquire(files.get(0)));
+      pool.release(files.get(0));
+      pool.release(files.get(0));
+      Assert.assertEquals(1, pool.size());
+      // the evicted reader is closed, the leased one is still usable
+      Assert.assertEquals(2, second.getAllDevices().size());
+      pool.release(files.get(1));
+      Assert.assertEquals(1, pool.getEvictedCount());
+    }
+  }
+
+  @Test
+  public void testDoubleRelease() throws IOException {
+    try (TsFileReaderPool pool = new TsFileReaderPool(4, 2)) {
+      pool.acquire(files.get(0));
+      pool.release(files.get(0));
+      try {
+        pool.release(files.get(0));
+        Assert.fail();
+      } catch (IllegalStateException e) {
+        // expected
+      }
+      try {
+        pool.release(files.get(1));
+        Assert.fail();
+      } catch (IllegalStateException e) {
+        // expected
+      }
+      // the reader is still usable and evictable
+      pool.acquire(files.get(0));
+      pool.release(files.get(0));
+      Assert.assertEquals(1, pool.size());
+    }
+  }
+
+  @Test
+  public void testFailedOpen() throws InterruptedException, ExecutionException {
+    String missingFile = TestConstant.BASE_OUTPUT_PATH + "missing.tsfile";
+    try (TsFileReaderPool pool = new TsFileReaderPool(4, 2)) {
+      List<String> warmUpFiles = new ArrayList<>(files.subList(0, 2));
+      warmUpFiles.add(missingFile);
+      pool.warmUp(warmUpFiles).get();
+      Assert.assertEquals(2, pool.getOpenedCount());
+      Assert.assertEquals(1, pool.getFailedCount());
+      Assert.assertEquals(2, pool.size());
+      try {
+        pool.acquire(missingFile);
+        Assert.fail();
+      } catch (IOException e) {
+        // expected
+      }
+      Assert.assertEquals(2, pool.getFailedCount());
+      Assert.assertEquals(2, pool.size());
+    }
+  }
+}
@@ -34,8 +34,12 @@ import org.apache.tsfile.file.metadata.IChunkMetadata;
 import org.apache.tsfile.file.metadata.IDeviceID;
 import org.apache.tsfile.file.metadata.IDeviceID.Factory;
 import org.apache.tsfile.file.metadata.TableSchema;
+import org.apache.tsfile.file.metadata.TimeseriesMetadata;
 import org.apache.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.tsfile.read.common.Chunk;
 import org.apache.tsfile.read.common.Path;
+import org.apache.tsfile.read.query.executor.IoThreadPool;
+import org.apache.tsfile.utils.BlockedBloomFilter;
 import org.apache.tsfile.utils.BloomFilter;
 import org.apache.tsfile.utils.FileGenerator;
 import org.apache.tsfile.utils.Pair;
@@ -60,7 +64,9 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -157,6 +163,48 @@ public class TsFileSequenceReaderTest {
     reader.close();
   }
 
+  @Test
+  public void testReadMemChunksAhead() throws IOException {
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(FILE_PATH)) {
+      List<ChunkMetadata> chunkMetadataList = new ArrayList<>();
+      reader
+          .readChunkMetadataInDevice(IDeviceID.Factory.DEFAULT_FACTORY.create("d1"))
+          .values()
+          .forEach(chunkMetadataList::addAll);
+      chunkMetadataList.sort(Comparator.comparingLong(ChunkMetadata::getOffsetOfChunkHeader));
+      assertTrue(chunkMetadataList.size() > 2);
+      // every other chunk, so the chunks to read are separated by chunks that must not be read
+      List<ChunkMetadata> sparseChunkMetadataList = new ArrayList<>();
+      for (int i = 0; i < chunkMetadataList.size(); i += 2) {
+        sparseChunkMetadataList.add(chunkMetadataList.get(i));
+      }
+
+      for (List<ChunkMetadata> chunks : Arrays.asList(chunkMetadataList, sparseChunkMetadataList)) {
+        // a small coalescing limit makes both single and merged reads happen
+        for (int maxCoalescedReadSize : new int[] {0, 64, 1024 * 1024}) {
+          assertReadAhead(reader, chunks, maxCoalescedReadSize);
+        }
+      }
+    }
+  }
+
+  private void assertReadAhead(
+      TsFileSequenceReader reader, List<ChunkMetadata> chunkMetadataList, int maxCoalescedReadSize)
+      throws IOException {
+    try (TsFileChunkReadAheadIterator iterator =
+        new TsFileChunkReadAheadIterator(
+            reader, chunkMetadataList, 2, maxCoalescedReadSize, IoThreadPool.getInstance())) {
+      for (ChunkMetadata chunkMetadata : chunkMetadataList) {
+        assertTrue(iterator.hasNext());
+        Chunk expected = reader.readMemChunk(chunkMetadata);
+        Chunk actual = iterator.next();
+        Assert.assertEquals(expected.getHeader().toString(), actual.getHeader().toString());
+        Assert.assertEquals(expected.getData(), actual.getData());
+      }
+      assertFalse(iterator.hasNext());
+    }
+  }
+
   @Test
   public void testReadChunkMetadataInSimilarDevice() throws IOException, WriteProcessException {
     File testFile = new File(TestConstant.BASE_OUTPUT_PATH + "test.tsfile");
@@ -175,6 +223,160 @@ public class TsFileSequenceReaderTest {
     assertTrue(iChunkMetadataList.isEmpty());
   }
 
+  @Test
+  public void testCachedTimeseriesMetadataLookup() throws IOException, WriteProcessException {
+    TSFileConfig config = TSFileDescriptor.getInstance().getConfig();
+    int maxDegreeOfIndexNode = config.getMaxDegreeOfIndexNode();
+    long metadataCacheSize = config.getMetadataCacheSizeInByte();
+    File testFile = new File(TestConstant.BASE_OUTPUT_PATH + "test.tsfile");
+    // a small degree gives internal device and measurement nodes
+    config.setMaxDegreeOfIndexNode(3);
+    try (TsFileWriter writer = new TsFileWriter(testFile)) {
+      for (int i = 0; i < 10; i++) {
+        IDeviceID deviceID = Factory.DEFAULT_FACTORY.create("root.sg.d" + i);
+        TSRecord record = new TSRecord(deviceID, i);
+        for (int j = 0; j < 10; j++) {
+          writer.registerTimeseries(deviceID, new MeasurementSchema("s" + j, TSDataType.DOUBLE));
+          record.addTuple(new DoubleDataPoint("s" + j, i * 10 + j));
+        }
+        writer.writeRecord(record);
+      }
+    } finally {
+      config.setMaxDegreeOfIndexNode(maxDegreeOfIndexNode);
+    }
+
+    config.setMetadataCacheSizeInByte(1024 * 1024);
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(testFile.getAbsolutePath())) {
+      config.setMetadataCacheSizeInByte(0);
+      TsFileSequenceReader uncachedReader = new TsFileSequenceReader(testFile.getAbsolutePath());
+      long[] ioSize = new long[1];
+      for (int round = 0; round < 2; round++) {
+        for (int i = 0; i < 10; i++) {
+          IDeviceID deviceID = Factory.DEFAULT_FACTORY.create("root.sg.d" + i);
+          for (int j = 0; j < 10; j++) {
+            TimeseriesMetadata timeseriesMetadata =
+                reader.readTimeseriesMetadata(deviceID, "s" + j, false, size -> ioSize[0] += size);
+            TimeseriesMetadata expected =
+                uncachedReader.readTimeseriesMetadata(deviceID, "s" + j, false);
+            Assert.assertEquals(expected.getMeasurementId(), timeseriesMetadata.getMeasurementId());
+            Assert.assertEquals(expected.getStatistics(), timeseriesMetadata.getStatistics());
+            Assert.assertEquals(
+                expected.getChunkMetadataList().toString(),
+                timeseriesMetadata.getChunkMetadataList().toString());
+            // callers get their own copies
+            timeseriesMetadata.setModified(true);
+          }
+        }
+        if (round == 0) {
+          Assert.assertTrue(ioSize[0] > 0);
+          ioSize[0] = 0;
+        }
+      }
+      // the second round is served from the cache
+      Assert.assertEquals(0, ioSize[0]);
+      Assert.assertFalse(
+          reader
+              .readTimeseriesMetadata(Factory.DEFAULT_FACTORY.create("root.sg.d0"), "s0", false)
+              .isModified());
+      uncachedReader.close();
+    } finally {
+      config.setMetadataCacheSizeInByte(metadataCacheSize);
+      Files.deleteIfExists(testFile.toPath());
+    }
+  }
+
+  @Test
+  public void testCachedWideDeviceLookup() throws IOException, WriteProcessException {
+    TSFileConfig config = TSFileDescriptor.getInstance().getConfig();
+    long metadataCacheSize = config.getMetadataCacheSizeInByte();
+    File testFile = new File(TestConstant.BASE_OUTPUT_PATH + "test.tsfile");
+    // more series than the default degree of an index node
+    int seriesNum = 300;
+    IDeviceID deviceID = Factory.DEFAULT_FACTORY.create("root.sg.wide");
+    try (TsFileWriter writer = new TsFileWriter(testFile)) {
+      TSRecord record = new TSRecord(deviceID, 1);
+      for (int j = 0; j < seriesNum; j++) {
+        writer.registerTimeseries(deviceID, new MeasurementSchema("s" + j, TSDataType.DOUBLE));
+        record.addTuple(new DoubleDataPoint("s" + j, j));
+      }
+      writer.writeRecord(record);
+    }
+
+    config.setMetadataCacheSizeInByte(1024 * 1024);
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(testFile.getAbsolutePath())) {
+      long[] ioSize = new long[1];
+      for (int round = 0; round < 2; round++) {
+        ioSize[0] = 0;
+        for (int j = 0; j < seriesNum; j++) {
+          Assert.assertEquals(
+              "s" + j,
+              reader
+                  .readTimeseriesMetadata(deviceID, "s" + j, false, size -> ioSize[0] += size)
+                  .getMeasurementId());
+        }
+      }
+      // the whole device fits into a cache of 1MB
+      Assert.assertEquals(0, ioSize[0]);
+    } finally {
+      config.setMetadataCacheSizeInByte(metadataCacheSize);
+      Files.deleteIfExists(testFile.toPath());
+    }
+  }
+
+  @Test
+  public void testCompactMetadataIndex() throws IOException, WriteProcessException {
+    TSFileConfig config = TSFileDescriptor.getInstance().getConfig();
+    int maxDegreeOfIndexNode = config.getMaxDegreeOfIndexNode();
+    File legacyFile = new File(TestConstant.BASE_OUTPUT_PATH + "legacy.tsfile");
+    File compactFile = new File(TestConstant.BASE_OUTPUT_PATH + "compact.tsfile");
+    config.setMaxDegreeOfIndexNode(4);
+    try {
+      writeDevices(legacyFile, 20, 20);
+      config.setCompactMetadataIndexEnabled(true);
+      writeDevices(compactFile, 20, 20);
+    } finally {
+      config.setCompactMetadataIndexEnabled(false);
+      config.setMaxDegreeOfIndexNode(maxDegreeOfIndexNode);
+    }
+
+    try (TsFileSequenceReader legacyReader =
+            new TsFileSequenceReader(legacyFile.getAbsolutePath());
+        TsFileSequenceReader compactReader =
+            new TsFileSequenceReader(compactFile.getAbsolutePath())) {
+      Assert.assertTrue(compactFile.length() < legacyFile.length());
+      Assert.assertEquals(legacyReader.getAllDevices(), compactReader.getAllDevices());
+      Assert.assertEquals(
+          legacyReader.getAllTimeseriesMetadata(false).toString(),
+          compactReader.getAllTimeseriesMetadata(false).toString());
+      for (int i = 0; i < 21; i++) {
+        IDeviceID deviceID = Factory.DEFAULT_FACTORY.create("root.sg.d" + i);
+        for (int j = 0; j < 21; j++) {
+          Assert.assertEquals(
+              String.valueOf(legacyReader.readTimeseriesMetadata(deviceID, "s" + j, true)),
+              String.valueOf(compactReader.readTimeseriesMetadata(deviceID, "s" + j, true)));
+        }
+      }
+    } finally {
+      Files.deleteIfExists(legacyFile.toPath());
+      Files.deleteIfExists(compactFile.toPath());
+    }
+  }
+
+  private void writeDevices(File file, int deviceNum, int measurementNum)
+      throws IOException, WriteProcessException {
+    try (TsFileWriter writer = new TsFileWriter(file)) {
+      for (int i = 0; i < deviceNum; i++) {
+        IDeviceID deviceID = Factory.DEFAULT_FACTORY.create("root.sg.d" + i);
+        TSRecord record = new TSRecord(deviceID, i);
+        for (int j = 0; j < measurementNum; j++) {
+          writer.registerTimeseries(deviceID, new MeasurementSchema("s" + j, TSDataType.DOUBLE));
+          record.addTuple(new DoubleDataPoint("s" + j, i * 10 + j));
+        }
+        writer.writeRecord(record);
+      }
+    }
+  }
+
   @Test
   public void testReadBloomFilter() throws IOException, WriteProcessException {
     File testFile = new File(TestConstant.BASE_OUTPUT_PATH + "test.tsfile");
@@ -194,6 +396,36 @@ public class TsFileSequenceReaderTest {
         bloomFilter.contains(Factory.DEFAULT_FACTORY.create("root.topic2").toString() + ".s"));
   }
 
+  @Test
+  public void testReadBlockedBloomFilter() throws IOException, WriteProcessException {
+    TSFileConfig config = TSFileDescriptor.getInstance().getConfig();
+    File testFile = new File(TestConstant.BASE_OUTPUT_PATH + "test.tsfile");
+    config.setBloomFilterVersion(BloomFilter.BLOCKED_VERSION);
+    try {
+      writeDevices(testFile, 10, 10);
+    } finally {
+      config.setBloomFilterVersion(BloomFilter.LEGACY_VERSION);
+    }
+
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(testFile.getAbsolutePath())) {
+      BloomFilter bloomFilter = reader.readBloomFilter();
+      assertTrue(bloomFilter instanceof BlockedBloomFilter);
+      for (int i = 0; i < 10; i++) {
+        IDeviceID deviceID = Factory.DEFAULT_FACTORY.create("root.sg.d" + i);
+        assertTrue(bloomFilter.containsDevice(deviceID));
+        for (int j = 0; j < 10; j++) {
+          assertTrue(bloomFilter.contains(deviceID.toString() + ".s" + j));
+          assertTrue(bloomFilter.contains(new Path(deviceID, "s" + j, false)));
+          assertTrue(bloomFilter.contains(deviceID, "s" + j));
+        }
+      }
+      assertFalse(bloomFilter.containsDevice(Factory.DEFAULT_FACTORY.create("root.sg.d10")));
+      assertFalse(bloomFilter.contains("root.sg.d10.s0"));
+    } finally {
+      Files.deleteIfExists(testFile.toPath());
+    }
+  }
+
   @Test
   public void testReadEmptyPageInSelfCheck() throws IOException, WriteProcessException {
     int oldMaxPagePointNum =
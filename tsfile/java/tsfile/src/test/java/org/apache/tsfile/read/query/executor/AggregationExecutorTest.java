@@ -0,0 +1,345 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.read.query.executor;
+
+import org.apache.tsfile.common.conf.TSFileConfig;
+import org.apache.tsfile.common.conf.TSFileDescriptor;
+import org.apache.tsfile.enums.ColumnCategory;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.exception.write.NoMeasurementException;
+import org.apache.tsfile.exception.write.NoTableException;
+import org.apache.tsfile.exception.write.WriteProcessException;
+import org.apache.tsfile.file.metadata.TableSchema;
+import org.apache.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.tsfile.file.metadata.statistics.Statistics;
+import org.apache.tsfile.read.TsFileReader;
+import org.apache.tsfile.read.TsFileSequenceReader;
+import org.apache.tsfile.read.common.Path;
+import org.apache.tsfile.read.common.block.TsBlock;
+import org.apache.tsfile.read.filter.basic.Filter;
+import org.apache.tsfile.read.filter.factory.FilterFactory;
+import org.apache.tsfile.read.filter.factory.TimeFilterApi;
+import org.apache.tsfile.read.v4.DeviceTableModelReader;
+import org.apache.tsfile.utils.TsFileGeneratorForTest;
+import org.apache.tsfile.write.TsFileWriter;
+import org.apache.tsfile.write.record.Tablet;
+import org.apache.tsfile.write.schema.IMeasurementSchema;
+import org.apache.tsfile.write.schema.MeasurementSchema;
+import org.apache.tsfile.write.v4.ITsFileWriter;
+import org.apache.tsfile.write.v4.TsFileWriterBuilder;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.LongPredicate;
+
+public class AggregationExecutorTest {
+
+  private static final int CHUNK_COUNT = 10;
+  private static final int ROWS_IN_CHUNK = 1000;
+
+  private final String filePath = TsFileGeneratorForTest.getTestTsFilePath("root.sg1", 0, 0, 2);
+  private int maxNumberOfPointsInPage;
+
+  @Before
+  public void setUp() throws IOException, WriteProcessException {
+    TSFileConfig config = TSFileDescriptor.getInstance().getConfig();
+    maxNumberOfPointsInPage = config.getMaxNumberOfPointsInPage();
+    config.setMaxNumberOfPointsInPage(100);
+    File file = new File(filePath);
+    if (!file.getParentFile().exists()) {
+      Assert.assertTrue(file.getParentFile().mkdirs());
+    }
+    List<IMeasurementSchema> schemas =
+        Arrays.asList(
+            new MeasurementSchema("s1", TSDataType.DOUBLE, TSEncoding.DEXOR),
+            new MeasurementSchema("s2", TSDataType.INT64, TSEncoding.TS_2DIFF));
+    try (TsFileWriter writer = new TsFileWriter(file)) {
+      writer.registerTimeseries(new Path("d1"), schemas);
+      writer.registerAlignedTimeseries(new Path("d2"), schemas);
+      for (int chunk = 0; chunk < CHUNK_COUNT; chunk++) {
+        Tablet nonAligned = new Tablet("d1", schemas, ROWS_IN_CHUNK);
+        Tablet aligned = new Tablet("d2", schemas, ROWS_IN_CHUNK);
+        for (int row = 0; row < ROWS_IN_CHUNK; row++) {
+          long time = (long) chunk * ROWS_IN_CHUNK + row;
+          for (Tablet tablet : Arrays.asList(nonAligned, aligned)) {
+            tablet.addTimestamp(row, time);
+            tablet.addValue(row, 0, doubleValue(time));
+            tablet.addValue(row, 1, longValue(time));
+          }
+        }
+        writer.writeTree(nonAligned);
+        writer.writeAligned(aligned);
+        // one chunk of ten pages per series and batch
+        writer.flush();
+      }
+    }
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    TSFileDescriptor.getInstance().getConfig().setMaxNumberOfPointsInPage(maxNumberOfPointsInPage);
+    Files.deleteIfExists(new File(filePath).toPath());
+  }
+
+  private static double doubleValue(long time) {
+    return (time * 37 % 1001) / 4.0 - 20;
+  }
+
+  private static long longValue(long time) {
+    return time * 13 % 997 - 300;
+  }
+
+  @Test
+  public void testTreeAggregation() throws IOException {
+    try (TsFileReader reader = new TsFileReader(new TsFileSequenceReader(filePath))) {
+      // the whole series, a chunk, page bounds, bounds inside pages and an empty range
+      checkAggregation(reader, null, time -> true);
+      checkAggregation(
+          reader, TimeFilterApi.between(3000, 3999), time -> time >= 3000 && time < 4000);
+      checkAggregation(
+          reader, TimeFilterApi.between(250, 7349), time -> time >= 250 && time <= 7349);
+      checkAggregation(reader, TimeFilterApi.gt(9876), time -> time > 9876);
+      checkAggregation(
+          reader,
+          FilterFactory.or(TimeFilterApi.lt(17), TimeFilterApi.between(5050, 5149)),
+          time -> time < 17 || (time >= 5050 && time <= 5149));
+      checkAggregation(reader, TimeFilterApi.lt(0), time -> false);
+
+      Assert.assertNull(reader.aggregate(Arrays.asList(new Path("d3", "s1", true)), null).get(0));
+    }
+  }
+
+  private void checkAggregation(TsFileReader reader, Filter timeFilter, LongPredicate selected)
+      throws IOException {
+    List<Path> paths =
+        Arrays.asList(
+            new Path("d1", "s1", true),
+            new Path("d1", "s2", true),
+            new Path("d2", "s1", true),
+            new Path("d2", "s2", true));
+    List<Statistics<? extends Serializable>> results = reader.aggregate(paths, timeFilter);
+
+    int count = 0;
+    double doubleSum = 0;
+    long longSum = 0;
+    double doubleMin = Double.MAX_VALUE;
+    double doubleMax = -Double.MAX_VALUE;
+    long longMin = Long.MAX_VALUE;
+    long longMax = Long.MIN_VALUE;
+    long first = -1;
+    long last = -1;
+    for (long time = 0; time < CHUNK_COUNT * ROWS_IN_CHUNK; time++) {
+      if (!selected.test(time)) {
+        continue;
+      }
+      count++;
+      doubleSum += doubleValue(time);
+      longSum += longValue(time);
+      doubleMin = Math.min(doubleMin, doubleValue(time));
+      doubleMax = Math.max(doubleMax, doubleValue(time));
+      longMin = Math.min(longMin, longValue(time));
+      longMax = Math.max(longMax, longValue(time));
+      first = first < 0 ? time : first;
+      last = time;
+    }
+
+    for (int i = 0; i < paths.size(); i++) {
+      Statistics<? extends Serializable> statistics = results.get(i);
+      Assert.assertEquals(paths.get(i).toString(), count, statistics.getCount());
+      if (count == 0) {
+        Assert.assertTrue(statistics.isEmpty());
+        continue;
+      }
+      Assert.assertEquals(first, statistics.getStartTime());
+      Assert.assertEquals(last, statistics.getEndTime());
+      if (i % 2 == 0) {
+        Assert.assertEquals(doubleSum, statistics.getSumDoubleValue(), 1e-6);
+        Assert.assertEquals(doubleMin, (double) statistics.getMinValue(), 0);
+        Assert.assertEquals(doubleMax, (double) statistics.getMaxValue(), 0);
+        Assert.assertEquals(doubleValue(first), (double) statistics.getFirstValue(), 0);
+        Assert.assertEquals(doubleValue(last), (double) statistics.getLastValue(), 0);
+      } else {
+        Assert.assertEquals(longSum, statistics.getSumDoubleValue(), 0);
+        Assert.assertEquals(longMin, (long) statistics.getMinValue());
+        Assert.assertEquals(longMax, (long) statistics.getMaxValue());
+        Assert.assertEquals(longValue(first), (long) statistics.getFirstValue());
+        Assert.assertEquals(longValue(last), (long) statistics.getLastValue());
+      }
+    }
+  }
+
+  @Test
+  public void testWindowAggregation() throws IOException {
+    try (TsFileReader reader = new TsFileReader(new TsFileSequenceReader(filePath))) {
+      // windows of a chunk, inside pages, crossing pages and partly beyond the data
+      checkWindowAggregation(reader, 0, CHUNK_COUNT * ROWS_IN_CHUNK, 1000);
+      checkWindowAggregation(reader, 120, 480, 7);
+      checkWindowAggregation(reader, 50, 9350, 333);
+      checkWindowAggregation(reader, -500, 20000, 4000);
+
+      Assert.assertNull(
+          reader.aggregateByWindow(new Path("d3", "s1", true), 0, 100, 10, AggregationExecutor.M4));
+      try {
+        reader.aggregateByWindow(new Path("d1", "s1", true), 0, 100, 0, AggregationExecutor.M4);
+        Assert.fail();
+      } catch (IllegalArgumentException e) {
+        // expected
+      }
+    }
+  }
+
+  private void checkWindowAggregation(
+      TsFileReader reader, long startTime, long endTime, long interval) throws IOException {
+    List<AggregationType> aggregations = new ArrayList<>(AggregationExecutor.M4);
+    aggregations.add(AggregationType.COUNT);
+    aggregations.add(AggregationType.AVG);
+    for (Path path : Arrays.asList(new Path("d1", "s1", true), new Path("d2", "s2", true))) {
+      boolean isDouble = path.getMeasurement().equals("s1");
+      TsBlock tsBlock = reader.aggregateByWindow(path, startTime, endTime, interval, aggregations);
+      int row = 0;
+      for (long windowStart = startTime; windowStart < endTime; windowStart += interval) {
+        long first = Math.max(windowStart, 0);
+        long last =
+            Math.min(Math.min(windowStart + interval, endTime), CHUNK_COUNT * ROWS_IN_CHUNK);
+        if (first >= last) {
+          continue;
+        }
+        double min = Double.MAX_VALUE;
+        double max = -Double.MAX_VALUE;
+        double sum = 0;
+        for (long time = first; time < last; time++) {
+          double value = isDouble ? doubleValue(time) : longValue(time);
+          min = Math.min(min, value);
+          max = Math.max(max, value);
+          sum += value;
+        }
+        last--;
+        Assert.assertEquals(windowStart, tsBlock.getTimeByIndex(row));
+        if (isDouble) {
+          Assert.assertEquals(doubleValue(first), tsBlock.getColumn(0).getDouble(row), 0);
+          Assert.assertEquals(doubleValue(last), tsBlock.getColumn(1).getDouble(row), 0);
+          Assert.assertEquals(min, tsBlock.getColumn(2).getDouble(row), 0);
+          Assert.assertEquals(max, tsBlock.getColumn(3).getDouble(row), 0);
+        } else {
+          Assert.assertEquals(longValue(first), tsBlock.getColumn(0).getLong(row));
+          Assert.assertEquals(longValue(last), tsBlock.getColumn(1).getLong(row));
+          Assert.assertEquals((long) min, tsBlock.getColumn(2).getLong(row));
+          Assert.assertEquals((long) max, tsBlock.getColumn(3).getLong(row));
+        }
+        Assert.assertEquals(last - first + 1, tsBlock.getColumn(4).getLong(row));
+        Assert.assertEquals(sum / (last - first + 1), tsBlock.getColumn(5).getDouble(row), 1e-6);
+        row++;
+      }
+      Assert.assertEquals(row, tsBlock.getPositionCount());
+    }
+  }
+
+  @Test
+  public void testTableAggregation()
+      throws IOException, WriteProcessException, NoTableException, NoMeasurementException {
+    String tablePath = TsFileGeneratorForTest.getTestTsFilePath("db", 0, 0, 3);
+    TableSchema tableSchema =
+        new TableSchema(
+            "t1",
+            Arrays.asList(
+                new MeasurementSchema("device", TSDataType.STRING),
+                new MeasurementSchema("s1", TSDataType.INT32),
+                new MeasurementSchema("s2", TSDataType.DOUBLE, TSEncoding.DEXOR)),
+            Arrays.asList(ColumnCategory.TAG, ColumnCategory.FIELD, ColumnCategory.FIELD));
+    try {
+      try (ITsFileWriter writer =
+          new TsFileWriterBuilder()
+              .file(new File(tablePath))
+              .tableSchema(tableSchema)
+              .memoryThreshold(1)
+              .build()) {
+        for (String device : Arrays.asList("d1", "d2")) {
+          // s2 is absent from the first chunk group of each device
+          Tablet tablet1 =
+              new Tablet(
+                  "t1",
+                  Arrays.asList("device", "s1"),
+                  Arrays.asList(TSDataType.STRING, TSDataType.INT32),
+                  Arrays.asList(ColumnCategory.TAG, ColumnCategory.FIELD));
+          for (int i = 0; i < 1000; i++) {
+            tablet1.addTimestamp(i, i);
+            tablet1.addValue("device", i, device);
+            tablet1.addValue("s1", i, 0);
+          }
+          writer.write(tablet1);
+          Tablet tablet2 =
+              new Tablet(
+                  "t1",
+                  Arrays.asList("device", "s1", "s2"),
+                  Arrays.asList(TSDataType.STRING, TSDataType.INT32, TSDataType.DOUBLE),
+                  Arrays.asList(ColumnCategory.TAG, ColumnCategory.FIELD, ColumnCategory.FIELD));
+          for (int i = 0; i < 1000; i++) {
+            tablet2.addTimestamp(i, 1005 + i);
+            tablet2.addValue("device", i, device);
+            tablet2.addValue("s1", i, 1);
+            tablet2.addValue("s2", i, 0.5);
+          }
+          writer.write(tablet2);
+        }
+      }
+
+      try (DeviceTableModelReader reader = new DeviceTableModelReader(new File(tablePath))) {
+        Statistics<? extends Serializable> statistics = reader.aggregate("t1", "s1", 0, 2004);
+        Assert.assertEquals(4000, statistics.getCount());
+        Assert.assertEquals(2000, statistics.getSumDoubleValue(), 0);
+        Assert.assertEquals(0, (int) statistics.getMinValue());
+        Assert.assertEquals(1, (int) statistics.getMaxValue());
+        Assert.assertEquals(0, (int) statistics.getFirstValue());
+        Assert.assertEquals(1, (int) statistics.getLastValue());
+
+        statistics = reader.aggregate("t1", "s1", 1500, 3000);
+        Assert.assertEquals(1010, statistics.getCount());
+        Assert.assertEquals(1010, statistics.getSumDoubleValue(), 0);
+
+        statistics = reader.aggregate("T1", "S2", Long.MIN_VALUE, Long.MAX_VALUE);
+        Assert.assertEquals(2000, statistics.getCount());
+        Assert.assertEquals(1000, statistics.getSumDoubleValue(), 0);
+        Assert.assertEquals(1005, statistics.getStartTime());
+
+        statistics = reader.aggregate("t1", "s2", 0, 999);
+        Assert.assertTrue(statistics.isEmpty());
+
+        try {
+          reader.aggregate("t1", "device", 0, 2004);
+          Assert.fail();
+        } catch (NoMeasurementException e) {
+          // tags have no statistics
+        }
+      }
+    } finally {
+      Files.deleteIfExists(new File(tablePath).toPath());
+    }
+  }
+}
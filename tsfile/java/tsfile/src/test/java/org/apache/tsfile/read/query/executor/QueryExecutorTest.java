@@ -162,4 +162,34 @@ public class QueryExecutorTest {
     Assert.assertEquals(100, count);
     long endTimestamp = System.currentTimeMillis();
   }
+
+  @Test
+  public void queryInParallel() throws IOException {
+    TsFileExecutor serialExecutor = new TsFileExecutor(metadataQuerierByFile, chunkLoader);
+    serialExecutor.setQueryParallelism(1);
+    TsFileExecutor parallelExecutor = new TsFileExecutor(metadataQuerierByFile, chunkLoader);
+    parallelExecutor.setQueryParallelism(4);
+
+    QueryDataSet serialDataSet = serialExecutor.execute(createQueryOfAllSeries());
+    QueryDataSet parallelDataSet = parallelExecutor.execute(createQueryOfAllSeries());
+    int count = 0;
+    while (serialDataSet.hasNext()) {
+      Assert.assertTrue(parallelDataSet.hasNext());
+      Assert.assertEquals(serialDataSet.next().toString(), parallelDataSet.next().toString());
+      count++;
+    }
+    Assert.assertFalse(parallelDataSet.hasNext());
+    Assert.assertEquals(rowCount, count);
+  }
+
+  private QueryExpression createQueryOfAllSeries() {
+    return QueryExpression.create()
+        .addSelectedPath(new Path("d1", "s1", true))
+        .addSelectedPath(new Path("d1", "s2", true))
+        .addSelectedPath(new Path("d1", "s3", true))
+        .addSelectedPath(new Path("d1", "s4", true))
+        .addSelectedPath(new Path("d1", "s5", true))
+        .addSelectedPath(new Path("d2", "s1", true))
+        .addSelectedPath(new Path("d2", "s2", true));
+  }
 }
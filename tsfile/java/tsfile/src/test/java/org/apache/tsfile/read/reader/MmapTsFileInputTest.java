@@ -0,0 +1,227 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.read.reader;
+
+import org.apache.tsfile.common.conf.TSFileConfig;
+import org.apache.tsfile.common.conf.TSFileDescriptor;
+import org.apache.tsfile.fileSystem.FSFactoryProducer;
+import org.apache.tsfile.read.TsFileReader;
+import org.apache.tsfile.read.TsFileSequenceReader;
+import org.apache.tsfile.read.common.Path;
+import org.apache.tsfile.read.expression.QueryExpression;
+import org.apache.tsfile.read.query.dataset.QueryDataSet;
+import org.apache.tsfile.utils.FileGenerator;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.file.Paths;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+
+public class MmapTsFileInputTest {
+
+  private static final String FILE_PATH = FileGenerator.outputDataFile;
+  private final TSFileConfig config = TSFileDescriptor.getInstance().getConfig();
+  private boolean useMmapForLocalRead;
+
+  @Before
+  public void before() throws IOException {
+    useMmapForLocalRead = config.isUseMmapForLocalRead();
+    FileGenerator.generateFile(1000, 100);
+  }
+
+  @After
+  public void after() {
+    config.setUseMmapForLocalRead(useMmapForLocalRead);
+    FileGenerator.after();
+  }
+
+  @Test
+  public void testReadMatchesChannel() throws IOException {
+    int segmentSize = 4096;
+    LocalTsFileInput expected = new LocalTsFileInput(Paths.get(FILE_PATH));
+    MmapTsFileInput actual = new MmapTsFileInput(Paths.get(FILE_PATH), segmentSize);
+    try {
+      long size = expected.size();
+      Assert.assertEquals(size, actual.size());
+
+      Random random = new Random(0);
+      for (int i = 0; i < 200; i++) {
+        long position = (long) (random.nextDouble() * size);
+        int length = (int) Math.min(size - position, random.nextInt(3 * segmentSize));
+        ByteBuffer expectedBuffer = ByteBuffer.allocate(length);
+        ByteBuffer actualBuffer = ByteBuffer.allocate(length);
+        expected.read(expectedBuffer, position);
+        actual.read(actualBuffer, position);
+        expectedBuffer.flip();
+        actualBuffer.flip();
+        Assert.assertEquals(expectedBuffer, actualBuffer);
+
+        ByteBuffer slice = actual.slice(position, length);
+        if (position / segmentSize == (position + length - 1) / segmentSize) {
+          Assert.assertNotNull(slice);
+          Assert.assertEquals(expectedBuffer, slice);
+        } else {
+          Assert.assertNull(slice);
+        }
+      }
+      Assert.assertNull(actual.slice(size - 1, 2));
+
+      // sequential reads move the position just like a channel does
+      expected.position(0);
+      actual.position(0);
+      InputStream expectedStream = expected.wrapAsInputStream();
+      InputStream actualStream = actual.wrapAsInputStream();
+      byte[] expectedBytes = new byte[1000];
+      byte[] actualBytes = new byte[1000];
+      int readSize;
+      while ((readSize = expectedStream.read(expectedBytes)) > 0) {
+        Assert.assertEquals(readSize, actualStream.read(actualBytes));
+        Assert.assertArrayEquals(expectedBytes, actualBytes);
+        Assert.assertEquals(expected.position(), actual.position());
+      }
+      Assert.assertEquals(-1, actualStream.read());
+    } finally {
+      expected.close();
+      actual.close();
+    }
+  }
+
+  @Test
+  public void testSliceOutlivesInput() throws IOException {
+    ByteBuffer expected = ByteBuffer.allocate(100);
+    ByteBuffer slice;
+    LocalTsFileInput input = new LocalTsFileInput(Paths.get(FILE_PATH));
+    try {
+      input.read(expected, 0);
+      expected.flip();
+    } finally {
+      input.close();
+    }
+    MmapTsFileInput actual = new MmapTsFileInput(Paths.get(FILE_PATH), 4096);
+    try {
+      slice = actual.slice(0, 100);
+    } finally {
+      actual.close();
+    }
+    // a slice held by a cache stays readable after the input is closed
+    Assert.assertEquals(expected, slice);
+  }
+
+  @Test
+  public void testReadRacingClose() throws Exception {
+    MmapTsFileInput input = new MmapTsFileInput(Paths.get(FILE_PATH), 4096);
+    long size = input.size();
+    Thread[] readers = new Thread[4];
+    Throwable[] errors = new Throwable[readers.length];
+    CountDownLatch started = new CountDownLatch(readers.length);
+    for (int i = 0; i < readers.length; i++) {
+      int index = i;
+      readers[i] =
+          new Thread(
+              () -> {
+                ByteBuffer buffer = ByteBuffer.allocate(100);
+                started.countDown();
+                try {
+                  for (long position = 0; ; position = (position + 4001) % (size - 100)) {
+                    buffer.clear();
+                    input.read(buffer, position);
+                    input.slice(position, 100);
+                    input.position(position);
+                  }
+                } catch (Throwable e) {
+                  errors[index] = e;
+                }
+              });
+      readers[i].start();
+    }
+    started.await();
+    input.close();
+    for (int i = 0; i < readers.length; i++) {
+      readers[i].join();
+      // never a NullPointerException on the dropped segments
+      Assert.assertTrue(String.valueOf(errors[i]), errors[i] instanceof ClosedChannelException);
+    }
+    Assert.assertThrows(ClosedChannelException.class, input::position);
+    Assert.assertThrows(ClosedChannelException.class, () -> input.slice(0, 100));
+  }
+
+  @Test
+  public void testSelectedByConfig() throws IOException {
+    config.setUseMmapForLocalRead(true);
+    TsFileInput input = FSFactoryProducer.getFileInputFactory().getTsFileInput(FILE_PATH);
+    try {
+      Assert.assertTrue(input instanceof MmapTsFileInput);
+    } finally {
+      input.close();
+    }
+    config.setUseMmapForLocalRead(false);
+    input = FSFactoryProducer.getFileInputFactory().getTsFileInput(FILE_PATH);
+    try {
+      Assert.assertTrue(input instanceof LocalTsFileInput);
+    } finally {
+      input.close();
+    }
+  }
+
+  @Test
+  public void testQueryThroughMmap() throws IOException {
+    checkQuery(1024 * 1024);
+    // metadata and chunks spanning segments are copied instead of sliced
+    checkQuery(1024);
+  }
+
+  private void checkQuery(int segmentSize) throws IOException {
+    try (TsFileReader expectedReader =
+            new TsFileReader(new TsFileSequenceReader(new LocalTsFileInput(Paths.get(FILE_PATH))));
+        TsFileReader actualReader =
+            new TsFileReader(
+                new TsFileSequenceReader(new MmapTsFileInput(Paths.get(FILE_PATH), segmentSize)))) {
+      QueryDataSet expectedDataSet = expectedReader.query(createQueryOfAllSeries());
+      QueryDataSet actualDataSet = actualReader.query(createQueryOfAllSeries());
+      int count = 0;
+      while (expectedDataSet.hasNext()) {
+        Assert.assertTrue(actualDataSet.hasNext());
+        Assert.assertEquals(expectedDataSet.next().toString(), actualDataSet.next().toString());
+        count++;
+      }
+      Assert.assertFalse(actualDataSet.hasNext());
+      Assert.assertEquals(1000, count);
+    }
+  }
+
+  private QueryExpression createQueryOfAllSeries() {
+    return QueryExpression.create()
+        .addSelectedPath(new Path("d1", "s1", true))
+        .addSelectedPath(new Path("d1", "s2", true))
+        .addSelectedPath(new Path("d1", "s3", true))
+        .addSelectedPath(new Path("d1", "s4", true))
+        .addSelectedPath(new Path("d1", "s5", true))
+        .addSelectedPath(new Path("d2", "s1", true))
+        .addSelectedPath(new Path("d2", "s2", true));
+  }
+}
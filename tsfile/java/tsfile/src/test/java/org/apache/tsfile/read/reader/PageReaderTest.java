@@ -19,23 +19,37 @@
 package org.apache.tsfile.read.reader;
 
 import org.apache.tsfile.common.conf.TSFileConfig;
+import org.apache.tsfile.common.conf.TSFileDescriptor;
+import org.apache.tsfile.compress.ICompressor;
+import org.apache.tsfile.compress.IUnCompressor;
 import org.apache.tsfile.encoding.decoder.Decoder;
 import org.apache.tsfile.encoding.decoder.DeltaBinaryDecoder;
+import org.apache.tsfile.encoding.decoder.DoubleDeXORDecoder;
 import org.apache.tsfile.encoding.decoder.DoublePrecisionDecoderV1;
+import org.apache.tsfile.encoding.decoder.DoublePrecisionDecoderV2;
 import org.apache.tsfile.encoding.decoder.IntRleDecoder;
 import org.apache.tsfile.encoding.decoder.LongRleDecoder;
 import org.apache.tsfile.encoding.decoder.PlainDecoder;
 import org.apache.tsfile.encoding.decoder.SinglePrecisionDecoderV1;
 import org.apache.tsfile.encoding.encoder.DeltaBinaryEncoder;
+import org.apache.tsfile.encoding.encoder.DoubleDeXOREncoder;
 import org.apache.tsfile.encoding.encoder.DoublePrecisionEncoderV1;
+import org.apache.tsfile.encoding.encoder.DoublePrecisionEncoderV2;
 import org.apache.tsfile.encoding.encoder.Encoder;
 import org.apache.tsfile.encoding.encoder.IntRleEncoder;
 import org.apache.tsfile.encoding.encoder.LongRleEncoder;
 import org.apache.tsfile.encoding.encoder.PlainEncoder;
 import org.apache.tsfile.encoding.encoder.SinglePrecisionEncoderV1;
 import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.file.header.PageHeader;
+import org.apache.tsfile.file.metadata.enums.CompressionType;
+import org.apache.tsfile.file.metadata.statistics.DoubleStatistics;
 import org.apache.tsfile.read.common.BatchData;
 import org.apache.tsfile.read.common.TimeRange;
+import org.apache.tsfile.read.common.block.TsBlock;
+import org.apache.tsfile.read.common.block.column.DecimalColumn;
+import org.apache.tsfile.read.filter.factory.TimeFilterApi;
+import org.apache.tsfile.read.reader.page.LazyLoadPageData;
 import org.apache.tsfile.read.reader.page.PageReader;
 import org.apache.tsfile.utils.Binary;
 import org.apache.tsfile.write.page.PageWriter;
@@ -44,6 +58,7 @@ import org.junit.Assert;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.math.BigDecimal;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
@@ -311,4 +326,111 @@ public class PageReaderTest {
         };
     test.testDelete(TSDataType.INT64);
   }
+
+  @Test
+  public void testDirectUncompress() throws IOException {
+    boolean enableDirectUncompress =
+        TSFileDescriptor.getInstance().getConfig().isEnableDirectUncompress();
+    try {
+      for (CompressionType type :
+          new CompressionType[] {
+            CompressionType.LZ4, CompressionType.ZSTD, CompressionType.SNAPPY, CompressionType.GZIP
+          }) {
+        for (boolean direct : new boolean[] {true, false}) {
+          TSFileDescriptor.getInstance().getConfig().setEnableDirectUncompress(direct);
+          checkCompressedDoublePage(type);
+        }
+      }
+    } finally {
+      TSFileDescriptor.getInstance().getConfig().setEnableDirectUncompress(enableDirectUncompress);
+    }
+  }
+
+  private void checkCompressedDoublePage(CompressionType type) throws IOException {
+    int count = 1000;
+    PageWriter pageWriter = new PageWriter();
+    pageWriter.setTimeEncoder(new DeltaBinaryEncoder.LongDeltaEncoder());
+    pageWriter.setValueEncoder(new DoublePrecisionEncoderV2());
+    pageWriter.initStatistics(TSDataType.DOUBLE);
+    for (int i = 0; i < count; i++) {
+      pageWriter.write(i, i / 100.0);
+    }
+    ByteBuffer uncompressedBuffer = pageWriter.getUncompressedBytes();
+    byte[] uncompressed = new byte[uncompressedBuffer.remaining()];
+    uncompressedBuffer.get(uncompressed);
+    byte[] compressed = ICompressor.getCompressor(type).compress(uncompressed);
+    PageHeader pageHeader =
+        new PageHeader(uncompressed.length, compressed.length, pageWriter.getStatistics());
+
+    // read the same page repeatedly so that pooled buffers are reused
+    for (int round = 0; round < 3; round++) {
+      PageReader pageReader =
+          new PageReader(
+              pageHeader,
+              new LazyLoadPageData(compressed, 0, IUnCompressor.getUnCompressor(type)),
+              TSDataType.DOUBLE,
+              new DoublePrecisionDecoderV2(),
+              new DeltaBinaryDecoder.LongDeltaDecoder(),
+              null);
+      TsBlock tsBlock = pageReader.getAllSatisfiedData();
+      Assert.assertEquals(count, tsBlock.getPositionCount());
+      for (int i = 0; i < count; i++) {
+        Assert.assertEquals(i, tsBlock.getTimeByIndex(i));
+        Assert.assertEquals(i / 100.0, tsBlock.getColumn(0).getDouble(i), 0);
+      }
+      // a page is read once, a pooled buffer has been released and is not read again
+      Assert.assertEquals(0, pageReader.getAllSatisfiedData().getPositionCount());
+    }
+  }
+
+  @Test
+  public void testDecimalPage() throws IOException {
+    int count = 1000;
+    PageWriter pageWriter = new PageWriter();
+    pageWriter.setTimeEncoder(new DeltaBinaryEncoder.LongDeltaEncoder());
+    pageWriter.setValueEncoder(new DoubleDeXOREncoder());
+    pageWriter.initStatistics(TSDataType.DOUBLE);
+    long sum = 0;
+    for (int i = 0; i < count; i++) {
+      long cents = 10000 + i * 7 % 1000;
+      pageWriter.write(i, cents / 100.0);
+      sum += cents;
+    }
+    ByteBuffer page = pageWriter.getUncompressedBytes();
+    PageHeader pageHeader =
+        new PageHeader(page.remaining(), page.remaining(), pageWriter.getStatistics());
+    BigDecimal expectedSum = BigDecimal.valueOf(sum, 2);
+    Assert.assertEquals(
+        expectedSum, ((DoubleStatistics) pageWriter.getStatistics()).getDecimalSum(2));
+
+    PageReader pageReader =
+        new PageReader(
+            pageHeader,
+            page.duplicate(),
+            TSDataType.DOUBLE,
+            new DoubleDeXORDecoder(),
+            new DeltaBinaryDecoder.LongDeltaDecoder());
+    TsBlock tsBlock = pageReader.getAllSatisfiedDecimalData(2);
+    Assert.assertEquals(count, tsBlock.getPositionCount());
+    DecimalColumn column = (DecimalColumn) tsBlock.getColumn(0);
+    Assert.assertEquals(expectedSum, column.sum());
+    for (int i = 0; i < count; i++) {
+      Assert.assertEquals(i, tsBlock.getTimeByIndex(i));
+      Assert.assertEquals(10000 + i * 7 % 1000, column.getLong(i));
+    }
+
+    pageReader =
+        new PageReader(
+            pageHeader,
+            page.duplicate(),
+            TSDataType.DOUBLE,
+            new DoubleDeXORDecoder(),
+            new DeltaBinaryDecoder.LongDeltaDecoder(),
+            TimeFilterApi.gtEq(990));
+    tsBlock = pageReader.getAllSatisfiedDecimalData(1);
+    Assert.assertEquals(10, tsBlock.getPositionCount());
+    Assert.assertEquals(990, tsBlock.getTimeByIndex(0));
+    // 109.30 at one fraction digit
+    Assert.assertEquals(1093, tsBlock.getColumn(0).getLong(0));
+  }
 }
@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.read.reader;
+
+import org.apache.tsfile.file.metadata.IChunkMetadata;
+import org.apache.tsfile.read.reader.series.AbstractFileSeriesReader;
+import org.apache.tsfile.read.reader.series.PrefetchFileSeriesReader;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PrefetchFileSeriesReaderTest {
+
+  @Test
+  public void testCloseWaitsForRunningPrefetch() throws Exception {
+    BlockingSeriesReader seriesReader = new BlockingSeriesReader();
+    PrefetchFileSeriesReader reader =
+        new PrefetchFileSeriesReader(seriesReader, command -> new Thread(command).start());
+    assertTrue(seriesReader.started.await(10, TimeUnit.SECONDS));
+
+    Thread closer =
+        new Thread(
+            () -> {
+              try {
+                reader.close();
+              } catch (IOException e) {
+                throw new RuntimeException(e);
+              }
+            });
+    closer.start();
+    closer.join(200);
+    // the wrapped reader is not closed under the running prefetch
+    assertTrue(closer.isAlive());
+    assertFalse(seriesReader.closed.get());
+
+    seriesReader.release.countDown();
+    closer.join(10_000);
+    assertFalse(closer.isAlive());
+    assertTrue(seriesReader.closed.get());
+    assertFalse(seriesReader.closedWhileReading.get());
+  }
+
+  @Test
+  public void testCloseSkipsQueuedPrefetch() throws Exception {
+    BlockingSeriesReader seriesReader = new BlockingSeriesReader();
+    Runnable[] queued = new Runnable[1];
+    PrefetchFileSeriesReader reader =
+        new PrefetchFileSeriesReader(seriesReader, command -> queued[0] = command);
+    reader.close();
+    assertTrue(seriesReader.closed.get());
+
+    // a prefetch run after the reader is closed does not touch the wrapped reader
+    queued[0].run();
+    assertEquals(1, seriesReader.started.getCount());
+  }
+
+  private static class BlockingSeriesReader extends AbstractFileSeriesReader {
+
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicBoolean reading = new AtomicBoolean();
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private final AtomicBoolean closedWhileReading = new AtomicBoolean();
+
+    private BlockingSeriesReader() {
+      super(null, Collections.emptyList(), null);
+    }
+
+    @Override
+    public boolean hasNextBatch() throws IOException {
+      reading.set(true);
+      started.countDown();
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IOException(e);
+      } finally {
+        reading.set(false);
+      }
+      return false;
+    }
+
+    @Override
+    protected void initChunkReader(IChunkMetadata chunkMetaData) {
+      // no chunks
+    }
+
+    @Override
+    protected boolean chunkCanSkip(IChunkMetadata chunkMetaData) {
+      return false;
+    }
+
+    @Override
+    public void close() {
+      closedWhileReading.compareAndSet(false, reading.get());
+      closed.set(true);
+    }
+  }
+}
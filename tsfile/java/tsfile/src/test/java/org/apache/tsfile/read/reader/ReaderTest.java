@@ -107,6 +107,35 @@ public class ReaderTest {
     }
   }
 
+  @Test
+  public void readWithChunkReadAheadTest() throws IOException {
+    int oldChunkReadAheadNum = TSFileDescriptor.getInstance().getConfig().getChunkReadAheadNum();
+    try {
+      TSFileDescriptor.getInstance().getConfig().setChunkReadAheadNum(4);
+      CachedChunkLoaderImpl seriesChunkLoader = new CachedChunkLoaderImpl(fileReader);
+      List<IChunkMetadata> chunkMetadataList =
+          metadataQuerierByFile.getChunkMetaDataList(new Path("d1", "s1", true));
+      Assert.assertTrue(chunkMetadataList.size() > 1);
+
+      AbstractFileSeriesReader seriesReader =
+          new FileSeriesReader(seriesChunkLoader, chunkMetadataList, null);
+      long startTime = TsFileGeneratorForTest.START_TIMESTAMP;
+      int count = 0;
+      while (seriesReader.hasNextBatch()) {
+        BatchData data = seriesReader.nextBatch();
+        while (data.hasCurrent()) {
+          Assert.assertEquals(startTime, data.currentTime());
+          data.next();
+          startTime++;
+          count++;
+        }
+      }
+      Assert.assertEquals(rowCount, count);
+    } finally {
+      TSFileDescriptor.getInstance().getConfig().setChunkReadAheadNum(oldChunkReadAheadNum);
+    }
+  }
+
   @Test
   public void readWithFilterTest() throws IOException {
     CachedChunkLoaderImpl seriesChunkLoader = new CachedChunkLoaderImpl(fileReader);
@@ -19,11 +19,15 @@
 
 package org.apache.tsfile.read.reader;
 
+import org.apache.tsfile.common.conf.TSFileConfig;
+import org.apache.tsfile.common.conf.TSFileDescriptor;
 import org.apache.tsfile.enums.TSDataType;
 import org.apache.tsfile.exception.write.WriteProcessException;
 import org.apache.tsfile.file.metadata.IDeviceID;
 import org.apache.tsfile.file.metadata.IDeviceID.Factory;
 import org.apache.tsfile.read.TimeValuePair;
+import org.apache.tsfile.read.TsFileSequenceReader;
+import org.apache.tsfile.read.common.Path;
 import org.apache.tsfile.utils.Binary;
 import org.apache.tsfile.utils.Pair;
 import org.apache.tsfile.utils.TsPrimitiveType;
@@ -41,6 +45,7 @@ import org.junit.Test;
 import java.io.File;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -51,6 +56,7 @@ import java.util.Set;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
@@ -346,6 +352,100 @@ public class TsFileLastReaderTest {
     file.delete();
   }
 
+  @Test
+  public void testLastPointSection() throws Exception {
+    TSFileConfig config = TSFileDescriptor.getInstance().getConfig();
+    try {
+      config.setLastPointSectionEnabled(true);
+      createFileWithAllTypes();
+      try (TsFileSequenceReader reader = new TsFileSequenceReader(filePath)) {
+        assertNotNull(reader.readLastPointSection());
+      }
+      List<Pair<IDeviceID, List<Pair<String, TimeValuePair>>>> fromSection = readAllLast(false);
+      List<Pair<IDeviceID, List<Pair<String, TimeValuePair>>>> fromSectionIgnoringBlob =
+          readAllLast(true);
+
+      // files written without the section are served from the timeseries metadata and chunks
+      config.setLastPointSectionEnabled(false);
+      createFileWithAllTypes();
+      try (TsFileSequenceReader reader = new TsFileSequenceReader(filePath)) {
+        assertNull(reader.readLastPointSection());
+      }
+      assertEquals(fromSection, readAllLast(false));
+      assertEquals(fromSectionIgnoringBlob, readAllLast(true));
+
+      assertEquals(2, fromSection.size());
+      for (Pair<IDeviceID, List<Pair<String, TimeValuePair>>> device : fromSection) {
+        for (Pair<String, TimeValuePair> lastPoint : device.right) {
+          assertEquals(19, lastPoint.right.getTimestamp());
+        }
+      }
+    } finally {
+      config.setLastPointSectionEnabled(true);
+      file.delete();
+    }
+  }
+
+  private void createFileWithAllTypes() throws IOException, WriteProcessException {
+    file.delete();
+    List<TSDataType> types =
+        Arrays.asList(
+            TSDataType.BOOLEAN,
+            TSDataType.INT32,
+            TSDataType.INT64,
+            TSDataType.FLOAT,
+            TSDataType.DOUBLE,
+            TSDataType.TEXT,
+            TSDataType.STRING,
+            TSDataType.BLOB,
+            TSDataType.DATE,
+            TSDataType.TIMESTAMP);
+    List<IMeasurementSchema> measurementSchemaList = new ArrayList<>();
+    for (int j = 0; j < types.size(); j++) {
+      measurementSchemaList.add(new MeasurementSchema("s" + j, types.get(j)));
+    }
+    try (TsFileWriter writer = new TsFileWriter(file)) {
+      writer.registerTimeseries(new Path("root.db.d1"), measurementSchemaList);
+      writer.registerAlignedTimeseries("root.db.d2", measurementSchemaList);
+      for (int batch = 0; batch < 2; batch++) {
+        for (String device : Arrays.asList("root.db.d1", "root.db.d2")) {
+          Tablet tablet = new Tablet(device, measurementSchemaList, 10);
+          for (int row = 0; row < 10; row++) {
+            int time = batch * 10 + row;
+            tablet.addTimestamp(row, time);
+            tablet.addValue(row, 0, time % 2 == 0);
+            tablet.addValue(row, 1, time);
+            tablet.addValue(row, 2, (long) time * 3);
+            tablet.addValue(row, 3, time / 4.0f);
+            tablet.addValue(row, 4, time / 8.0);
+            tablet.addValue(row, 5, "text" + time);
+            tablet.addValue(row, 6, "string" + time);
+            tablet.addValue(row, 7, ("blob" + time).getBytes(StandardCharsets.UTF_8));
+            tablet.addValue(row, 8, LocalDate.of(2000, 1, 1 + time));
+            tablet.addValue(row, 9, (long) time * 1000);
+          }
+          if (device.equals("root.db.d1")) {
+            writer.writeTree(tablet);
+          } else {
+            writer.writeAligned(tablet);
+          }
+        }
+        writer.flush();
+      }
+    }
+  }
+
+  private List<Pair<IDeviceID, List<Pair<String, TimeValuePair>>>> readAllLast(boolean ignoreBlob)
+      throws Exception {
+    List<Pair<IDeviceID, List<Pair<String, TimeValuePair>>>> result = new ArrayList<>();
+    try (TsFileLastReader lastReader = new TsFileLastReader(filePath, false, ignoreBlob)) {
+      while (lastReader.hasNext()) {
+        result.add(lastReader.next());
+      }
+    }
+    return result;
+  }
+
   @Ignore("Performance")
   @Test
   public void testManyRead() throws Exception {
@@ -18,8 +18,17 @@
  */
 package org.apache.tsfile.utils;
 
+import org.apache.tsfile.file.metadata.IDeviceID;
+import org.apache.tsfile.file.metadata.StringArrayDeviceID;
+import org.apache.tsfile.read.common.Path;
+
 import org.junit.Test;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 public class BloomFilterTest {
@@ -63,4 +72,64 @@ public class BloomFilterTest {
     assertTrue(filter1.contains(value2));
     assertTrue(filter1.contains(value3));
   }
+
+  @Test
+  public void testBlockedBloomFilter() {
+    int seriesNum = 10_000;
+    BloomFilter filter =
+        BloomFilter.getEmptyBloomFilter(
+            0.05, seriesNum + seriesNum / 10, BloomFilter.BLOCKED_VERSION);
+    for (int i = 0; i < seriesNum; i++) {
+      IDeviceID deviceID = new StringArrayDeviceID("root.sg.d" + i / 10);
+      if (i % 10 == 0) {
+        filter.addDevice(deviceID);
+      }
+      filter.add(new Path(deviceID, "s" + i % 10, false));
+    }
+
+    BloomFilter deserialized = serializeAndDeserialize(filter);
+    assertTrue(deserialized instanceof BlockedBloomFilter);
+    assertEquals(filter, deserialized);
+    for (int i = 0; i < seriesNum; i++) {
+      IDeviceID deviceID = new StringArrayDeviceID("root.sg.d" + i / 10);
+      String fullPath = deviceID + "." + "s" + i % 10;
+      assertTrue(deserialized.contains(fullPath));
+      assertTrue(deserialized.contains(deviceID, "s" + i % 10));
+      assertTrue(deserialized.containsDevice(deviceID));
+    }
+
+    // devices and series do not share keys
+    int falsePositives = 0;
+    for (int i = 0; i < seriesNum; i++) {
+      if (deserialized.contains("root.sg.x" + i + ".s0")) {
+        falsePositives++;
+      }
+      if (deserialized.containsDevice(new StringArrayDeviceID("root.sg.x" + i))) {
+        falsePositives++;
+      }
+    }
+    assertTrue(falsePositives < seriesNum * 2 * 0.1);
+  }
+
+  @Test
+  public void testLegacyBloomFilterSerialization() {
+    BloomFilter filter = BloomFilter.getEmptyBloomFilter(0.05, 3, BloomFilter.LEGACY_VERSION);
+    filter.add("device1.s1");
+    filter.addDevice(new StringArrayDeviceID("device1"));
+    BloomFilter deserialized = serializeAndDeserialize(filter);
+    assertFalse(deserialized instanceof BlockedBloomFilter);
+    assertEquals(filter, deserialized);
+    assertTrue(deserialized.contains(new StringArrayDeviceID("device1"), "s1"));
+    assertTrue(deserialized.containsDevice(new StringArrayDeviceID("device2")));
+  }
+
+  private BloomFilter serializeAndDeserialize(BloomFilter filter) {
+    PublicBAOS out = new PublicBAOS();
+    try {
+      filter.serialize(out);
+    } catch (IOException e) {
+      throw new AssertionError(e);
+    }
+    return BloomFilter.deserialize(ByteBuffer.wrap(out.getBuf(), 0, out.size()));
+  }
 }
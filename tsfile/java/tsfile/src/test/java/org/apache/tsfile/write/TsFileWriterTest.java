@@ -19,25 +19,42 @@
 
 package org.apache.tsfile.write;
 
+import org.apache.tsfile.common.conf.TSFileConfig;
+import org.apache.tsfile.common.conf.TSFileDescriptor;
+import org.apache.tsfile.encoding.encoder.Encoder;
 import org.apache.tsfile.enums.TSDataType;
 import org.apache.tsfile.exception.encoding.TsFileEncodingException;
 import org.apache.tsfile.exception.write.NoMeasurementException;
 import org.apache.tsfile.exception.write.WriteProcessException;
+import org.apache.tsfile.file.metadata.AbstractAlignedChunkMetadata;
+import org.apache.tsfile.file.metadata.ChunkMetadata;
+import org.apache.tsfile.file.metadata.IDeviceID;
 import org.apache.tsfile.file.metadata.enums.CompressionType;
 import org.apache.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.tsfile.read.TsFileCheckStatus;
 import org.apache.tsfile.read.TsFileReader;
 import org.apache.tsfile.read.TsFileSequenceReader;
+import org.apache.tsfile.read.common.Chunk;
 import org.apache.tsfile.read.common.Path;
 import org.apache.tsfile.read.common.RowRecord;
+import org.apache.tsfile.read.common.block.TsBlock;
+import org.apache.tsfile.read.controller.CachedChunkLoaderImpl;
 import org.apache.tsfile.read.expression.QueryExpression;
+import org.apache.tsfile.read.filter.factory.TimeFilterApi;
 import org.apache.tsfile.read.query.dataset.QueryDataSet;
+import org.apache.tsfile.read.reader.IPageReader;
+import org.apache.tsfile.read.reader.chunk.ChunkReader;
 import org.apache.tsfile.utils.TsFileGeneratorForTest;
+import org.apache.tsfile.write.chunk.AlignedChunkGroupWriterImpl;
 import org.apache.tsfile.write.record.TSRecord;
 import org.apache.tsfile.write.record.Tablet;
+import org.apache.tsfile.write.record.datapoint.DoubleDataPoint;
 import org.apache.tsfile.write.record.datapoint.FloatDataPoint;
 import org.apache.tsfile.write.record.datapoint.IntDataPoint;
+import org.apache.tsfile.write.record.datapoint.LongDataPoint;
 import org.apache.tsfile.write.schema.IMeasurementSchema;
 import org.apache.tsfile.write.schema.MeasurementSchema;
+import org.apache.tsfile.write.schema.Schema;
 
 import org.junit.After;
 import org.junit.Assert;
@@ -49,7 +66,10 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -347,4 +367,535 @@ public class TsFileWriterTest {
       fail(e.getMessage());
     }
   }
+
+  @Test
+  public void parallelFlushTest() throws IOException, WriteProcessException {
+    File serialFile = new File(TsFileGeneratorForTest.getTestTsFilePath("root.sg1", 0, 0, 2));
+    File parallelFile = new File(TsFileGeneratorForTest.getTestTsFilePath("root.sg1", 0, 0, 3));
+    TSFileConfig config = TSFileDescriptor.getInstance().getConfig();
+    int flushParallelism = config.getFlushParallelism();
+    int maxNumberOfPointsInPage = config.getMaxNumberOfPointsInPage();
+    try {
+      // many small pages, so that full pages are sealed off the writer thread as well
+      config.setMaxNumberOfPointsInPage(100);
+      writeFileForFlushTest(serialFile, 1);
+      config.setFlushParallelism(4);
+      writeFileForFlushTest(parallelFile, 4);
+      // sealing pages and chunk groups concurrently must not change a single byte of the file
+      Assert.assertArrayEquals(
+          Files.readAllBytes(serialFile.toPath()), Files.readAllBytes(parallelFile.toPath()));
+    } finally {
+      config.setFlushParallelism(flushParallelism);
+      config.setMaxNumberOfPointsInPage(maxNumberOfPointsInPage);
+      Files.deleteIfExists(serialFile.toPath());
+      Files.deleteIfExists(parallelFile.toPath());
+    }
+  }
+
+  private void writeFileForFlushTest(File file, int flushParallelism)
+      throws IOException, WriteProcessException {
+    try (TsFileWriter tsFileWriter = new TsFileWriter(file)) {
+      tsFileWriter.setFlushParallelism(flushParallelism);
+      List<IMeasurementSchema> schemas = new ArrayList<>();
+      schemas.add(
+          new MeasurementSchema("s1", TSDataType.DOUBLE, TSEncoding.DEXOR, CompressionType.LZ4));
+      schemas.add(
+          new MeasurementSchema("s2", TSDataType.INT64, TSEncoding.TS_2DIFF, CompressionType.LZ4));
+      int deviceNum = 8;
+      for (int i = 0; i < deviceNum; i++) {
+        if (i % 2 == 0) {
+          tsFileWriter.registerTimeseries(new Path("d" + i), schemas);
+        } else {
+          tsFileWriter.registerAlignedTimeseries(new Path("d" + i), schemas);
+        }
+      }
+      long time = 0;
+      for (int round = 0; round < 3; round++) {
+        for (int row = 0; row < 1000; row++, time++) {
+          for (int i = 0; i < deviceNum; i++) {
+            TSRecord record = new TSRecord("d" + i, time);
+            record.addTuple(new DoubleDataPoint("s1", i + time / 100.0));
+            record.addTuple(new LongDataPoint("s2", i * time));
+            tsFileWriter.writeRecord(record);
+          }
+        }
+        tsFileWriter.flush();
+      }
+    }
+  }
+
+  @Test
+  public void lossyDeXORTest() throws IOException, WriteProcessException {
+    File file = new File(TsFileGeneratorForTest.getTestTsFilePath("root.sg1", 0, 0, 7));
+    Map<String, String> quantizeProps = new HashMap<>();
+    quantizeProps.put("loss", "quantize");
+    quantizeProps.put(Encoder.MAX_POINT_NUMBER, "2");
+    Map<String, String> sdtProps = new HashMap<>();
+    sdtProps.put("loss", "sdt");
+    sdtProps.put("compdev", "0.5");
+    int rowNum = 20000;
+    double[] expected = new double[rowNum];
+    try {
+      try (TsFileWriter tsFileWriter = new TsFileWriter(file)) {
+        tsFileWriter.registerTimeseries(
+            new Path("d1"),
+            Arrays.asList(
+                new MeasurementSchema(
+                    "s1",
+                    TSDataType.DOUBLE,
+                    TSEncoding.DEXOR,
+                    CompressionType.UNCOMPRESSED,
+                    quantizeProps),
+                new MeasurementSchema(
+                    "s2", TSDataType.DOUBLE, TSEncoding.DEXOR, CompressionType.UNCOMPRESSED),
+                new MeasurementSchema(
+                    "s3",
+                    TSDataType.DOUBLE,
+                    TSEncoding.DEXOR,
+                    CompressionType.UNCOMPRESSED,
+                    sdtProps)));
+        for (int row = 0; row < rowNum; row++) {
+          // a vibration-like signal with far more digits than the tolerance needs
+          expected[row] = 3 * Math.sin(row / 7.0) + Math.cos(row / 3.0) / 7;
+          TSRecord record = new TSRecord("d1", row);
+          record.addTuple(new DoubleDataPoint("s1", expected[row]));
+          record.addTuple(new DoubleDataPoint("s2", expected[row]));
+          record.addTuple(new DoubleDataPoint("s3", expected[row]));
+          tsFileWriter.writeRecord(record);
+        }
+      }
+
+      try (TsFileSequenceReader reader = new TsFileSequenceReader(file.getPath())) {
+        IDeviceID deviceId = IDeviceID.Factory.DEFAULT_FACTORY.create("d1");
+        assertEquals(0.005, reader.getErrorBound(deviceId, "s1"), 0);
+        assertEquals(0, reader.getErrorBound(deviceId, "s2"), 0);
+        assertEquals(0.5, reader.getErrorBound(deviceId, "s3"), 0);
+        // the quantized series takes a fraction of the space of the exact one
+        long quantizedSize =
+            reader
+                .readMemChunk(reader.getChunkMetadataList(new Path("d1", "s1", true)).get(0))
+                .getHeader()
+                .getDataSize();
+        long exactSize =
+            reader
+                .readMemChunk(reader.getChunkMetadataList(new Path("d1", "s2", true)).get(0))
+                .getHeader()
+                .getDataSize();
+        assertTrue(quantizedSize * 2 < exactSize);
+
+        try (TsFileReader tsFileReader = new TsFileReader(reader)) {
+          QueryDataSet dataSet =
+              tsFileReader.query(
+                  QueryExpression.create()
+                      .addSelectedPath(new Path("d1", "s1", true))
+                      .addSelectedPath(new Path("d1", "s2", true)));
+          int row = 0;
+          while (dataSet.hasNext()) {
+            RowRecord record = dataSet.next();
+            double s1 = record.getFields().get(0).getDoubleV();
+            assertEquals(expected[row], s1, 0.005 + 1e-9);
+            assertEquals(expected[row], record.getFields().get(1).getDoubleV(), 1e-9);
+            row++;
+          }
+          assertEquals(rowNum, row);
+        }
+      }
+    } finally {
+      Files.deleteIfExists(file.toPath());
+    }
+  }
+
+  @Test
+  public void lossyLargeDoubleTest() throws IOException, WriteProcessException {
+    File file = new File(TsFileGeneratorForTest.getTestTsFilePath("root.sg1", 0, 0, 11));
+    Map<String, String> quantizeProps = new HashMap<>();
+    quantizeProps.put("loss", "quantize");
+    quantizeProps.put(Encoder.MAX_POINT_NUMBER, "2");
+    double[] expected = {
+      Double.MAX_VALUE,
+      -Double.MAX_VALUE,
+      1e307,
+      Math.nextDown(0x1p52 / 100),
+      0x1p52 / 100,
+      -0x1p52 / 100,
+      123456789012.345678,
+      Double.POSITIVE_INFINITY,
+      Double.NaN,
+      0.125
+    };
+    try {
+      try (TsFileWriter tsFileWriter = new TsFileWriter(file)) {
+        tsFileWriter.registerTimeseries(
+            new Path("d1"),
+            new MeasurementSchema(
+                "s1",
+                TSDataType.DOUBLE,
+                TSEncoding.PLAIN,
+                CompressionType.UNCOMPRESSED,
+                quantizeProps));
+        for (int row = 0; row < expected.length; row++) {
+          TSRecord record = new TSRecord("d1", row);
+          record.addTuple(new DoubleDataPoint("s1", expected[row]));
+          tsFileWriter.writeRecord(record);
+        }
+      }
+
+      try (TsFileSequenceReader reader = new TsFileSequenceReader(file.getPath())) {
+        double errorBound =
+            reader.getErrorBound(IDeviceID.Factory.DEFAULT_FACTORY.create("d1"), "s1");
+        // the scaling rounds as well, the bound is wider than half a quantization step here
+        assertTrue(errorBound > 0.005 && errorBound < 0.01);
+        try (TsFileReader tsFileReader = new TsFileReader(reader)) {
+          QueryDataSet dataSet =
+              tsFileReader.query(
+                  QueryExpression.create().addSelectedPath(new Path("d1", "s1", true)));
+          int row = 0;
+          while (dataSet.hasNext()) {
+            double value = dataSet.next().getFields().get(0).getDoubleV();
+            if (!(Math.abs(expected[row]) < 0x1p52 / 100)) {
+              // NaN and values without a fraction at the scale are neither rounded nor overflowed
+              assertEquals(Double.doubleToLongBits(expected[row]), Double.doubleToLongBits(value));
+            } else {
+              assertTrue(Math.abs(value - expected[row]) <= errorBound);
+            }
+            row++;
+          }
+          assertEquals(expected.length, row);
+        }
+      }
+    } finally {
+      Files.deleteIfExists(file.toPath());
+    }
+  }
+
+  @Test
+  public void lossyFloatTest() throws IOException, WriteProcessException {
+    File file = new File(TsFileGeneratorForTest.getTestTsFilePath("root.sg1", 0, 0, 9));
+    Map<String, String> quantizeProps = new HashMap<>();
+    quantizeProps.put("loss", "quantize");
+    quantizeProps.put(Encoder.MAX_POINT_NUMBER, "3");
+    int rowNum = 10000;
+    float[] expected = new float[rowNum];
+    try {
+      try (TsFileWriter tsFileWriter = new TsFileWriter(file)) {
+        tsFileWriter.registerTimeseries(
+            new Path("d1"),
+            new MeasurementSchema(
+                "s1",
+                TSDataType.FLOAT,
+                TSEncoding.GORILLA,
+                CompressionType.UNCOMPRESSED,
+                quantizeProps));
+        for (int row = 0; row < rowNum; row++) {
+          expected[row] = (float) (300 + 200 * Math.sin(row / 7.0));
+          TSRecord record = new TSRecord("d1", row);
+          record.addTuple(new FloatDataPoint("s1", expected[row]));
+          tsFileWriter.writeRecord(record);
+        }
+      }
+
+      try (TsFileSequenceReader reader = new TsFileSequenceReader(file.getPath())) {
+        double errorBound =
+            reader.getErrorBound(IDeviceID.Factory.DEFAULT_FACTORY.create("d1"), "s1");
+        // the cast to float makes an error beyond half a quantization step
+        assertTrue(errorBound > 0.0005);
+        try (TsFileReader tsFileReader = new TsFileReader(reader)) {
+          QueryDataSet dataSet =
+              tsFileReader.query(
+                  QueryExpression.create().addSelectedPath(new Path("d1", "s1", true)));
+          int row = 0;
+          while (dataSet.hasNext()) {
+            float value = dataSet.next().getFields().get(0).getFloatV();
+            assertTrue(Math.abs((double) value - expected[row]) <= errorBound);
+            row++;
+          }
+          assertEquals(rowNum, row);
+        }
+      }
+    } finally {
+      Files.deleteIfExists(file.toPath());
+    }
+  }
+
+  @Test
+  public void lossyAlignedTest() throws IOException, WriteProcessException {
+    File file = new File(TsFileGeneratorForTest.getTestTsFilePath("root.sg1", 0, 0, 10));
+    Map<String, String> quantizeProps = new HashMap<>();
+    quantizeProps.put("loss", "quantize");
+    try {
+      try (TsFileWriter tsFileWriter = new TsFileWriter(file)) {
+        tsFileWriter.registerAlignedTimeseries(
+            new Path("d1"),
+            Collections.singletonList(
+                new MeasurementSchema(
+                    "s1",
+                    TSDataType.DOUBLE,
+                    TSEncoding.GORILLA,
+                    CompressionType.UNCOMPRESSED,
+                    quantizeProps)));
+        TSRecord record = new TSRecord("d1", 1);
+        record.addTuple(new DoubleDataPoint("s1", 1.2345));
+        // the value columns of aligned series do not quantize
+        tsFileWriter.writeRecord(record);
+        fail();
+      } catch (UnsupportedOperationException e) {
+        assertTrue(e.getMessage().contains("s1"));
+      }
+    } finally {
+      Files.deleteIfExists(file.toPath());
+    }
+  }
+
+  @Test
+  public void columnarTabletWriteTest() throws IOException, WriteProcessException {
+    File tabletFile = new File(TsFileGeneratorForTest.getTestTsFilePath("root.sg1", 0, 0, 5));
+    File recordFile = new File(TsFileGeneratorForTest.getTestTsFilePath("root.sg1", 0, 0, 6));
+    List<IMeasurementSchema> schemas = new ArrayList<>();
+    schemas.add(new MeasurementSchema("s1", TSDataType.DOUBLE, TSEncoding.DEXOR));
+    schemas.add(new MeasurementSchema("s2", TSDataType.INT64, TSEncoding.TS_2DIFF));
+    schemas.add(new MeasurementSchema("s3", TSDataType.FLOAT, TSEncoding.GORILLA));
+    schemas.add(new MeasurementSchema("s4", TSDataType.INT32, TSEncoding.RLE));
+    int rowNum = 50000;
+    int tabletSize = 7000;
+    try {
+      try (TsFileWriter tabletWriter = new TsFileWriter(tabletFile);
+          TsFileWriter recordWriter = new TsFileWriter(recordFile)) {
+        tabletWriter.registerTimeseries(new Path("d1"), schemas);
+        recordWriter.registerTimeseries(new Path("d1"), schemas);
+        Tablet tablet = new Tablet("d1", schemas, tabletSize);
+        for (int row = 0; row < rowNum; row++) {
+          double value = Math.round(2000 + 300 * Math.sin(row / 40.0)) / 100.0;
+          int rowIndex = tablet.getRowSize();
+          tablet.addTimestamp(rowIndex, row * 10L);
+          TSRecord record = new TSRecord("d1", row * 10L);
+          if (row % 9 != 1) {
+            tablet.addValue(rowIndex, 0, value);
+            record.addTuple(new DoubleDataPoint("s1", value));
+          }
+          tablet.addValue(rowIndex, 1, (long) row * row);
+          record.addTuple(new LongDataPoint("s2", (long) row * row));
+          if (row % 1000 < 990) {
+            tablet.addValue(rowIndex, 2, (float) value);
+            record.addTuple(new FloatDataPoint("s3", (float) value));
+          }
+          tablet.addValue(rowIndex, 3, row % 17);
+          record.addTuple(new IntDataPoint("s4", row % 17));
+          recordWriter.writeRecord(record);
+          if (tablet.getRowSize() == tabletSize) {
+            tabletWriter.writeTree(tablet);
+            tablet.reset();
+          }
+        }
+        if (tablet.getRowSize() > 0) {
+          tabletWriter.writeTree(tablet);
+        }
+      }
+      // pages are sealed at the same points, so both files have the same bytes
+      Assert.assertArrayEquals(
+          Files.readAllBytes(recordFile.toPath()), Files.readAllBytes(tabletFile.toPath()));
+    } finally {
+      Files.deleteIfExists(tabletFile.toPath());
+      Files.deleteIfExists(recordFile.toPath());
+    }
+  }
+
+  @Test
+  public void crossColumnDeXORTest() throws IOException, WriteProcessException {
+    File file = new File(TsFileGeneratorForTest.getTestTsFilePath("root.sg1", 0, 0, 4));
+    // the last chunks have only one page
+    int rowNum = 30500;
+    Double[][] expected = new Double[rowNum][3];
+    try (TsFileWriter tsFileWriter = new TsFileWriter(file)) {
+      List<IMeasurementSchema> schemas = new ArrayList<>();
+      schemas.add(
+          new MeasurementSchema("s1", TSDataType.DOUBLE, TSEncoding.GORILLA, CompressionType.LZ4));
+      schemas.add(crossColumnSchema("s2", "s1"));
+      schemas.add(crossColumnSchema("s3", "s1"));
+      tsFileWriter.registerAlignedTimeseries(new Path("d1"), schemas);
+      for (int row = 0; row < rowNum; row++) {
+        // the noise makes the same-row reference closer than the previous value
+        double phase =
+            Math.round(22000 + 500 * Math.sin(row / 50.0) + (row * 7919 % 601) - 300) / 100.0;
+        expected[row][0] = row % 11 == 0 ? null : phase;
+        expected[row][1] = row % 13 == 0 ? null : phase + 0.05;
+        expected[row][2] = row % 101 == 0 ? Math.PI * row : phase - 0.1;
+        TSRecord record = new TSRecord("d1", row);
+        // the referencing columns may arrive before their reference
+        for (int column = 2; column >= 0; column--) {
+          if (expected[row][column] != null) {
+            record.addTuple(new DoubleDataPoint("s" + (column + 1), expected[row][column]));
+          }
+        }
+        tsFileWriter.writeRecord(record);
+        if (row % 10000 == 9999) {
+          tsFileWriter.flush();
+        }
+      }
+    }
+
+    try (TsFileReader tsFileReader = new TsFileReader(new TsFileSequenceReader(file.getPath()))) {
+      QueryDataSet dataSet =
+          tsFileReader.query(
+              QueryExpression.create()
+                  .addSelectedPath(new Path("d1", "s1", true))
+                  .addSelectedPath(new Path("d1", "s2", true))
+                  .addSelectedPath(new Path("d1", "s3", true)));
+      int row = 0;
+      while (dataSet.hasNext()) {
+        RowRecord record = dataSet.next();
+        assertEquals(row, record.getTimestamp());
+        for (int column = 0; column < 3; column++) {
+          if (expected[row][column] == null) {
+            Assert.assertNull(record.getFields().get(column));
+          } else {
+            assertEquals(expected[row][column], record.getFields().get(column).getDoubleV(), 1e-9);
+          }
+        }
+        row++;
+      }
+      assertEquals(rowNum, row);
+    }
+
+    try (TsFileReader tsFileReader = new TsFileReader(new TsFileSequenceReader(file.getPath()))) {
+      // the reference column is not selected
+      QueryDataSet dataSet =
+          tsFileReader.query(QueryExpression.create().addSelectedPath(new Path("d1", "s2", true)));
+      int row = 0;
+      while (dataSet.hasNext()) {
+        RowRecord record = dataSet.next();
+        while (expected[row][1] == null) {
+          row++;
+        }
+        assertEquals(row, record.getTimestamp());
+        assertEquals(expected[row][1], record.getFields().get(0).getDoubleV(), 1e-9);
+        row++;
+      }
+      assertEquals(rowNum, row);
+    }
+
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(file.getPath())) {
+      CachedChunkLoaderImpl chunkLoader = new CachedChunkLoaderImpl(reader);
+      // the reference is located by its measurement id, without the time chunk as well
+      int referenceChunkNum = 0;
+      for (AbstractAlignedChunkMetadata alignedChunkMetadata :
+          reader.getAlignedChunkMetadata(IDeviceID.Factory.DEFAULT_FACTORY.create("d1"), true)) {
+        for (int column = 1; column < 3; column++) {
+          Chunk chunk =
+              chunkLoader.loadChunk(
+                  (ChunkMetadata) alignedChunkMetadata.getValueChunkMetadataList().get(column));
+          Chunk referenceChunk = chunk.getCrossColumnReferenceChunk();
+          if (referenceChunk != null) {
+            assertEquals("s1", referenceChunk.getHeader().getMeasurementID());
+            referenceChunkNum++;
+          }
+        }
+      }
+      assertTrue(referenceChunkNum > 0);
+      // the single page value chunks are decoded with their reference
+      assertEquals(
+          TsFileCheckStatus.COMPLETE_FILE,
+          reader.selfCheck(new Schema(), new ArrayList<>(), false));
+    } finally {
+      Files.deleteIfExists(file.toPath());
+    }
+  }
+
+  @Test
+  public void crossColumnDeXORReferenceTest() throws IOException {
+    List<IMeasurementSchema> schemas = new ArrayList<>();
+    schemas.add(new MeasurementSchema("s1", TSDataType.DOUBLE, TSEncoding.GORILLA));
+    schemas.add(new MeasurementSchema("s2", TSDataType.INT64, TSEncoding.PLAIN));
+    schemas.add(crossColumnSchema("s3", "s1"));
+    schemas.add(new MeasurementSchema("s4", TSDataType.DOUBLE, TSEncoding.DEXOR_CROSS));
+    schemas.add(crossColumnSchema("s5", "s2"));
+    schemas.add(crossColumnSchema("s6", "s3"));
+    schemas.add(crossColumnSchema("s7", "s8"));
+    for (int i = 3; i < schemas.size(); i++) {
+      AlignedChunkGroupWriterImpl groupWriter =
+          new AlignedChunkGroupWriterImpl(IDeviceID.Factory.DEFAULT_FACTORY.create("d1"));
+      groupWriter.tryToAddSeriesWriter(schemas.subList(0, 3));
+      try {
+        // a missing, non-DOUBLE or DEXOR_CROSS reference is not replaced by another column
+        groupWriter.tryToAddSeriesWriter(schemas.get(i));
+        fail(schemas.get(i).getMeasurementName());
+      } catch (UnsupportedOperationException e) {
+        // expected
+      }
+    }
+  }
+
+  private static IMeasurementSchema crossColumnSchema(String measurementId, String reference) {
+    return new MeasurementSchema(
+        measurementId,
+        TSDataType.DOUBLE,
+        TSEncoding.DEXOR_CROSS,
+        TSFileDescriptor.getInstance().getConfig().getCompressor(),
+        Collections.singletonMap(Encoder.REFERENCE, reference));
+  }
+
+  @Test
+  public void timedDeXORTest() throws IOException, WriteProcessException {
+    File file = new File(TsFileGeneratorForTest.getTestTsFilePath("root.sg1", 0, 0, 8));
+    int rowNum = 50000;
+    long[] times = new long[rowNum];
+    double[] expected = new double[rowNum];
+    try {
+      try (TsFileWriter tsFileWriter = new TsFileWriter(file)) {
+        tsFileWriter.registerTimeseries(
+            new Path("d1"),
+            Arrays.asList(
+                new MeasurementSchema("s1", TSDataType.DOUBLE, TSEncoding.DEXOR_TIMED),
+                new MeasurementSchema("s2", TSDataType.DOUBLE, TSEncoding.DEXOR)));
+        long time = 1700000000000L;
+        for (int row = 0; row < rowNum; row++) {
+          // 1 Hz with a gap now and then
+          time += row % 7000 == 0 ? 3600_000L : 1000L;
+          times[row] = time;
+          expected[row] = Math.round(2000 + 300 * Math.sin(row / 600.0)) / 100.0;
+          TSRecord record = new TSRecord("d1", time);
+          record.addTuple(new DoubleDataPoint("s1", expected[row]));
+          record.addTuple(new DoubleDataPoint("s2", expected[row]));
+          tsFileWriter.writeRecord(record);
+        }
+      }
+
+      try (TsFileSequenceReader reader = new TsFileSequenceReader(file.getPath())) {
+        Chunk timed =
+            reader.readMemChunk(reader.getChunkMetadataList(new Path("d1", "s1", true)).get(0));
+        Chunk plain =
+            reader.readMemChunk(reader.getChunkMetadataList(new Path("d1", "s2", true)).get(0));
+        // the time column shrinks to a few bytes per page
+        assertTrue(timed.getHeader().getDataSize() < plain.getHeader().getDataSize());
+
+        // the fused page decoding, with a time filter cutting through a page
+        int from = rowNum / 3;
+        ChunkReader chunkReader = new ChunkReader(timed, TimeFilterApi.gtEq(times[from]));
+        int row = from;
+        for (IPageReader pageReader : chunkReader.loadPageReaderList()) {
+          TsBlock block = pageReader.getAllSatisfiedData();
+          for (int i = 0; i < block.getPositionCount(); i++, row++) {
+            assertEquals(times[row], block.getTimeByIndex(i));
+            assertEquals(expected[row], block.getColumn(0).getDouble(i), 1e-9);
+          }
+        }
+        assertEquals(rowNum, row);
+
+        try (TsFileReader tsFileReader = new TsFileReader(reader)) {
+          QueryDataSet dataSet =
+              tsFileReader.query(
+                  QueryExpression.create().addSelectedPath(new Path("d1", "s1", true)));
+          row = 0;
+          while (dataSet.hasNext()) {
+            RowRecord record = dataSet.next();
+            assertEquals(times[row], record.getTimestamp());
+            assertEquals(expected[row], record.getFields().get(0).getDoubleV(), 1e-9);
+            row++;
+          }
+          assertEquals(rowNum, row);
+        }
+      }
+    } finally {
+      Files.deleteIfExists(file.toPath());
+    }
+  }
 }
@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.write.writer;
+
+import org.apache.tsfile.common.conf.TSFileConfig;
+import org.apache.tsfile.common.conf.TSFileDescriptor;
+import org.apache.tsfile.encoding.encoder.Encoder;
+import org.apache.tsfile.encoding.encoder.PlainEncoder;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.file.header.ChunkHeader;
+import org.apache.tsfile.file.metadata.enums.CompressionType;
+import org.apache.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.tsfile.read.common.BatchData;
+import org.apache.tsfile.read.common.Chunk;
+import org.apache.tsfile.read.reader.chunk.ChunkReader;
+import org.apache.tsfile.utils.PublicBAOS;
+import org.apache.tsfile.write.chunk.ChunkWriterImpl;
+import org.apache.tsfile.write.schema.MeasurementSchema;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.assertEquals;
+
+public class ChunkWriterImplTest {
+
+  @Test
+  public void testFailedFirstPageSealedInBackground() throws IOException {
+    TSFileConfig config = TSFileDescriptor.getInstance().getConfig();
+    int flushParallelism = config.getFlushParallelism();
+    try {
+      config.setFlushParallelism(4);
+      ChunkWriterImpl chunkWriter = new ChunkWriterImpl(new FirstPageFailingSchema());
+      for (int page = 0; page < 3; page++) {
+        for (long time = page * 100L; time < page * 100L + 100; time++) {
+          chunkWriter.write(time, time);
+        }
+        chunkWriter.sealCurrentPage();
+      }
+      TestTsFileOutput output = new TestTsFileOutput();
+      TsFileIOWriter writer = new TsFileIOWriter(output, true);
+      chunkWriter.writeToFileWriter(writer);
+
+      // the page after the failed one becomes the first page of the chunk
+      PublicBAOS out = output.publicBAOS;
+      ByteBuffer buffer = ByteBuffer.wrap(out.getBuf(), 0, out.size());
+      ChunkHeader header = ChunkHeader.deserializeFrom(buffer);
+      ChunkReader chunkReader = new ChunkReader(new Chunk(header, buffer.slice()));
+      long time = 100;
+      while (chunkReader.hasNextSatisfiedPage()) {
+        BatchData batchData = chunkReader.nextPageData();
+        while (batchData.hasCurrent()) {
+          assertEquals(time, batchData.currentTime());
+          assertEquals(time, batchData.getLong());
+          time++;
+          batchData.next();
+        }
+      }
+      assertEquals(300, time);
+    } finally {
+      config.setFlushParallelism(flushParallelism);
+    }
+  }
+
+  /** A schema whose value encoders fail when the page holding the value 0 is sealed. */
+  private static class FirstPageFailingSchema extends MeasurementSchema {
+
+    private FirstPageFailingSchema() {
+      super("s1", TSDataType.INT64, TSEncoding.PLAIN, CompressionType.LZ4);
+    }
+
+    @Override
+    public Encoder getValueEncoder() {
+      return new PlainEncoder(TSDataType.INT64, 0) {
+
+        private boolean firstPage;
+
+        @Override
+        public void encode(long value, ByteArrayOutputStream out) {
+          firstPage |= value == 0;
+          super.encode(value, out);
+        }
+
+        @Override
+        public void flush(ByteArrayOutputStream out) {
+          if (firstPage) {
+            throw new IllegalStateException("failed to seal the page");
+          }
+          super.flush(out);
+        }
+      };
+    }
+  }
+}
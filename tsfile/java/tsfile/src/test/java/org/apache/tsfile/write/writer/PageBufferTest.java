@@ -0,0 +1,157 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tsfile.write.writer;
+
+import org.apache.tsfile.common.conf.TSFileConfig;
+import org.apache.tsfile.common.conf.TSFileDescriptor;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.file.header.ChunkHeader;
+import org.apache.tsfile.file.metadata.enums.CompressionType;
+import org.apache.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.tsfile.read.common.BatchData;
+import org.apache.tsfile.read.common.Chunk;
+import org.apache.tsfile.read.reader.chunk.ChunkReader;
+import org.apache.tsfile.utils.PublicBAOS;
+import org.apache.tsfile.write.chunk.ChunkWriterImpl;
+import org.apache.tsfile.write.page.PageBuffer;
+import org.apache.tsfile.write.page.PageBufferPool;
+import org.apache.tsfile.write.schema.MeasurementSchema;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PageBufferTest {
+
+  private final TSFileConfig config = TSFileDescriptor.getInstance().getConfig();
+  private long pageBufferPoolSize;
+
+  @Before
+  public void setUp() {
+    pageBufferPoolSize = config.getPageBufferPoolSizeInByte();
+    config.setPageBufferPoolSizeInByte(64 * 1024 * 1024);
+    PageBufferPool.clear();
+  }
+
+  @After
+  public void tearDown() {
+    PageBufferPool.clear();
+    config.setPageBufferPoolSizeInByte(pageBufferPoolSize);
+  }
+
+  @Test
+  public void testGrowInsertAndRelease() {
+    PageBuffer buffer = new PageBuffer();
+    byte[] expected = new byte[1000];
+    for (int i = 0; i < expected.length; i++) {
+      expected[i] = (byte) i;
+    }
+    // grows through several pooled segments, handing the smaller ones back
+    buffer.write(expected, 0, 10);
+    buffer.write(expected, 10, 990);
+    assertArrayEquals(expected, buffer.toByteArray());
+    assertTrue(PageBufferPool.getIdleBytes() > 0);
+    assertEquals(1024, buffer.getBuf().length);
+
+    buffer.reset();
+    buffer.write(new byte[] {1, 2, 5, 6}, 0, 4);
+    buffer.insert(2, new byte[] {9, 3, 4, 9}, 1, 2);
+    assertArrayEquals(new byte[] {1, 2, 3, 4, 5, 6}, buffer.toByteArray());
+
+    long idleBytes = PageBufferPool.getIdleBytes();
+    buffer.release();
+    assertEquals(0, buffer.size());
+    assertEquals(idleBytes + 1024, PageBufferPool.getIdleBytes());
+    // the buffer stays usable and the next segment of the size comes from the pool
+    buffer.write(expected, 0, 1000);
+    assertEquals(idleBytes, PageBufferPool.getIdleBytes());
+    assertArrayEquals(expected, buffer.toByteArray());
+  }
+
+  @Test
+  public void testDisabledPoolAndByteBufferWrite() {
+    config.setPageBufferPoolSizeInByte(0);
+    PageBuffer buffer = new PageBuffer();
+    ByteBuffer direct = ByteBuffer.allocateDirect(1000);
+    for (int i = 0; i < 1000; i++) {
+      direct.put((byte) i);
+    }
+    direct.flip();
+    direct.position(10);
+    buffer.write(direct);
+    buffer.write(ByteBuffer.wrap(new byte[] {1, 2, 3}, 1, 2));
+    assertEquals(992, buffer.size());
+    assertEquals((byte) 10, buffer.getBuf()[0]);
+    assertEquals((byte) 3, buffer.getBuf()[991]);
+    assertEquals(0, direct.remaining());
+    // nothing is kept once the pool is disabled
+    buffer.release();
+    assertEquals(0, PageBufferPool.getIdleBytes());
+  }
+
+  @Test
+  public void testChunksFromPooledBuffers() throws IOException {
+    for (CompressionType compressionType :
+        new CompressionType[] {
+          CompressionType.UNCOMPRESSED, CompressionType.LZ4, CompressionType.GZIP
+        }) {
+      ChunkWriterImpl chunkWriter =
+          new ChunkWriterImpl(
+              new MeasurementSchema("s1", TSDataType.INT64, TSEncoding.TS_2DIFF, compressionType));
+      // the second chunk is written into the segments the first one handed back
+      for (int round = 0; round < 2; round++) {
+        for (int page = 0; page < 3; page++) {
+          for (long time = page * 100L; time < page * 100L + 100; time++) {
+            chunkWriter.write(time, time * round);
+          }
+          chunkWriter.sealCurrentPage();
+        }
+        TestTsFileOutput output = new TestTsFileOutput();
+        TsFileIOWriter writer = new TsFileIOWriter(output, true);
+        chunkWriter.writeToFileWriter(writer);
+        assertTrue(PageBufferPool.getIdleBytes() > 0);
+
+        PublicBAOS out = output.publicBAOS;
+        ByteBuffer buffer = ByteBuffer.wrap(out.getBuf(), 0, out.size());
+        ChunkHeader header = ChunkHeader.deserializeFrom(buffer);
+        assertEquals(compressionType, header.getCompressionType());
+        ChunkReader chunkReader = new ChunkReader(new Chunk(header, buffer.slice()));
+        long time = 0;
+        while (chunkReader.hasNextSatisfiedPage()) {
+          BatchData batchData = chunkReader.nextPageData();
+          while (batchData.hasCurrent()) {
+            assertEquals(time, batchData.currentTime());
+            assertEquals(time * round, batchData.getLong());
+            time++;
+            batchData.next();
+          }
+        }
+        assertEquals(300, time);
+      }
+    }
+  }
+}
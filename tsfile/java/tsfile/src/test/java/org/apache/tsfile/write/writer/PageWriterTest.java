@@ -21,6 +21,7 @@ package org.apache.tsfile.write.writer;
 import org.apache.tsfile.common.conf.TSFileConfig;
 import org.apache.tsfile.constant.TestConstant;
 import org.apache.tsfile.encoding.decoder.PlainDecoder;
+import org.apache.tsfile.encoding.encoder.DoubleDeXOREncoder;
 import org.apache.tsfile.encoding.encoder.PlainEncoder;
 import org.apache.tsfile.enums.TSDataType;
 import org.apache.tsfile.file.metadata.enums.TSEncoding;
@@ -35,6 +36,7 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 public class PageWriterTest {
@@ -217,4 +219,28 @@ public class PageWriterTest {
       fail();
     }
   }
+
+  @Test
+  public void testDeXOREstimateIsExact() throws IOException {
+    PageWriter writer = new PageWriter();
+    writer.setTimeEncoder(new PlainEncoder(TSDataType.INT64, 0));
+    DoubleDeXOREncoder valueEncoder = new DoubleDeXOREncoder();
+    writer.setValueEncoder(valueEncoder);
+    writer.initStatistics(TSDataType.DOUBLE);
+    assertTrue(writer.isSizeExact());
+    for (int count : new int[] {1, 2, 9, 100, 1000, 5000}) {
+      for (int i = 0; i < count; i++) {
+        // every 37th value is an exception
+        writer.write(i, i % 37 == 0 ? Math.E * i : Math.round(Math.sin(i) * 1000) / 100.0);
+      }
+      long estimate = writer.estimateMaxMemSize();
+      ByteBuffer buffer = writer.getUncompressedBytes();
+      ReadWriteForEncodingUtils.readUnsignedVarInt(buffer);
+      long actual = buffer.remaining();
+      // only the ending marker is bounded instead of counted
+      assertTrue(actual <= estimate);
+      assertTrue(estimate - actual <= valueEncoder.getOneItemMaxSize());
+      writer.reset(new MeasurementSchema("s0", TSDataType.DOUBLE, TSEncoding.DEXOR));
+    }
+  }
 }
@@ -18,10 +18,14 @@
  */
 package org.apache.tsfile.write.writer;
 
+import org.apache.tsfile.common.conf.TSFileConfig;
+import org.apache.tsfile.common.conf.TSFileDescriptor;
+import org.apache.tsfile.encoding.encoder.DoubleDeXOREncoder;
 import org.apache.tsfile.encoding.encoder.Encoder;
 import org.apache.tsfile.encoding.encoder.PlainEncoder;
 import org.apache.tsfile.enums.TSDataType;
 import org.apache.tsfile.file.MetaMarker;
+import org.apache.tsfile.file.header.PageHeader;
 import org.apache.tsfile.file.metadata.enums.CompressionType;
 import org.apache.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.tsfile.utils.PublicBAOS;
@@ -35,6 +39,7 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 public class ValueChunkWriterTest {
@@ -106,4 +111,54 @@ public class ValueChunkWriterTest {
       fail();
     }
   }
+
+  @Test
+  public void testDeXORPagesAreSealedFull() throws IOException {
+    TSFileConfig config = TSFileDescriptor.getInstance().getConfig();
+    int pageSizeInByte = config.getPageSizeInByte();
+    int maxNumberOfPointsInPage = config.getMaxNumberOfPointsInPage();
+    config.setPageSizeInByte(2048);
+    config.setMaxNumberOfPointsInPage(Integer.MAX_VALUE);
+    try {
+      ValueChunkWriter chunkWriter =
+          new ValueChunkWriter(
+              "s1",
+              CompressionType.UNCOMPRESSED,
+              TSDataType.DOUBLE,
+              TSEncoding.DEXOR,
+              new DoubleDeXOREncoder());
+      for (int time = 0; time < 20000; time++) {
+        chunkWriter.write(time, Math.round(Math.sin(time) * 10000) / 100.0, time % 10 == 0);
+        if (chunkWriter.checkPageSizeAndMayOpenANewPage()) {
+          chunkWriter.sealCurrentPage();
+        }
+      }
+      chunkWriter.sealCurrentPage();
+
+      TestTsFileOutput testTsFileOutput = new TestTsFileOutput();
+      TsFileIOWriter writer = new TsFileIOWriter(testTsFileOutput, true);
+      chunkWriter.writeAllPagesOfChunkToTsFile(writer);
+      PublicBAOS publicBAOS = testTsFileOutput.publicBAOS;
+      ByteBuffer buffer = ByteBuffer.wrap(publicBAOS.getBuf(), 0, publicBAOS.size());
+      assertEquals(MetaMarker.VALUE_CHUNK_HEADER, ReadWriteIOUtils.readByte(buffer));
+      ReadWriteIOUtils.readVarIntString(buffer);
+      ReadWriteForEncodingUtils.readUnsignedVarInt(buffer);
+      buffer.position(buffer.position() + 3);
+      int pageNum = 0;
+      while (buffer.hasRemaining()) {
+        PageHeader pageHeader = PageHeader.deserializeFrom(buffer, TSDataType.DOUBLE);
+        buffer.position(buffer.position() + pageHeader.getCompressedSize());
+        // every page is filled up to the last value that surely fits
+        assertTrue(pageHeader.getUncompressedSize() <= 2048);
+        if (buffer.hasRemaining()) {
+          assertTrue(pageHeader.getUncompressedSize() > 2048 - 64);
+        }
+        pageNum++;
+      }
+      assertEquals(chunkWriter.getNumOfPages(), pageNum);
+    } finally {
+      config.setPageSizeInByte(pageSizeInByte);
+      config.setMaxNumberOfPointsInPage(maxNumberOfPointsInPage);
+    }
+  }
 }